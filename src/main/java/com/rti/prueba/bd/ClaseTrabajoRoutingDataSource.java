@@ -0,0 +1,87 @@
+package com.rti.prueba.bd;
+
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.service.bulkhead.ContextoTrabajo;
+import com.rti.prueba.service.plazo.Plazo;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * DataSource que reparte las conexiones en un pool Hikari por clase de trabajo.
+ * Los hilos sin clase asignada usan la partición interna, pequeña, para que un trabajo sin clasificar no ocupe las
+ * conexiones de las consultas puntuales; el trabajo de las solicitudes declara siempre su clase.
+ * <p>
+ * Cada sentencia creada con un plazo de solicitud en curso recibe el tiempo restante como query timeout,
+ * también fuera de una transacción (lecturas con propagación SUPPORTS), donde el timeout de la transacción
+ * de {@link PlazoJpaTransactionManager} no llega.
+ */
+public class ClaseTrabajoRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public ClaseTrabajoRoutingDataSource(Map<ClaseTrabajo, HikariDataSource> particiones) {
+        setTargetDataSources(Map.copyOf(particiones));
+        setDefaultTargetDataSource(particiones.get(ClaseTrabajo.INTERNA));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ContextoTrabajo.actual();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conPlazo(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conPlazo(super.getConnection(username, password));
+    }
+
+    /**
+     * Envolver la conexión para aplicar el plazo del hilo que crea cada sentencia
+     */
+    private static Connection conPlazo(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    Object resultado;
+                    try {
+                        resultado = metodo.invoke(conexion, argumentos);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (resultado instanceof Statement sentencia) {
+                        aplicarPlazo(sentencia);
+                    }
+                    return resultado;
+                });
+    }
+
+    private static void aplicarPlazo(Statement sentencia) throws SQLException {
+        Plazo plazo = Plazo.actual();
+        if (plazo == null) {
+            return;
+        }
+        try {
+            sentencia.setQueryTimeout(plazo.segundosRestantes());
+        } catch (RuntimeException e) {
+            sentencia.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (DataSource particion : getResolvedDataSources().values()) {
+            ((HikariDataSource) particion).close();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.rti.prueba.bd;
+
+import com.rti.prueba.service.plazo.Plazo;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Gestor de transacciones JPA que respeta el plazo de la solicitud: no abre transacciones para trabajo
+ * vencido y usa el tiempo restante como timeout de la transacción. Las sentencias sin transacción reciben
+ * el plazo directamente de {@link ClaseTrabajoRoutingDataSource}.
+ */
+public class PlazoJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        Plazo.verificarActual();
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Plazo plazo = Plazo.actual();
+        if (plazo == null) {
+            return timeout;
+        }
+        int restante = plazo.segundosRestantes();
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? restante : Math.min(timeout, restante);
+    }
+}
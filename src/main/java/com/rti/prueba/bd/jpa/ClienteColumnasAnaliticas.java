@@ -0,0 +1,12 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.enums.Ocupacion;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección con los atributos de un cliente que usa la instantánea analítica
+ */
+public record ClienteColumnasAnaliticas(String numeroDocumento, LocalDate fechaNacimiento, Ocupacion ocupacion,
+                                        Boolean esViable, String ciudad) {
+}
@@ -0,0 +1,23 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.enums.Ocupacion;
+
+import java.time.LocalDate;
+
+/**
+ * Proyección de un cliente con los atributos de su respuesta, para cargar la réplica en memoria sin entidades gestionadas
+ */
+public record ClienteFilaReplica(String numeroDocumento, String nombre, String apellidos, LocalDate fechaNacimiento,
+                                 String ciudad, String correoElectronico, String telefono, Ocupacion ocupacion,
+                                 Boolean esViable, Long version) {
+
+    /**
+     * Fila de un cliente ya escrito, para adjuntarla a los eventos sin volver a leerlo
+     */
+    public static ClienteFilaReplica de(ClienteORM cliente) {
+        return new ClienteFilaReplica(cliente.getNumeroDocumento(), cliente.getNombre(), cliente.getApellidos(),
+                cliente.getFechaNacimiento(), cliente.getCiudad(), cliente.getCorreoElectronico(), cliente.getTelefono(),
+                cliente.getOcupacion(), cliente.getEsViable(), cliente.getVersion());
+    }
+}
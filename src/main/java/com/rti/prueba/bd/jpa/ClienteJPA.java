@@ -1,16 +1,95 @@
 package com.rti.prueba.bd.jpa;
 
 import com.rti.prueba.bd.orm.ClienteORM;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ClienteJPA extends JpaRepository<ClienteORM, String> {
+public interface ClienteJPA extends JpaRepository<ClienteORM, String>, ClienteJPACustom {
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ClienteORM.REGION_CACHE_CONSULTAS)
+    })
     Optional<ClienteORM> findByCorreoElectronico(String correoElectronico);
-    
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = ClienteORM.REGION_CACHE_CONSULTAS)
+    })
     List<ClienteORM> findByNombreContainingIgnoreCaseOrApellidosContainingIgnoreCase(String nombre, String apellidos);
+
+    /**
+     * Leer un cliente de la base de datos sin consultar la caché de segundo nivel, que es local al nodo y solo se
+     * desaloja al recibir la invalidación remota; la entidad leída reemplaza a la que hubiera en ella
+     */
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"))
+    @Query("SELECT c FROM ClienteORM c WHERE c.numeroDocumento = :numeroDocumento")
+    Optional<ClienteORM> buscarSinCacheSegundoNivel(@Param("numeroDocumento") String numeroDocumento);
+
+    @Query("SELECT c.numeroDocumento FROM ClienteORM c WHERE c.numeroDocumento IN :numerosDocumento")
+    List<String> buscarDocumentosExistentes(@Param("numerosDocumento") Collection<String> numerosDocumento);
+
+    @Query("SELECT c.correoElectronico FROM ClienteORM c WHERE c.correoElectronico IN :correos")
+    List<String> buscarCorreosExistentes(@Param("correos") Collection<String> correos);
+
+    /**
+     * Elimina en una sola sentencia todos los clientes de la lista. Devuelve el número de filas eliminadas.
+     */
+    @Modifying
+    @Query("DELETE FROM ClienteORM c WHERE c.numeroDocumento IN :numerosDocumento")
+    int eliminarPorDocumentos(@Param("numerosDocumento") Collection<String> numerosDocumento);
+
+    /**
+     * Recorrer con un cursor de solo lectura los atributos analíticos de todos los clientes, sin cargar entidades.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.rti.prueba.bd.jpa.ClienteColumnasAnaliticas(c.numeroDocumento, c.fechaNacimiento, "
+            + "c.ocupacion, c.esViable, c.ciudad) FROM ClienteORM c")
+    Stream<ClienteColumnasAnaliticas> streamColumnasAnaliticas();
+
+    @Query("SELECT new com.rti.prueba.bd.jpa.ClienteColumnasAnaliticas(c.numeroDocumento, c.fechaNacimiento, "
+            + "c.ocupacion, c.esViable, c.ciudad) FROM ClienteORM c WHERE c.numeroDocumento IN :numerosDocumento")
+    List<ClienteColumnasAnaliticas> buscarColumnasAnaliticas(@Param("numerosDocumento") Collection<String> numerosDocumento);
+
+    /**
+     * Documento en una posición del orden por número de documento; delimita los tramos de la carga paralela
+     */
+    @Query("SELECT c.numeroDocumento FROM ClienteORM c ORDER BY c.numeroDocumento")
+    List<String> buscarDocumentosOrdenados(Pageable pagina);
+
+    /**
+     * Recorrer con un cursor de solo lectura los clientes del tramo [desde, hasta); sin límite superior si hasta es nulo.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.rti.prueba.bd.jpa.ClienteFilaReplica(c.numeroDocumento, c.nombre, c.apellidos, "
+            + "c.fechaNacimiento, c.ciudad, c.correoElectronico, c.telefono, c.ocupacion, c.esViable, c.version) "
+            + "FROM ClienteORM c WHERE c.numeroDocumento >= :desde AND (:hasta IS NULL OR c.numeroDocumento < :hasta)")
+    Stream<ClienteFilaReplica> streamFilasReplica(@Param("desde") String desde, @Param("hasta") String hasta);
+
+    @Query("SELECT new com.rti.prueba.bd.jpa.ClienteFilaReplica(c.numeroDocumento, c.nombre, c.apellidos, "
+            + "c.fechaNacimiento, c.ciudad, c.correoElectronico, c.telefono, c.ocupacion, c.esViable, c.version) "
+            + "FROM ClienteORM c WHERE c.numeroDocumento IN :numerosDocumento")
+    List<ClienteFilaReplica> buscarFilasReplica(@Param("numerosDocumento") Collection<String> numerosDocumento);
 }
@@ -0,0 +1,56 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.controller.dto.ClienteFiltroDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Operaciones de ClienteJPA que se construyen dinámicamente con Criteria API, y escrituras de un solo cliente
+ * que desalojan de la caché de segundo nivel solo la entidad escrita
+ */
+public interface ClienteJPACustom {
+
+    /**
+     * Actualiza todas las columnas editables en una sola sentencia, condicionada a la versión esperada.
+     * Si la versión es nula la actualización no se condiciona. Devuelve el número de filas afectadas.
+     */
+    int actualizarSiVersionCoincide(ClienteORM cliente, Long version);
+
+    /**
+     * Elimina un cliente en una sola sentencia, sin cargarlo previamente. Devuelve el número de filas eliminadas.
+     */
+    int eliminarPorDocumento(String numeroDocumento);
+
+    /**
+     * Actualiza únicamente los atributos indicados en una sola sentencia, condicionada a la versión esperada
+     * cuando no es nula. Incrementa la versión y devuelve el número de filas afectadas.
+     */
+    int actualizarCampos(String numeroDocumento, Map<String, Object> cambios, Long versionEsperada);
+
+    /**
+     * Actualiza los atributos indicados de todos los documentos recibidos en una sola sentencia.
+     * Incrementa la versión y devuelve el número de filas afectadas.
+     */
+    int actualizarCamposEnLote(Collection<String> numerosDocumento, Map<String, Object> cambios);
+
+    /**
+     * Devuelve, ordenados, hasta {@code limite} documentos que cumplen el filtro y son mayores que
+     * {@code despuesDe} (paginación por clave; null para empezar desde el inicio)
+     */
+    List<String> buscarDocumentos(ClienteFiltroDTO filtro, String despuesDe, int limite);
+
+    /**
+     * Contar los clientes que cumplen el filtro
+     */
+    long contarPorFiltro(ClienteFiltroDTO filtro);
+
+    /**
+     * Recorrer con un cursor de solo lectura los clientes que cumplen el filtro, ordenados por documento.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    Stream<ClienteORM> streamPorFiltro(ClienteFiltroDTO filtro, int tamanoFetch);
+}
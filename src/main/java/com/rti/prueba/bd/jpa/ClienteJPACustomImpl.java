@@ -0,0 +1,213 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.controller.dto.ClienteFiltroDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.metamodel.mapping.BasicValuedModelPart;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Implementación de las operaciones dinámicas de ClienteJPA.
+ * <p>
+ * Las escrituras de un solo cliente son SQL nativo sincronizado con un espacio de consultas propio: un UPDATE o
+ * DELETE en JPQL o Criteria haría que Hibernate vaciara la región completa de clientes de la caché de segundo nivel
+ * en cada PUT, PATCH o DELETE. Así solo se desaloja la entidad escrita, junto con las búsquedas cacheadas, que
+ * pueden incluirla; se desalojan de nuevo al terminar la transacción por si otra lectura las repuso antes del commit.
+ * Las operaciones masivas siguen en Criteria y vacían la región entera.
+ */
+public class ClienteJPACustomImpl implements ClienteJPACustom {
+
+    private static final String ESPACIO_ESCRITURAS_PUNTUALES = "clientes#escrituras-puntuales";
+
+    private static final List<String> ATRIBUTOS_EDITABLES = List.of("nombre", "apellidos", "fechaNacimiento", "ciudad",
+            "correoElectronico", "telefono", "ocupacion", "esViable", "updatedAt");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int actualizarSiVersionCoincide(ClienteORM cliente, Long version) {
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        cambios.put("nombre", cliente.getNombre());
+        cambios.put("apellidos", cliente.getApellidos());
+        cambios.put("fechaNacimiento", cliente.getFechaNacimiento());
+        cambios.put("ciudad", cliente.getCiudad());
+        cambios.put("correoElectronico", cliente.getCorreoElectronico());
+        cambios.put("telefono", cliente.getTelefono());
+        cambios.put("ocupacion", cliente.getOcupacion());
+        cambios.put("esViable", cliente.getEsViable());
+        cambios.put("updatedAt", cliente.getUpdatedAt());
+        return actualizarCampos(cliente.getNumeroDocumento(), cambios, version);
+    }
+
+    @Override
+    public int actualizarCampos(String numeroDocumento, Map<String, Object> cambios, Long versionEsperada) {
+        EntityPersister persister = persister();
+        StringBuilder sql = new StringBuilder("UPDATE ").append(tabla(persister)).append(" SET ");
+        List<Object> parametros = new ArrayList<>();
+        cambios.forEach((atributo, valor) -> {
+            if (!ATRIBUTOS_EDITABLES.contains(atributo)) {
+                throw new IllegalArgumentException("Atributo no editable: " + atributo);
+            }
+            BasicValuedModelPart columna = columna(persister, atributo);
+            sql.append(columna.getSelectionExpression()).append(" = ?, ");
+            parametros.add(valor == null ? null : columna.getJdbcMapping().convertToRelationalValue(valor));
+        });
+        String version = columna(persister, "version").getSelectionExpression();
+        sql.append(version).append(" = ").append(version).append(" + 1 WHERE ").append(columnaId(persister)).append(" = ?");
+        parametros.add(numeroDocumento);
+        if (versionEsperada != null) {
+            sql.append(" AND ").append(version).append(" = ?");
+            parametros.add(versionEsperada);
+        }
+        return ejecutarSobreCliente(sql.toString(), parametros, numeroDocumento);
+    }
+
+    @Override
+    public int eliminarPorDocumento(String numeroDocumento) {
+        EntityPersister persister = persister();
+        String sql = "DELETE FROM " + tabla(persister) + " WHERE " + columnaId(persister) + " = ?";
+        return ejecutarSobreCliente(sql, List.of(numeroDocumento), numeroDocumento);
+    }
+
+    @Override
+    public int actualizarCamposEnLote(Collection<String> numerosDocumento, Map<String, Object> cambios) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<ClienteORM> update = cb.createCriteriaUpdate(ClienteORM.class);
+        Root<ClienteORM> root = update.from(ClienteORM.class);
+
+        aplicarCambios(cb, update, root, cambios);
+        update.where(root.get("numeroDocumento").in(numerosDocumento));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<String> buscarDocumentos(ClienteFiltroDTO filtro, String despuesDe, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<ClienteORM> root = query.from(ClienteORM.class);
+
+        List<Predicate> condiciones = predicados(cb, root, filtro);
+        if (despuesDe != null) {
+            condiciones.add(cb.greaterThan(root.get("numeroDocumento"), despuesDe));
+        }
+
+        query.select(root.get("numeroDocumento"))
+                .where(condiciones.toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("numeroDocumento")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    @Override
+    public long contarPorFiltro(ClienteFiltroDTO filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<ClienteORM> root = query.from(ClienteORM.class);
+
+        query.select(cb.count(root)).where(predicados(cb, root, filtro).toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public Stream<ClienteORM> streamPorFiltro(ClienteFiltroDTO filtro, int tamanoFetch) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ClienteORM> query = cb.createQuery(ClienteORM.class);
+        Root<ClienteORM> root = query.from(ClienteORM.class);
+
+        query.select(root)
+                .where(predicados(cb, root, filtro).toArray(Predicate[]::new))
+                .orderBy(cb.asc(root.get("numeroDocumento")));
+
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, tamanoFetch)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private int ejecutarSobreCliente(String sql, List<Object> parametros, String numeroDocumento) {
+        // Los cambios pendientes del contexto de persistencia se escriben antes, como haría una sentencia JPQL
+        entityManager.flush();
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedQuerySpace(ESPACIO_ESCRITURAS_PUNTUALES);
+        for (int i = 0; i < parametros.size(); i++) {
+            query.setParameter(i + 1, parametros.get(i));
+        }
+        int filas = query.executeUpdate();
+        if (filas > 0) {
+            desalojar(numeroDocumento);
+            entityManager.unwrap(SessionImplementor.class).getActionQueue()
+                    .registerProcess((exito, sesion) -> desalojar(numeroDocumento));
+        }
+        return filas;
+    }
+
+    private void desalojar(String numeroDocumento) {
+        Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(ClienteORM.class, numeroDocumento);
+        cache.evictQueryRegion(ClienteORM.REGION_CACHE_CONSULTAS);
+    }
+
+    private EntityPersister persister() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel().getEntityDescriptor(ClienteORM.class);
+    }
+
+    private static String tabla(EntityPersister persister) {
+        return persister.getIdentifierTableName();
+    }
+
+    private static String columnaId(EntityPersister persister) {
+        return persister.getIdentifierMapping().asBasicValuedModelPart().getSelectionExpression();
+    }
+
+    private static BasicValuedModelPart columna(EntityPersister persister, String atributo) {
+        return persister.findAttributeMapping(atributo).asBasicValuedModelPart();
+    }
+
+    private void aplicarCambios(CriteriaBuilder cb, CriteriaUpdate<ClienteORM> update, Root<ClienteORM> root,
+                                Map<String, Object> cambios) {
+        cambios.forEach(update::set);
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+    }
+
+    private List<Predicate> predicados(CriteriaBuilder cb, Root<ClienteORM> root, ClienteFiltroDTO filtro) {
+        List<Predicate> condiciones = new ArrayList<>();
+        if (filtro == null) {
+            return condiciones;
+        }
+        if (filtro.getCiudad() != null) {
+            condiciones.add(cb.equal(root.get("ciudad"), filtro.getCiudad().trim()));
+        }
+        if (filtro.getOcupacion() != null) {
+            condiciones.add(cb.equal(root.get("ocupacion"), filtro.getOcupacion()));
+        }
+        if (filtro.getEsViable() != null) {
+            condiciones.add(cb.equal(root.get("esViable"), filtro.getEsViable()));
+        }
+        return condiciones;
+    }
+}
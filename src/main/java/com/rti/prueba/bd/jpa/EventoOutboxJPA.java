@@ -0,0 +1,33 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.EventoOutboxORM;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxJPA extends JpaRepository<EventoOutboxORM, Long> {
+
+    /**
+     * Bloquea los eventos de menor id sin esperar por los que otro relevo ya tiene bloqueados.
+     * El orden por id no es el de confirmación entre nodos ni entre transacciones concurrentes
+     */
+    @Query(value = "SELECT * FROM clientes_outbox ORDER BY id LIMIT :limite FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EventoOutboxORM> bloquearLote(@Param("limite") int limite);
+
+    @Modifying
+    @Query("DELETE FROM EventoOutboxORM e WHERE e.id IN :ids")
+    int eliminarPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Instante del evento pendiente más antiguo o null si el outbox está vacío
+     */
+    @Query("SELECT MIN(e.creadoEn) FROM EventoOutboxORM e")
+    Instant creadoEnMasAntiguo();
+}
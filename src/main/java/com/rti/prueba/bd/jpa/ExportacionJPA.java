@@ -0,0 +1,48 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.ExportacionORM;
+import com.rti.prueba.enums.EstadoExportacion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface ExportacionJPA extends JpaRepository<ExportacionORM, String> {
+
+    @Modifying
+    @Query("UPDATE ExportacionORM e SET e.estado = com.rti.prueba.enums.EstadoExportacion.EN_PROCESO, "
+            + "e.totalFilas = :totalFilas, e.actualizadaEn = :ahora WHERE e.id = :id")
+    int iniciar(@Param("id") String id, @Param("totalFilas") long totalFilas, @Param("ahora") Instant ahora);
+
+    @Modifying
+    @Query("UPDATE ExportacionORM e SET e.filasProcesadas = :filasProcesadas, e.actualizadaEn = :ahora WHERE e.id = :id")
+    int avanzar(@Param("id") String id, @Param("filasProcesadas") long filasProcesadas, @Param("ahora") Instant ahora);
+
+    @Modifying
+    @Query("UPDATE ExportacionORM e SET e.estado = :estado, e.filasProcesadas = :filasProcesadas, e.bytes = :bytes, "
+            + "e.archivo = :archivo, e.error = :error, e.actualizadaEn = :ahora, e.finalizadaEn = :ahora WHERE e.id = :id")
+    int finalizar(@Param("id") String id, @Param("estado") EstadoExportacion estado,
+                  @Param("filasProcesadas") long filasProcesadas, @Param("bytes") long bytes,
+                  @Param("archivo") String archivo, @Param("error") String error, @Param("ahora") Instant ahora);
+
+    /**
+     * Marca como fallidas las exportaciones en cola o en proceso sin avance desde el límite
+     */
+    @Modifying
+    @Query("UPDATE ExportacionORM e SET e.estado = com.rti.prueba.enums.EstadoExportacion.FALLIDA, e.error = :error, "
+            + "e.actualizadaEn = :ahora, e.finalizadaEn = :ahora WHERE e.estado IN "
+            + "(com.rti.prueba.enums.EstadoExportacion.EN_COLA, com.rti.prueba.enums.EstadoExportacion.EN_PROCESO) "
+            + "AND e.actualizadaEn < :limite")
+    int marcarAbandonadas(@Param("limite") Instant limite, @Param("error") String error, @Param("ahora") Instant ahora);
+
+    /**
+     * Elimina las exportaciones finalizadas y las abandonadas por un nodo que se detuvo a mitad
+     */
+    @Modifying
+    @Query("DELETE FROM ExportacionORM e WHERE e.actualizadaEn < :limite")
+    int eliminarAnterioresA(@Param("limite") Instant limite);
+}
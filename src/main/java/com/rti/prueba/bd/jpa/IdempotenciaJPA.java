@@ -0,0 +1,38 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.IdempotenciaORM;
+import com.rti.prueba.enums.EstadoIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotenciaJPA extends JpaRepository<IdempotenciaORM, String> {
+
+    /**
+     * Reserva la clave con un INSERT directo: si ya existe falla por la clave primaria en lugar de fusionarse
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotencia_solicitudes (clave, huella, estado, expira_en) "
+            + "VALUES (:clave, :huella, 'EN_CURSO', :expiraEn)", nativeQuery = true)
+    int reservar(@Param("clave") String clave, @Param("huella") String huella, @Param("expiraEn") Instant expiraEn);
+
+    @Modifying
+    @Query("UPDATE IdempotenciaORM i SET i.estado = :estado, i.status = :status, i.contentType = :contentType, "
+            + "i.location = :location, i.cuerpo = :cuerpo, i.expiraEn = :expiraEn WHERE i.clave = :clave")
+    int completar(@Param("clave") String clave, @Param("estado") EstadoIdempotencia estado, @Param("status") int status,
+                  @Param("contentType") String contentType, @Param("location") String location,
+                  @Param("cuerpo") byte[] cuerpo, @Param("expiraEn") Instant expiraEn);
+
+    @Modifying
+    @Query("DELETE FROM IdempotenciaORM i WHERE i.clave = :clave AND i.expiraEn < :ahora")
+    int eliminarSiVencida(@Param("clave") String clave, @Param("ahora") Instant ahora);
+
+    @Modifying
+    @Query("DELETE FROM IdempotenciaORM i WHERE i.expiraEn < :ahora")
+    int eliminarVencidas(@Param("ahora") Instant ahora);
+}
@@ -5,6 +5,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 
 import java.time.Instant;
@@ -15,7 +17,12 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Table(name = "clientes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = ClienteORM.REGION_CACHE)
 public class ClienteORM {
+    public static final String REGION_CACHE = "clientes";
+    public static final String REGION_CACHE_CONSULTAS = "clientes.consultas";
+
     @Id
     @Column(name = "numero_documento", nullable = false, length = 20)
     private String numeroDocumento;
@@ -38,7 +45,8 @@ public class ClienteORM {
     @Column(name = "telefono", nullable = false, length = 20)
     private String telefono;
 
-    @Column(name = "ocupacion", nullable = false)
+    // Mismo tipo que la columna de las migraciones para que ddl-auto=validate la acepte en cualquier base
+    @Column(name = "ocupacion", nullable = false, columnDefinition = "enum('Empleado','Independiente','Pensionado')")
     private Ocupacion ocupacion;
 
     @Column(name = "es_viable", nullable = false)
@@ -52,6 +60,10 @@ public class ClienteORM {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
 
     @PrePersist
     protected void onCreate() {
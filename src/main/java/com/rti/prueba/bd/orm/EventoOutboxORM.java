@@ -0,0 +1,41 @@
+package com.rti.prueba.bd.orm;
+
+import com.rti.prueba.enums.OperacionCambio;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "clientes_outbox")
+public class EventoOutboxORM {
+
+    /** Secuencia con asignación por bloques para que las inserciones del outbox se agrupen en lotes JDBC */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_outbox_seq")
+    @SequenceGenerator(name = "clientes_outbox_seq", sequenceName = "clientes_outbox_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "numero_documento", nullable = false, length = 20)
+    private String numeroDocumento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operacion", nullable = false, length = 20)
+    private OperacionCambio operacion;
+
+    // LONGTEXT leído como texto y no como LOB; el tipo coincide con la columna de la migración en la validación
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "carga", nullable = false)
+    private String carga;
+
+    @Column(name = "creado_en", nullable = false)
+    private Instant creadoEn;
+}
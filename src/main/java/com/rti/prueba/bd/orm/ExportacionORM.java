@@ -0,0 +1,54 @@
+package com.rti.prueba.bd.orm;
+
+import com.rti.prueba.enums.EstadoExportacion;
+import com.rti.prueba.enums.FormatoExportacion;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "clientes_exportaciones", indexes = @Index(name = "idx_exportaciones_actualizada_en", columnList = "actualizada_en"))
+public class ExportacionORM {
+
+    @Id
+    @Column(name = "id", nullable = false, length = 36)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "formato", nullable = false, length = 10)
+    private FormatoExportacion formato;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoExportacion estado;
+
+    @Column(name = "total_filas", nullable = false)
+    private long totalFilas;
+
+    @Column(name = "filas_procesadas", nullable = false)
+    private long filasProcesadas;
+
+    @Column(name = "bytes", nullable = false)
+    private long bytes;
+
+    @Column(name = "archivo", length = 255)
+    private String archivo;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "creada_en", nullable = false)
+    private Instant creadaEn;
+
+    @Column(name = "actualizada_en", nullable = false)
+    private Instant actualizadaEn;
+
+    @Column(name = "finalizada_en")
+    private Instant finalizadaEn;
+}
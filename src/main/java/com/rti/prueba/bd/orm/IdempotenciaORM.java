@@ -0,0 +1,44 @@
+package com.rti.prueba.bd.orm;
+
+import com.rti.prueba.enums.EstadoIdempotencia;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "idempotencia_solicitudes", indexes = @Index(name = "idx_idempotencia_expira", columnList = "expira_en"))
+public class IdempotenciaORM {
+
+    @Id
+    @Column(name = "clave", nullable = false, length = 255)
+    private String clave;
+
+    @Column(name = "huella", nullable = false, length = 64)
+    private String huella;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoIdempotencia estado;
+
+    @Column(name = "status")
+    private Integer status;
+
+    @Column(name = "content_type", length = 255)
+    private String contentType;
+
+    @Column(name = "location", length = 500)
+    private String location;
+
+    @Lob
+    @Column(name = "cuerpo")
+    private byte[] cuerpo;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+}
@@ -0,0 +1,207 @@
+package com.rti.prueba.bd.r2dbc;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.enums.OperacionCambio;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Acceso no bloqueante a la tabla clientes con R2DBC para el modo reactivo. Las sentencias equivalen a las de
+ * ClienteJPA: actualización condicionada a la versión y eliminación en una sola sentencia. La ocupación se
+ * convierte explícitamente porque algunos drivers envían los textos como CLOB, que no se asigna a una columna ENUM.
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ClienteR2dbc {
+
+    private static final String COLUMNAS = "numero_documento, nombre, apellidos, fecha_nacimiento, ciudad, "
+            + "correo_electronico, telefono, ocupacion, es_viable, created_at, updated_at, version";
+
+    /**
+     * Columna de cada atributo editable, como la lista blanca de ClienteJPA.actualizarCampos
+     */
+    private static final Map<String, String> COLUMNAS_EDITABLES = Map.of(
+            "nombre", "nombre",
+            "apellidos", "apellidos",
+            "fechaNacimiento", "fecha_nacimiento",
+            "ciudad", "ciudad",
+            "correoElectronico", "correo_electronico",
+            "telefono", "telefono",
+            "ocupacion", "ocupacion",
+            "esViable", "es_viable",
+            "updatedAt", "updated_at");
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Boolean> existePorDocumento(String numeroDocumento) {
+        return databaseClient.sql("SELECT 1 FROM clientes WHERE numero_documento = :numeroDocumento")
+                .bind("numeroDocumento", numeroDocumento)
+                .map(fila -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Boolean> existePorCorreo(String correoElectronico) {
+        return databaseClient.sql("SELECT 1 FROM clientes WHERE correo_electronico = :correo")
+                .bind("correo", correoElectronico)
+                .map(fila -> true)
+                .first()
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Long> insertar(ClienteORM cliente) {
+        return databaseClient.sql("INSERT INTO clientes (" + COLUMNAS + ") VALUES (:numeroDocumento, :nombre, "
+                        + ":apellidos, :fechaNacimiento, :ciudad, :correo, :telefono, CAST(:ocupacion AS CHAR(20)), "
+                        + ":esViable, :ahora, :ahora, 0)")
+                .bind("numeroDocumento", cliente.getNumeroDocumento())
+                .bind("nombre", cliente.getNombre())
+                .bind("apellidos", cliente.getApellidos())
+                .bind("fechaNacimiento", cliente.getFechaNacimiento())
+                .bind("ciudad", cliente.getCiudad())
+                .bind("correo", cliente.getCorreoElectronico())
+                .bind("telefono", cliente.getTelefono())
+                .bind("ocupacion", cliente.getOcupacion().getDescripcion())
+                .bind("esViable", cliente.getEsViable())
+                .bind("ahora", Instant.now())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Flux<ClienteORM> buscarTodos() {
+        return databaseClient.sql("SELECT " + COLUMNAS + " FROM clientes")
+                .map(ClienteR2dbc::cliente)
+                .all();
+    }
+
+    public Mono<ClienteORM> buscarPorDocumento(String numeroDocumento) {
+        return databaseClient.sql("SELECT " + COLUMNAS + " FROM clientes WHERE numero_documento = :numeroDocumento")
+                .bind("numeroDocumento", numeroDocumento)
+                .map(ClienteR2dbc::cliente)
+                .one();
+    }
+
+    public Mono<ClienteORM> buscarPorCorreo(String correoElectronico) {
+        return databaseClient.sql("SELECT " + COLUMNAS + " FROM clientes WHERE correo_electronico = :correo")
+                .bind("correo", correoElectronico)
+                .map(ClienteR2dbc::cliente)
+                .one();
+    }
+
+    /**
+     * Nombre o apellidos que contienen el término sin distinguir mayúsculas, como el método derivado de ClienteJPA
+     */
+    public Flux<ClienteORM> buscarPorNombreOApellidos(String termino) {
+        String patron = "%" + termino.toLowerCase()
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return databaseClient.sql("SELECT " + COLUMNAS + " FROM clientes "
+                        + "WHERE LOWER(nombre) LIKE :patron OR LOWER(apellidos) LIKE :patron")
+                .bind("patron", patron)
+                .map(ClienteR2dbc::cliente)
+                .all();
+    }
+
+    /**
+     * Actualiza todas las columnas editables condicionada a la versión esperada; sin versión no se condiciona
+     */
+    public Mono<Long> actualizarSiVersionCoincide(ClienteORM cliente, Long version) {
+        String sql = "UPDATE clientes SET nombre = :nombre, apellidos = :apellidos, fecha_nacimiento = :fechaNacimiento, "
+                + "ciudad = :ciudad, correo_electronico = :correo, telefono = :telefono, "
+                + "ocupacion = CAST(:ocupacion AS CHAR(20)), es_viable = :esViable, updated_at = :ahora, version = version + 1 "
+                + "WHERE numero_documento = :numeroDocumento" + (version != null ? " AND version = :version" : "");
+        DatabaseClient.GenericExecuteSpec sentencia = databaseClient.sql(sql)
+                .bind("nombre", cliente.getNombre())
+                .bind("apellidos", cliente.getApellidos())
+                .bind("fechaNacimiento", cliente.getFechaNacimiento())
+                .bind("ciudad", cliente.getCiudad())
+                .bind("correo", cliente.getCorreoElectronico())
+                .bind("telefono", cliente.getTelefono())
+                .bind("ocupacion", cliente.getOcupacion().getDescripcion())
+                .bind("esViable", cliente.getEsViable())
+                .bind("ahora", cliente.getUpdatedAt())
+                .bind("numeroDocumento", cliente.getNumeroDocumento());
+        if (version != null) {
+            sentencia = sentencia.bind("version", version);
+        }
+        return sentencia.fetch().rowsUpdated();
+    }
+
+    /**
+     * Actualiza solo los atributos indicados condicionada a la versión esperada; sin versión no se condiciona
+     */
+    public Mono<Long> actualizarCampos(String numeroDocumento, Map<String, Object> cambios, Long version) {
+        StringBuilder sql = new StringBuilder("UPDATE clientes SET ");
+        cambios.keySet().forEach(atributo -> {
+            String columna = COLUMNAS_EDITABLES.get(atributo);
+            if (columna == null) {
+                throw new IllegalArgumentException("Atributo no editable: " + atributo);
+            }
+            sql.append(columna).append(" = ")
+                    .append("ocupacion".equals(atributo) ? "CAST(:ocupacion AS CHAR(20))" : ":" + atributo).append(", ");
+        });
+        sql.append("version = version + 1 WHERE numero_documento = :numeroDocumento");
+        if (version != null) {
+            sql.append(" AND version = :version");
+        }
+        DatabaseClient.GenericExecuteSpec sentencia = databaseClient.sql(sql.toString())
+                .bind("numeroDocumento", numeroDocumento);
+        for (Map.Entry<String, Object> cambio : cambios.entrySet()) {
+            Object valor = cambio.getValue() instanceof Ocupacion ocupacion ? ocupacion.getDescripcion() : cambio.getValue();
+            sentencia = sentencia.bind(cambio.getKey(), valor);
+        }
+        if (version != null) {
+            sentencia = sentencia.bind("version", version);
+        }
+        return sentencia.fetch().rowsUpdated();
+    }
+
+    public Mono<Long> eliminarPorDocumento(String numeroDocumento) {
+        return databaseClient.sql("DELETE FROM clientes WHERE numero_documento = :numeroDocumento")
+                .bind("numeroDocumento", numeroDocumento)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Inserta un evento en clientes_outbox; el id se toma directamente de la secuencia, cuyos valores nunca
+     * coinciden con los bloques que Hibernate asigna a partir de ella. La operación se convierte explícitamente
+     * porque algunos drivers envían los textos como CLOB, que no se asigna a una columna ENUM.
+     */
+    public Mono<Long> insertarEventoOutbox(String numeroDocumento, OperacionCambio operacion, String carga) {
+        return databaseClient.sql("INSERT INTO clientes_outbox (id, numero_documento, operacion, carga, creado_en) "
+                        + "VALUES (NEXT VALUE FOR clientes_outbox_seq, :numeroDocumento, "
+                        + "CAST(:operacion AS CHAR(20)), :carga, :ahora)")
+                .bind("numeroDocumento", numeroDocumento)
+                .bind("operacion", operacion.name())
+                .bind("carga", carga)
+                .bind("ahora", Instant.now())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static ClienteORM cliente(Readable fila) {
+        return new ClienteORM(
+                fila.get("numero_documento", String.class),
+                fila.get("nombre", String.class),
+                fila.get("apellidos", String.class),
+                fila.get("fecha_nacimiento", LocalDate.class),
+                fila.get("ciudad", String.class),
+                fila.get("correo_electronico", String.class),
+                fila.get("telefono", String.class),
+                Ocupacion.fromDescripcion(fila.get("ocupacion", String.class)),
+                fila.get("es_viable", Boolean.class),
+                fila.get("created_at", Instant.class),
+                fila.get("updated_at", Instant.class),
+                fila.get("version", Long.class));
+    }
+}
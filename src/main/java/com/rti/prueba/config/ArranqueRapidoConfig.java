@@ -0,0 +1,47 @@
+package com.rti.prueba.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Beans que se crean al arrancar aunque la inicialización diferida esté activa (perfil arranque-rapido): la base
+ * de datos y sus migraciones, para validar el esquema antes de aceptar tráfico; los controladores, para que la
+ * primera solicitud no construya la cadena de servicios; y los beans con tareas programadas, que deben
+ * ejecutarse aunque nadie los use. Los servicios no críticos se inyectan con @Lazy en el controlador.
+ */
+@Configuration
+public class ArranqueRapidoConfig {
+
+    private static final List<Class<?>> TIPOS_CRITICOS = List.of(DataSource.class, EntityManagerFactory.class,
+            AbstractEntityManagerFactoryBean.class, Flyway.class, FlywayMigrationInitializer.class);
+
+    @Bean
+    public static LazyInitializationExcludeFilter beansCriticosInmediatos() {
+        return (nombre, definicion, tipo) -> tipo != null && (esCritico(tipo) || tieneTareasProgramadas(tipo));
+    }
+
+    private static boolean esCritico(Class<?> tipo) {
+        return TIPOS_CRITICOS.stream().anyMatch(critico -> critico.isAssignableFrom(tipo))
+                || AnnotatedElementUtils.hasAnnotation(tipo, Controller.class)
+                || AnnotatedElementUtils.hasAnnotation(tipo, ControllerAdvice.class);
+    }
+
+    private static boolean tieneTareasProgramadas(Class<?> tipo) {
+        return !MethodIntrospector.selectMethods(tipo, (Method metodo) ->
+                AnnotatedElementUtils.hasAnnotation(metodo, Scheduled.class)).isEmpty();
+    }
+}
@@ -0,0 +1,44 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.bd.ClaseTrabajoRoutingDataSource;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Particiones del pool de conexiones por clase de trabajo, sobre la misma base de datos.
+ * Cada partición publica sus métricas hikaricp.* con la etiqueta pool=clientes-<clase>.
+ * Todas reciben los ajustes de spring.datasource.hikari.*; el nombre y el tamaño máximo son los de su partición.
+ */
+@Configuration
+public class BulkheadConfig {
+
+    @Bean
+    @Primary
+    public ClaseTrabajoRoutingDataSource dataSource(DataSourceProperties dataSourceProperties, ClientesProperties clientesProperties,
+                                                   MeterRegistry meterRegistry, Environment environment) {
+        Binder binder = Binder.get(environment);
+        Map<ClaseTrabajo, HikariDataSource> particiones = new EnumMap<>(ClaseTrabajo.class);
+        for (ClaseTrabajo clase : ClaseTrabajo.values()) {
+            HikariDataSource particion = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(particion));
+            particion.setPoolName("clientes-" + clase.name().toLowerCase(Locale.ROOT));
+            particion.setMaximumPoolSize(clientesProperties.getBulkhead().particion(clase).getConexiones());
+            particion.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            particiones.put(clase, particion);
+        }
+        return new ClaseTrabajoRoutingDataSource(particiones);
+    }
+}
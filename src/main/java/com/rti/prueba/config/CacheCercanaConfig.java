@@ -0,0 +1,35 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.service.cache.TransporteInvalidacion;
+import com.rti.prueba.service.cache.TransporteInvalidacionUdp;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Transporte de invalidaciones de la caché cercana entre nodos
+ */
+@Configuration
+public class CacheCercanaConfig {
+
+    @Bean
+    public TransporteInvalidacion transporteInvalidacion(ClientesProperties clientesProperties) throws IOException {
+        ClientesProperties.CacheCercana config = clientesProperties.getCacheCercana();
+        if (config.getPuerto() <= 0) {
+            return TransporteInvalidacion.ninguno();
+        }
+        List<InetSocketAddress> pares = config.getPares().stream().map(CacheCercanaConfig::direccion).toList();
+        return new TransporteInvalidacionUdp(new InetSocketAddress(config.getPuerto()), pares);
+    }
+
+    private static InetSocketAddress direccion(String par) {
+        int separador = par.lastIndexOf(':');
+        if (separador < 0) {
+            throw new IllegalArgumentException("Par de caché no válido, se esperaba host:puerto: " + par);
+        }
+        return new InetSocketAddress(par.substring(0, separador).trim(), Integer.parseInt(par.substring(separador + 1).trim()));
+    }
+}
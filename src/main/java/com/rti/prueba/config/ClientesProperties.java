@@ -0,0 +1,291 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.enums.AlgoritmoLimite;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.enums.TipoAlmacenIdempotencia;
+import com.rti.prueba.enums.TipoSumideroEventos;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades de configuración de la plataforma de clientes (prefijo "clientes")
+ */
+@Data
+@ConfigurationProperties(prefix = "clientes")
+public class ClientesProperties {
+
+    private Masivo masivo = new Masivo();
+    private Importacion importacion = new Importacion();
+    private Exportacion exportacion = new Exportacion();
+    private CacheCercana cacheCercana = new CacheCercana();
+    private Admision admision = new Admision();
+    private Bulkhead bulkhead = new Bulkhead();
+    private PlazoSolicitud plazoSolicitud = new PlazoSolicitud();
+    private Idempotencia idempotencia = new Idempotencia();
+    private Analitica analitica = new Analitica();
+    private Replica replica = new Replica();
+    private Diario diario = new Diario();
+    private Outbox outbox = new Outbox();
+    private TiemposServidor tiemposServidor = new TiemposServidor();
+    private Jfr jfr = new Jfr();
+    private Calentamiento calentamiento = new Calentamiento();
+
+    /**
+     * Operaciones masivas de actualización y eliminación
+     */
+    @Data
+    public static class Masivo {
+        /** Número de documentos por sentencia y por transacción */
+        private int tamanoLote = 500;
+    }
+
+    /**
+     * Importación de clientes desde CSV
+     */
+    @Data
+    public static class Importacion {
+        /** Filas validadas en paralelo e insertadas por transacción */
+        private int tamanoLote = 2000;
+        /** Máximo de filas rechazadas detalladas en la respuesta */
+        private int maxRechazosDetalle = 1000;
+    }
+
+    /**
+     * Exportaciones asíncronas a archivos comprimidos
+     */
+    @Data
+    public static class Exportacion {
+        /** Directorio donde se escriben los archivos; con varios nodos, un volumen compartido por todos ellos */
+        private Path directorio = Path.of(System.getProperty("java.io.tmpdir"), "clientes-exportaciones");
+        /** Máximo de exportaciones en curso o en cola al mismo tiempo en cada nodo; no es un límite del clúster */
+        private int maxConcurrentes = 2;
+        /** Filas leídas por viaje del cursor */
+        private int tamanoFetch = 1000;
+        /** Tiempo que se conservan los archivos y el estado de las exportaciones desde su último avance */
+        private Duration retencion = Duration.ofHours(1);
+        /**
+         * Tiempo sin avance tras el que una exportación en cola o en proceso se marca como fallida: el nodo que la
+         * ejecutaba se detuvo. El avance se registra cada tamanoFetch filas, así que debe superar con holgura lo que
+         * tarda el cursor en leerlas
+         */
+        private Duration abandono = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Caché cercana de clientes por nodo, invalidada entre nodos
+     */
+    @Data
+    public static class CacheCercana {
+        private boolean habilitada = true;
+        /** Máximo de entradas por nodo */
+        private int maxEntradas = 10000;
+        /** Vida máxima de una entrada; acota la lectura obsoleta si se pierde un mensaje de invalidación */
+        private Duration ttl = Duration.ofSeconds(30);
+        /** Puerto UDP local para recibir invalidaciones; 0 desactiva la difusión (un solo nodo) */
+        private int puerto = 0;
+        /** Nodos pares a los que se difunden las invalidaciones (host:puerto) */
+        private List<String> pares = new ArrayList<>();
+    }
+
+    /**
+     * Control de admisión de la API de clientes con límites de concurrencia adaptativos
+     */
+    @Data
+    public static class Admision {
+        private boolean habilitada = true;
+        /** Valor de la cabecera Retry-After de las respuestas 503 */
+        private Duration retryAfter = Duration.ofSeconds(1);
+        /** Consultas por documento y listados */
+        private Limite lecturas = new Limite(AlgoritmoLimite.GRADIENTE, 100, 10, 500, Duration.ofMillis(250));
+        /** Altas, actualizaciones y eliminaciones individuales */
+        private Limite escrituras = new Limite(AlgoritmoLimite.AIMD, 40, 5, 200, Duration.ofMillis(500));
+        /** Búsquedas, operaciones masivas, importaciones y exportaciones */
+        private Limite masivas = new Limite(AlgoritmoLimite.AIMD, 8, 1, 32, Duration.ofSeconds(5));
+    }
+
+    /**
+     * Límite de concurrencia de un grupo de operaciones
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limite {
+        private AlgoritmoLimite algoritmo;
+        private int inicial;
+        private int minimo;
+        private int maximo;
+        /** Latencia por encima de la cual AIMD reduce el límite (el gradiente la aprende) */
+        private Duration latenciaObjetivo;
+    }
+
+    /**
+     * Ejecutores y particiones del pool de conexiones por clase de trabajo
+     */
+    @Data
+    public static class Bulkhead {
+        private Particion puntual = new Particion(32, 200, 10);
+        private Particion escritura = new Particion(16, 200, 6);
+        private Particion busqueda = new Particion(4, 50, 3);
+        private Particion masiva = new Particion(2, 10, 3);
+        private Particion interna = new Particion(1, 10, 2);
+
+        public Particion particion(ClaseTrabajo clase) {
+            return switch (clase) {
+                case PUNTUAL -> puntual;
+                case ESCRITURA -> escritura;
+                case BUSQUEDA -> busqueda;
+                case MASIVA -> masiva;
+                case INTERNA -> interna;
+            };
+        }
+    }
+
+    /**
+     * Capacidad de una clase de trabajo
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Particion {
+        /** Hilos del ejecutor */
+        private int hilos;
+        /** Tareas en espera antes de rechazar */
+        private int cola;
+        /** Conexiones máximas de su partición del pool */
+        private int conexiones;
+    }
+
+    /**
+     * Plazo de las solicitudes a la API de clientes (cabeceras X-Request-Timeout y X-Request-Deadline)
+     */
+    @Data
+    public static class PlazoSolicitud {
+        private boolean habilitado = true;
+        /** Plazo máximo aceptado; acota el que envía el cliente */
+        private Duration maximo = Duration.ofSeconds(30);
+        /** Plazo de las solicitudes que no lo envían; vacío = sin plazo */
+        private Duration predeterminado;
+    }
+
+    /**
+     * Cabecera Idempotency-Key en las solicitudes POST de la API de clientes
+     */
+    @Data
+    public static class Idempotencia {
+        private boolean habilitada = true;
+        /** Memoria del nodo o tabla idempotencia_solicitudes compartida entre nodos */
+        private TipoAlmacenIdempotencia almacen = TipoAlmacenIdempotencia.MEMORIA;
+        /** Tiempo durante el que una clave responde con la respuesta guardada */
+        private Duration ttl = Duration.ofHours(24);
+        /** Máximo de claves en memoria */
+        private int maxEntradas = 10000;
+        /** Espera máxima de un duplicado a que termine la solicitud original */
+        private Duration espera = Duration.ofSeconds(10);
+        /**
+         * Vigencia de una reserva en curso, unas pocas veces la espera: si el nodo que la tiene cae o la solicitud no
+         * llega a guardar su respuesta, la clave vuelve a quedar libre pasado este tiempo en lugar de al cabo del TTL
+         */
+        private Duration arriendo = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Instantánea columnar en memoria para consultas analíticas
+     */
+    @Data
+    public static class Analitica {
+        /** Hilos del pool fork-join de los escaneos */
+        private int paralelismo = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Réplica completa de los clientes en memoria para las lecturas por documento y por correo
+     */
+    @Data
+    public static class Replica {
+        private boolean habilitada = false;
+        /** Tramos de la carga inicial leídos en paralelo; cada uno usa una conexión del pool de trabajo masivo */
+        private int paralelismo = 2;
+        /** Intervalo de la recarga completa que corrige escrituras perdidas u ordenadas fuera de secuencia */
+        private Duration intervaloReconciliacion = Duration.ofMinutes(30);
+    }
+
+    /**
+     * Diario de cambios de solo anexado para la auditoría de las escrituras de clientes
+     */
+    @Data
+    public static class Diario {
+        private boolean habilitado = true;
+        private Path directorio = Path.of("data", "diario");
+        /** Tamaño fijo de cada segmento proyectado en memoria */
+        private DataSize tamanoSegmento = DataSize.ofMegabytes(16);
+        /** Esperar la sincronización en disco antes de responder; sin ella un fallo puede perder el último grupo */
+        private boolean esperarSincronizacion = true;
+        /** Espera máxima de la sincronización en disco */
+        private Duration esperaSincronizacion = Duration.ofSeconds(5);
+        /** Antigüedad a partir de la cual se eliminan los segmentos sellados */
+        private Duration retencion = Duration.ofDays(365);
+    }
+
+    /**
+     * Outbox transaccional de eventos de clientes y su relevo hacia el sumidero
+     */
+    @Data
+    public static class Outbox {
+        private boolean habilitado = true;
+        private TipoSumideroEventos sumidero = TipoSumideroEventos.ARCHIVO;
+        /** Archivo de líneas JSON del sumidero de archivo */
+        private Path archivo = Path.of("data", "eventos", "clientes.jsonl");
+        /** Eventos que conserva el sumidero en memoria */
+        private int maxEventosMemoria = 10000;
+        /** Eventos bloqueados, publicados y eliminados por transacción */
+        private int tamanoLote = 500;
+        /** Lotes máximos por ciclo entre todos los hilos del relevo */
+        private int lotesPorCiclo = 20;
+        /** Hilos del relevo; cada uno bloquea lotes distintos gracias a SKIP LOCKED */
+        private int hilos = 1;
+    }
+
+    /**
+     * Cabecera Server-Timing con el desglose por fase de las solicitudes muestreadas de la API de clientes
+     */
+    @Data
+    public static class TiemposServidor {
+        private boolean habilitado = true;
+        /** Fracción de las solicitudes medidas sin la cabecera X-Server-Timing (0 = solo las que la envían) */
+        private double muestreo = 0;
+    }
+
+    /**
+     * Eventos JFR de las operaciones de ClienteService y de las consultas lentas de ClienteJPA
+     */
+    @Data
+    public static class Jfr {
+        private boolean habilitado = true;
+        /** Clave del HMAC del número de documento; vacía = aleatoria por proceso (sin correlación entre reinicios) */
+        private String claveHash;
+    }
+
+    /**
+     * Calentamiento al arrancar, antes de que la sonda de preparación acepte tráfico
+     */
+    @Data
+    public static class Calentamiento {
+        private boolean habilitado = true;
+        /** Solicitudes GET sintéticas contra la propia API */
+        private int solicitudes = 2000;
+        /** Solicitudes concurrentes */
+        private int hilos = 4;
+        /** Clientes existentes leídos como muestra para las solicitudes y las cachés */
+        private int muestra = 100;
+        /** Duración máxima; al agotarse se omiten las solicitudes restantes y la aplicación queda lista igualmente */
+        private Duration plazo = Duration.ofSeconds(60);
+    }
+}
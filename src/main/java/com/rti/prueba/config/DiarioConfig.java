@@ -0,0 +1,25 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.service.diario.DiarioCambios;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.Clock;
+
+/**
+ * Diario de cambios de auditoría según clientes.diario
+ */
+@Configuration
+public class DiarioConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "clientes.diario", name = "habilitado", havingValue = "true", matchIfMissing = true)
+    public DiarioCambios diarioCambios(ClientesProperties clientesProperties, MeterRegistry meterRegistry) throws IOException {
+        ClientesProperties.Diario config = clientesProperties.getDiario();
+        return new DiarioCambios(config.getDirectorio(), Math.toIntExact(config.getTamanoSegmento().toBytes()),
+                Clock.systemUTC(), meterRegistry);
+    }
+}
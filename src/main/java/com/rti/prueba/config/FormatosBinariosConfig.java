@@ -0,0 +1,83 @@
+package com.rti.prueba.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.rti.prueba.enums.Ocupacion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Negociación de contenido binaria para el tráfico entre servicios: application/cbor y application/x-jackson-smile,
+ * en respuestas y cuerpos de solicitud, además de JSON. Los nombres de campo y los textos repetidos (ciudad,
+ * nombres...) se envían una sola vez por documento y después como referencias (stringref en CBOR, nombres y valores
+ * compartidos en Smile), y la ocupación viaja como su código numérico.
+ * Los mapeadores parten del Jackson2ObjectMapperBuilder de Spring Boot para conservar la misma configuración que JSON;
+ * no se registran como beans ObjectMapper para no reemplazar el mapeador JSON principal.
+ */
+@Configuration
+public class FormatosBinariosConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(cbor(builder));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(smile(builder));
+    }
+
+    public static ObjectMapper cbor(Jackson2ObjectMapperBuilder builder) {
+        CBORFactory factory = CBORFactory.builder().enable(CBORGenerator.Feature.STRINGREF).build();
+        return builder.factory(factory).build().registerModule(moduloCompacto());
+    }
+
+    public static ObjectMapper smile(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return builder.factory(factory).build().registerModule(moduloCompacto());
+    }
+
+    /**
+     * Ocupación como código numérico entero; al leer también se acepta la descripción. El mapeador JSON no registra
+     * este módulo, así que en JSON la ocupación solo se acepta como texto
+     */
+    private static SimpleModule moduloCompacto() {
+        return new SimpleModule("clientes-binario")
+                .addSerializer(Ocupacion.class, new StdSerializer<>(Ocupacion.class) {
+                    @Override
+                    public void serialize(Ocupacion ocupacion, JsonGenerator generador, SerializerProvider proveedor)
+                            throws IOException {
+                        generador.writeNumber(ocupacion.getCodigo());
+                    }
+                })
+                .addDeserializer(Ocupacion.class, new StdDeserializer<>(Ocupacion.class) {
+                    @Override
+                    public Ocupacion deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+                        return switch (parser.currentToken()) {
+                            case VALUE_NUMBER_INT -> Ocupacion.fromCodigo(parser.getIntValue());
+                            case VALUE_STRING -> Ocupacion.desdeDescripcion(parser.getText());
+                            // Un decimal (1.9) no se trunca a un código
+                            default -> (Ocupacion) contexto.handleUnexpectedToken(Ocupacion.class, parser);
+                        };
+                    }
+                });
+    }
+}
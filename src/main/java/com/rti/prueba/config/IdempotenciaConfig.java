@@ -0,0 +1,27 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.bd.jpa.IdempotenciaJPA;
+import com.rti.prueba.service.idempotencia.AlmacenIdempotencia;
+import com.rti.prueba.service.idempotencia.AlmacenIdempotenciaBaseDatos;
+import com.rti.prueba.service.idempotencia.AlmacenIdempotenciaMemoria;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Almacén de claves de idempotencia según clientes.idempotencia.almacen
+ */
+@Configuration
+public class IdempotenciaConfig {
+
+    @Bean
+    public AlmacenIdempotencia almacenIdempotencia(ClientesProperties clientesProperties, IdempotenciaJPA idempotenciaJPA,
+                                                   PlatformTransactionManager transactionManager) {
+        ClientesProperties.Idempotencia config = clientesProperties.getIdempotencia();
+        return switch (config.getAlmacen()) {
+            case MEMORIA -> new AlmacenIdempotenciaMemoria(config.getMaxEntradas(), config.getTtl(), config.getArriendo());
+            case BASE_DATOS -> new AlmacenIdempotenciaBaseDatos(idempotenciaJPA, transactionManager, config.getTtl(),
+                    config.getArriendo());
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.service.ClienteService;
+import com.rti.prueba.service.jfr.InstrumentacionJfr;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+
+/**
+ * Eventos JFR de los clientes (com.rti.prueba.OperacionCliente y com.rti.prueba.ConsultaLenta). Se graban con
+ * las configuraciones de src/main/resources/jfr, por ejemplo:
+ * jcmd &lt;pid&gt; JFR.start settings=default,clientes-produccion.jfc filename=clientes.jfr
+ * y se resumen con {@link com.rti.prueba.service.jfr.AnalizadorJfr}.
+ */
+@Configuration
+public class JfrConfig {
+
+    /**
+     * El post-procesador se crea antes que ClientesProperties, por eso enlaza su sección directamente
+     */
+    @Bean
+    public static BeanPostProcessor eventosJfrPostProcessor(Environment environment) {
+        ClientesProperties.Jfr config = Binder.get(environment).bindOrCreate("clientes.jfr", ClientesProperties.Jfr.class);
+        if (!config.isHabilitado()) {
+            return new BeanPostProcessor() {
+            };
+        }
+        InstrumentacionJfr instrumentacion = new InstrumentacionJfr(clave(config.getClaveHash()));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String nombre) {
+                if (bean instanceof ClienteService && bean instanceof Advised advised) {
+                    agregar(advised, instrumentacion.operaciones());
+                } else if (bean instanceof ClienteJPA && bean instanceof Advised advised) {
+                    agregar(advised, instrumentacion.consultas());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void agregar(Advised advised, MethodInterceptor interceptor) {
+        if (!advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+        }
+    }
+
+    private static byte[] clave(String claveHash) {
+        if (claveHash != null && !claveHash.isBlank()) {
+            return claveHash.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] aleatoria = new byte[32];
+        new SecureRandom().nextBytes(aleatoria);
+        return aleatoria;
+    }
+}
@@ -0,0 +1,26 @@
+package com.rti.prueba.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.service.outbox.SumideroEventos;
+import com.rti.prueba.service.outbox.SumideroEventosArchivo;
+import com.rti.prueba.service.outbox.SumideroEventosMemoria;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Sumidero de los eventos del outbox según clientes.outbox.sumidero
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public SumideroEventos sumideroEventos(ClientesProperties clientesProperties, ObjectMapper objectMapper) throws IOException {
+        ClientesProperties.Outbox config = clientesProperties.getOutbox();
+        return switch (config.getSumidero()) {
+            case MEMORIA -> new SumideroEventosMemoria(config.getMaxEventosMemoria());
+            case ARCHIVO -> new SumideroEventosArchivo(config.getArchivo(), objectMapper);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.exception.handler.WebRequestReactivo;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Modo de despliegue reactivo (perfil reactivo): WebFlux sobre Netty y acceso a clientes con R2DBC.
+ * Los DTO, la validación y el GlobalExceptionHandler son los mismos que en el modo servlet.
+ * JPA sigue disponible para el resto de servicios; como la autoconfiguración de DataSource se retira cuando existe
+ * una ConnectionFactory, aquí se registran las propiedades spring.datasource que usan los pools de BulkheadConfig.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactivoConfig implements WebFluxConfigurer {
+
+    /**
+     * Netty en lugar de Tomcat, que también está en el classpath por el modo servlet
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    /**
+     * El gestor de transacciones R2DBC no se registra como bean: @Transactional sigue resolviendo el de JPA
+     */
+    @Bean
+    public TransactionalOperator transactionalOperatorReactivo(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new HandlerMethodArgumentResolver() {
+            @Override
+            public boolean supportsParameter(MethodParameter parameter) {
+                return WebRequest.class.equals(parameter.getParameterType());
+            }
+
+            @Override
+            public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+                                                ServerWebExchange exchange) {
+                return Mono.just(new WebRequestReactivo(exchange));
+            }
+        });
+    }
+}
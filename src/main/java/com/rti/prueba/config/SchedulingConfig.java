@@ -0,0 +1,12 @@
+package com.rti.prueba.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas (limpieza de exportaciones, etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
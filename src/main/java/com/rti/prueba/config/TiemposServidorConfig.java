@@ -0,0 +1,86 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.ClienteService;
+import com.rti.prueba.service.tiempos.TiemposSolicitud;
+import jakarta.validation.Validator;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+
+import java.util.function.Function;
+
+/**
+ * Puntos de medición de la cabecera Server-Timing: Bean Validation, ClienteService, cada consulta de ClienteJPA,
+ * ClienteMapper y las sentencias SQL de Hibernate. Solo registran tiempos cuando la solicitud está muestreada
+ * (ver TiemposServidorFilter).
+ */
+@Configuration
+public class TiemposServidorConfig {
+
+    @Bean
+    public static BeanPostProcessor tiemposServidorPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String nombre) {
+                if (bean instanceof ClienteService) {
+                    return cronometrar(bean, metodo -> "servicio");
+                }
+                if (bean instanceof ClienteJPA) {
+                    return cronometrar(bean, metodo -> "jpa-" + metodo);
+                }
+                if (bean instanceof ClienteMapper) {
+                    return cronometrar(bean, metodo -> "mapper");
+                }
+                if (bean instanceof Validator) {
+                    return cronometrar(bean, metodo -> "validacion");
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasCustomizer() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+            TiemposSolicitud tiempos = TiemposSolicitud.actual();
+            if (tiempos != null) {
+                tiempos.contarSentencia();
+            }
+            return sql;
+        });
+    }
+
+    /**
+     * Añadir el cronómetro al proxy existente (transacciones, repositorio) o envolver el bean en uno nuevo
+     */
+    private static Object cronometrar(Object bean, Function<String, String> fase) {
+        MethodInterceptor cronometro = invocacion -> {
+            TiemposSolicitud tiempos = TiemposSolicitud.actual();
+            if (tiempos == null || invocacion.getMethod().getDeclaringClass() == Object.class) {
+                return invocacion.proceed();
+            }
+            long inicio = System.nanoTime();
+            try {
+                return invocacion.proceed();
+            } finally {
+                tiempos.registrar(fase.apply(invocacion.getMethod().getName()), System.nanoTime() - inicio);
+            }
+        };
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, cronometro);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice(cronometro);
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,22 @@
+package com.rti.prueba.config;
+
+import com.rti.prueba.bd.PlazoJpaTransactionManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Gestor de transacciones con el plazo de la solicitud, en lugar del JpaTransactionManager de Spring Boot
+ */
+@Configuration
+public class TransaccionConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        PlazoJpaTransactionManager transactionManager = new PlazoJpaTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
@@ -1,44 +1,110 @@
 package com.rti.prueba.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.controller.dto.CambioClienteDTO;
+import com.rti.prueba.controller.dto.ClienteAnaliticaFiltroDTO;
+import com.rti.prueba.controller.dto.ClienteBulkDeleteDTO;
+import com.rti.prueba.controller.dto.ClienteBulkResultadoDTO;
+import com.rti.prueba.controller.dto.ClienteBulkUpdateDTO;
 import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteExportRequestDTO;
+import com.rti.prueba.controller.dto.ClienteImportResultadoDTO;
+import com.rti.prueba.controller.dto.ClientePatchDTO;
 import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.controller.dto.ClienteSegmentoDTO;
+import com.rti.prueba.controller.dto.ClienteSegmentoFiltroDTO;
 import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.controller.dto.ConteoGrupoDTO;
+import com.rti.prueba.controller.dto.ExportacionEstadoDTO;
+import com.rti.prueba.controller.dto.IndiceMemoriaDTO;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.enums.DimensionAnalitica;
+import com.rti.prueba.exception.ClienteValidationException;
+import com.rti.prueba.service.ClienteAnaliticaService;
+import com.rti.prueba.service.ClienteBulkService;
+import com.rti.prueba.service.ClienteExportService;
+import com.rti.prueba.service.ClienteImportService;
 import com.rti.prueba.service.ClienteService;
+import com.rti.prueba.service.bulkhead.Bulkheads;
+import com.rti.prueba.service.diario.AuditoriaClientes;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Controlador REST para la gestión de clientes
+ * Controlador REST para la gestión de clientes.
+ * Las operaciones con base de datos se ejecutan en el ejecutor de su clase de trabajo (Bulkheads).
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/clientes")
 @CrossOrigin(origins = "*")
 @RequiredArgsConstructor
 public class ClienteController {
 
+    static final String MEDIA_TYPE_MERGE_PATCH = "application/merge-patch+json";
+    static final String MEDIA_TYPE_SMILE = "application/x-jackson-smile";
+    // Atributos de solicitud con los que Tomcat anuncia y recibe un envío por sendfile
+    private static final String SENDFILE_SOPORTADO = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_ARCHIVO = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FIN = "org.apache.tomcat.sendfile.end";
+    private static final Set<String> CAMPOS_PARCHEABLES = Set.of(
+            "nombre", "apellidos", "fechaNacimiento", "ciudad", "correoElectronico", "telefono", "ocupacion");
+
     private final ClienteService clienteService;
+    // Operaciones masivas e importaciones: con inicialización diferida se crean en su primera solicitud
+    @Lazy
+    private final ClienteBulkService clienteBulkService;
+    @Lazy
+    private final ClienteImportService clienteImportService;
+    private final ClienteExportService clienteExportService;
+    private final ClienteAnaliticaService clienteAnaliticaService;
+    private final AuditoriaClientes auditoriaClientes;
+    private final Bulkheads bulkheads;
+    private final ObjectMapper objectMapper;
+    // Su mapeador lee la ocupación como código compacto; sirve para convertir parches CBOR y Smile
+    private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+    private final Validator validator;
 
     /**
      * Crear un nuevo cliente
      * POST /api/clientes
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> crearCliente(@Valid @RequestBody ClienteCreateDTO clienteCreateDTO) {
-        String mensaje = clienteService.crearCliente(clienteCreateDTO);
-        
-        Map<String, Object> response = Map.of(
-                "success", true,
-                "message", mensaje,
-                "data", clienteCreateDTO.getNumeroDocumento()
-        );
-        
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> crearCliente(@Valid @RequestBody ClienteCreateDTO clienteCreateDTO) {
+        return bulkheads.ejecutar(ClaseTrabajo.ESCRITURA, () -> {
+            String mensaje = clienteService.crearCliente(clienteCreateDTO);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", mensaje,
+                    "data", clienteCreateDTO.getNumeroDocumento()
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
 
     /**
@@ -46,17 +112,19 @@ public class ClienteController {
      * GET /api/clientes
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> obtenerTodosLosClientes() {
-        List<ClienteResponseDTO> clientes = clienteService.obtenerTodosLosClientes();
-        
-        Map<String, Object> response = Map.of(
-                "success", true,
-                "message", "Clientes obtenidos exitosamente",
-                "data", clientes,
-                "total", clientes.size()
-        );
-        
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> obtenerTodosLosClientes() {
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            List<ClienteResponseDTO> clientes = clienteService.obtenerTodosLosClientes();
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Clientes obtenidos exitosamente",
+                    "data", clientes,
+                    "total", clientes.size()
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
     }
 
     /**
@@ -64,36 +132,95 @@ public class ClienteController {
      * GET /api/clientes/{numeroDocumento}
      */
     @GetMapping("/{numeroDocumento}")
-    public ResponseEntity<Map<String, Object>> obtenerClientePorDocumento(@PathVariable String numeroDocumento) {
-        ClienteResponseDTO cliente = clienteService.obtenerClientePorDocumento(numeroDocumento);
-        
-        Map<String, Object> response = Map.of(
-                "success", true,
-                "message", "Cliente encontrado exitosamente",
-                "data", cliente
-        );
-        
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> obtenerClientePorDocumento(@PathVariable String numeroDocumento) {
+        return bulkheads.ejecutar(ClaseTrabajo.PUNTUAL, () -> {
+            ClienteResponseDTO cliente = clienteService.obtenerClientePorDocumento(numeroDocumento);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Cliente encontrado exitosamente",
+                    "data", cliente
+            );
+
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(cliente.getVersion()))
+                    .body(response);
+        });
+    }
+
+    /**
+     * Historial de cambios de un cliente desde el diario de auditoría de este nodo
+     * GET /api/clientes/{numeroDocumento}/historial
+     */
+    @GetMapping("/{numeroDocumento}/historial")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> obtenerHistorialCliente(@PathVariable String numeroDocumento) {
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            List<CambioClienteDTO> historial = auditoriaClientes.historial(numeroDocumento);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Historial obtenido exitosamente",
+                    "data", historial,
+                    "total", historial.size()
+            );
+
+            return ResponseEntity.ok(response);
+        });
     }
 
     /**
      * Actualizar un cliente
      * PUT /api/clientes/{numeroDocumento}
+     * El encabezado opcional If-Match con la versión (ETag) obtenida en el GET activa el control optimista; en ese
+     * caso la respuesta lleva como ETag la nueva versión para encadenar escrituras sin volver a consultar.
+     * Sin If-Match no se devuelve ETag: conocer la versión costaría una lectura adicional
      */
     @PutMapping("/{numeroDocumento}")
-    public ResponseEntity<Map<String, Object>> actualizarCliente(
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> actualizarCliente(
             @PathVariable String numeroDocumento,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ClienteUpdateDTO clienteUpdateDTO) {
-        
-        String mensaje = clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO);
-        
-        Map<String, Object> response = Map.of(
-                "success", true,
-                "message", mensaje,
-                "data", numeroDocumento
-        );
-        
-        return new ResponseEntity<>(response, HttpStatus.OK);
+        return bulkheads.ejecutar(ClaseTrabajo.ESCRITURA, () -> {
+
+            Long versionEsperada = parsearVersion(ifMatch);
+            String mensaje = clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO, versionEsperada);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", mensaje,
+                    "data", numeroDocumento
+            );
+
+            return conVersionNueva(ResponseEntity.ok(), versionEsperada).body(response);
+        });
+    }
+
+    /**
+     * Actualizar parcialmente un cliente (JSON Merge Patch, RFC 7396)
+     * PATCH /api/clientes/{numeroDocumento}
+     * Solo se validan y escriben los campos presentes en el parche; también se acepta el parche en CBOR o Smile
+     */
+    @PatchMapping(value = "/{numeroDocumento}", consumes = {MEDIA_TYPE_MERGE_PATCH, MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, MEDIA_TYPE_SMILE})
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> parchearCliente(
+            @PathVariable String numeroDocumento,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestBody Map<String, Object> parche) {
+        ObjectMapper lector = lectorParche(contentType, objectMapper, cborHttpMessageConverter);
+        return bulkheads.ejecutar(ClaseTrabajo.ESCRITURA, () -> {
+
+            String mensaje = clienteService.parchearCliente(numeroDocumento,
+                    leerParche(parche, lector, validator), parsearVersion(ifMatch));
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", mensaje,
+                    "data", numeroDocumento
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
     }
 
     /**
@@ -101,34 +228,348 @@ public class ClienteController {
      * DELETE /api/clientes/{numeroDocumento}
      */
     @DeleteMapping("/{numeroDocumento}")
-    public ResponseEntity<Map<String, Object>> eliminarCliente(@PathVariable String numeroDocumento) {
-        String mensaje = clienteService.eliminarCliente(numeroDocumento);
-        
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> eliminarCliente(@PathVariable String numeroDocumento) {
+        return bulkheads.ejecutar(ClaseTrabajo.ESCRITURA, () -> {
+            String mensaje = clienteService.eliminarCliente(numeroDocumento);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", mensaje,
+                    "data", numeroDocumento
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Eliminar masivamente clientes por lista de documentos o filtro
+     * POST /api/clientes/masivo/eliminar
+     */
+    @PostMapping("/masivo/eliminar")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> eliminarClientesMasivo(@Valid @RequestBody ClienteBulkDeleteDTO clienteBulkDeleteDTO) {
+        return bulkheads.ejecutar(ClaseTrabajo.MASIVA, () -> {
+            ClienteBulkResultadoDTO resultado = clienteBulkService.eliminarClientes(clienteBulkDeleteDTO);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Eliminación masiva completada exitosamente",
+                    "data", resultado
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Actualizar masivamente ciudad u ocupación por lista de documentos o filtro
+     * POST /api/clientes/masivo/actualizar
+     */
+    @PostMapping("/masivo/actualizar")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> actualizarClientesMasivo(@Valid @RequestBody ClienteBulkUpdateDTO clienteBulkUpdateDTO) {
+        return bulkheads.ejecutar(ClaseTrabajo.MASIVA, () -> {
+            ClienteBulkResultadoDTO resultado = clienteBulkService.actualizarClientes(clienteBulkUpdateDTO);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Actualización masiva completada exitosamente",
+                    "data", resultado
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Importar clientes desde un archivo CSV con encabezado, procesado en streaming
+     * POST /api/clientes/importaciones
+     */
+    @PostMapping(value = "/importaciones", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> importarClientes(InputStream csv) {
+        return bulkheads.ejecutar(ClaseTrabajo.MASIVA, () -> {
+            ClienteImportResultadoDTO resultado = clienteImportService.importarCsv(csv);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Importación completada. Importados: " + resultado.getFilasImportadas()
+                            + ", rechazados: " + resultado.getFilasRechazadas(),
+                    "data", resultado
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Iniciar una exportación asíncrona a CSV o NDJSON comprimido
+     * POST /api/clientes/exports
+     */
+    @PostMapping("/exports")
+    public ResponseEntity<Map<String, Object>> iniciarExportacion(@Valid @RequestBody ClienteExportRequestDTO clienteExportRequestDTO) {
+        ExportacionEstadoDTO exportacion = clienteExportService.iniciarExportacion(clienteExportRequestDTO);
+
         Map<String, Object> response = Map.of(
                 "success", true,
-                "message", mensaje,
-                "data", numeroDocumento
+                "message", "Exportación iniciada",
+                "data", exportacion
         );
-        
-        return new ResponseEntity<>(response, HttpStatus.OK);
+
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/clientes/exports/" + exportacion.getId()))
+                .body(response);
     }
 
     /**
-     * Buscar clientes por nombre o apellidos
-     * GET /api/clientes/buscar?q={termino}
+     * Consultar el estado y el progreso de una exportación
+     * GET /api/clientes/exports/{id}
      */
-    @GetMapping("/buscar")
-    public ResponseEntity<Map<String, Object>> buscarClientes(@RequestParam("q") String termino) {
-        List<ClienteResponseDTO> clientes = clienteService.buscarClientesPorNombreOApellidos(termino);
-        
+    @GetMapping("/exports/{id}")
+    public ResponseEntity<Map<String, Object>> obtenerExportacion(@PathVariable String id) {
+        ExportacionEstadoDTO exportacion = clienteExportService.obtenerEstado(id);
+
         Map<String, Object> response = Map.of(
                 "success", true,
-                "message", "Búsqueda completada exitosamente",
-                "data", clientes,
-                "total", clientes.size(),
-                "termino", termino
+                "message", "Estado de la exportación obtenido exitosamente",
+                "data", exportacion
         );
-        
+
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    /**
+     * Descargar el archivo de una exportación completada
+     * GET /api/clientes/exports/{id}/archivo
+     * Si el conector lo admite, Tomcat envía el archivo con sendfile desde el núcleo, sin copiarlo a la JVM;
+     * si no, se copia a la salida del servlet.
+     */
+    @GetMapping("/exports/{id}/archivo")
+    public ResponseEntity<StreamingResponseBody> descargarExportacion(@PathVariable String id, HttpServletRequest request) {
+        ClienteExportService.ArchivoExportacion archivo = clienteExportService.obtenerArchivo(id);
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .contentLength(archivo.tamano())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(archivo.nombre()).build().toString());
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SOPORTADO))) {
+            request.setAttribute(SENDFILE_ARCHIVO, archivo.ruta().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_INICIO, 0L);
+            request.setAttribute(SENDFILE_FIN, archivo.tamano());
+            return respuesta.build();
+        }
+        return respuesta.body(salida -> clienteExportService.transferir(archivo, salida));
+    }
+
+    /**
+     * Obtener un cliente por correo electrónico
+     * GET /api/clientes/por-correo?correo={correo}
+     */
+    @GetMapping("/por-correo")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> obtenerClientePorCorreo(@RequestParam("correo") String correo) {
+        return bulkheads.ejecutar(ClaseTrabajo.PUNTUAL, () -> {
+            ClienteResponseDTO cliente = clienteService.obtenerClientePorCorreo(correo);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Cliente encontrado exitosamente",
+                    "data", cliente
+            );
+
+            return ResponseEntity.ok()
+                    .eTag(String.valueOf(cliente.getVersion()))
+                    .body(response);
+        });
+    }
+
+    /**
+     * Buscar clientes por nombre o apellidos
+     * GET /api/clientes/buscar?q={termino}
+     */
+    @GetMapping("/buscar")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> buscarClientes(@RequestParam("q") String termino) {
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            List<ClienteResponseDTO> clientes = clienteService.buscarClientesPorNombreOApellidos(termino);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Búsqueda completada exitosamente",
+                    "data", clientes,
+                    "total", clientes.size(),
+                    "termino", termino
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Contar los clientes que cumplen el filtro sobre la instantánea analítica
+     * GET /api/clientes/analitica/conteo?ciudad=&ocupacion=&esViable=&edadMinima=&edadMaxima=
+     */
+    @GetMapping("/analitica/conteo")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> contarClientes(@Valid @ModelAttribute ClienteAnaliticaFiltroDTO filtro) {
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            long total = clienteAnaliticaService.contar(filtro);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Conteo completado exitosamente",
+                    "data", total
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Histograma de edades por cohortes de los clientes que cumplen el filtro
+     * GET /api/clientes/analitica/edades?ancho={años}
+     */
+    @GetMapping("/analitica/edades")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> histogramaEdades(@Valid @ModelAttribute ClienteAnaliticaFiltroDTO filtro,
+                                                                                  @RequestParam(value = "ancho", defaultValue = "10") int ancho) {
+        if (ancho < 1 || ancho > 150) {
+            throw new ClienteValidationException("El ancho de la cohorte debe estar entre 1 y 150 años");
+        }
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            List<ConteoGrupoDTO> cohortes = clienteAnaliticaService.histogramaEdades(filtro, ancho);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Histograma de edades obtenido exitosamente",
+                    "data", cohortes
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Contar los clientes que cumplen el filtro agrupados por ciudad, ocupación o viabilidad
+     * GET /api/clientes/analitica/grupos?por={CIUDAD|OCUPACION|VIABILIDAD}
+     */
+    @GetMapping("/analitica/grupos")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> agruparClientes(@Valid @ModelAttribute ClienteAnaliticaFiltroDTO filtro,
+                                                                                 @RequestParam("por") String por) {
+        DimensionAnalitica dimension = DimensionAnalitica.fromValor(por);
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            List<ConteoGrupoDTO> grupos = clienteAnaliticaService.agrupar(dimension, filtro);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Agrupación completada exitosamente",
+                    "data", grupos,
+                    "total", grupos.size()
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Segmentar clientes con los índices de mapas de bits: cualquiera de las ciudades y de las ocupaciones
+     * GET /api/clientes/analitica/segmentos?ciudades=Medellín,Cali&ocupaciones=INDEPENDIENTE&esViable=true&pagina=0&tamano=100
+     */
+    @GetMapping("/analitica/segmentos")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> segmentarClientes(@Valid @ModelAttribute ClienteSegmentoFiltroDTO filtro) {
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            ClienteSegmentoDTO segmento = clienteAnaliticaService.segmentar(filtro);
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Segmentación completada exitosamente",
+                    "data", segmento
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Memoria ocupada por cada índice de segmentación
+     * GET /api/clientes/analitica/indices
+     */
+    @GetMapping("/analitica/indices")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> memoriaIndices() {
+        return bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA, () -> {
+            List<IndiceMemoriaDTO> indices = clienteAnaliticaService.memoriaIndices();
+
+            Map<String, Object> response = Map.of(
+                    "success", true,
+                    "message", "Memoria de los índices obtenida exitosamente",
+                    "data", indices,
+                    "bytesTotales", indices.stream().mapToLong(IndiceMemoriaDTO::getBytes).sum()
+            );
+
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        });
+    }
+
+    /**
+     * Mapeador con el que convertir el parche: los cuerpos CBOR y Smile pueden traer la ocupación como código
+     * numérico, que el mapeador JSON rechaza
+     */
+    static ObjectMapper lectorParche(MediaType contentType, ObjectMapper objectMapper,
+                                     MappingJackson2CborHttpMessageConverter cborHttpMessageConverter) {
+        boolean binario = MediaType.APPLICATION_CBOR.isCompatibleWith(contentType)
+                || MediaType.valueOf(MEDIA_TYPE_SMILE).isCompatibleWith(contentType);
+        return binario ? cborHttpMessageConverter.getObjectMapper() : objectMapper;
+    }
+
+    /**
+     * Convertir el documento de parche en un DTO validando solo los campos presentes.
+     * Un valor null (eliminar el campo en Merge Patch) se rechaza porque todos los campos son obligatorios
+     */
+    static ClientePatchDTO leerParche(Map<String, Object> parche, ObjectMapper objectMapper, Validator validator) {
+        List<String> noModificables = parche.keySet().stream()
+                .filter(campo -> !CAMPOS_PARCHEABLES.contains(campo))
+                .sorted()
+                .toList();
+        if (!noModificables.isEmpty()) {
+            throw new ClienteValidationException("Campos no modificables en el parche: " + String.join(", ", noModificables));
+        }
+
+        ClienteUpdateDTO valores;
+        try {
+            valores = objectMapper.convertValue(parche, ClienteUpdateDTO.class);
+        } catch (IllegalArgumentException e) {
+            throw new ClienteValidationException("El parche contiene valores con formato inválido");
+        }
+
+        Set<ConstraintViolation<ClienteUpdateDTO>> violaciones = new LinkedHashSet<>();
+        parche.keySet().forEach(campo -> violaciones.addAll(validator.validateProperty(valores, campo)));
+        if (!violaciones.isEmpty()) {
+            throw new ConstraintViolationException(violaciones);
+        }
+
+        return new ClientePatchDTO(valores, Set.copyOf(parche.keySet()));
+    }
+
+    /**
+     * Añadir como ETag la versión que deja una escritura condicionada a If-Match: el UPDATE con la versión esperada
+     * la incrementa exactamente en uno. También lo usa ClienteControllerReactivo
+     */
+    static ResponseEntity.BodyBuilder conVersionNueva(ResponseEntity.BodyBuilder respuesta, Long versionEsperada) {
+        return versionEsperada == null ? respuesta : respuesta.eTag(String.valueOf(versionEsperada + 1));
+    }
+
+    /**
+     * Convertir el valor de If-Match ("3", "\"3\"" o "W/\"3\"") en la versión esperada.
+     * También lo usa ClienteControllerReactivo
+     */
+    static Long parsearVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.startsWith("W/")) {
+            valor = valor.substring(2);
+        }
+        valor = valor.replace("\"", "");
+        try {
+            return Long.valueOf(valor);
+        } catch (NumberFormatException e) {
+            throw new ClienteValidationException("El encabezado If-Match debe contener la versión del cliente");
+        }
+    }
 }
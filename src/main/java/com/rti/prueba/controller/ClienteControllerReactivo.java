@@ -0,0 +1,206 @@
+package com.rti.prueba.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.service.ClienteServiceReactivo;
+import com.rti.prueba.service.diario.AuditoriaClientes;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controlador REST de clientes del modo reactivo (perfil reactivo) con las mismas rutas, respuestas y errores
+ * que ClienteController para el alta, las lecturas, la búsqueda, la actualización completa y parcial, la eliminación
+ * y el historial. El plazo y la idempotencia de las solicitudes se aplican con PlazoWebFilter e IdempotenciaWebFilter.
+ * Las operaciones masivas, la importación y exportación y la analítica solo existen en el modo servlet: procesan
+ * lotes y ficheros con JPA y JDBC bloqueantes en las particiones de trabajo masivo.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/api/clientes")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+public class ClienteControllerReactivo {
+
+    private final ClienteServiceReactivo clienteServiceReactivo;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+    private final AuditoriaClientes auditoriaClientes;
+
+    /**
+     * Crear un nuevo cliente
+     * POST /api/clientes
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Map<String, Object>>> crearCliente(@RequestBody ClienteCreateDTO clienteCreateDTO) {
+        return validar(clienteCreateDTO)
+                .flatMap(clienteServiceReactivo::crearCliente)
+                .map(mensaje -> new ResponseEntity<>(Map.<String, Object>of(
+                        "success", true,
+                        "message", mensaje,
+                        "data", clienteCreateDTO.getNumeroDocumento()
+                ), HttpStatus.CREATED));
+    }
+
+    /**
+     * Obtener todos los clientes
+     * GET /api/clientes
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Map<String, Object>>> obtenerTodosLosClientes() {
+        return clienteServiceReactivo.obtenerTodosLosClientes()
+                .map(clientes -> ResponseEntity.ok(Map.<String, Object>of(
+                        "success", true,
+                        "message", "Clientes obtenidos exitosamente",
+                        "data", clientes,
+                        "total", clientes.size()
+                )));
+    }
+
+    /**
+     * Obtener un cliente por número de documento
+     * GET /api/clientes/{numeroDocumento}
+     */
+    @GetMapping("/{numeroDocumento}")
+    public Mono<ResponseEntity<Map<String, Object>>> obtenerClientePorDocumento(@PathVariable String numeroDocumento) {
+        return clienteServiceReactivo.obtenerClientePorDocumento(numeroDocumento)
+                .map(cliente -> ResponseEntity.ok()
+                        .eTag(String.valueOf(cliente.getVersion()))
+                        .body(Map.<String, Object>of(
+                                "success", true,
+                                "message", "Cliente encontrado exitosamente",
+                                "data", cliente
+                        )));
+    }
+
+    /**
+     * Obtener un cliente por correo electrónico
+     * GET /api/clientes/por-correo?correo={correo}
+     */
+    @GetMapping("/por-correo")
+    public Mono<ResponseEntity<Map<String, Object>>> obtenerClientePorCorreo(@RequestParam("correo") String correo) {
+        return clienteServiceReactivo.obtenerClientePorCorreo(correo)
+                .map(cliente -> ResponseEntity.ok()
+                        .eTag(String.valueOf(cliente.getVersion()))
+                        .body(Map.<String, Object>of(
+                                "success", true,
+                                "message", "Cliente encontrado exitosamente",
+                                "data", cliente
+                        )));
+    }
+
+    /**
+     * Buscar clientes por nombre o apellidos
+     * GET /api/clientes/buscar?q={termino}
+     */
+    @GetMapping("/buscar")
+    public Mono<ResponseEntity<Map<String, Object>>> buscarClientes(@RequestParam("q") String termino) {
+        return clienteServiceReactivo.buscarClientesPorNombreOApellidos(termino)
+                .map(clientes -> ResponseEntity.ok(Map.<String, Object>of(
+                        "success", true,
+                        "message", "Búsqueda completada exitosamente",
+                        "data", clientes,
+                        "total", clientes.size(),
+                        "termino", termino
+                )));
+    }
+
+    /**
+     * Historial de cambios de un cliente desde el diario de auditoría de este nodo
+     * GET /api/clientes/{numeroDocumento}/historial
+     * El diario se lee de disco, por eso la lectura se hace en un hilo elástico
+     */
+    @GetMapping("/{numeroDocumento}/historial")
+    public Mono<ResponseEntity<Map<String, Object>>> obtenerHistorialCliente(@PathVariable String numeroDocumento) {
+        return Mono.fromCallable(() -> auditoriaClientes.historial(numeroDocumento))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(historial -> ResponseEntity.ok(Map.<String, Object>of(
+                        "success", true,
+                        "message", "Historial obtenido exitosamente",
+                        "data", historial,
+                        "total", historial.size()
+                )));
+    }
+
+    /**
+     * Actualizar un cliente
+     * PUT /api/clientes/{numeroDocumento}
+     * El encabezado opcional If-Match con la versión (ETag) obtenida en el GET activa el control optimista; en ese
+     * caso la respuesta lleva como ETag la nueva versión
+     */
+    @PutMapping("/{numeroDocumento}")
+    public Mono<ResponseEntity<Map<String, Object>>> actualizarCliente(
+            @PathVariable String numeroDocumento,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody ClienteUpdateDTO clienteUpdateDTO) {
+        Long versionEsperada = ClienteController.parsearVersion(ifMatch);
+        return validar(clienteUpdateDTO)
+                .flatMap(dto -> clienteServiceReactivo.actualizarCliente(numeroDocumento, dto, versionEsperada))
+                .map(mensaje -> ClienteController.conVersionNueva(ResponseEntity.ok(), versionEsperada).body(Map.<String, Object>of(
+                        "success", true,
+                        "message", mensaje,
+                        "data", numeroDocumento
+                )));
+    }
+
+    /**
+     * Actualizar parcialmente un cliente (JSON Merge Patch, RFC 7396)
+     * PATCH /api/clientes/{numeroDocumento}
+     * Solo se validan y escriben los campos presentes en el parche; también se acepta el parche en CBOR o Smile
+     */
+    @PatchMapping(value = "/{numeroDocumento}", consumes = {ClienteController.MEDIA_TYPE_MERGE_PATCH,
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ClienteController.MEDIA_TYPE_SMILE})
+    public Mono<ResponseEntity<Map<String, Object>>> parchearCliente(
+            @PathVariable String numeroDocumento,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestBody Map<String, Object> parche) {
+        ObjectMapper lector = ClienteController.lectorParche(contentType, objectMapper, cborHttpMessageConverter);
+        return Mono.fromCallable(() -> ClienteController.leerParche(parche, lector, validator))
+                .flatMap(dto -> clienteServiceReactivo.parchearCliente(
+                        numeroDocumento, dto, ClienteController.parsearVersion(ifMatch)))
+                .map(mensaje -> ResponseEntity.ok(Map.<String, Object>of(
+                        "success", true,
+                        "message", mensaje,
+                        "data", numeroDocumento
+                )));
+    }
+
+    /**
+     * Eliminar un cliente
+     * DELETE /api/clientes/{numeroDocumento}
+     */
+    @DeleteMapping("/{numeroDocumento}")
+    public Mono<ResponseEntity<Map<String, Object>>> eliminarCliente(@PathVariable String numeroDocumento) {
+        return clienteServiceReactivo.eliminarCliente(numeroDocumento)
+                .map(mensaje -> ResponseEntity.ok(Map.<String, Object>of(
+                        "success", true,
+                        "message", mensaje,
+                        "data", numeroDocumento
+                )));
+    }
+
+    /**
+     * Validación con el mismo Validator que @Valid en el modo servlet; los errores llegan al GlobalExceptionHandler
+     * como ConstraintViolationException con un error por campo
+     */
+    private <T> Mono<T> validar(T dto) {
+        Set<ConstraintViolation<T>> violaciones = validator.validate(dto);
+        return violaciones.isEmpty() ? Mono.just(dto) : Mono.error(new ConstraintViolationException(violaciones));
+    }
+}
@@ -0,0 +1,23 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.OperacionCambio;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * DTO de un cambio del historial de auditoría de un cliente
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioClienteDTO {
+
+    private long secuencia;
+    private Instant instante;
+    private OperacionCambio operacion;
+    private Map<String, String> campos;
+}
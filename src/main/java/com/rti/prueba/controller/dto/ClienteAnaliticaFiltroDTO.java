@@ -0,0 +1,33 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.Ocupacion;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los criterios de las consultas analíticas de clientes. Los criterios nulos no se aplican
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteAnaliticaFiltroDTO {
+
+    @Size(max = 100, message = "La ciudad no puede tener más de 100 caracteres")
+    private String ciudad;
+
+    private Ocupacion ocupacion;
+
+    private Boolean esViable;
+
+    @Min(value = 0, message = "La edad mínima no puede ser negativa")
+    @Max(value = 150, message = "La edad mínima no puede ser mayor a 150")
+    private Integer edadMinima;
+
+    @Min(value = 0, message = "La edad máxima no puede ser negativa")
+    @Max(value = 150, message = "La edad máxima no puede ser mayor a 150")
+    private Integer edadMaxima;
+}
@@ -0,0 +1,22 @@
+package com.rti.prueba.controller.dto;
+
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para eliminar masivamente los clientes de una lista de documentos o que cumplan un filtro
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteBulkDeleteDTO {
+
+    private List<String> numerosDocumento;
+
+    @Valid
+    private ClienteFiltroDTO filtro;
+}
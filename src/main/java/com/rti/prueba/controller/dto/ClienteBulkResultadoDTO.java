@@ -0,0 +1,17 @@
+package com.rti.prueba.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el resultado de una operación masiva
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteBulkResultadoDTO {
+
+    private long filasAfectadas;
+    private int lotes;
+}
@@ -0,0 +1,32 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.Ocupacion;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO para actualizar masivamente la ciudad y/o la ocupación de los clientes
+ * de una lista de documentos o que cumplan un filtro
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteBulkUpdateDTO {
+
+    private List<String> numerosDocumento;
+
+    @Valid
+    private ClienteFiltroDTO filtro;
+
+    @Size(max = 100, message = "La ciudad no puede tener más de 100 caracteres")
+    @Pattern(regexp = ".*\\S.*", message = "La ciudad no puede estar vacía")
+    private String ciudad;
+
+    private Ocupacion ocupacion;
+}
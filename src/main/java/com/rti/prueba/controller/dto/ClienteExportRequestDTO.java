@@ -0,0 +1,23 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.FormatoExportacion;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para solicitar una exportación de clientes
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteExportRequestDTO {
+
+    @NotNull(message = "El formato es obligatorio")
+    private FormatoExportacion formato = FormatoExportacion.CSV;
+
+    @Valid
+    private ClienteFiltroDTO filtro;
+}
@@ -0,0 +1,27 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.Ocupacion;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los criterios de filtrado de clientes. Los criterios nulos no se aplican
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteFiltroDTO {
+
+    @Size(max = 100, message = "La ciudad no puede tener más de 100 caracteres")
+    private String ciudad;
+
+    private Ocupacion ocupacion;
+
+    private Boolean esViable;
+
+    public boolean estaVacio() {
+        return ciudad == null && ocupacion == null && esViable == null;
+    }
+}
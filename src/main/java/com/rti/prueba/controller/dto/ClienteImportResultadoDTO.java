@@ -0,0 +1,38 @@
+package com.rti.prueba.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el resultado de una importación de clientes desde CSV
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteImportResultadoDTO {
+
+    private long filasLeidas;
+    private long filasImportadas;
+    private long filasRechazadas;
+    private long duracionMs;
+    private long filasPorSegundo;
+    private List<FilaRechazadaDTO> rechazos = new ArrayList<>();
+    /** Rechazos no incluidos en el detalle por superar el máximo configurado */
+    private long rechazosOmitidos;
+
+    /**
+     * Fila rechazada y sus motivos
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FilaRechazadaDTO {
+        private long linea;
+        private String numeroDocumento;
+        private List<String> motivos;
+    }
+}
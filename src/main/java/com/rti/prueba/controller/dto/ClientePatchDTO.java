@@ -0,0 +1,24 @@
+package com.rti.prueba.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * DTO para la actualización parcial (JSON Merge Patch) de un cliente.
+ * Contiene los valores enviados y los nombres de los campos presentes en el parche
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientePatchDTO {
+
+    private ClienteUpdateDTO valores;
+    private Set<String> campos;
+
+    public boolean contiene(String campo) {
+        return campos.contains(campo);
+    }
+}
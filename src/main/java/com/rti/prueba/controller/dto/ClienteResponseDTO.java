@@ -25,4 +25,5 @@ public class ClienteResponseDTO {
     private Ocupacion ocupacion;
     private Boolean esViable;
     private int edad;
+    private Long version;
 }
@@ -0,0 +1,21 @@
+package com.rti.prueba.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con el total de clientes de un segmento y una página de sus números de documento
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteSegmentoDTO {
+
+    private long total;
+    private int pagina;
+    private int tamano;
+    private List<String> numerosDocumento;
+}
@@ -0,0 +1,35 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.Ocupacion;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO con los criterios de segmentación: cualquiera de las ciudades, cualquiera de las ocupaciones y la viabilidad.
+ * Los criterios nulos o vacíos no se aplican
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteSegmentoFiltroDTO {
+
+    @Size(max = 100, message = "No se pueden indicar más de 100 ciudades")
+    private List<String> ciudades;
+
+    private List<Ocupacion> ocupaciones;
+
+    private Boolean esViable;
+
+    @Min(value = 0, message = "La página no puede ser negativa")
+    private int pagina = 0;
+
+    @Min(value = 1, message = "El tamaño de página debe ser al menos 1")
+    @Max(value = 1000, message = "El tamaño de página no puede ser mayor a 1000")
+    private int tamano = 100;
+}
@@ -0,0 +1,18 @@
+package com.rti.prueba.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el número de clientes de un grupo (ciudad, ocupación, viabilidad o cohorte de edad)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConteoGrupoDTO {
+
+    private String grupo;
+
+    private long total;
+}
@@ -0,0 +1,29 @@
+package com.rti.prueba.controller.dto;
+
+import com.rti.prueba.enums.EstadoExportacion;
+import com.rti.prueba.enums.FormatoExportacion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO con el estado y el progreso de una exportación
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportacionEstadoDTO {
+
+    private String id;
+    private EstadoExportacion estado;
+    private FormatoExportacion formato;
+    private long totalFilas;
+    private long filasProcesadas;
+    private int porcentaje;
+    private long bytes;
+    private Instant creadaEn;
+    private Instant finalizadaEn;
+    private String error;
+}
@@ -0,0 +1,20 @@
+package com.rti.prueba.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con la memoria de un mapa de bits de los índices de segmentación
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IndiceMemoriaDTO {
+
+    private String indice;
+    private String valor;
+    private long cardinalidad;
+    private int contenedores;
+    private long bytes;
+}
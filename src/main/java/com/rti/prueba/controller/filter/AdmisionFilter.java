@@ -0,0 +1,153 @@
+package com.rti.prueba.controller.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.enums.GrupoAdmision;
+import com.rti.prueba.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Control de admisión de la API de clientes: cada grupo de operaciones (lecturas, escrituras y
+ * búsquedas/masivas) tiene su propio límite de concurrencia adaptativo. Las solicitudes que lo superan
+ * reciben de inmediato un 503 con Retry-After en lugar de encolarse en Tomcat.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class AdmisionFilter extends OncePerRequestFilter {
+
+    private static final String RUTA_BASE = "/api/clientes";
+
+    private final ClientesProperties.Admision config;
+    private final ObjectMapper objectMapper;
+    private final Map<GrupoAdmision, Limitador> limitadores = new EnumMap<>(GrupoAdmision.class);
+
+    public AdmisionFilter(ClientesProperties clientesProperties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = clientesProperties.getAdmision();
+        this.objectMapper = objectMapper;
+        limitadores.put(GrupoAdmision.LECTURAS, limitador(GrupoAdmision.LECTURAS, config.getLecturas(), meterRegistry));
+        limitadores.put(GrupoAdmision.ESCRITURAS, limitador(GrupoAdmision.ESCRITURAS, config.getEscrituras(), meterRegistry));
+        limitadores.put(GrupoAdmision.MASIVAS, limitador(GrupoAdmision.MASIVAS, config.getMasivas(), meterRegistry));
+    }
+
+    public Limitador getLimitador(GrupoAdmision grupo) {
+        return limitadores.get(grupo);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isHabilitada() || !request.getRequestURI().startsWith(RUTA_BASE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GrupoAdmision grupo = clasificar(request);
+        Limitador.Permiso permiso = limitadores.get(grupo).adquirir();
+        if (permiso == null) {
+            rechazar(request, response, grupo);
+            return;
+        }
+
+        boolean asincrona = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // Descargas en streaming: el permiso se mantiene hasta completar la respuesta
+                asincrona = true;
+                request.getAsyncContext().addListener(new LiberarAlTerminar(permiso, response));
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            permiso.ignorar();
+            throw e;
+        } finally {
+            if (!asincrona) {
+                permiso.liberar(esSobrecarga(response.getStatus()));
+            }
+        }
+    }
+
+    /**
+     * Clasificar la solicitud: búsquedas, operaciones masivas, importaciones y exportaciones comparten límite
+     */
+    static GrupoAdmision clasificar(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(RUTA_BASE.length());
+        if (ruta.startsWith("/buscar") || ruta.startsWith("/masivo/") || ruta.startsWith("/importaciones")
+                || ruta.startsWith("/exports")) {
+            return GrupoAdmision.MASIVAS;
+        }
+        String metodo = request.getMethod();
+        if (HttpMethod.GET.matches(metodo) || HttpMethod.HEAD.matches(metodo)) {
+            return GrupoAdmision.LECTURAS;
+        }
+        return GrupoAdmision.ESCRITURAS;
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, GrupoAdmision grupo) throws IOException {
+        long segundos = Math.max(1, config.getRetryAfter().toSeconds());
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Servicio sobrecargado",
+                "Se alcanzó el límite de solicitudes concurrentes de " + grupo.name().toLowerCase(Locale.ROOT)
+                        + ", intente de nuevo en " + segundos + " s",
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(segundos));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static boolean esSobrecarga(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private static Limitador limitador(GrupoAdmision grupo, ClientesProperties.Limite limite, MeterRegistry meterRegistry) {
+        return new Limitador(grupo.name().toLowerCase(Locale.ROOT), LimiteAdaptativo.de(limite), meterRegistry);
+    }
+
+    private record LiberarAlTerminar(Limitador.Permiso permiso, HttpServletResponse response) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permiso.liberar(esSobrecarga(response.getStatus()));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permiso.liberar(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permiso.ignorar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
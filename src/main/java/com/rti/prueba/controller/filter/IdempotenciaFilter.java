@@ -0,0 +1,295 @@
+package com.rti.prueba.controller.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.exception.IdempotenciaConflictoException;
+import com.rti.prueba.exception.IdempotenciaEnCursoException;
+import com.rti.prueba.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import com.rti.prueba.service.idempotencia.AlmacenIdempotencia;
+import com.rti.prueba.service.idempotencia.RespuestaIdempotente;
+import com.rti.prueba.service.plazo.Plazo;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+/**
+ * Idempotencia de las solicitudes POST de la API de clientes (altas, operaciones masivas y exportaciones).
+ * Con la cabecera Idempotency-Key, la primera solicitud se ejecuta y su respuesta se guarda junto con la huella
+ * del método, la ruta y el cuerpo; los reintentos con la misma clave reciben la respuesta guardada sin volver a
+ * ejecutarse y los duplicados concurrentes esperan a la primera ejecución. Las respuestas 5xx no se guardan.
+ * Las importaciones CSV quedan fuera porque su cuerpo se procesa en streaming.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_CLAVE = "Idempotency-Key";
+    public static final String CABECERA_REPETIDA = "Idempotent-Replayed";
+
+    private static final String RUTA_BASE = "/api/clientes";
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+    private static final String ATRIBUTO_CLAVE = IdempotenciaFilter.class.getName() + ".clave";
+
+    private final ClientesProperties.Idempotencia config;
+    private final AlmacenIdempotencia almacen;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotenciaFilter(ClientesProperties clientesProperties, AlmacenIdempotencia almacen,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = clientesProperties.getIdempotencia();
+        this.almacen = almacen;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI();
+        return !config.isHabilitada() || !HttpMethod.POST.matches(request.getMethod())
+                || !ruta.startsWith(RUTA_BASE) || ruta.startsWith(RUTA_BASE + "/importaciones");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Los controladores responden de forma asíncrona: la respuesta se guarda al terminar el despacho asíncrono
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            filterChain.doFilter(request, response);
+            if (!isAsyncStarted(request)) {
+                finalizar(request, response);
+            }
+            return;
+        }
+
+        String clave = request.getHeader(CABECERA_CLAVE);
+        if (clave == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            rechazar(request, response, HttpStatus.BAD_REQUEST, "Clave de idempotencia inválida",
+                    "La cabecera " + CABECERA_CLAVE + " debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+            return;
+        }
+
+        byte[] cuerpo = request.getInputStream().readAllBytes();
+        RespuestaIdempotente guardada;
+        try {
+            guardada = almacen.reservar(clave, huella(request, cuerpo), espera());
+        } catch (IdempotenciaConflictoException e) {
+            registrar("conflicto");
+            rechazar(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Clave de idempotencia reutilizada", e.getMessage());
+            return;
+        } catch (IdempotenciaEnCursoException e) {
+            registrar("en_curso");
+            rechazar(request, response, HttpStatus.CONFLICT, "Solicitud en curso", e.getMessage());
+            return;
+        }
+        if (guardada != null) {
+            registrar("repetida");
+            reproducir(response, guardada);
+            return;
+        }
+
+        registrar("ejecutada");
+        request.setAttribute(ATRIBUTO_CLAVE, clave);
+        ContentCachingResponseWrapper respuesta = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(new CuerpoEnMemoria(request, cuerpo), respuesta);
+        } catch (IOException | ServletException | RuntimeException e) {
+            almacen.liberar(clave);
+            throw e;
+        }
+        if (!isAsyncStarted(request)) {
+            finalizar(request, respuesta);
+        }
+    }
+
+    /**
+     * Guardar la respuesta (o liberar la clave si es un error transitorio) y enviarla al cliente
+     */
+    private void finalizar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ContentCachingResponseWrapper respuesta = WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        String clave = (String) request.getAttribute(ATRIBUTO_CLAVE);
+        if (respuesta == null || clave == null) {
+            return;
+        }
+        if (respuesta.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            almacen.liberar(clave);
+        } else {
+            almacen.completar(clave, new RespuestaIdempotente(respuesta.getStatus(), respuesta.getContentType(),
+                    respuesta.getHeader(HttpHeaders.LOCATION), respuesta.getContentAsByteArray()));
+        }
+        respuesta.copyBodyToResponse();
+    }
+
+    private void reproducir(HttpServletResponse response, RespuestaIdempotente guardada) throws IOException {
+        response.setStatus(guardada.status());
+        response.setHeader(CABECERA_REPETIDA, "true");
+        if (guardada.contentType() != null) {
+            response.setContentType(guardada.contentType());
+        }
+        if (guardada.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, guardada.location());
+        }
+        if (guardada.cuerpo() != null) {
+            response.setContentLength(guardada.cuerpo().length);
+            response.getOutputStream().write(guardada.cuerpo());
+        }
+    }
+
+    /**
+     * Espera máxima de un duplicado, acotada por el plazo de la solicitud si lo tiene
+     */
+    private Duration espera() {
+        Plazo plazo = Plazo.actual();
+        if (plazo == null) {
+            return config.getEspera();
+        }
+        Duration restante = plazo.restante();
+        return restante.compareTo(config.getEspera()) < 0 ? restante : config.getEspera();
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String error,
+                          String mensaje) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                error,
+                mensaje,
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private void registrar(String resultado) {
+        meterRegistry.counter("clientes.idempotencia.solicitudes", "resultado", resultado).increment();
+    }
+
+    /**
+     * Huella SHA-256 del método, la ruta, los parámetros y el cuerpo de la solicitud
+     */
+    static String huella(HttpServletRequest request, byte[] cuerpo) {
+        return huella(request.getMethod(), request.getRequestURI(), request.getQueryString(), cuerpo);
+    }
+
+    /**
+     * Huella SHA-256 a partir de la ruta y la consulta sin decodificar; la comparte el filtro del modo reactivo
+     */
+    static String huella(String metodo, String ruta, String consulta, byte[] cuerpo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((metodo + ' ' + ruta + '?' + consulta + '\n').getBytes(StandardCharsets.UTF_8));
+            digest.update(cuerpo);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Solicitud cuyo cuerpo ya se leyó para calcular la huella y se sirve de nuevo desde memoria
+     */
+    private static class CuerpoEnMemoria extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        CuerpoEnMemoria(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    // El cuerpo ya está en memoria: todo está disponible de inmediato
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(charset)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return cuerpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return cuerpo.length;
+        }
+    }
+}
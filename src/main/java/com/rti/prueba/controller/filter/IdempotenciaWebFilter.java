@@ -0,0 +1,231 @@
+package com.rti.prueba.controller.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.exception.IdempotenciaConflictoException;
+import com.rti.prueba.exception.IdempotenciaEnCursoException;
+import com.rti.prueba.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import com.rti.prueba.service.idempotencia.AlmacenIdempotencia;
+import com.rti.prueba.service.idempotencia.RespuestaIdempotente;
+import com.rti.prueba.service.plazo.Plazo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Idempotencia de las solicitudes POST de la API de clientes en el modo reactivo, con la misma cabecera, huella,
+ * almacén y respuestas que IdempotenciaFilter. El cuerpo se acumula en memoria para calcular la huella y se vuelve a
+ * servir al controlador; la respuesta se captura al escribirse. Las operaciones del almacén pueden bloquear (esperar
+ * a un duplicado o acceder a la base de datos), por eso se ejecutan en un hilo elástico.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 7)
+public class IdempotenciaWebFilter implements WebFilter {
+
+    private static final String RUTA_BASE = "/api/clientes";
+    private static final int LONGITUD_MAXIMA_CLAVE = 255;
+
+    private final ClientesProperties.Idempotencia config;
+    private final AlmacenIdempotencia almacen;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotenciaWebFilter(ClientesProperties clientesProperties, AlmacenIdempotencia almacen,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.config = clientesProperties.getIdempotencia();
+        this.almacen = almacen;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String ruta = request.getPath().value();
+        String clave = request.getHeaders().getFirst(IdempotenciaFilter.CABECERA_CLAVE);
+        if (!config.isHabilitada() || !HttpMethod.POST.equals(request.getMethod()) || !ruta.startsWith(RUTA_BASE)
+                || ruta.startsWith(RUTA_BASE + "/importaciones") || clave == null) {
+            return chain.filter(exchange);
+        }
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            return rechazar(exchange, HttpStatus.BAD_REQUEST, "Clave de idempotencia inválida", "La cabecera "
+                    + IdempotenciaFilter.CABECERA_CLAVE + " debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+
+        return DataBufferUtils.join(request.getBody())
+                .map(IdempotenciaWebFilter::bytes)
+                .defaultIfEmpty(new byte[0])
+                .flatMap(cuerpo -> Mono.fromCallable(() -> Optional.ofNullable(almacen.reservar(clave,
+                                IdempotenciaFilter.huella(request.getMethod().name(), ruta, request.getURI().getRawQuery(), cuerpo),
+                                espera(exchange))))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(IdempotenciaConflictoException.class, e -> {
+                            registrar("conflicto");
+                            return rechazar(exchange, HttpStatus.UNPROCESSABLE_ENTITY, "Clave de idempotencia reutilizada",
+                                    e.getMessage()).then(Mono.empty());
+                        })
+                        .onErrorResume(IdempotenciaEnCursoException.class, e -> {
+                            registrar("en_curso");
+                            return rechazar(exchange, HttpStatus.CONFLICT, "Solicitud en curso", e.getMessage())
+                                    .then(Mono.empty());
+                        })
+                        .flatMap(guardada -> {
+                            if (guardada.isPresent()) {
+                                registrar("repetida");
+                                return reproducir(exchange.getResponse(), guardada.get());
+                            }
+                            registrar("ejecutada");
+                            return ejecutar(exchange, chain, clave, cuerpo);
+                        }));
+    }
+
+    /**
+     * Ejecutar la solicitud sirviendo el cuerpo desde memoria y guardar su respuesta (o liberar la clave si es un
+     * error transitorio, si la cadena falla o si se cancela por el plazo) antes de enviarla al cliente
+     */
+    private Mono<Void> ejecutar(ServerWebExchange exchange, WebFilterChain chain, String clave, byte[] cuerpo) {
+        AtomicBoolean finalizada = new AtomicBoolean();
+        ServerHttpRequestDecorator request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+            @Override
+            public Flux<DataBuffer> getBody() {
+                return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(cuerpo)));
+            }
+        };
+        ServerHttpResponseDecorator response = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return DataBufferUtils.join(Flux.from(body))
+                        .map(IdempotenciaWebFilter::bytes)
+                        .defaultIfEmpty(new byte[0])
+                        .flatMap(respuesta -> finalizar(clave, this, respuesta, finalizada)
+                                .then(super.writeWith(Mono.just(bufferFactory().wrap(respuesta)))));
+            }
+
+            @Override
+            public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                return writeWith(Flux.from(body).concatMap(Flux::from));
+            }
+        };
+
+        return chain.filter(exchange.mutate().request(request).response(response).build())
+                .then(Mono.defer(() -> finalizar(clave, response, new byte[0], finalizada)))
+                .onErrorResume(e -> liberar(clave, finalizada).then(Mono.error(e)))
+                .doOnCancel(() -> liberar(clave, finalizada).subscribe());
+    }
+
+    /**
+     * Guardar la respuesta o liberar la clave si es un error transitorio; solo la primera llamada tiene efecto
+     */
+    private Mono<Void> finalizar(String clave, ServerHttpResponse response, byte[] cuerpo, AtomicBoolean finalizada) {
+        if (!finalizada.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        HttpStatusCode status = response.getStatusCode() != null ? response.getStatusCode() : HttpStatus.OK;
+        MediaType contentType = response.getHeaders().getContentType();
+        return Mono.fromRunnable(() -> {
+            if (status.is5xxServerError()) {
+                almacen.liberar(clave);
+            } else {
+                almacen.completar(clave, new RespuestaIdempotente(status.value(),
+                        contentType != null ? contentType.toString() : null,
+                        response.getHeaders().getFirst(HttpHeaders.LOCATION), cuerpo));
+            }
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private Mono<Void> liberar(String clave, AtomicBoolean finalizada) {
+        if (!finalizada.compareAndSet(false, true)) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> almacen.liberar(clave)).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private Mono<Void> reproducir(ServerHttpResponse response, RespuestaIdempotente guardada) {
+        response.setStatusCode(HttpStatusCode.valueOf(guardada.status()));
+        response.getHeaders().set(IdempotenciaFilter.CABECERA_REPETIDA, "true");
+        if (guardada.contentType() != null) {
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, guardada.contentType());
+        }
+        if (guardada.location() != null) {
+            response.getHeaders().set(HttpHeaders.LOCATION, guardada.location());
+        }
+        if (guardada.cuerpo() == null) {
+            return response.setComplete();
+        }
+        response.getHeaders().setContentLength(guardada.cuerpo().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(guardada.cuerpo())));
+    }
+
+    /**
+     * Espera máxima de un duplicado, acotada por el plazo de la solicitud si lo tiene
+     */
+    private Duration espera(ServerWebExchange exchange) {
+        Plazo plazo = exchange.getAttribute(PlazoWebFilter.ATRIBUTO_PLAZO);
+        if (plazo == null) {
+            return config.getEspera();
+        }
+        Duration restante = plazo.restante();
+        return restante.compareTo(config.getEspera()) < 0 ? restante : config.getEspera();
+    }
+
+    private Mono<Void> rechazar(ServerWebExchange exchange, HttpStatus status, String error, String mensaje) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                error,
+                mensaje,
+                "uri=" + exchange.getRequest().getPath().value(),
+                LocalDateTime.now()
+        );
+        byte[] cuerpo;
+        try {
+            cuerpo = objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cuerpo)));
+    }
+
+    private void registrar(String resultado) {
+        meterRegistry.counter("clientes.idempotencia.solicitudes", "resultado", resultado).increment();
+    }
+
+    private static byte[] bytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.rti.prueba.controller.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limitador de concurrencia de un grupo de operaciones con límite adaptativo.
+ * Rechaza de inmediato cuando las solicitudes en curso alcanzan el límite, sin encolar.
+ */
+public class Limitador {
+
+    private final LimiteAdaptativo limite;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final Counter rechazos;
+
+    public Limitador(String grupo, LimiteAdaptativo limite, MeterRegistry meterRegistry) {
+        this.limite = limite;
+        this.rechazos = Counter.builder("clientes.admision.rechazos").tag("grupo", grupo).register(meterRegistry);
+        Gauge.builder("clientes.admision.limite", limite, LimiteAdaptativo::getLimite).tag("grupo", grupo).register(meterRegistry);
+        Gauge.builder("clientes.admision.en.curso", enCurso, AtomicInteger::get).tag("grupo", grupo).register(meterRegistry);
+    }
+
+    /**
+     * Obtener un permiso o null si se alcanzó el límite
+     */
+    public Permiso adquirir() {
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= limite.getLimite()) {
+                rechazos.increment();
+                return null;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return new Permiso(System.nanoTime());
+            }
+        }
+    }
+
+    public int getLimite() {
+        return limite.getLimite();
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Permiso de una solicitud admitida; se libera una sola vez
+     */
+    public class Permiso {
+        private final long inicio;
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        private Permiso(long inicio) {
+            this.inicio = inicio;
+        }
+
+        /**
+         * Liberar registrando la latencia de la solicitud
+         */
+        public void liberar(boolean descartada) {
+            if (liberado.compareAndSet(false, true)) {
+                int enCursoAlTerminar = enCurso.getAndDecrement();
+                limite.registrar(System.nanoTime() - inicio, enCursoAlTerminar, descartada);
+            }
+        }
+
+        /**
+         * Liberar sin registrar muestra (la solicitud falló por otra causa)
+         */
+        public void ignorar() {
+            if (liberado.compareAndSet(false, true)) {
+                enCurso.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.rti.prueba.controller.filter;
+
+import com.rti.prueba.config.ClientesProperties;
+
+/**
+ * Límite de concurrencia que se ajusta con la latencia observada de cada solicitud
+ */
+public interface LimiteAdaptativo {
+
+    int getLimite();
+
+    /**
+     * Registrar una solicitud terminada
+     *
+     * @param rttNanos   duración de la solicitud
+     * @param enCurso    solicitudes en curso al terminar (incluida esta)
+     * @param descartada la solicitud terminó por sobrecarga (503/504)
+     */
+    void registrar(long rttNanos, int enCurso, boolean descartada);
+
+    static LimiteAdaptativo de(ClientesProperties.Limite config) {
+        return switch (config.getAlgoritmo()) {
+            case AIMD -> new LimiteAimd(config.getInicial(), config.getMinimo(), config.getMaximo(),
+                    config.getLatenciaObjetivo().toNanos());
+            case GRADIENTE -> new LimiteGradiente(config.getInicial(), config.getMinimo(), config.getMaximo());
+        };
+    }
+}
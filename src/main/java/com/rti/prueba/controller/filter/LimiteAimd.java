@@ -0,0 +1,37 @@
+package com.rti.prueba.controller.filter;
+
+/**
+ * Incremento aditivo y decremento multiplicativo: el límite sube en uno mientras la latencia se mantiene
+ * bajo el objetivo y el límite se está usando, y baja un 10 % ante una solicitud lenta o descartada
+ */
+public class LimiteAimd implements LimiteAdaptativo {
+
+    private static final double FACTOR_REDUCCION = 0.9;
+
+    private final int minimo;
+    private final int maximo;
+    private final long latenciaObjetivoNanos;
+    private volatile int limite;
+
+    public LimiteAimd(int inicial, int minimo, int maximo, long latenciaObjetivoNanos) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.latenciaObjetivoNanos = latenciaObjetivoNanos;
+        this.limite = Math.clamp(inicial, minimo, maximo);
+    }
+
+    @Override
+    public int getLimite() {
+        return limite;
+    }
+
+    @Override
+    public synchronized void registrar(long rttNanos, int enCurso, boolean descartada) {
+        if (descartada || rttNanos > latenciaObjetivoNanos) {
+            limite = Math.max(minimo, (int) (limite * FACTOR_REDUCCION));
+        } else if (enCurso * 2 >= limite) {
+            // Solo crece si el límite actual se está aprovechando
+            limite = Math.min(maximo, limite + 1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.rti.prueba.controller.filter;
+
+/**
+ * Límite por gradiente de latencia: compara la latencia reciente con una media de largo plazo.
+ * Mientras la reciente no supera la tolerancia el límite crece con un margen de cola (raíz del límite);
+ * cuando sube, el límite se reduce en proporción (hasta la mitad por muestra), con suavizado.
+ */
+public class LimiteGradiente implements LimiteAdaptativo {
+
+    private static final double TOLERANCIA = 1.5;
+    private static final double SUAVIZADO = 0.2;
+    private static final int VENTANA_CORTA = 10;
+    private static final int VENTANA_LARGA = 600;
+
+    private final int minimo;
+    private final int maximo;
+    private volatile double limite;
+    private double rttCorto;
+    private double rttLargo;
+
+    public LimiteGradiente(int inicial, int minimo, int maximo) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.limite = Math.clamp(inicial, minimo, maximo);
+    }
+
+    @Override
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    @Override
+    public synchronized void registrar(long rttNanos, int enCurso, boolean descartada) {
+        if (descartada) {
+            limite = Math.max(minimo, limite / 2);
+            return;
+        }
+        rttCorto = rttCorto == 0 ? rttNanos : rttCorto + (rttNanos - rttCorto) / VENTANA_CORTA;
+        rttLargo = rttLargo == 0 ? rttNanos : rttLargo + (rttNanos - rttLargo) / VENTANA_LARGA;
+        // Si la latencia reciente cayó muy por debajo de la de largo plazo (p. ej. tras una ráfaga lenta), la referencia
+        // de largo plazo baja más rápido hacia ella para que un nuevo aumento de latencia vuelva a reducir el límite
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+        if (enCurso < limite / 2) {
+            return;
+        }
+        double gradiente = Math.clamp(TOLERANCIA * rttLargo / rttCorto, 0.5, 1.0);
+        double nuevo = limite * gradiente + Math.sqrt(limite);
+        limite = Math.clamp(limite * (1 - SUAVIZADO) + nuevo * SUAVIZADO, minimo, maximo);
+    }
+}
@@ -0,0 +1,104 @@
+package com.rti.prueba.controller.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import com.rti.prueba.service.plazo.Plazo;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Plazo de la solicitud: X-Request-Timeout indica los milisegundos que el cliente esperará y
+ * X-Request-Deadline el instante límite en epoch milisegundos (por ejemplo, reenviado por un gateway).
+ * Se usa el más estricto, acotado por el máximo configurado, y queda disponible en {@link Plazo#actual()}.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class PlazoFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_TIMEOUT = "X-Request-Timeout";
+    public static final String CABECERA_DEADLINE = "X-Request-Deadline";
+
+    private static final String RUTA_BASE = "/api/clientes";
+
+    private final ClientesProperties.PlazoSolicitud config;
+    private final ObjectMapper objectMapper;
+
+    public PlazoFilter(ClientesProperties clientesProperties, ObjectMapper objectMapper) {
+        this.config = clientesProperties.getPlazoSolicitud();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isHabilitado() || !request.getRequestURI().startsWith(RUTA_BASE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration duracion;
+        try {
+            duracion = duracion(request.getHeader(CABECERA_TIMEOUT), request.getHeader(CABECERA_DEADLINE), config);
+        } catch (NumberFormatException e) {
+            rechazar(request, response);
+            return;
+        }
+
+        Plazo.establecer(duracion == null ? null : Plazo.en(duracion));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Plazo.establecer(null);
+        }
+    }
+
+    /**
+     * Duración restante de la solicitud según sus cabeceras o null si no tiene plazo
+     */
+    static Duration duracion(String timeout, String deadline, ClientesProperties.PlazoSolicitud config) {
+        Duration duracion = null;
+        if (timeout != null) {
+            duracion = Duration.ofMillis(Long.parseLong(timeout.trim()));
+        }
+        if (deadline != null) {
+            Duration hastaDeadline = Duration.ofMillis(Long.parseLong(deadline.trim()) - System.currentTimeMillis());
+            duracion = duracion == null || hastaDeadline.compareTo(duracion) < 0 ? hastaDeadline : duracion;
+        }
+        if (duracion == null) {
+            duracion = config.getPredeterminado();
+        }
+        if (duracion != null && config.getMaximo() != null && duracion.compareTo(config.getMaximo()) > 0) {
+            duracion = config.getMaximo();
+        }
+        return duracion;
+    }
+
+    private void rechazar(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Plazo inválido",
+                "Las cabeceras " + CABECERA_TIMEOUT + " y " + CABECERA_DEADLINE + " deben ser milisegundos enteros",
+                "uri=" + request.getRequestURI(),
+                LocalDateTime.now()
+        );
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
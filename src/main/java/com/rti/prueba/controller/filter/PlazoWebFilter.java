@@ -0,0 +1,97 @@
+package com.rti.prueba.controller.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.exception.PlazoExcedidoException;
+import com.rti.prueba.exception.handler.GlobalExceptionHandler.ErrorResponse;
+import com.rti.prueba.service.plazo.Plazo;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Plazo de la solicitud en el modo reactivo con las mismas cabeceras y límites que PlazoFilter. Como no hay un hilo
+ * por solicitud, el plazo no viaja en un ThreadLocal: la cadena se cancela al vencer (lo que cancela también las
+ * consultas R2DBC en curso) y se responde 504 si la respuesta aún no se había enviado. El plazo queda en el atributo
+ * {@link #ATRIBUTO_PLAZO} del intercambio para acotar las esperas de los filtros posteriores.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class PlazoWebFilter implements WebFilter {
+
+    public static final String ATRIBUTO_PLAZO = PlazoWebFilter.class.getName() + ".plazo";
+
+    private static final String RUTA_BASE = "/api/clientes";
+
+    private final ClientesProperties.PlazoSolicitud config;
+    private final ObjectMapper objectMapper;
+
+    public PlazoWebFilter(ClientesProperties clientesProperties, ObjectMapper objectMapper) {
+        this.config = clientesProperties.getPlazoSolicitud();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!config.isHabilitado() || !exchange.getRequest().getPath().value().startsWith(RUTA_BASE)) {
+            return chain.filter(exchange);
+        }
+
+        Duration duracion;
+        try {
+            duracion = PlazoFilter.duracion(exchange.getRequest().getHeaders().getFirst(PlazoFilter.CABECERA_TIMEOUT),
+                    exchange.getRequest().getHeaders().getFirst(PlazoFilter.CABECERA_DEADLINE), config);
+        } catch (NumberFormatException e) {
+            return responder(exchange, HttpStatus.BAD_REQUEST, "Plazo inválido", "Las cabeceras "
+                    + PlazoFilter.CABECERA_TIMEOUT + " y " + PlazoFilter.CABECERA_DEADLINE + " deben ser milisegundos enteros");
+        }
+        if (duracion == null) {
+            return chain.filter(exchange);
+        }
+        if (duracion.isNegative() || duracion.isZero()) {
+            return responder(exchange, HttpStatus.GATEWAY_TIMEOUT, "Plazo excedido", new PlazoExcedidoException().getMessage());
+        }
+
+        exchange.getAttributes().put(ATRIBUTO_PLAZO, Plazo.en(duracion));
+        return chain.filter(exchange)
+                .timeout(duracion)
+                .onErrorResume(TimeoutException.class, e -> exchange.getResponse().isCommitted()
+                        ? Mono.error(e)
+                        : responder(exchange, HttpStatus.GATEWAY_TIMEOUT, "Plazo excedido",
+                        new PlazoExcedidoException().getMessage()));
+    }
+
+    private Mono<Void> responder(ServerWebExchange exchange, HttpStatus status, String error, String mensaje) {
+        ErrorResponse errorResponse = new ErrorResponse(
+                status.value(),
+                error,
+                mensaje,
+                "uri=" + exchange.getRequest().getPath().value(),
+                LocalDateTime.now()
+        );
+        byte[] cuerpo;
+        try {
+            cuerpo = objectMapper.writeValueAsBytes(errorResponse);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cuerpo)));
+    }
+}
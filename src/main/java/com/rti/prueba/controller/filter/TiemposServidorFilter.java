@@ -0,0 +1,102 @@
+package com.rti.prueba.controller.filter;
+
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.service.tiempos.TiemposSolicitud;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cabecera Server-Timing con el desglose por fase de la solicitud (validación, servicio, consultas de ClienteJPA,
+ * mapper, serialización y sentencias SQL). Se mide la solicitud que envía X-Server-Timing o la que cae en la
+ * fracción de muestreo configurada; el resto solo paga la consulta del ThreadLocal en cada punto de medición.
+ * El cuerpo de las solicitudes medidas se retiene en memoria para poder añadir la cabecera al final, por lo que
+ * las descargas de exportaciones quedan fuera.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class TiemposServidorFilter extends OncePerRequestFilter {
+
+    public static final String CABECERA_SOLICITUD = "X-Server-Timing";
+    public static final String CABECERA_RESPUESTA = "Server-Timing";
+
+    private static final String RUTA_BASE = "/api/clientes";
+    private static final String ATRIBUTO_MEDICION = TiemposServidorFilter.class.getName() + ".medicion";
+
+    private final ClientesProperties.TiemposServidor config;
+
+    public TiemposServidorFilter(ClientesProperties clientesProperties) {
+        this.config = clientesProperties.getTiemposServidor();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String ruta = request.getRequestURI();
+        return !config.isHabilitado() || !ruta.startsWith(RUTA_BASE)
+                || (ruta.startsWith(RUTA_BASE + "/exports/") && ruta.endsWith("/archivo"));
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Los controladores responden de forma asíncrona: la serialización ocurre en el despacho asíncrono
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            Medicion medicion = (Medicion) request.getAttribute(ATRIBUTO_MEDICION);
+            if (medicion == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+            medir(medicion, request, response, filterChain);
+            return;
+        }
+
+        if (!muestreada(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        Medicion medicion = new Medicion(new TiemposSolicitud(), new ContentCachingResponseWrapper(response));
+        request.setAttribute(ATRIBUTO_MEDICION, medicion);
+        medir(medicion, request, medicion.respuesta(), filterChain);
+    }
+
+    private boolean muestreada(HttpServletRequest request) {
+        return request.getHeader(CABECERA_SOLICITUD) != null
+                || (config.getMuestreo() > 0 && ThreadLocalRandom.current().nextDouble() < config.getMuestreo());
+    }
+
+    private void medir(Medicion medicion, HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        TiemposSolicitud.establecer(medicion.tiempos());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TiemposSolicitud.establecer(null);
+        }
+        if (!isAsyncStarted(request)) {
+            medicion.respuesta().setHeader(CABECERA_RESPUESTA, medicion.tiempos().cabecera());
+            medicion.respuesta().copyBodyToResponse();
+        }
+    }
+
+    /**
+     * Medición en curso y la respuesta retenida a la que se añade la cabecera al terminar
+     */
+    private record Medicion(TiemposSolicitud tiempos, ContentCachingResponseWrapper respuesta) {
+    }
+}
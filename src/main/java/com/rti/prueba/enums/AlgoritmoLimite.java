@@ -0,0 +1,6 @@
+package com.rti.prueba.enums;
+
+public enum AlgoritmoLimite {
+    AIMD,
+    GRADIENTE
+}
@@ -0,0 +1,10 @@
+package com.rti.prueba.enums;
+
+public enum ClaseTrabajo {
+    PUNTUAL,
+    ESCRITURA,
+    BUSQUEDA,
+    MASIVA,
+    // Arranque, tareas programadas y cualquier hilo sin clase asignada
+    INTERNA
+}
@@ -0,0 +1,18 @@
+package com.rti.prueba.enums;
+
+import com.rti.prueba.exception.EnumConversionException;
+
+public enum DimensionAnalitica {
+    CIUDAD,
+    OCUPACION,
+    VIABILIDAD;
+
+    public static DimensionAnalitica fromValor(String valor) {
+        for (DimensionAnalitica d : values()) {
+            if (d.name().equalsIgnoreCase(valor)) {
+                return d;
+            }
+        }
+        throw new EnumConversionException("DimensionAnalitica", valor);
+    }
+}
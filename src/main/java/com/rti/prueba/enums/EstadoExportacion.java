@@ -0,0 +1,8 @@
+package com.rti.prueba.enums;
+
+public enum EstadoExportacion {
+    EN_COLA,
+    EN_PROCESO,
+    COMPLETADA,
+    FALLIDA
+}
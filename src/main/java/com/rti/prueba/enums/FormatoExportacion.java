@@ -0,0 +1,14 @@
+package com.rti.prueba.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public enum FormatoExportacion {
+    CSV ("csv.gz", "text/csv"),
+    NDJSON ("ndjson.gz", "application/x-ndjson");
+
+    private final String extension;
+    private final String contentType;
+}
@@ -0,0 +1,7 @@
+package com.rti.prueba.enums;
+
+public enum GrupoAdmision {
+    LECTURAS,
+    ESCRITURAS,
+    MASIVAS
+}
@@ -1,5 +1,6 @@
 package com.rti.prueba.enums;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.rti.prueba.exception.EnumConversionException;
 import lombok.AllArgsConstructor;
@@ -8,13 +9,42 @@ import lombok.Getter;
 @AllArgsConstructor
 @Getter
 public enum Ocupacion {
-    EMPLEADO ("Empleado"),
-    INDEPENDIENTE ("Independiente"),
-    PENSIONADO ("Pensionado");
+    EMPLEADO (1, "Empleado"),
+    INDEPENDIENTE (2, "Independiente"),
+    PENSIONADO (3, "Pensionado");
+
+    /**
+     * Código compacto de los formatos binarios (CBOR/Smile); es estable y no depende del orden de declaración
+     */
+    private final int codigo;
 
     @JsonValue
     private final String descripcion;
 
+    /**
+     * Acepta solo la descripción; el código compacto de los formatos binarios lo lee FormatosBinariosConfig
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Ocupacion desdeDescripcion(String valor) {
+        if (valor == null) return null;
+
+        for (Ocupacion o : values()) {
+            if (o.descripcion.equals(valor)) {
+                return o;
+            }
+        }
+        throw new EnumConversionException("Ocupacion", valor);
+    }
+
+    public static Ocupacion fromCodigo(int codigo) {
+        for (Ocupacion o : values()) {
+            if (o.codigo == codigo) {
+                return o;
+            }
+        }
+        throw new EnumConversionException("Ocupacion", String.valueOf(codigo));
+    }
+
         public static Ocupacion fromDescripcion(String valor) {
         if (valor == null) return null;
 
@@ -0,0 +1,7 @@
+package com.rti.prueba.enums;
+
+public enum OperacionCambio {
+    CREACION,
+    ACTUALIZACION,
+    ELIMINACION
+}
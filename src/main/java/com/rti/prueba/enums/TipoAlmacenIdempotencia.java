@@ -0,0 +1,6 @@
+package com.rti.prueba.enums;
+
+public enum TipoAlmacenIdempotencia {
+    MEMORIA,
+    BASE_DATOS
+}
@@ -0,0 +1,13 @@
+package com.rti.prueba.exception;
+
+import com.rti.prueba.enums.ClaseTrabajo;
+
+/**
+ * Excepción lanzada cuando la cola del ejecutor de una clase de trabajo está llena
+ */
+public class BulkheadSaturadoException extends RuntimeException {
+
+    public BulkheadSaturadoException(ClaseTrabajo clase) {
+        super("No hay capacidad para más operaciones de tipo " + clase.name().toLowerCase() + ", intente más tarde");
+    }
+}
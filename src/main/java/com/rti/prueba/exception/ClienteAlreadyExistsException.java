@@ -13,6 +13,10 @@ public class ClienteAlreadyExistsException extends RuntimeException {
         super("Ya existe un cliente con " + field + " '" + value + "'");
     }
     
+    public ClienteAlreadyExistsException(String field, String value, Throwable cause) {
+        super("Ya existe un cliente con " + field + " '" + value + "'", cause);
+    }
+    
     public ClienteAlreadyExistsException(String message, Throwable cause) {
         super(message, cause);
     }
@@ -9,4 +9,8 @@ public class ClienteNotFoundException extends RuntimeException {
         super("Cliente con número de documento '" + numeroDocumento + "' no encontrado");
     }
 
+    public ClienteNotFoundException(String field, String value) {
+        super("Cliente con " + field + " '" + value + "' no encontrado");
+    }
+
 }
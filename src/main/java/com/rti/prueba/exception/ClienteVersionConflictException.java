@@ -0,0 +1,12 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando la versión enviada por el cliente no coincide con la versión almacenada
+ */
+public class ClienteVersionConflictException extends RuntimeException {
+
+    public ClienteVersionConflictException(String numeroDocumento, Long versionEsperada) {
+        super("El cliente con número de documento '" + numeroDocumento
+                + "' fue modificado por otra petición (versión esperada: " + versionEsperada + ")");
+    }
+}
@@ -0,0 +1,11 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando se alcanza el máximo de exportaciones simultáneas
+ */
+public class ExportacionLimiteException extends RuntimeException {
+
+    public ExportacionLimiteException(int maxConcurrentes) {
+        super("Se alcanzó el máximo de " + maxConcurrentes + " exportaciones simultáneas, intente más tarde");
+    }
+}
@@ -0,0 +1,11 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando el archivo de una exportación aún no está disponible
+ */
+public class ExportacionNoDisponibleException extends RuntimeException {
+
+    public ExportacionNoDisponibleException(String message) {
+        super(message);
+    }
+}
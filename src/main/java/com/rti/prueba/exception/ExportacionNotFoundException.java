@@ -0,0 +1,11 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando una exportación no existe o ya fue eliminada
+ */
+public class ExportacionNotFoundException extends RuntimeException {
+
+    public ExportacionNotFoundException(String id) {
+        super("Exportación '" + id + "' no encontrada");
+    }
+}
@@ -0,0 +1,11 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando una clave de idempotencia se reutiliza con una solicitud diferente
+ */
+public class IdempotenciaConflictoException extends RuntimeException {
+
+    public IdempotenciaConflictoException(String clave) {
+        super("La clave de idempotencia '" + clave + "' ya se usó con una solicitud diferente");
+    }
+}
@@ -0,0 +1,11 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando la solicitud original de una clave de idempotencia sigue en curso
+ */
+public class IdempotenciaEnCursoException extends RuntimeException {
+
+    public IdempotenciaEnCursoException(String clave) {
+        super("La solicitud con clave de idempotencia '" + clave + "' sigue en curso, intente más tarde");
+    }
+}
@@ -0,0 +1,11 @@
+package com.rti.prueba.exception;
+
+/**
+ * Excepción lanzada cuando el plazo de la solicitud venció antes de llegar a la base de datos
+ */
+public class PlazoExcedidoException extends RuntimeException {
+
+    public PlazoExcedidoException() {
+        super("El plazo de la solicitud venció antes de completar la operación");
+    }
+}
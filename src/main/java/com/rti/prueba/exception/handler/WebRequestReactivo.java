@@ -0,0 +1,171 @@
+package com.rti.prueba.exception.handler;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Vista de WebRequest sobre un ServerWebExchange para reutilizar el GlobalExceptionHandler en el modo reactivo;
+ * cubre cabeceras, parámetros, atributos y la descripción "uri=..." que se devuelve como path del error
+ */
+public class WebRequestReactivo implements WebRequest {
+
+    private final ServerWebExchange exchange;
+
+    public WebRequestReactivo(ServerWebExchange exchange) {
+        this.exchange = exchange;
+    }
+
+    @Override
+    public String getHeader(@NonNull String headerName) {
+        return exchange.getRequest().getHeaders().getFirst(headerName);
+    }
+
+    @Override
+    public String[] getHeaderValues(@NonNull String headerName) {
+        List<String> valores = exchange.getRequest().getHeaders().get(headerName);
+        return valores != null ? valores.toArray(String[]::new) : null;
+    }
+
+    @Override
+    @NonNull
+    public Iterator<String> getHeaderNames() {
+        HttpHeaders cabeceras = exchange.getRequest().getHeaders();
+        return cabeceras.keySet().iterator();
+    }
+
+    @Override
+    public String getParameter(@NonNull String paramName) {
+        return exchange.getRequest().getQueryParams().getFirst(paramName);
+    }
+
+    @Override
+    public String[] getParameterValues(@NonNull String paramName) {
+        List<String> valores = exchange.getRequest().getQueryParams().get(paramName);
+        return valores != null ? valores.toArray(String[]::new) : null;
+    }
+
+    @Override
+    @NonNull
+    public Iterator<String> getParameterNames() {
+        return exchange.getRequest().getQueryParams().keySet().iterator();
+    }
+
+    @Override
+    @NonNull
+    public Map<String, String[]> getParameterMap() {
+        MultiValueMap<String, String> parametros = exchange.getRequest().getQueryParams();
+        return parametros.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entrada -> entrada.getValue().toArray(String[]::new)));
+    }
+
+    @Override
+    @NonNull
+    public Locale getLocale() {
+        return exchange.getLocaleContext().getLocale() != null ? exchange.getLocaleContext().getLocale() : Locale.getDefault();
+    }
+
+    @Override
+    @NonNull
+    public String getContextPath() {
+        return exchange.getRequest().getPath().contextPath().value();
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(@NonNull String role) {
+        return false;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return exchange.getRequest().getSslInfo() != null;
+    }
+
+    @Override
+    public boolean checkNotModified(long lastModifiedTimestamp) {
+        return exchange.checkNotModified(Instant.ofEpochMilli(lastModifiedTimestamp));
+    }
+
+    @Override
+    public boolean checkNotModified(String etag) {
+        return exchange.checkNotModified(etag);
+    }
+
+    @Override
+    public boolean checkNotModified(String etag, long lastModifiedTimestamp) {
+        return exchange.checkNotModified(etag, Instant.ofEpochMilli(lastModifiedTimestamp));
+    }
+
+    @Override
+    @NonNull
+    public String getDescription(boolean includeClientInfo) {
+        String descripcion = "uri=" + exchange.getRequest().getPath().pathWithinApplication().value();
+        if (includeClientInfo && exchange.getRequest().getRemoteAddress() != null) {
+            descripcion += ";client=" + exchange.getRequest().getRemoteAddress().getHostString();
+        }
+        return descripcion;
+    }
+
+    @Override
+    public Object getAttribute(@NonNull String name, int scope) {
+        return exchange.getAttribute(name);
+    }
+
+    @Override
+    public void setAttribute(@NonNull String name, @NonNull Object value, int scope) {
+        exchange.getAttributes().put(name, value);
+    }
+
+    @Override
+    public void removeAttribute(@NonNull String name, int scope) {
+        exchange.getAttributes().remove(name);
+    }
+
+    @Override
+    @NonNull
+    public String[] getAttributeNames(int scope) {
+        return exchange.getAttributes().keySet().toArray(String[]::new);
+    }
+
+    @Override
+    public void registerDestructionCallback(@NonNull String name, @NonNull Runnable callback, int scope) {
+        // Sin ámbito de solicitud o sesión en el modo reactivo
+    }
+
+    @Override
+    public Object resolveReference(@NonNull String key) {
+        return "request".equals(key) ? exchange.getRequest() : null;
+    }
+
+    @Override
+    @NonNull
+    public String getSessionId() {
+        return exchange.getRequest().getId();
+    }
+
+    @Override
+    @NonNull
+    public Object getSessionMutex() {
+        return exchange;
+    }
+}
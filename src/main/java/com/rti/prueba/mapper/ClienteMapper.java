@@ -1,13 +1,18 @@
 package com.rti.prueba.mapper;
 
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
 import com.rti.prueba.bd.orm.ClienteORM;
 import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClientePatchDTO;
 import com.rti.prueba.controller.dto.ClienteResponseDTO;
 import com.rti.prueba.controller.dto.ClienteUpdateDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Mapper(componentModel = "spring")
 public interface ClienteMapper {
     
@@ -19,6 +24,7 @@ public interface ClienteMapper {
     @Mapping(target = "esViable", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     ClienteORM createDTOToORM(ClienteCreateDTO dto);
     
     @Mapping(target = "nombre", expression = "java(dto.getNombre().trim())")
@@ -30,9 +36,32 @@ public interface ClienteMapper {
     @Mapping(target = "esViable", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "version", ignore = true)
     void updateDTOToORM(ClienteUpdateDTO dto, @MappingTarget ClienteORM cliente);
 
     @Mapping(target = "edad", ignore = true)
     ClienteResponseDTO ORMToResponseDTO(ClienteORM entity);
 
+    ClienteResponseDTO copiar(ClienteResponseDTO dto);
+
+    @Mapping(target = "edad", ignore = true)
+    ClienteResponseDTO filaReplicaToResponseDTO(ClienteFilaReplica fila);
+
+    /**
+     * Convertir los campos presentes en un parche en los atributos a actualizar,
+     * con la misma normalización que la actualización completa
+     */
+    default Map<String, Object> patchDTOToCambios(ClientePatchDTO patch) {
+        ClienteUpdateDTO dto = patch.getValores();
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        if (patch.contiene("nombre")) cambios.put("nombre", dto.getNombre().trim());
+        if (patch.contiene("apellidos")) cambios.put("apellidos", dto.getApellidos().trim());
+        if (patch.contiene("fechaNacimiento")) cambios.put("fechaNacimiento", dto.getFechaNacimiento());
+        if (patch.contiene("ciudad")) cambios.put("ciudad", dto.getCiudad().trim());
+        if (patch.contiene("correoElectronico")) cambios.put("correoElectronico", dto.getCorreoElectronico().toLowerCase().trim());
+        if (patch.contiene("telefono")) cambios.put("telefono", dto.getTelefono().trim());
+        if (patch.contiene("ocupacion")) cambios.put("ocupacion", dto.getOcupacion());
+        return cambios;
+    }
+
 }
@@ -0,0 +1,358 @@
+package com.rti.prueba.service;
+
+import com.rti.prueba.bd.jpa.ClienteColumnasAnaliticas;
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteAnaliticaFiltroDTO;
+import com.rti.prueba.controller.dto.ClienteSegmentoDTO;
+import com.rti.prueba.controller.dto.ClienteSegmentoFiltroDTO;
+import com.rti.prueba.controller.dto.ConteoGrupoDTO;
+import com.rti.prueba.controller.dto.IndiceMemoriaDTO;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.enums.DimensionAnalitica;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.exception.ClienteServiceException;
+import com.rti.prueba.service.analitica.ClientesCreadosEvent;
+import com.rti.prueba.service.analitica.InstantaneaColumnar;
+import com.rti.prueba.service.bulkhead.ContextoTrabajo;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import com.rti.prueba.service.cache.InvalidacionCliente;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Consultas analíticas (conteos, histogramas de edad, agrupaciones y segmentaciones con índices de mapas de bits)
+ * sobre una instantánea columnar en memoria, sin cargar entidades. La instantánea se construye al arrancar, se actualiza de forma incremental con las altas,
+ * modificaciones y eliminaciones confirmadas en este nodo y se reconstruye periódicamente para incorporar las
+ * escrituras de otros nodos. Construcción y actualizaciones se serializan en un único hilo y leen la base de datos
+ * desde la partición de trabajo masivo del pool.
+ */
+@Slf4j
+@Service
+public class ClienteAnaliticaService {
+
+    static final int EDAD_MAXIMA = 150;
+
+    private final ClienteJPA clienteJPA;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final ExecutorService actualizaciones = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "analitica-actualizacion");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private volatile InstantaneaColumnar instantanea;
+
+    public ClienteAnaliticaService(ClienteJPA clienteJPA, PlatformTransactionManager transactionManager,
+                                   ClientesProperties clientesProperties, MeterRegistry meterRegistry) {
+        this.clienteJPA = clienteJPA;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.pool = new ForkJoinPool(clientesProperties.getAnalitica().getParalelismo());
+        Gauge.builder("clientes.analitica.filas", this, servicio -> servicio.instantanea != null ? servicio.instantanea.tamano() : 0)
+                .register(meterRegistry);
+        Gauge.builder("clientes.analitica.bytes", this, servicio -> servicio.instantanea != null ? servicio.instantanea.bytesEstimados() : 0)
+                .baseUnit("bytes").register(meterRegistry);
+    }
+
+    /**
+     * Contar los clientes que cumplen el filtro
+     */
+    public long contar(ClienteAnaliticaFiltroDTO filtro) {
+        InstantaneaColumnar columnas = instantanea();
+        Filtro condicion = Filtro.de(filtro, columnas, LocalDate.now());
+        if (condicion == null) {
+            return 0;
+        }
+        return columnas.contar((c, fila) -> condicion.cumple(c, fila) ? 0 : -1, 1, pool)[0];
+    }
+
+    /**
+     * Histograma de edades en cohortes del ancho indicado (0-9, 10-19, ...) de los clientes que cumplen el filtro
+     */
+    public List<ConteoGrupoDTO> histogramaEdades(ClienteAnaliticaFiltroDTO filtro, int anchoCohorte) {
+        InstantaneaColumnar columnas = instantanea();
+        LocalDate hoy = LocalDate.now();
+        Filtro condicion = Filtro.de(filtro, columnas, hoy);
+        if (condicion == null) {
+            return List.of();
+        }
+        int[] limites = limitesEdad(hoy);
+        int cohortes = EDAD_MAXIMA / anchoCohorte + 1;
+        long[] conteos = columnas.contar((c, fila) -> {
+            if (!condicion.cumple(c, fila)) {
+                return -1;
+            }
+            int edad = edad(limites, c.fechaNacimiento(fila));
+            return edad < 0 ? -1 : Math.min(edad, EDAD_MAXIMA) / anchoCohorte;
+        }, cohortes, pool);
+
+        int ultima = conteos.length - 1;
+        while (ultima >= 0 && conteos[ultima] == 0) {
+            ultima--;
+        }
+        List<ConteoGrupoDTO> histograma = new ArrayList<>(ultima + 1);
+        for (int cohorte = 0; cohorte <= ultima; cohorte++) {
+            int desde = cohorte * anchoCohorte;
+            histograma.add(new ConteoGrupoDTO(desde + "-" + (desde + anchoCohorte - 1), conteos[cohorte]));
+        }
+        return histograma;
+    }
+
+    /**
+     * Contar los clientes que cumplen el filtro por ciudad, ocupación o viabilidad, de mayor a menor
+     */
+    public List<ConteoGrupoDTO> agrupar(DimensionAnalitica dimension, ClienteAnaliticaFiltroDTO filtro) {
+        InstantaneaColumnar columnas = instantanea();
+        Filtro condicion = Filtro.de(filtro, columnas, LocalDate.now());
+        if (condicion == null) {
+            return List.of();
+        }
+        List<String> nombres = switch (dimension) {
+            case CIUDAD -> columnas.ciudades();
+            case OCUPACION -> Stream.of(Ocupacion.values()).map(Ocupacion::getDescripcion).toList();
+            case VIABILIDAD -> List.of("No viable", "Viable");
+        };
+        InstantaneaColumnar.Clasificador grupo = switch (dimension) {
+            case CIUDAD -> InstantaneaColumnar::codigoCiudad;
+            case OCUPACION -> InstantaneaColumnar::codigoOcupacion;
+            case VIABILIDAD -> (c, fila) -> c.esViable(fila) ? 1 : 0;
+        };
+        long[] conteos = columnas.contar((c, fila) -> condicion.cumple(c, fila) ? grupo.grupo(c, fila) : -1,
+                nombres.size(), pool);
+
+        List<ConteoGrupoDTO> grupos = new ArrayList<>();
+        for (int i = 0; i < conteos.length; i++) {
+            if (conteos[i] > 0) {
+                grupos.add(new ConteoGrupoDTO(nombres.get(i), conteos[i]));
+            }
+        }
+        grupos.sort(Comparator.comparingLong(ConteoGrupoDTO::getTotal).reversed().thenComparing(ConteoGrupoDTO::getGrupo));
+        return grupos;
+    }
+
+    /**
+     * Segmentar con los índices de mapas de bits y devolver el total y una página de números de documento
+     */
+    public ClienteSegmentoDTO segmentar(ClienteSegmentoFiltroDTO filtro) {
+        List<String> ciudades = filtro.getCiudades() == null ? null
+                : filtro.getCiudades().stream().map(String::trim).toList();
+        InstantaneaColumnar.Segmento segmento = instantanea().segmentar(ciudades, filtro.getOcupaciones(),
+                filtro.getEsViable(), (long) filtro.getPagina() * filtro.getTamano(), filtro.getTamano());
+        return new ClienteSegmentoDTO(segmento.total(), filtro.getPagina(), filtro.getTamano(), segmento.numerosDocumento());
+    }
+
+    /**
+     * Memoria ocupada por cada mapa de bits de los índices de segmentación
+     */
+    public List<IndiceMemoriaDTO> memoriaIndices() {
+        return instantanea().memoriaIndices().stream()
+                .map(m -> new IndiceMemoriaDTO(m.indice(), m.valor(), m.cardinalidad(), m.contenedores(), m.bytes()))
+                .toList();
+    }
+
+    /**
+     * Reconstruir la instantánea completa leyendo solo las columnas necesarias con un cursor de solo lectura
+     */
+    public void reconstruir() {
+        esperar(actualizaciones.submit(this::cargar));
+    }
+
+    /**
+     * Carga inicial en segundo plano, salvo que el calentamiento de arranque ya haya construido la instantánea
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (instantanea == null) {
+            actualizaciones.execute(this::cargar);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clientes.analitica.intervalo-reconstruccion:PT1H}",
+            initialDelayString = "${clientes.analitica.intervalo-reconstruccion:PT1H}")
+    public void reconstruirPeriodicamente() {
+        actualizaciones.execute(this::cargar);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCrearClientes(ClientesCreadosEvent evento) {
+        actualizaciones.execute(() -> actualizar(evento.numerosDocumento(), columnas(evento.filas())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarClientes(ClientesModificadosEvent evento) {
+        List<String> documentos = evento.invalidaciones().stream().map(InvalidacionCliente::numeroDocumento).toList();
+        List<ClienteColumnasAnaliticas> filas = columnas(evento.filas());
+        actualizaciones.execute(() -> actualizar(documentos, filas));
+    }
+
+    @PreDestroy
+    void detener() {
+        actualizaciones.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private InstantaneaColumnar instantanea() {
+        InstantaneaColumnar actual = instantanea;
+        if (actual == null) {
+            reconstruir();
+            actual = instantanea;
+        }
+        return actual;
+    }
+
+    private void cargar() {
+        long inicio = System.nanoTime();
+        InstantaneaColumnar nueva = new InstantaneaColumnar();
+        ContextoTrabajo.ejecutar(ClaseTrabajo.MASIVA, () -> transactionTemplate.execute(status -> {
+            try (Stream<ClienteColumnasAnaliticas> filas = clienteJPA.streamColumnasAnaliticas()) {
+                filas.forEach(fila -> guardar(nueva, fila));
+            }
+            return null;
+        }));
+        instantanea = nueva;
+        log.info("Instantánea analítica construida: {} clientes, ~{} KB en {} ms", nueva.tamano(),
+                nueva.bytesEstimados() / 1024, (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    /**
+     * Aplicar las filas confirmadas de los clientes escritos (releídas si son null):
+     * los que ya no existen se eliminan de la instantánea
+     */
+    private void actualizar(List<String> numerosDocumento, List<ClienteColumnasAnaliticas> confirmadas) {
+        InstantaneaColumnar actual = instantanea;
+        if (actual == null) {
+            return;
+        }
+        try {
+            List<ClienteColumnasAnaliticas> filas = confirmadas != null ? confirmadas
+                    : ContextoTrabajo.ejecutar(ClaseTrabajo.MASIVA, () ->
+                            transactionTemplate.execute(status -> clienteJPA.buscarColumnasAnaliticas(numerosDocumento)));
+            Set<String> encontrados = new HashSet<>();
+            for (ClienteColumnasAnaliticas fila : filas) {
+                guardar(actual, fila);
+                encontrados.add(fila.numeroDocumento());
+            }
+            numerosDocumento.stream().filter(documento -> !encontrados.contains(documento)).forEach(actual::eliminar);
+        } catch (RuntimeException e) {
+            // La reconstrucción periódica corrige la instantánea
+            log.warn("No se pudo actualizar la instantánea analítica para {} clientes", numerosDocumento.size(), e);
+        }
+    }
+
+    private static List<ClienteColumnasAnaliticas> columnas(List<ClienteFilaReplica> filas) {
+        return filas == null ? null : filas.stream()
+                .map(fila -> new ClienteColumnasAnaliticas(fila.numeroDocumento(), fila.fechaNacimiento(),
+                        fila.ocupacion(), fila.esViable(), fila.ciudad()))
+                .toList();
+    }
+
+    private static void guardar(InstantaneaColumnar columnas, ClienteColumnasAnaliticas fila) {
+        columnas.guardar(fila.numeroDocumento(), fila.fechaNacimiento(), fila.ocupacion(),
+                Boolean.TRUE.equals(fila.esViable()), fila.ciudad());
+    }
+
+    private static void esperar(Future<?> tarea) {
+        try {
+            tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClienteServiceException("Interrumpido mientras se construía la instantánea analítica", e);
+        } catch (ExecutionException e) {
+            throw new ClienteServiceException("Error construyendo la instantánea analítica", e.getCause());
+        }
+    }
+
+    /**
+     * Fecha (día epoch) a partir de la cual se cumple cada edad: limites[e] = hoy - e años
+     */
+    static int[] limitesEdad(LocalDate hoy) {
+        int[] limites = new int[EDAD_MAXIMA + 2];
+        for (int edad = 0; edad < limites.length; edad++) {
+            limites[edad] = (int) hoy.minusYears(edad).toEpochDay();
+        }
+        return limites;
+    }
+
+    /**
+     * Edad cumplida para una fecha de nacimiento (búsqueda binaria sobre los límites decrecientes); -1 si es futura
+     */
+    static int edad(int[] limites, int fechaNacimiento) {
+        int bajo = 0;
+        int alto = limites.length - 1;
+        int edad = -1;
+        while (bajo <= alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (fechaNacimiento <= limites[medio]) {
+                edad = medio;
+                bajo = medio + 1;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return edad;
+    }
+
+    /**
+     * Filtro traducido a códigos y rangos de días epoch de la instantánea
+     */
+    private record Filtro(int ocupacion, Boolean esViable, int ciudad, int fechaDesde, int fechaHasta) {
+
+        /**
+         * Traducir el filtro; null si ningún cliente puede cumplirlo (ciudad desconocida o rango vacío)
+         */
+        static Filtro de(ClienteAnaliticaFiltroDTO filtro, InstantaneaColumnar columnas, LocalDate hoy) {
+            if (filtro == null) {
+                return new Filtro(-1, null, -1, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            }
+            int ciudad = -1;
+            if (filtro.getCiudad() != null) {
+                ciudad = columnas.codigoDeCiudad(filtro.getCiudad().trim());
+                if (ciudad < 0) {
+                    return null;
+                }
+            }
+            // Edad >= mínima: nacido a más tardar hoy - mínima; edad <= máxima: nacido después de hoy - (máxima + 1)
+            int fechaHasta = filtro.getEdadMinima() != null
+                    ? (int) hoy.minusYears(filtro.getEdadMinima()).toEpochDay() : Integer.MAX_VALUE;
+            int fechaDesde = filtro.getEdadMaxima() != null
+                    ? (int) hoy.minusYears(filtro.getEdadMaxima() + 1L).toEpochDay() + 1 : Integer.MIN_VALUE;
+            if (fechaDesde > fechaHasta) {
+                return null;
+            }
+            int ocupacion = filtro.getOcupacion() != null ? filtro.getOcupacion().ordinal() : -1;
+            return new Filtro(ocupacion, filtro.getEsViable(), ciudad, fechaDesde, fechaHasta);
+        }
+
+        boolean cumple(InstantaneaColumnar columnas, int fila) {
+            int fecha = columnas.fechaNacimiento(fila);
+            return fecha >= fechaDesde && fecha <= fechaHasta
+                    && (ocupacion < 0 || columnas.codigoOcupacion(fila) == ocupacion)
+                    && (ciudad < 0 || columnas.codigoCiudad(fila) == ciudad)
+                    && (esViable == null || columnas.esViable(fila) == esViable);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rti.prueba.service;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteBulkDeleteDTO;
+import com.rti.prueba.controller.dto.ClienteBulkResultadoDTO;
+import com.rti.prueba.controller.dto.ClienteBulkUpdateDTO;
+import com.rti.prueba.controller.dto.ClienteFiltroDTO;
+import com.rti.prueba.enums.OperacionCambio;
+import com.rti.prueba.exception.ClienteValidationException;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import com.rti.prueba.service.diario.CambioCliente;
+import com.rti.prueba.service.diario.CambiosClientesEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Servicio para las operaciones masivas sobre clientes.
+ * Cada lote se ejecuta como una sentencia sobre el conjunto de documentos y se confirma en su propia transacción
+ */
+@Service
+@RequiredArgsConstructor
+public class ClienteBulkService {
+
+    private final ClienteJPA clienteJPA;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientesProperties clientesProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Eliminar los clientes seleccionados por lista de documentos o por filtro
+     */
+    public ClienteBulkResultadoDTO eliminarClientes(ClienteBulkDeleteDTO clienteBulkDeleteDTO) {
+        validarSeleccion(clienteBulkDeleteDTO.getNumerosDocumento(), clienteBulkDeleteDTO.getFiltro());
+
+        return procesarEnLotes(clienteBulkDeleteDTO.getNumerosDocumento(), clienteBulkDeleteDTO.getFiltro(),
+                clienteJPA::eliminarPorDocumentos, CambioCliente::eliminacion);
+    }
+
+    /**
+     * Actualizar la ciudad y/o la ocupación de los clientes seleccionados por lista de documentos o por filtro
+     */
+    public ClienteBulkResultadoDTO actualizarClientes(ClienteBulkUpdateDTO clienteBulkUpdateDTO) {
+        validarSeleccion(clienteBulkUpdateDTO.getNumerosDocumento(), clienteBulkUpdateDTO.getFiltro());
+
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        if (clienteBulkUpdateDTO.getCiudad() != null) {
+            cambios.put("ciudad", clienteBulkUpdateDTO.getCiudad().trim());
+        }
+        if (clienteBulkUpdateDTO.getOcupacion() != null) {
+            cambios.put("ocupacion", clienteBulkUpdateDTO.getOcupacion());
+        }
+        if (cambios.isEmpty()) {
+            throw new ClienteValidationException("Debe indicar al menos un campo a actualizar: ciudad u ocupacion");
+        }
+        cambios.put("updatedAt", Instant.now());
+
+        return procesarEnLotes(clienteBulkUpdateDTO.getNumerosDocumento(), clienteBulkUpdateDTO.getFiltro(),
+                lote -> clienteJPA.actualizarCamposEnLote(lote, cambios),
+                numeroDocumento -> CambioCliente.de(numeroDocumento, OperacionCambio.ACTUALIZACION, cambios));
+    }
+
+    /**
+     * Validar que se seleccione exactamente por lista de documentos o por un filtro no vacío
+     */
+    private void validarSeleccion(List<String> numerosDocumento, ClienteFiltroDTO filtro) {
+        boolean porDocumentos = numerosDocumento != null && !numerosDocumento.isEmpty();
+        boolean porFiltro = filtro != null && !filtro.estaVacio();
+        if (porDocumentos == porFiltro) {
+            throw new ClienteValidationException("Debe indicar numerosDocumento o un filtro con al menos un criterio, pero no ambos");
+        }
+    }
+
+    /**
+     * Ejecutar la sentencia sobre lotes de documentos, confirmando cada lote por separado.
+     * Con filtro, los documentos de cada lote se obtienen paginando por clave primaria.
+     */
+    private ClienteBulkResultadoDTO procesarEnLotes(List<String> numerosDocumento, ClienteFiltroDTO filtro,
+                                                    ToIntFunction<List<String>> sentencia,
+                                                    Function<String, CambioCliente> cambio) {
+        int tamanoLote = clientesProperties.getMasivo().getTamanoLote();
+        long filasAfectadas = 0;
+        int lotes = 0;
+
+        if (numerosDocumento != null && !numerosDocumento.isEmpty()) {
+            List<String> distintos = numerosDocumento.stream().filter(Objects::nonNull).distinct().toList();
+            for (int inicio = 0; inicio < distintos.size(); inicio += tamanoLote) {
+                List<String> lote = distintos.subList(inicio, Math.min(inicio + tamanoLote, distintos.size()));
+                Integer filas = transactionTemplate.execute(status -> ejecutar(sentencia, cambio, lote, true));
+                filasAfectadas += filas != null ? filas : 0;
+                lotes++;
+            }
+            return new ClienteBulkResultadoDTO(filasAfectadas, lotes);
+        }
+
+        String ultimoDocumento = null;
+        while (true) {
+            String despuesDe = ultimoDocumento;
+            LoteProcesado lote = transactionTemplate.execute(status -> {
+                List<String> documentos = clienteJPA.buscarDocumentos(filtro, despuesDe, tamanoLote);
+                if (documentos.isEmpty()) {
+                    return new LoteProcesado(0, 0, null);
+                }
+                return new LoteProcesado(documentos.size(), ejecutar(sentencia, cambio, documentos, false), documentos.getLast());
+            });
+            if (lote == null || lote.leidos() == 0) {
+                break;
+            }
+            filasAfectadas += lote.filas();
+            lotes++;
+            ultimoDocumento = lote.ultimoDocumento();
+            if (lote.leidos() < tamanoLote) {
+                break;
+            }
+        }
+        return new ClienteBulkResultadoDTO(filasAfectadas, lotes);
+    }
+
+    /**
+     * Ejecutar la sentencia sobre un lote y registrar la invalidación y la auditoría de sus clientes para después
+     * del commit. Los documentos de una lista pueden no existir, por lo que se consultan antes de la sentencia para
+     * auditar solo los afectados; los leídos con el filtro en la misma transacción ya existen.
+     */
+    private int ejecutar(ToIntFunction<List<String>> sentencia, Function<String, CambioCliente> cambio,
+                         List<String> lote, boolean verificarExistencia) {
+        List<String> afectados = verificarExistencia ? clienteJPA.buscarDocumentosExistentes(lote) : List.copyOf(lote);
+        int filas = sentencia.applyAsInt(lote);
+        if (filas > 0) {
+            eventPublisher.publishEvent(ClientesModificadosEvent.de(List.copyOf(lote)));
+            eventPublisher.publishEvent(new CambiosClientesEvent(afectados.stream().map(cambio).toList()));
+        }
+        return filas;
+    }
+
+    private record LoteProcesado(int leidos, int filas, String ultimoDocumento) {
+    }
+}
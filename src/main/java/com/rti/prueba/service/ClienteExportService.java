@@ -0,0 +1,364 @@
+package com.rti.prueba.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.jpa.ExportacionJPA;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.bd.orm.ExportacionORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteExportRequestDTO;
+import com.rti.prueba.controller.dto.ClienteFiltroDTO;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.controller.dto.ExportacionEstadoDTO;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.enums.EstadoExportacion;
+import com.rti.prueba.enums.FormatoExportacion;
+import com.rti.prueba.exception.ExportacionLimiteException;
+import com.rti.prueba.exception.ExportacionNoDisponibleException;
+import com.rti.prueba.exception.ExportacionNotFoundException;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.bulkhead.ContextoTrabajo;
+import com.rti.prueba.service.csv.EscritorCsv;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.rti.prueba.service.ClienteReglas.calcularEdad;
+
+/**
+ * Servicio de exportaciones asíncronas de clientes a archivos CSV o NDJSON comprimidos con gzip.
+ * Cada exportación lee con un cursor de solo lectura y escribe sobre un FileChannel; la descarga la envía Tomcat con
+ * sendfile y, sin él, se copia a la salida del servlet.
+ * El estado se guarda en la tabla clientes_exportaciones y los archivos en un directorio común a los nodos, de modo
+ * que cualquier nodo responde al seguimiento y a la descarga de una exportación que ejecuta otro.
+ * El límite de exportaciones simultáneas es de cada nodo. Las que abandona un nodo detenido se marcan como fallidas
+ * cuando pasan más de clientes.exportacion.abandono sin avance.
+ */
+@Slf4j
+@Service
+public class ClienteExportService {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int LONGITUD_MAXIMA_ERROR = 1000;
+
+    private final ClienteJPA clienteJPA;
+    private final ExportacionJPA exportacionJPA;
+    private final ClienteMapper clienteMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate estadoTemplate;
+    private final ClientesProperties.Exportacion config;
+    private final Semaphore cupos;
+    private final ExecutorService executor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ClienteExportService(ClienteJPA clienteJPA, ExportacionJPA exportacionJPA, ClienteMapper clienteMapper,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                ClientesProperties clientesProperties) {
+        this.clienteJPA = clienteJPA;
+        this.exportacionJPA = exportacionJPA;
+        this.clienteMapper = clienteMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // El avance se registra mientras el cursor mantiene abierta la transacción de solo lectura
+        this.estadoTemplate = new TransactionTemplate(transactionManager);
+        this.estadoTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.config = clientesProperties.getExportacion();
+        this.cupos = new Semaphore(config.getMaxConcurrentes());
+        AtomicInteger hilos = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(config.getMaxConcurrentes(),
+                tarea -> new Thread(tarea, "exportacion-" + hilos.incrementAndGet()));
+    }
+
+    /**
+     * Registrar una exportación y lanzarla en segundo plano
+     */
+    public ExportacionEstadoDTO iniciarExportacion(ClienteExportRequestDTO solicitud) {
+        if (!cupos.tryAcquire()) {
+            throw new ExportacionLimiteException(config.getMaxConcurrentes());
+        }
+        Instant ahora = Instant.now();
+        ExportacionORM registro = new ExportacionORM(UUID.randomUUID().toString(), solicitud.getFormato(),
+                EstadoExportacion.EN_COLA, 0, 0, 0, null, null, ahora, ahora, null);
+        Exportacion exportacion = new Exportacion(registro.getId(), registro.getFormato());
+        boolean registrada = false;
+        try {
+            // persist en lugar de save: el id es asignado y save lo fusionaría con un SELECT previo
+            registrarEstado(() -> {
+                entityManager.persist(registro);
+                return null;
+            });
+            registrada = true;
+            executor.execute(() -> ejecutar(exportacion, solicitud.getFiltro()));
+        } catch (RuntimeException e) {
+            cupos.release();
+            if (registrada) {
+                // El registro no debe quedar en cola sin una ejecución que lo avance
+                registrarFallo(exportacion, e);
+            }
+            throw e;
+        }
+        return toDTO(registro);
+    }
+
+    /**
+     * Obtener el estado y el progreso de una exportación
+     */
+    public ExportacionEstadoDTO obtenerEstado(String id) {
+        return toDTO(buscar(id));
+    }
+
+    /**
+     * Obtener el archivo de una exportación completada
+     */
+    public ArchivoExportacion obtenerArchivo(String id) {
+        ExportacionORM exportacion = buscar(id);
+        if (exportacion.getEstado() != EstadoExportacion.COMPLETADA) {
+            throw new ExportacionNoDisponibleException("La exportación '" + id + "' está en estado " + exportacion.getEstado());
+        }
+        Path ruta = config.getDirectorio().resolve(exportacion.getArchivo());
+        if (!Files.isReadable(ruta)) {
+            throw new ExportacionNoDisponibleException("El archivo de la exportación '" + id + "' no está en el directorio de exportaciones");
+        }
+        return new ArchivoExportacion(ruta, "clientes-" + id + "." + exportacion.getFormato().getExtension(),
+                exportacion.getBytes());
+    }
+
+    /**
+     * Copiar el archivo a la salida del servlet cuando el conector no admite sendfile. La salida no es un canal de
+     * archivo ni de socket, así que transferTo copia por un buffer de la JVM: no hay copia cero en este camino.
+     */
+    public void transferir(ArchivoExportacion archivo, OutputStream salida) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.ruta(), StandardOpenOption.READ)) {
+            WritableByteChannel destino = Channels.newChannel(salida);
+            long posicion = 0;
+            long tamano = canal.size();
+            while (posicion < tamano) {
+                posicion += canal.transferTo(posicion, tamano - posicion, destino);
+            }
+        }
+    }
+
+    /**
+     * Eliminar el estado y los archivos de las exportaciones sin avance dentro del periodo de retención: las
+     * finalizadas y las que abandonó un nodo detenido, incluidos los archivos huérfanos de ejecuciones anteriores
+     */
+    @Scheduled(fixedDelayString = "${clientes.exportacion.intervalo-limpieza:PT5M}",
+            initialDelayString = "${clientes.exportacion.intervalo-limpieza:PT5M}")
+    public void limpiarExportacionesAntiguas() {
+        Instant limite = Instant.now().minus(config.getRetencion());
+        Integer eliminadas = ContextoTrabajo.ejecutar(ClaseTrabajo.INTERNA, () ->
+                estadoTemplate.execute(status -> exportacionJPA.eliminarAnterioresA(limite)));
+        if (eliminadas != null && eliminadas > 0) {
+            log.info("Exportaciones eliminadas por retención: {}", eliminadas);
+        }
+
+        if (!Files.isDirectory(config.getDirectorio())) {
+            return;
+        }
+        try (Stream<Path> archivos = Files.list(config.getDirectorio())) {
+            archivos.filter(archivo -> esAnterior(archivo, limite)).forEach(this::eliminarArchivo);
+        } catch (IOException e) {
+            log.warn("No se pudo limpiar el directorio de exportaciones {}", config.getDirectorio(), e);
+        }
+    }
+
+    /**
+     * Marcar como fallidas las exportaciones en cola o en proceso que llevan más del tiempo de abandono sin avance.
+     * Corre también al arrancar, para las que dejó este nodo al detenerse.
+     */
+    @Scheduled(fixedDelayString = "${clientes.exportacion.intervalo-limpieza:PT5M}")
+    public void marcarAbandonadas() {
+        Instant ahora = Instant.now();
+        Integer abandonadas = ContextoTrabajo.ejecutar(ClaseTrabajo.INTERNA, () -> estadoTemplate.execute(status ->
+                exportacionJPA.marcarAbandonadas(ahora.minus(config.getAbandono()),
+                        "La exportación no avanzó en " + config.getAbandono() + "; el nodo que la ejecutaba se detuvo", ahora)));
+        if (abandonadas != null && abandonadas > 0) {
+            log.warn("Exportaciones abandonadas marcadas como fallidas: {}", abandonadas);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        executor.shutdownNow();
+    }
+
+    private ExportacionORM buscar(String id) {
+        return ContextoTrabajo.ejecutar(ClaseTrabajo.PUNTUAL, () -> exportacionJPA.findById(id))
+                .orElseThrow(() -> new ExportacionNotFoundException(id));
+    }
+
+    /**
+     * Escribir el estado compartido en su propia transacción, en la partición de escrituras del pool
+     */
+    private <T> T registrarEstado(Supplier<T> escritura) {
+        return ContextoTrabajo.ejecutar(ClaseTrabajo.ESCRITURA, () -> estadoTemplate.execute(status -> escritura.get()));
+    }
+
+    private void ejecutar(Exportacion exportacion, ClienteFiltroDTO filtro) {
+        Path archivo = config.getDirectorio().resolve(exportacion.id + "." + exportacion.formato.getExtension());
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(config.getDirectorio());
+            ContextoTrabajo.ejecutar(ClaseTrabajo.MASIVA, () ->
+                    transactionTemplate.execute(status -> {
+                        escribir(exportacion, filtro, temporal);
+                        return null;
+                    }));
+            Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE);
+            long bytes = Files.size(archivo);
+            registrarEstado(() -> exportacionJPA.finalizar(exportacion.id, EstadoExportacion.COMPLETADA, exportacion.procesadas,
+                    bytes, archivo.getFileName().toString(), null, Instant.now()));
+            log.info("Exportación {} completada: {} filas, {} bytes", exportacion.id, exportacion.procesadas, bytes);
+        } catch (IOException | RuntimeException e) {
+            eliminarArchivo(temporal);
+            log.error("Exportación {} fallida", exportacion.id, e);
+            registrarFallo(exportacion, e);
+        } finally {
+            cupos.release();
+        }
+    }
+
+    private void registrarFallo(Exportacion exportacion, Exception causa) {
+        String error = causa.getMessage() == null || causa.getMessage().length() <= LONGITUD_MAXIMA_ERROR
+                ? causa.getMessage() : causa.getMessage().substring(0, LONGITUD_MAXIMA_ERROR);
+        try {
+            registrarEstado(() -> exportacionJPA.finalizar(exportacion.id, EstadoExportacion.FALLIDA, exportacion.procesadas,
+                    0, null, error, Instant.now()));
+        } catch (RuntimeException e) {
+            // La retención elimina el registro que queda sin avance
+            log.warn("No se pudo registrar el fallo de la exportación {}", exportacion.id, e);
+        }
+    }
+
+    private void escribir(Exportacion exportacion, ClienteFiltroDTO filtro, Path destino) {
+        long totalFilas = clienteJPA.contarPorFiltro(filtro);
+        registrarEstado(() -> exportacionJPA.iniciar(exportacion.id, totalFilas, Instant.now()));
+        try (FileChannel canal = FileChannel.open(destino, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Channels.newOutputStream(canal), TAMANO_BUFFER), StandardCharsets.UTF_8), TAMANO_BUFFER);
+             Stream<ClienteORM> clientes = clienteJPA.streamPorFiltro(filtro, config.getTamanoFetch())) {
+
+            EscritorCsv csv = new EscritorCsv(writer, ',');
+            if (exportacion.formato == FormatoExportacion.CSV) {
+                List<String> encabezado = new ArrayList<>(ClienteImportService.COLUMNAS);
+                encabezado.add("esViable");
+                csv.escribirFila(encabezado);
+            }
+
+            Iterator<ClienteORM> iterador = clientes.iterator();
+            while (iterador.hasNext()) {
+                ClienteORM cliente = iterador.next();
+                if (exportacion.formato == FormatoExportacion.CSV) {
+                    csv.escribirFila(filaCsv(cliente));
+                } else {
+                    ClienteResponseDTO dto = clienteMapper.ORMToResponseDTO(cliente);
+                    dto.setEdad(calcularEdad(cliente.getFechaNacimiento()));
+                    writer.write(objectMapper.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                // Liberar la entidad del contexto de persistencia para mantener la memoria constante
+                entityManager.detach(cliente);
+                if (++exportacion.procesadas % config.getTamanoFetch() == 0) {
+                    registrarEstado(() -> exportacionJPA.avanzar(exportacion.id, exportacion.procesadas, Instant.now()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> filaCsv(ClienteORM cliente) {
+        return List.of(
+                cliente.getNumeroDocumento(),
+                cliente.getNombre(),
+                cliente.getApellidos(),
+                cliente.getFechaNacimiento().toString(),
+                cliente.getCiudad(),
+                cliente.getCorreoElectronico(),
+                cliente.getTelefono(),
+                cliente.getOcupacion().getDescripcion(),
+                String.valueOf(cliente.getEsViable()));
+    }
+
+    private boolean esAnterior(Path archivo, Instant limite) {
+        try {
+            return Files.getLastModifiedTime(archivo).toInstant().isBefore(limite);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void eliminarArchivo(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo de exportación {}", archivo, e);
+        }
+    }
+
+    /**
+     * Archivo listo para descarga
+     */
+    public record ArchivoExportacion(Path ruta, String nombre, long tamano) {
+    }
+
+    private static ExportacionEstadoDTO toDTO(ExportacionORM exportacion) {
+        long filas = exportacion.getFilasProcesadas();
+        long total = exportacion.getTotalFilas();
+        int porcentaje = exportacion.getEstado() == EstadoExportacion.COMPLETADA ? 100
+                : total > 0 ? (int) Math.min(99, filas * 100 / total) : 0;
+        return new ExportacionEstadoDTO(exportacion.getId(), exportacion.getEstado(), exportacion.getFormato(), total, filas,
+                porcentaje, exportacion.getBytes(), exportacion.getCreadaEn(), exportacion.getFinalizadaEn(), exportacion.getError());
+    }
+
+    /**
+     * Exportación en curso en este nodo; el avance se publica en clientes_exportaciones cada tamanoFetch filas
+     */
+    private static class Exportacion {
+        private final String id;
+        private final FormatoExportacion formato;
+        private long procesadas;
+
+        private Exportacion(String id, FormatoExportacion formato) {
+            this.id = id;
+            this.formato = formato;
+        }
+    }
+}
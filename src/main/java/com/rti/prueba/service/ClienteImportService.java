@@ -0,0 +1,316 @@
+package com.rti.prueba.service;
+
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteImportResultadoDTO;
+import com.rti.prueba.controller.dto.ClienteImportResultadoDTO.FilaRechazadaDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.enums.OperacionCambio;
+import com.rti.prueba.exception.ClienteServiceException;
+import com.rti.prueba.exception.ClienteValidationException;
+import com.rti.prueba.exception.EnumConversionException;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.analitica.ClientesCreadosEvent;
+import com.rti.prueba.service.csv.LectorCsv;
+import com.rti.prueba.service.diario.CambioCliente;
+import com.rti.prueba.service.diario.CambiosClientesEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.rti.prueba.service.ClienteReglas.esClienteViable;
+import static com.rti.prueba.service.ClienteReglas.validarEdad;
+
+/**
+ * Servicio de importación masiva de clientes desde CSV.
+ * La entrada se procesa en streaming por lotes: cada lote se valida en paralelo con las reglas de
+ * ClienteCreateDTO y de edad, los duplicados se detectan con consultas por conjunto y las filas válidas
+ * se insertan con sentencias por lotes en su propia transacción.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClienteImportService {
+
+    static final List<String> COLUMNAS = List.of(
+            "numeroDocumento", "nombre", "apellidos", "fechaNacimiento",
+            "ciudad", "correoElectronico", "telefono", "ocupacion");
+
+    private final ClienteJPA clienteJPA;
+    private final ClienteMapper clienteMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientesProperties clientesProperties;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Importar clientes desde un CSV con encabezado y separador coma
+     */
+    public ClienteImportResultadoDTO importarCsv(InputStream entrada) {
+        long inicio = System.nanoTime();
+        ClientesProperties.Importacion config = clientesProperties.getImportacion();
+        Importacion importacion = new Importacion(config.getMaxRechazosDetalle());
+
+        try (LectorCsv lector = new LectorCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8), ',')) {
+            Map<String, Integer> columnas = indexarEncabezado(lector.leerFila());
+
+            List<FilaCsv> lote = new ArrayList<>(config.getTamanoLote());
+            List<String> campos;
+            while ((campos = lector.leerFila()) != null) {
+                if (campos.size() == 1 && campos.getFirst().isBlank()) {
+                    continue;
+                }
+                lote.add(new FilaCsv(lector.getLinea(), campos));
+                if (lote.size() == config.getTamanoLote()) {
+                    procesarLote(lote, columnas, importacion);
+                    lote = new ArrayList<>(config.getTamanoLote());
+                    registrarProgreso(importacion, inicio);
+                }
+            }
+            if (!lote.isEmpty()) {
+                procesarLote(lote, columnas, importacion);
+            }
+        } catch (IOException e) {
+            throw new ClienteServiceException("Error leyendo el archivo CSV", e);
+        }
+
+        long duracionNanos = System.nanoTime() - inicio;
+        meterRegistry.timer("clientes.importacion.duracion").record(duracionNanos, TimeUnit.NANOSECONDS);
+        ClienteImportResultadoDTO resultado = importacion.resultado;
+        resultado.setDuracionMs(TimeUnit.NANOSECONDS.toMillis(duracionNanos));
+        resultado.setFilasPorSegundo(resultado.getFilasLeidas() * 1_000_000_000L / Math.max(duracionNanos, 1));
+        log.info("Importación CSV finalizada: {} leídas, {} importadas, {} rechazadas en {} ms ({} filas/s)",
+                resultado.getFilasLeidas(), resultado.getFilasImportadas(), resultado.getFilasRechazadas(),
+                resultado.getDuracionMs(), resultado.getFilasPorSegundo());
+        return resultado;
+    }
+
+    /**
+     * Validar el encabezado y devolver la posición de cada columna esperada
+     */
+    private Map<String, Integer> indexarEncabezado(List<String> encabezado) {
+        if (encabezado == null) {
+            throw new ClienteValidationException("El archivo CSV está vacío");
+        }
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < encabezado.size(); i++) {
+            columnas.put(encabezado.get(i).trim(), i);
+        }
+        List<String> faltantes = COLUMNAS.stream().filter(c -> !columnas.containsKey(c)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new ClienteValidationException("Faltan columnas en el encabezado del CSV: " + String.join(", ", faltantes));
+        }
+        return columnas;
+    }
+
+    private void procesarLote(List<FilaCsv> lote, Map<String, Integer> columnas, Importacion importacion) {
+        importacion.resultado.setFilasLeidas(importacion.resultado.getFilasLeidas() + lote.size());
+
+        // Validación en paralelo: no depende del orden ni de estado compartido
+        List<FilaValidada> validadas = lote.parallelStream()
+                .map(fila -> validarFila(fila, columnas))
+                .toList();
+
+        // Duplicados dentro del lote: secuencial para conservar siempre la primera aparición. Los de lotes anteriores
+        // ya están confirmados y los detecta la consulta contra la base de datos, así que no se guardan entre lotes
+        Set<String> documentosVistos = new HashSet<>();
+        Set<String> correosVistos = new HashSet<>();
+        List<FilaValidada> candidatas = new ArrayList<>(validadas.size());
+        for (FilaValidada fila : validadas) {
+            if (!fila.motivos().isEmpty()) {
+                importacion.rechazar(fila.linea(), fila.numeroDocumento(), fila.motivos());
+            } else if (!documentosVistos.add(fila.cliente().getNumeroDocumento())) {
+                importacion.rechazar(fila.linea(), fila.numeroDocumento(), List.of("Número de documento duplicado en el archivo"));
+            } else if (!correosVistos.add(fila.cliente().getCorreoElectronico())) {
+                importacion.rechazar(fila.linea(), fila.numeroDocumento(), List.of("Correo electrónico duplicado en el archivo"));
+            } else {
+                candidatas.add(fila);
+            }
+        }
+        if (candidatas.isEmpty()) {
+            return;
+        }
+
+        // Duplicados contra la base de datos: una consulta por conjunto para documentos y otra para correos
+        Set<String> documentosExistentes = new HashSet<>(clienteJPA.buscarDocumentosExistentes(
+                candidatas.stream().map(f -> f.cliente().getNumeroDocumento()).toList()));
+        Set<String> correosExistentes = new HashSet<>(clienteJPA.buscarCorreosExistentes(
+                candidatas.stream().map(f -> f.cliente().getCorreoElectronico()).toList()));
+
+        List<FilaValidada> insertables = new ArrayList<>(candidatas.size());
+        for (FilaValidada fila : candidatas) {
+            if (documentosExistentes.contains(fila.cliente().getNumeroDocumento())) {
+                importacion.rechazar(fila.linea(), fila.numeroDocumento(),
+                        List.of("Ya existe un cliente con el número de documento '" + fila.numeroDocumento() + "'"));
+            } else if (correosExistentes.contains(fila.cliente().getCorreoElectronico())) {
+                importacion.rechazar(fila.linea(), fila.numeroDocumento(),
+                        List.of("Ya existe un cliente con correo electrónico '" + fila.cliente().getCorreoElectronico() + "'"));
+            } else {
+                insertables.add(fila);
+            }
+        }
+        insertar(insertables, importacion);
+    }
+
+    /**
+     * Insertar el lote en una transacción con inserciones por lotes JDBC. Si otra petición insertó
+     * un duplicado entre la comprobación y la inserción, se reintenta fila a fila para aislar los rechazos.
+     */
+    private void insertar(List<FilaValidada> insertables, Importacion importacion) {
+        if (insertables.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                clienteJPA.saveAll(insertables.stream().map(FilaValidada::cliente).toList());
+                // Las filas insertadas viajan en el evento: los oyentes no releen el lote tras el commit
+                eventPublisher.publishEvent(new ClientesCreadosEvent(
+                        insertables.stream().map(FilaValidada::numeroDocumento).toList(),
+                        insertables.stream().map(fila -> ClienteFilaReplica.de(fila.cliente())).toList()));
+                eventPublisher.publishEvent(new CambiosClientesEvent(insertables.stream()
+                        .map(fila -> CambioCliente.de(fila.cliente(), OperacionCambio.CREACION)).toList()));
+            });
+            importacion.importadas(insertables.size());
+        } catch (DataIntegrityViolationException e) {
+            for (FilaValidada fila : insertables) {
+                try {
+                    fila.cliente().setVersion(null);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        clienteJPA.save(fila.cliente());
+                        eventPublisher.publishEvent(new ClientesCreadosEvent(List.of(fila.numeroDocumento())));
+                        eventPublisher.publishEvent(CambiosClientesEvent.de(CambioCliente.de(fila.cliente(), OperacionCambio.CREACION)));
+                    });
+                    importacion.importadas(1);
+                } catch (DataIntegrityViolationException ex) {
+                    importacion.rechazar(fila.linea(), fila.numeroDocumento(), List.of("Ya existe un cliente con estos datos"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Aplicar a una fila las mismas reglas que la creación individual de un cliente
+     */
+    private FilaValidada validarFila(FilaCsv fila, Map<String, Integer> columnas) {
+        List<String> motivos = new ArrayList<>();
+        ClienteCreateDTO dto = new ClienteCreateDTO();
+        dto.setNumeroDocumento(valor(fila, columnas, "numeroDocumento"));
+        dto.setNombre(valor(fila, columnas, "nombre"));
+        dto.setApellidos(valor(fila, columnas, "apellidos"));
+        dto.setCiudad(valor(fila, columnas, "ciudad"));
+        dto.setCorreoElectronico(valor(fila, columnas, "correoElectronico"));
+        dto.setTelefono(valor(fila, columnas, "telefono"));
+
+        // Los campos que no se pueden convertir solo reportan el error de formato
+        Set<String> noConvertidos = new HashSet<>();
+        String fechaNacimiento = valor(fila, columnas, "fechaNacimiento");
+        try {
+            dto.setFechaNacimiento(fechaNacimiento != null ? LocalDate.parse(fechaNacimiento) : null);
+        } catch (DateTimeParseException e) {
+            motivos.add("La fecha de nacimiento debe tener el formato AAAA-MM-DD");
+            noConvertidos.add("fechaNacimiento");
+        }
+        try {
+            dto.setOcupacion(Ocupacion.fromDescripcion(valor(fila, columnas, "ocupacion")));
+        } catch (EnumConversionException e) {
+            motivos.add(e.getMessage());
+            noConvertidos.add("ocupacion");
+        }
+
+        for (ConstraintViolation<ClienteCreateDTO> violacion : validator.validate(dto)) {
+            if (!noConvertidos.contains(violacion.getPropertyPath().toString())) {
+                motivos.add(violacion.getMessage());
+            }
+        }
+
+        if (!motivos.isEmpty()) {
+            return new FilaValidada(fila.linea(), dto.getNumeroDocumento(), null, motivos);
+        }
+
+        boolean esViable;
+        try {
+            esViable = esClienteViable(validarEdad(dto.getFechaNacimiento()));
+        } catch (ClienteValidationException e) {
+            return new FilaValidada(fila.linea(), dto.getNumeroDocumento(), null, List.of(e.getMessage()));
+        }
+
+        ClienteORM cliente = clienteMapper.createDTOToORM(dto);
+        cliente.setNumeroDocumento(dto.getNumeroDocumento());
+        cliente.setEsViable(esViable);
+        return new FilaValidada(fila.linea(), dto.getNumeroDocumento(), cliente, List.of());
+    }
+
+    private String valor(FilaCsv fila, Map<String, Integer> columnas, String columna) {
+        int indice = columnas.get(columna);
+        if (indice >= fila.campos().size()) {
+            return null;
+        }
+        String valor = fila.campos().get(indice);
+        return valor.isBlank() ? null : valor.trim();
+    }
+
+    private void registrarProgreso(Importacion importacion, long inicio) {
+        ClienteImportResultadoDTO resultado = importacion.resultado;
+        long transcurridoMs = Math.max(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio), 1);
+        log.info("Importación CSV en curso: {} leídas, {} importadas, {} rechazadas ({} filas/s)",
+                resultado.getFilasLeidas(), resultado.getFilasImportadas(), resultado.getFilasRechazadas(),
+                resultado.getFilasLeidas() * 1000 / transcurridoMs);
+    }
+
+    private record FilaCsv(long linea, List<String> campos) {
+    }
+
+    private record FilaValidada(long linea, String numeroDocumento, ClienteORM cliente, List<String> motivos) {
+    }
+
+    /**
+     * Estado de una importación en curso
+     */
+    private class Importacion {
+        private final ClienteImportResultadoDTO resultado = new ClienteImportResultadoDTO();
+        private final int maxRechazosDetalle;
+
+        private Importacion(int maxRechazosDetalle) {
+            this.maxRechazosDetalle = maxRechazosDetalle;
+        }
+
+        private void rechazar(long linea, String numeroDocumento, List<String> motivos) {
+            resultado.setFilasRechazadas(resultado.getFilasRechazadas() + 1);
+            meterRegistry.counter("clientes.importacion.filas", "resultado", "rechazada").increment();
+            if (resultado.getRechazos().size() < maxRechazosDetalle) {
+                resultado.getRechazos().add(new FilaRechazadaDTO(linea, numeroDocumento, motivos));
+            } else {
+                resultado.setRechazosOmitidos(resultado.getRechazosOmitidos() + 1);
+            }
+        }
+
+        private void importadas(int filas) {
+            resultado.setFilasImportadas(resultado.getFilasImportadas() + filas);
+            meterRegistry.counter("clientes.importacion.filas", "resultado", "importada").increment(filas);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rti.prueba.service;
+
+import com.rti.prueba.exception.ClienteValidationException;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+/**
+ * Reglas de negocio de edad y viabilidad de los clientes
+ */
+public final class ClienteReglas {
+
+    private static final int EDAD_MINIMA_PRODUCTIVA = 18;
+    private static final int EDAD_MAXIMA_PRODUCTIVA = 65;
+
+    private ClienteReglas() {
+    }
+
+    /**
+     * Calcular la edad de una persona
+     */
+    public static int calcularEdad(LocalDate fechaNacimiento) {
+        if (fechaNacimiento.isAfter(LocalDate.now())) {
+            return -1; // Fecha futura
+        }
+        return Period.between(fechaNacimiento, LocalDate.now()).getYears();
+    }
+
+    /**
+     * Determinar si un cliente es viable según su edad
+     */
+    public static boolean esClienteViable(int edad) {
+        return edad >= EDAD_MINIMA_PRODUCTIVA && edad <= EDAD_MAXIMA_PRODUCTIVA;
+    }
+
+    /**
+     * Validar la edad y devolver el valor calculado
+     */
+    public static int validarEdad(LocalDate fechaNacimiento) {
+        int edad = calcularEdad(fechaNacimiento);
+        if (edad < 0) {
+            throw new ClienteValidationException("La fecha de nacimiento no puede ser futura");
+        }
+        return edad;
+    }
+}
@@ -3,23 +3,42 @@ package com.rti.prueba.service;
 import com.rti.prueba.bd.jpa.ClienteJPA;
 import com.rti.prueba.bd.orm.ClienteORM;
 import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClientePatchDTO;
 import com.rti.prueba.controller.dto.ClienteResponseDTO;
 import com.rti.prueba.controller.dto.ClienteUpdateDTO;
 import com.rti.prueba.exception.ClienteAlreadyExistsException;
 import com.rti.prueba.exception.ClienteNotFoundException;
+import com.rti.prueba.exception.ClienteServiceException;
 import com.rti.prueba.exception.ClienteValidationException;
+import com.rti.prueba.exception.ClienteVersionConflictException;
+import com.rti.prueba.enums.OperacionCambio;
 import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.cache.ClienteNearCache;
+import com.rti.prueba.service.analitica.ClientesCreadosEvent;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import com.rti.prueba.service.cache.CoalescenciaLecturas;
+import com.rti.prueba.service.diario.CambioCliente;
+import com.rti.prueba.service.diario.CambiosClientesEvent;
+import com.rti.prueba.service.replica.ReplicaClientes;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
-import java.time.Period;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.rti.prueba.service.ClienteReglas.calcularEdad;
+import static com.rti.prueba.service.ClienteReglas.esClienteViable;
+import static com.rti.prueba.service.ClienteReglas.validarEdad;
+
 /**
  * Servicio para la gestión de clientes
  */
@@ -28,11 +47,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ClienteService {
 
-    private static final int EDAD_MINIMA_PRODUCTIVA = 18;
-    private static final int EDAD_MAXIMA_PRODUCTIVA = 65;
-
     private final ClienteJPA clienteJPA;
     private final ClienteMapper clienteMapper;
+    private final ClienteNearCache clienteNearCache;
+    private final CoalescenciaLecturas coalescenciaLecturas;
+    private final ReplicaClientes replicaClientes;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Crear un nuevo cliente
@@ -53,6 +73,8 @@ public class ClienteService {
             cliente.setEsViable(esClienteViable(validarEdad(clienteCreateDTO.getFechaNacimiento())));
 
             clienteJPA.save(cliente);
+            eventPublisher.publishEvent(new ClientesCreadosEvent(List.of(cliente.getNumeroDocumento())));
+            eventPublisher.publishEvent(CambiosClientesEvent.de(CambioCliente.de(cliente, OperacionCambio.CREACION)));
 
             return "Cliente creado exitosamente. Es viable: " + (cliente.getEsViable() ? "Sí" : "No");
 
@@ -73,13 +95,40 @@ public class ClienteService {
     }
 
     /**
-     * Obtener un cliente por número de documento
+     * Obtener un cliente por número de documento desde la réplica en memoria si está activa o, si no está en ella,
+     * pasando por la caché cercana. Los fallos concurrentes para el mismo documento comparten una sola consulta.
+     * Sin transacción propia para que un acierto o una espera no tomen conexión de la base de datos.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ClienteResponseDTO obtenerClientePorDocumento(String numeroDocumento) {
-        ClienteORM cliente = clienteJPA.findById(numeroDocumento)
-                .orElseThrow(() -> new ClienteNotFoundException(numeroDocumento));
-        
+        if (replicaClientes.activa()) {
+            ClienteResponseDTO replicado = replicaClientes.obtener(numeroDocumento);
+            if (replicado != null) {
+                return replicado;
+            }
+        }
+        return clienteNearCache.obtenerCoalescido(numeroDocumento, () -> coalescenciaLecturas.obtener(numeroDocumento, () -> {
+            ClienteORM cliente = clienteJPA.buscarSinCacheSegundoNivel(numeroDocumento)
+                    .orElseThrow(() -> new ClienteNotFoundException(numeroDocumento));
+
+            return mapearClienteConEdad(cliente);
+        }));
+    }
+
+    /**
+     * Obtener un cliente por correo electrónico desde la réplica en memoria si está activa o de la base de datos
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public ClienteResponseDTO obtenerClientePorCorreo(String correoElectronico) {
+        String correo = correoElectronico.toLowerCase().trim();
+        if (replicaClientes.activa()) {
+            ClienteResponseDTO replicado = replicaClientes.obtenerPorCorreo(correo);
+            if (replicado != null) {
+                return replicado;
+            }
+        }
+        ClienteORM cliente = clienteJPA.findByCorreoElectronico(correo)
+                .orElseThrow(() -> new ClienteNotFoundException("correo electrónico", correo));
         return mapearClienteConEdad(cliente);
     }
 
@@ -87,82 +136,120 @@ public class ClienteService {
      * Actualizar un cliente
      */
     public String actualizarCliente(String numeroDocumento, ClienteUpdateDTO clienteUpdateDTO) {
-        // Buscar cliente existente
-        ClienteORM cliente = clienteJPA.findById(numeroDocumento)
-                .orElseThrow(() -> new ClienteNotFoundException(numeroDocumento));
-
-        // Validar que el correo no esté siendo usado por otro cliente
-        Optional<ClienteORM> clienteConCorreo = clienteJPA.findByCorreoElectronico(clienteUpdateDTO.getCorreoElectronico());
-        if (clienteConCorreo.isPresent() && !clienteConCorreo.get().getNumeroDocumento().equals(numeroDocumento)) {
-            throw new ClienteAlreadyExistsException("correo electrónico", clienteUpdateDTO.getCorreoElectronico());
-        }
+        return actualizarCliente(numeroDocumento, clienteUpdateDTO, null);
+    }
 
+    /**
+     * Actualizar un cliente con control de concurrencia optimista.
+     * La actualización se ejecuta como una única sentencia condicionada a la versión esperada;
+     * si la versión es nula se actualiza sin condición de versión.
+     */
+    public String actualizarCliente(String numeroDocumento, ClienteUpdateDTO clienteUpdateDTO, Long versionEsperada) {
         // Validar edad
         int edad = validarEdad(clienteUpdateDTO.getFechaNacimiento());
 
+        ClienteORM cliente = new ClienteORM();
+        clienteMapper.updateDTOToORM(clienteUpdateDTO, cliente);
+        cliente.setNumeroDocumento(numeroDocumento);
+        cliente.setEsViable(esClienteViable(edad));
+        cliente.setUpdatedAt(Instant.now());
+
+        int filasActualizadas;
         try {
-            // Actualizar datos
-            clienteMapper.updateDTOToORM(clienteUpdateDTO, cliente);
-            cliente.setEsViable(esClienteViable(edad));
+            filasActualizadas = clienteJPA.actualizarSiVersionCoincide(cliente, versionEsperada);
+        } catch (DataIntegrityViolationException e) {
+            // El único índice único modificable es el del correo electrónico; otra restricción es un fallo interno
+            if (violaIndiceUnico(e)) {
+                throw new ClienteAlreadyExistsException("correo electrónico", clienteUpdateDTO.getCorreoElectronico(), e);
+            }
+            throw new ClienteServiceException("Error al actualizar el cliente " + numeroDocumento, e);
+        }
 
-            clienteJPA.save(cliente);
+        if (filasActualizadas == 0) {
+            // Solo en el camino de error se consulta si el cliente existe
+            if (!clienteJPA.existsById(numeroDocumento)) {
+                throw new ClienteNotFoundException(numeroDocumento);
+            }
+            throw new ClienteVersionConflictException(numeroDocumento, versionEsperada);
+        }
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(numeroDocumento, versionEsperada));
+        eventPublisher.publishEvent(CambiosClientesEvent.de(CambioCliente.de(cliente, OperacionCambio.ACTUALIZACION)));
+
+        return "Cliente actualizado exitosamente. Es viable: " + (cliente.getEsViable() ? "Sí" : "No");
+    }
 
-            return "Cliente actualizado exitosamente. Es viable: " + (cliente.getEsViable() ? "Sí" : "No");
+    /**
+     * Actualizar parcialmente un cliente (JSON Merge Patch).
+     * Solo se escriben las columnas presentes en el parche; la viabilidad se recalcula únicamente
+     * si cambia la fecha de nacimiento y el correo se valida contra el índice único solo si cambia.
+     */
+    public String parchearCliente(String numeroDocumento, ClientePatchDTO clientePatchDTO, Long versionEsperada) {
+        Map<String, Object> cambios = clienteMapper.patchDTOToCambios(clientePatchDTO);
+
+        Boolean esViable = null;
+        if (clientePatchDTO.contiene("fechaNacimiento")) {
+            esViable = esClienteViable(validarEdad(clientePatchDTO.getValores().getFechaNacimiento()));
+            cambios.put("esViable", esViable);
+        }
 
+        if (cambios.isEmpty()) {
+            if (!clienteJPA.existsById(numeroDocumento)) {
+                throw new ClienteNotFoundException(numeroDocumento);
+            }
+            return "Cliente sin cambios";
+        }
+        cambios.put("updatedAt", Instant.now());
+
+        int filasActualizadas;
+        try {
+            filasActualizadas = clienteJPA.actualizarCampos(numeroDocumento, cambios, versionEsperada);
         } catch (DataIntegrityViolationException e) {
-            throw new ClienteAlreadyExistsException("Conflicto con datos existentes", e);
+            if (violaIndiceUnico(e) && clientePatchDTO.contiene("correoElectronico")) {
+                throw new ClienteAlreadyExistsException("correo electrónico", clientePatchDTO.getValores().getCorreoElectronico(), e);
+            }
+            throw new ClienteServiceException("Error al actualizar el cliente " + numeroDocumento, e);
         }
+
+        if (filasActualizadas == 0) {
+            if (!clienteJPA.existsById(numeroDocumento)) {
+                throw new ClienteNotFoundException(numeroDocumento);
+            }
+            throw new ClienteVersionConflictException(numeroDocumento, versionEsperada);
+        }
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(numeroDocumento, versionEsperada));
+        eventPublisher.publishEvent(CambiosClientesEvent.de(
+                CambioCliente.de(numeroDocumento, OperacionCambio.ACTUALIZACION, cambios)));
+
+        return esViable == null
+                ? "Cliente actualizado exitosamente"
+                : "Cliente actualizado exitosamente. Es viable: " + (esViable ? "Sí" : "No");
     }
 
     /**
      * Eliminar un cliente
      */
     public String eliminarCliente(String numeroDocumento) {
-        if (!clienteJPA.existsById(numeroDocumento)) {
+        if (clienteJPA.eliminarPorDocumento(numeroDocumento) == 0) {
             throw new ClienteNotFoundException(numeroDocumento);
         }
+        eventPublisher.publishEvent(ClientesModificadosEvent.de(List.of(numeroDocumento)));
+        eventPublisher.publishEvent(CambiosClientesEvent.de(CambioCliente.eliminacion(numeroDocumento)));
 
-        clienteJPA.deleteById(numeroDocumento);
         return "Cliente eliminado exitosamente";
     }
 
     /**
-     * Buscar clientes por nombre o apellidos
+     * Buscar clientes por nombre o apellidos.
+     * Las búsquedas concurrentes con el mismo término comparten una sola consulta y su resultado.
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<ClienteResponseDTO> buscarClientesPorNombreOApellidos(String busqueda) {
-        List<ClienteORM> clientes = clienteJPA.findByNombreContainingIgnoreCaseOrApellidosContainingIgnoreCase(busqueda, busqueda);
-        return clientes.stream()
-                .map(this::mapearClienteConEdad)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Calcular la edad de una persona
-     */
-    private int calcularEdad(LocalDate fechaNacimiento) {
-        if (fechaNacimiento.isAfter(LocalDate.now())) {
-            return -1; // Fecha futura
-        }
-        return Period.between(fechaNacimiento, LocalDate.now()).getYears();
-    }
-
-    /**
-     * Determinar si un cliente es viable según su edad
-     */
-    private boolean esClienteViable(int edad) {
-        return edad >= EDAD_MINIMA_PRODUCTIVA && edad <= EDAD_MAXIMA_PRODUCTIVA;
-    }
-
-    /**
-     * Validar la edad y devolver el valor calculado
-     */
-    private int validarEdad(LocalDate fechaNacimiento) {
-        int edad = calcularEdad(fechaNacimiento);
-        if (edad < 0) {
-            throw new ClienteValidationException("La fecha de nacimiento no puede ser futura");
-        }
-        return edad;
+        return coalescenciaLecturas.buscar(busqueda, () -> {
+            List<ClienteORM> clientes = clienteJPA.findByNombreContainingIgnoreCaseOrApellidosContainingIgnoreCase(busqueda, busqueda);
+            return clientes.stream()
+                    .map(this::mapearClienteConEdad)
+                    .collect(Collectors.toList());
+        });
     }
 
     /**
@@ -173,4 +260,20 @@ public class ClienteService {
         responseDTO.setEdad(calcularEdad(cliente.getFechaNacimiento()));
         return responseDTO;
     }
+
+    /**
+     * Si la violación de integridad proviene de un índice único (R2DBC la traduce a DuplicateKeyException;
+     * con JPA llega como la ConstraintViolationException de Hibernate) y no de un NOT NULL, longitud o enumerado
+     */
+    static boolean violaIndiceUnico(DataIntegrityViolationException e) {
+        if (e instanceof DuplicateKeyException) {
+            return true;
+        }
+        for (Throwable causa = e.getCause(); causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacion) {
+                return violacion.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,256 @@
+package com.rti.prueba.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.bd.r2dbc.ClienteR2dbc;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClientePatchDTO;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.enums.OperacionCambio;
+import com.rti.prueba.exception.ClienteAlreadyExistsException;
+import com.rti.prueba.exception.ClienteNotFoundException;
+import com.rti.prueba.exception.ClienteServiceException;
+import com.rti.prueba.exception.ClienteVersionConflictException;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.analitica.ClientesCreadosEvent;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import com.rti.prueba.service.diario.CambioCliente;
+import com.rti.prueba.service.diario.CambiosClientesEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.rti.prueba.service.ClienteReglas.calcularEdad;
+import static com.rti.prueba.service.ClienteReglas.esClienteViable;
+import static com.rti.prueba.service.ClienteReglas.validarEdad;
+
+/**
+ * Servicio de clientes del modo reactivo con las mismas reglas que ClienteService: unicidad de documento y correo,
+ * viabilidad, control optimista por versión y traducción de violaciones de integridad. Cada escritura y su fila
+ * de outbox se confirman en una transacción R2DBC; tras el commit se publican los mismos eventos que en el modo
+ * servlet (diario, analítica, réplica y caché cercana) en un hilo elástico porque sus oyentes pueden bloquear.
+ * Los eventos llevan la fila confirmada del cliente, releída aquí con R2DBC, para que la réplica y la analítica
+ * no la vuelvan a consultar con JPA.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ClienteServiceReactivo {
+
+    private final ClienteR2dbc clienteR2dbc;
+    private final ClienteMapper clienteMapper;
+    private final TransactionalOperator transactionalOperatorReactivo;
+    private final ObjectMapper objectMapper;
+    private final ClientesProperties clientesProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Crear un nuevo cliente
+     */
+    public Mono<String> crearCliente(ClienteCreateDTO clienteCreateDTO) {
+        return Mono.fromCallable(() -> {
+            ClienteORM cliente = clienteMapper.createDTOToORM(clienteCreateDTO);
+            cliente.setNumeroDocumento(clienteCreateDTO.getNumeroDocumento());
+            cliente.setEsViable(esClienteViable(validarEdad(clienteCreateDTO.getFechaNacimiento())));
+            return cliente;
+        }).flatMap(cliente -> {
+            CambioCliente cambio = CambioCliente.de(cliente, OperacionCambio.CREACION);
+            return clienteR2dbc.existePorDocumento(cliente.getNumeroDocumento())
+                    .flatMap(existe -> existe
+                            ? Mono.error(new ClienteAlreadyExistsException(cliente.getNumeroDocumento()))
+                            : clienteR2dbc.existePorCorreo(cliente.getCorreoElectronico()))
+                    .flatMap(existe -> existe
+                            ? Mono.error(new ClienteAlreadyExistsException("correo electrónico", cliente.getCorreoElectronico()))
+                            : clienteR2dbc.insertar(cliente))
+                    .onErrorMap(DataIntegrityViolationException.class,
+                            e -> new ClienteAlreadyExistsException("Ya existe un cliente con estos datos", e))
+                    .then(registrarOutbox(cambio))
+                    .as(transactionalOperatorReactivo::transactional)
+                    .then(publicarCreacion(cliente.getNumeroDocumento(), cambio))
+                    .thenReturn("Cliente creado exitosamente. Es viable: " + (cliente.getEsViable() ? "Sí" : "No"));
+        });
+    }
+
+    /**
+     * Obtener todos los clientes
+     */
+    public Mono<List<ClienteResponseDTO>> obtenerTodosLosClientes() {
+        return clienteR2dbc.buscarTodos().map(this::mapearClienteConEdad).collectList();
+    }
+
+    /**
+     * Obtener un cliente por número de documento
+     */
+    public Mono<ClienteResponseDTO> obtenerClientePorDocumento(String numeroDocumento) {
+        return clienteR2dbc.buscarPorDocumento(numeroDocumento)
+                .switchIfEmpty(Mono.error(() -> new ClienteNotFoundException(numeroDocumento)))
+                .map(this::mapearClienteConEdad);
+    }
+
+    /**
+     * Obtener un cliente por correo electrónico
+     */
+    public Mono<ClienteResponseDTO> obtenerClientePorCorreo(String correoElectronico) {
+        String correo = correoElectronico.toLowerCase().trim();
+        return clienteR2dbc.buscarPorCorreo(correo)
+                .switchIfEmpty(Mono.error(() -> new ClienteNotFoundException("correo electrónico", correo)))
+                .map(this::mapearClienteConEdad);
+    }
+
+    /**
+     * Actualizar un cliente con control de concurrencia optimista; si la versión es nula se actualiza sin condición
+     */
+    public Mono<String> actualizarCliente(String numeroDocumento, ClienteUpdateDTO clienteUpdateDTO, Long versionEsperada) {
+        return Mono.fromCallable(() -> {
+            int edad = validarEdad(clienteUpdateDTO.getFechaNacimiento());
+            ClienteORM cliente = new ClienteORM();
+            clienteMapper.updateDTOToORM(clienteUpdateDTO, cliente);
+            cliente.setNumeroDocumento(numeroDocumento);
+            cliente.setEsViable(esClienteViable(edad));
+            cliente.setUpdatedAt(Instant.now());
+            return cliente;
+        }).flatMap(cliente -> {
+            CambioCliente cambio = CambioCliente.de(cliente, OperacionCambio.ACTUALIZACION);
+            return clienteR2dbc.actualizarSiVersionCoincide(cliente, versionEsperada)
+                    .onErrorMap(DataIntegrityViolationException.class, e -> ClienteService.violaIndiceUnico(e)
+                            ? new ClienteAlreadyExistsException("correo electrónico", clienteUpdateDTO.getCorreoElectronico(), e)
+                            : new ClienteServiceException("Error al actualizar el cliente " + numeroDocumento, e))
+                    .flatMap(filas -> filas > 0 ? Mono.<Void>empty() : errorSinFilas(numeroDocumento, versionEsperada))
+                    .then(registrarOutbox(cambio))
+                    .as(transactionalOperatorReactivo::transactional)
+                    .then(publicarModificacion(numeroDocumento, versionEsperada, cambio))
+                    .thenReturn("Cliente actualizado exitosamente. Es viable: " + (cliente.getEsViable() ? "Sí" : "No"));
+        });
+    }
+
+    /**
+     * Actualizar parcialmente un cliente: solo se escriben los campos presentes en el parche
+     */
+    public Mono<String> parchearCliente(String numeroDocumento, ClientePatchDTO clientePatchDTO, Long versionEsperada) {
+        return Mono.fromCallable(() -> {
+            Map<String, Object> cambios = clienteMapper.patchDTOToCambios(clientePatchDTO);
+            if (clientePatchDTO.contiene("fechaNacimiento")) {
+                cambios.put("esViable", esClienteViable(validarEdad(clientePatchDTO.getValores().getFechaNacimiento())));
+            }
+            return cambios;
+        }).flatMap(cambios -> {
+            if (cambios.isEmpty()) {
+                return clienteR2dbc.existePorDocumento(numeroDocumento)
+                        .flatMap(existe -> existe
+                                ? Mono.just("Cliente sin cambios")
+                                : Mono.error(new ClienteNotFoundException(numeroDocumento)));
+            }
+            Boolean esViable = (Boolean) cambios.get("esViable");
+            cambios.put("updatedAt", Instant.now());
+            CambioCliente cambio = CambioCliente.de(numeroDocumento, OperacionCambio.ACTUALIZACION, cambios);
+            return clienteR2dbc.actualizarCampos(numeroDocumento, cambios, versionEsperada)
+                    .onErrorMap(DataIntegrityViolationException.class, e ->
+                            ClienteService.violaIndiceUnico(e) && clientePatchDTO.contiene("correoElectronico")
+                            ? new ClienteAlreadyExistsException("correo electrónico", clientePatchDTO.getValores().getCorreoElectronico(), e)
+                            : new ClienteServiceException("Error al actualizar el cliente " + numeroDocumento, e))
+                    .flatMap(filas -> filas > 0 ? Mono.<Void>empty() : errorSinFilas(numeroDocumento, versionEsperada))
+                    .then(registrarOutbox(cambio))
+                    .as(transactionalOperatorReactivo::transactional)
+                    .then(publicarModificacion(numeroDocumento, versionEsperada, cambio))
+                    .thenReturn(esViable == null
+                            ? "Cliente actualizado exitosamente"
+                            : "Cliente actualizado exitosamente. Es viable: " + (esViable ? "Sí" : "No"));
+        });
+    }
+
+    /**
+     * Eliminar un cliente
+     */
+    public Mono<String> eliminarCliente(String numeroDocumento) {
+        CambioCliente cambio = CambioCliente.eliminacion(numeroDocumento);
+        return clienteR2dbc.eliminarPorDocumento(numeroDocumento)
+                .flatMap(filas -> filas > 0
+                        ? Mono.<Void>empty()
+                        : Mono.<Void>error(new ClienteNotFoundException(numeroDocumento)))
+                .then(registrarOutbox(cambio))
+                .as(transactionalOperatorReactivo::transactional)
+                .then(publicar(ClientesModificadosEvent.de(List.of(numeroDocumento)).conFilas(List.of()), cambio))
+                .thenReturn("Cliente eliminado exitosamente");
+    }
+
+    /**
+     * Buscar clientes por nombre o apellidos
+     */
+    public Mono<List<ClienteResponseDTO>> buscarClientesPorNombreOApellidos(String busqueda) {
+        return clienteR2dbc.buscarPorNombreOApellidos(busqueda).map(this::mapearClienteConEdad).collectList();
+    }
+
+    /**
+     * Solo en el camino de error se consulta si el cliente existe
+     */
+    private Mono<Void> errorSinFilas(String numeroDocumento, Long versionEsperada) {
+        return clienteR2dbc.existePorDocumento(numeroDocumento)
+                .flatMap(existe -> Mono.error(existe
+                        ? new ClienteVersionConflictException(numeroDocumento, versionEsperada)
+                        : new ClienteNotFoundException(numeroDocumento)));
+    }
+
+    private Mono<Void> registrarOutbox(CambioCliente cambio) {
+        if (!clientesProperties.getOutbox().isHabilitado()) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> objectMapper.writeValueAsString(cambio))
+                .onErrorMap(JsonProcessingException.class, e -> new ClienteServiceException(
+                        "No se pudo serializar el evento del cliente " + cambio.numeroDocumento(), e))
+                .flatMap(carga -> clienteR2dbc.insertarEventoOutbox(cambio.numeroDocumento(), cambio.operacion(), carga))
+                .then();
+    }
+
+    private Mono<Void> publicarCreacion(String numeroDocumento, CambioCliente cambio) {
+        ClientesCreadosEvent evento = new ClientesCreadosEvent(List.of(numeroDocumento));
+        return filasConfirmadas(numeroDocumento)
+                .map(evento::conFilas)
+                .defaultIfEmpty(evento)
+                .flatMap(creacion -> publicar(creacion, cambio));
+    }
+
+    private Mono<Void> publicarModificacion(String numeroDocumento, Long versionEsperada, CambioCliente cambio) {
+        ClientesModificadosEvent evento = ClientesModificadosEvent.de(numeroDocumento, versionEsperada);
+        return filasConfirmadas(numeroDocumento)
+                .map(evento::conFilas)
+                .defaultIfEmpty(evento)
+                .flatMap(modificacion -> publicar(modificacion, cambio));
+    }
+
+    /**
+     * Fila confirmada del cliente tras el commit (lista vacía si ya no existe); si la lectura falla se omite
+     * y los oyentes releen el cliente
+     */
+    private Mono<List<ClienteFilaReplica>> filasConfirmadas(String numeroDocumento) {
+        return clienteR2dbc.buscarPorDocumento(numeroDocumento)
+                .map(cliente -> List.of(ClienteFilaReplica.de(cliente)))
+                .defaultIfEmpty(List.of())
+                .onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> publicar(Object evento, CambioCliente cambio) {
+        return Mono.fromRunnable(() -> {
+            eventPublisher.publishEvent(evento);
+            eventPublisher.publishEvent(CambiosClientesEvent.de(cambio));
+        }).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+
+    private ClienteResponseDTO mapearClienteConEdad(ClienteORM cliente) {
+        ClienteResponseDTO responseDTO = clienteMapper.ORMToResponseDTO(cliente);
+        responseDTO.setEdad(calcularEdad(cliente.getFechaNacimiento()));
+        return responseDTO;
+    }
+}
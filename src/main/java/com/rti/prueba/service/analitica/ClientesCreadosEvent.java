@@ -0,0 +1,26 @@
+package com.rti.prueba.service.analitica;
+
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+
+import java.util.List;
+
+/**
+ * Evento publicado dentro de la transacción que da de alta clientes (individual o importación).
+ * Se procesa tras el commit para incorporarlos a la instantánea analítica.
+ * Si quien publica ya tiene las filas confirmadas (las leyó tras el commit o, en la importación, son las que acaba de
+ * insertar) las adjunta y los oyentes no vuelven a consultar la base de datos; con filas null cada oyente relee
+ * los clientes.
+ */
+public record ClientesCreadosEvent(List<String> numerosDocumento, List<ClienteFilaReplica> filas) {
+
+    public ClientesCreadosEvent(List<String> numerosDocumento) {
+        this(numerosDocumento, null);
+    }
+
+    /**
+     * El mismo evento con las filas confirmadas de los clientes dados de alta
+     */
+    public ClientesCreadosEvent conFilas(List<ClienteFilaReplica> filas) {
+        return new ClientesCreadosEvent(numerosDocumento, filas);
+    }
+}
@@ -0,0 +1,395 @@
+package com.rti.prueba.service.analitica;
+
+import com.rti.prueba.enums.Ocupacion;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Instantánea columnar de los atributos analíticos de los clientes en arreglos primitivos:
+ * fecha de nacimiento en días epoch ({@code int}), ocupación como código de un byte, viabilidad y presencia
+ * como bitsets y ciudad codificada por diccionario. Las filas eliminadas se reutilizan en las altas siguientes,
+ * de modo que los identificadores de fila se mantienen densos.
+ * Además mantiene índices de mapas de bits comprimidos por ciudad, ocupación y viabilidad para segmentar con
+ * operaciones AND/OR sin recorrer las columnas.
+ * Las consultas recorren las columnas en paralelo con fork-join bajo el bloqueo de lectura; las escrituras
+ * incrementales toman el de escritura.
+ */
+public class InstantaneaColumnar {
+
+    /** Filas por tarea hoja del escaneo */
+    static final int UMBRAL_ESCANEO = 16_384;
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final byte SIN_OCUPACION = -1;
+    private static final Ocupacion[] OCUPACIONES = Ocupacion.values();
+
+    private final ReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final Map<String, Integer> filaPorDocumento = new HashMap<>();
+    private final Map<String, Integer> codigoPorCiudad = new HashMap<>();
+    private final List<String> ciudades = new ArrayList<>();
+    private final List<MapaBits> filasPorCiudad = new ArrayList<>();
+    private final MapaBits[] filasPorOcupacion = new MapaBits[OCUPACIONES.length + 1];
+    private final MapaBits filasViables = new MapaBits();
+    private final MapaBits filasNoViables = new MapaBits();
+
+    private int[] fechasNacimiento = new int[CAPACIDAD_INICIAL];
+    private byte[] ocupaciones = new byte[CAPACIDAD_INICIAL];
+    private int[] codigosCiudad = new int[CAPACIDAD_INICIAL];
+    private String[] documentos = new String[CAPACIDAD_INICIAL];
+    private long[] viables = new long[CAPACIDAD_INICIAL / 64];
+    private long[] presentes = new long[CAPACIDAD_INICIAL / 64];
+    private int[] libres = new int[16];
+    private int totalLibres;
+    private int filas;
+
+    /**
+     * Recorrido de una fila: devuelve el grupo al que suma o -1 si la fila no cumple el filtro
+     */
+    @FunctionalInterface
+    public interface Clasificador {
+        int grupo(InstantaneaColumnar columnas, int fila);
+    }
+
+    /**
+     * Página de documentos de un segmento junto con el total de clientes que lo forman
+     */
+    public record Segmento(long total, List<String> numerosDocumento) {
+    }
+
+    /**
+     * Memoria de un mapa de bits de índice
+     */
+    public record MemoriaIndice(String indice, String valor, long cardinalidad, int contenedores, long bytes) {
+    }
+
+    public InstantaneaColumnar() {
+        for (int i = 0; i < filasPorOcupacion.length; i++) {
+            filasPorOcupacion[i] = new MapaBits();
+        }
+    }
+
+    /**
+     * Insertar o reemplazar los atributos de un cliente
+     */
+    public void guardar(String numeroDocumento, LocalDate fechaNacimiento, Ocupacion ocupacion, boolean esViable,
+                        String ciudad) {
+        bloqueo.writeLock().lock();
+        try {
+            Integer fila = filaPorDocumento.get(numeroDocumento);
+            if (fila == null) {
+                fila = nuevaFila();
+                filaPorDocumento.put(numeroDocumento, fila);
+            } else {
+                quitarDeIndices(fila);
+            }
+            documentos[fila] = numeroDocumento;
+            fechasNacimiento[fila] = (int) fechaNacimiento.toEpochDay();
+            ocupaciones[fila] = ocupacion != null ? (byte) ocupacion.ordinal() : SIN_OCUPACION;
+            codigosCiudad[fila] = codigoPorCiudad.computeIfAbsent(ciudad, nueva -> {
+                ciudades.add(nueva);
+                filasPorCiudad.add(new MapaBits());
+                return ciudades.size() - 1;
+            });
+            asignar(viables, fila, esViable);
+            asignar(presentes, fila, true);
+            agregarAIndices(fila);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Eliminar un cliente; su fila queda libre para una próxima alta
+     */
+    public void eliminar(String numeroDocumento) {
+        bloqueo.writeLock().lock();
+        try {
+            Integer fila = filaPorDocumento.remove(numeroDocumento);
+            if (fila != null) {
+                quitarDeIndices(fila);
+                documentos[fila] = null;
+                asignar(presentes, fila, false);
+                if (totalLibres == libres.length) {
+                    libres = Arrays.copyOf(libres, libres.length * 2);
+                }
+                libres[totalLibres++] = fila;
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Contar las filas presentes por grupo con un escaneo fork-join en paralelo
+     */
+    public long[] contar(Clasificador clasificador, int grupos, ForkJoinPool pool) {
+        bloqueo.readLock().lock();
+        try {
+            return pool.invoke(new Escaneo(this, clasificador, grupos, 0, filas));
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Segmentar con los índices: OR entre las ciudades, OR entre las ocupaciones y AND entre los criterios.
+     * Los criterios vacíos o nulos no se aplican. Los documentos se devuelven en orden de fila
+     */
+    public Segmento segmentar(Collection<String> ciudadesFiltro, Collection<Ocupacion> ocupacionesFiltro,
+                              Boolean esViable, long saltar, int limite) {
+        bloqueo.readLock().lock();
+        try {
+            MapaBits resultado = esViable == null ? filasViables.or(filasNoViables)
+                    : esViable ? filasViables : filasNoViables;
+            if (ciudadesFiltro != null && !ciudadesFiltro.isEmpty()) {
+                List<MapaBits> mapas = new ArrayList<>();
+                for (String ciudad : ciudadesFiltro) {
+                    Integer codigo = codigoPorCiudad.get(ciudad);
+                    if (codigo != null) {
+                        mapas.add(filasPorCiudad.get(codigo));
+                    }
+                }
+                resultado = resultado.and(MapaBits.or(mapas));
+            }
+            if (ocupacionesFiltro != null && !ocupacionesFiltro.isEmpty()) {
+                List<MapaBits> mapas = new ArrayList<>();
+                for (Ocupacion ocupacion : ocupacionesFiltro) {
+                    mapas.add(filasPorOcupacion[ocupacion.ordinal()]);
+                }
+                resultado = resultado.and(MapaBits.or(mapas));
+            }
+
+            int[] filasPagina = resultado.seleccionar(saltar, limite);
+            List<String> pagina = new ArrayList<>(filasPagina.length);
+            for (int fila : filasPagina) {
+                pagina.add(documentos[fila]);
+            }
+            return new Segmento(resultado.cardinalidad(), pagina);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memoria de cada mapa de bits de los índices
+     */
+    public List<MemoriaIndice> memoriaIndices() {
+        bloqueo.readLock().lock();
+        try {
+            List<MemoriaIndice> memoria = new ArrayList<>();
+            for (int codigo = 0; codigo < ciudades.size(); codigo++) {
+                memoria.add(memoria("ciudad", ciudades.get(codigo), filasPorCiudad.get(codigo)));
+            }
+            for (Ocupacion ocupacion : OCUPACIONES) {
+                memoria.add(memoria("ocupacion", ocupacion.getDescripcion(), filasPorOcupacion[ocupacion.ordinal()]));
+            }
+            memoria.add(memoria("ocupacion", "Sin ocupación", filasPorOcupacion[OCUPACIONES.length]));
+            memoria.add(memoria("esViable", "true", filasViables));
+            memoria.add(memoria("esViable", "false", filasNoViables));
+            return memoria;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de clientes en la instantánea
+     */
+    public int tamano() {
+        bloqueo.readLock().lock();
+        try {
+            return filaPorDocumento.size();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ciudades del diccionario en orden de código (incluye ciudades que ya no tienen clientes)
+     */
+    public List<String> ciudades() {
+        bloqueo.readLock().lock();
+        try {
+            return List.copyOf(ciudades);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Código de diccionario de la ciudad o -1 si ningún cliente la ha tenido
+     */
+    public int codigoDeCiudad(String ciudad) {
+        bloqueo.readLock().lock();
+        try {
+            return codigoPorCiudad.getOrDefault(ciudad, -1);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimación del heap ocupado: columnas, diccionario e índice de documentos a filas
+     */
+    public long bytesEstimados() {
+        bloqueo.readLock().lock();
+        try {
+            long columnas = 4L * fechasNacimiento.length + ocupaciones.length + 4L * codigosCiudad.length
+                    + 4L * documentos.length + 8L * (viables.length + presentes.length) + 4L * libres.length;
+            // Entrada de HashMap (32) + Integer (16) + String con su arreglo (40 + longitud)
+            long indice = 0;
+            for (String documento : filaPorDocumento.keySet()) {
+                indice += 88 + documento.length();
+            }
+            long diccionario = 0;
+            for (String ciudad : ciudades) {
+                diccionario += 2 * 88L + ciudad.length();
+            }
+            long indicesBits = filasViables.bytesEstimados() + filasNoViables.bytesEstimados();
+            for (MapaBits mapa : filasPorCiudad) {
+                indicesBits += mapa.bytesEstimados();
+            }
+            for (MapaBits mapa : filasPorOcupacion) {
+                indicesBits += mapa.bytesEstimados();
+            }
+            return columnas + indice + diccionario + indicesBits;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    // Accesos por fila para los clasificadores; solo válidos durante un escaneo
+
+    public int fechaNacimiento(int fila) {
+        return fechasNacimiento[fila];
+    }
+
+    public Ocupacion ocupacion(int fila) {
+        byte codigo = ocupaciones[fila];
+        return codigo == SIN_OCUPACION ? null : OCUPACIONES[codigo];
+    }
+
+    public int codigoOcupacion(int fila) {
+        return ocupaciones[fila];
+    }
+
+    public int codigoCiudad(int fila) {
+        return codigosCiudad[fila];
+    }
+
+    public boolean esViable(int fila) {
+        return bit(viables, fila);
+    }
+
+    private int nuevaFila() {
+        if (totalLibres > 0) {
+            return libres[--totalLibres];
+        }
+        if (filas == fechasNacimiento.length) {
+            int capacidad = fechasNacimiento.length * 2;
+            fechasNacimiento = Arrays.copyOf(fechasNacimiento, capacidad);
+            ocupaciones = Arrays.copyOf(ocupaciones, capacidad);
+            codigosCiudad = Arrays.copyOf(codigosCiudad, capacidad);
+            documentos = Arrays.copyOf(documentos, capacidad);
+            viables = Arrays.copyOf(viables, capacidad / 64);
+            presentes = Arrays.copyOf(presentes, capacidad / 64);
+        }
+        return filas++;
+    }
+
+    private void agregarAIndices(int fila) {
+        filasPorCiudad.get(codigosCiudad[fila]).agregar(fila);
+        filasPorOcupacion[indiceOcupacion(fila)].agregar(fila);
+        (bit(viables, fila) ? filasViables : filasNoViables).agregar(fila);
+    }
+
+    private void quitarDeIndices(int fila) {
+        filasPorCiudad.get(codigosCiudad[fila]).quitar(fila);
+        filasPorOcupacion[indiceOcupacion(fila)].quitar(fila);
+        (bit(viables, fila) ? filasViables : filasNoViables).quitar(fila);
+    }
+
+    /**
+     * Posición del índice de ocupación; la última corresponde a los clientes sin ocupación
+     */
+    private int indiceOcupacion(int fila) {
+        return ocupaciones[fila] == SIN_OCUPACION ? OCUPACIONES.length : ocupaciones[fila];
+    }
+
+    private static MemoriaIndice memoria(String indice, String valor, MapaBits mapa) {
+        return new MemoriaIndice(indice, valor, mapa.cardinalidad(), mapa.contenedores(), mapa.bytesEstimados());
+    }
+
+    private static void asignar(long[] bits, int fila, boolean valor) {
+        if (valor) {
+            bits[fila >>> 6] |= 1L << fila;
+        } else {
+            bits[fila >>> 6] &= ~(1L << fila);
+        }
+    }
+
+    private static boolean bit(long[] bits, int fila) {
+        return (bits[fila >>> 6] & (1L << fila)) != 0;
+    }
+
+    /**
+     * Escaneo de un rango de filas; divide en mitades hasta el umbral y suma los conteos parciales
+     */
+    private static class Escaneo extends RecursiveTask<long[]> {
+
+        private final InstantaneaColumnar columnas;
+        private final Clasificador clasificador;
+        private final int grupos;
+        private final int desde;
+        private final int hasta;
+
+        Escaneo(InstantaneaColumnar columnas, Clasificador clasificador, int grupos, int desde, int hasta) {
+            this.columnas = columnas;
+            this.clasificador = clasificador;
+            this.grupos = grupos;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (hasta - desde <= UMBRAL_ESCANEO) {
+                return recorrer();
+            }
+            int mitad = (desde + hasta) >>> 1;
+            Escaneo izquierda = new Escaneo(columnas, clasificador, grupos, desde, mitad);
+            izquierda.fork();
+            long[] conteos = new Escaneo(columnas, clasificador, grupos, mitad, hasta).compute();
+            long[] parciales = izquierda.join();
+            for (int i = 0; i < grupos; i++) {
+                conteos[i] += parciales[i];
+            }
+            return conteos;
+        }
+
+        private long[] recorrer() {
+            long[] conteos = new long[grupos];
+            long[] presentes = columnas.presentes;
+            for (int fila = desde; fila < hasta; fila++) {
+                if ((presentes[fila >>> 6] & (1L << fila)) == 0) {
+                    continue;
+                }
+                int grupo = clasificador.grupo(columnas, fila);
+                if (grupo >= 0) {
+                    conteos[grupo]++;
+                }
+            }
+            return conteos;
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package com.rti.prueba.service.analitica;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Mapa de bits comprimido al estilo Roaring sobre identificadores de fila: las filas se agrupan por sus 16 bits
+ * altos y cada grupo guarda sus 16 bits bajos en un arreglo ordenado (hasta 4096 valores) o en un mapa de 65536 bits.
+ * No es seguro para hilos; {@link InstantaneaColumnar} lo protege con su bloqueo.
+ */
+public class MapaBits {
+
+    static final int MAXIMO_ARREGLO = 4096;
+
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int tamano;
+
+    public void agregar(int fila) {
+        char clave = (char) (fila >>> 16);
+        int i = buscar(clave);
+        if (i >= 0) {
+            contenedores[i] = contenedores[i].agregar((char) fila);
+        } else {
+            insertar(-i - 1, clave, new ContenedorArreglo(new char[4], 0).agregar((char) fila));
+        }
+    }
+
+    public void quitar(int fila) {
+        int i = buscar((char) (fila >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Contenedor contenedor = contenedores[i].quitar((char) fila);
+        if (contenedor.cardinalidad() == 0) {
+            System.arraycopy(claves, i + 1, claves, i, tamano - i - 1);
+            System.arraycopy(contenedores, i + 1, contenedores, i, tamano - i - 1);
+            contenedores[--tamano] = null;
+        } else {
+            contenedores[i] = contenedor;
+        }
+    }
+
+    public boolean contiene(int fila) {
+        int i = buscar((char) (fila >>> 16));
+        return i >= 0 && contenedores[i].contiene((char) fila);
+    }
+
+    public long cardinalidad() {
+        long total = 0;
+        for (int i = 0; i < tamano; i++) {
+            total += contenedores[i].cardinalidad();
+        }
+        return total;
+    }
+
+    /**
+     * Intersección en un mapa nuevo
+     */
+    public MapaBits and(MapaBits otro) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int j = 0;
+        while (i < tamano && j < otro.tamano) {
+            if (claves[i] < otro.claves[j]) {
+                i++;
+            } else if (claves[i] > otro.claves[j]) {
+                j++;
+            } else {
+                Contenedor contenedor = contenedores[i].and(otro.contenedores[j]);
+                if (contenedor.cardinalidad() > 0) {
+                    resultado.insertar(resultado.tamano, claves[i], contenedor);
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Unión en un mapa nuevo
+     */
+    public MapaBits or(MapaBits otro) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int j = 0;
+        while (i < tamano || j < otro.tamano) {
+            if (j == otro.tamano || (i < tamano && claves[i] < otro.claves[j])) {
+                resultado.insertar(resultado.tamano, claves[i], contenedores[i].copia());
+                i++;
+            } else if (i == tamano || claves[i] > otro.claves[j]) {
+                resultado.insertar(resultado.tamano, otro.claves[j], otro.contenedores[j].copia());
+                j++;
+            } else {
+                resultado.insertar(resultado.tamano, claves[i], contenedores[i].or(otro.contenedores[j]));
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Unión de varios mapas; vacía si no hay ninguno
+     */
+    public static MapaBits or(Collection<MapaBits> mapas) {
+        MapaBits resultado = new MapaBits();
+        for (MapaBits mapa : mapas) {
+            resultado = resultado.or(mapa);
+        }
+        return resultado;
+    }
+
+    /**
+     * Filas en orden ascendente a partir de la posición indicada, como máximo {@code limite}
+     */
+    public int[] seleccionar(long saltar, int limite) {
+        int[] filas = new int[(int) Math.max(0, Math.min(limite, cardinalidad() - saltar))];
+        int posicion = 0;
+        for (int i = 0; i < tamano && posicion < filas.length; i++) {
+            int cardinalidad = contenedores[i].cardinalidad();
+            if (saltar >= cardinalidad) {
+                saltar -= cardinalidad;
+                continue;
+            }
+            posicion = contenedores[i].copiar(claves[i] << 16, (int) saltar, filas, posicion);
+            saltar = 0;
+        }
+        return filas;
+    }
+
+    /**
+     * Número de contenedores (grupos de 65536 filas con al menos un valor)
+     */
+    public int contenedores() {
+        return tamano;
+    }
+
+    /**
+     * Estimación del heap ocupado por claves, contenedores y sus valores
+     */
+    public long bytesEstimados() {
+        long bytes = 16 + 16 + 2L * claves.length + 16 + 4L * contenedores.length;
+        for (int i = 0; i < tamano; i++) {
+            bytes += contenedores[i].bytesEstimados();
+        }
+        return bytes;
+    }
+
+    private int buscar(char clave) {
+        return Arrays.binarySearch(claves, 0, tamano, clave);
+    }
+
+    private void insertar(int indice, char clave, Contenedor contenedor) {
+        if (tamano == claves.length) {
+            claves = Arrays.copyOf(claves, tamano * 2);
+            contenedores = Arrays.copyOf(contenedores, tamano * 2);
+        }
+        System.arraycopy(claves, indice, claves, indice + 1, tamano - indice);
+        System.arraycopy(contenedores, indice, contenedores, indice + 1, tamano - indice);
+        claves[indice] = clave;
+        contenedores[indice] = contenedor;
+        tamano++;
+    }
+
+    /**
+     * Valores de un grupo de 65536 filas. Agregar y quitar pueden devolver un contenedor de otro tipo
+     */
+    private sealed interface Contenedor permits ContenedorArreglo, ContenedorBits {
+
+        Contenedor agregar(char valor);
+
+        Contenedor quitar(char valor);
+
+        boolean contiene(char valor);
+
+        int cardinalidad();
+
+        Contenedor and(Contenedor otro);
+
+        Contenedor or(Contenedor otro);
+
+        Contenedor copia();
+
+        /** Copiar los valores desde la posición {@code saltar} sumando {@code base}; devuelve la nueva posición */
+        int copiar(int base, int saltar, int[] destino, int posicion);
+
+        long bytesEstimados();
+    }
+
+    /**
+     * Contenedor disperso: valores ordenados
+     */
+    private static final class ContenedorArreglo implements Contenedor {
+
+        private char[] valores;
+        private int cardinalidad;
+
+        ContenedorArreglo(char[] valores, int cardinalidad) {
+            this.valores = valores;
+            this.cardinalidad = cardinalidad;
+        }
+
+        @Override
+        public Contenedor agregar(char valor) {
+            int i = Arrays.binarySearch(valores, 0, cardinalidad, valor);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinalidad == MAXIMO_ARREGLO) {
+                return ContenedorBits.de(this).agregar(valor);
+            }
+            if (cardinalidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAXIMO_ARREGLO, Math.max(4, cardinalidad * 2)));
+            }
+            int indice = -i - 1;
+            System.arraycopy(valores, indice, valores, indice + 1, cardinalidad - indice);
+            valores[indice] = valor;
+            cardinalidad++;
+            return this;
+        }
+
+        @Override
+        public Contenedor quitar(char valor) {
+            int i = Arrays.binarySearch(valores, 0, cardinalidad, valor);
+            if (i >= 0) {
+                System.arraycopy(valores, i + 1, valores, i, cardinalidad - i - 1);
+                cardinalidad--;
+                if (valores.length > 16 && cardinalidad < valores.length / 4) {
+                    valores = Arrays.copyOf(valores, valores.length / 2);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public boolean contiene(char valor) {
+            return Arrays.binarySearch(valores, 0, cardinalidad, valor) >= 0;
+        }
+
+        @Override
+        public int cardinalidad() {
+            return cardinalidad;
+        }
+
+        @Override
+        public Contenedor and(Contenedor otro) {
+            char[] resultado = new char[cardinalidad];
+            int total = 0;
+            if (otro instanceof ContenedorArreglo arreglo) {
+                int j = 0;
+                for (int i = 0; i < cardinalidad && j < arreglo.cardinalidad; ) {
+                    if (valores[i] < arreglo.valores[j]) {
+                        i++;
+                    } else if (valores[i] > arreglo.valores[j]) {
+                        j++;
+                    } else {
+                        resultado[total++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinalidad; i++) {
+                    if (otro.contiene(valores[i])) {
+                        resultado[total++] = valores[i];
+                    }
+                }
+            }
+            return new ContenedorArreglo(resultado, total);
+        }
+
+        @Override
+        public Contenedor or(Contenedor otro) {
+            if (otro instanceof ContenedorBits bits) {
+                return bits.or(this);
+            }
+            ContenedorArreglo arreglo = (ContenedorArreglo) otro;
+            char[] resultado = new char[cardinalidad + arreglo.cardinalidad];
+            int total = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinalidad || j < arreglo.cardinalidad) {
+                if (j == arreglo.cardinalidad || (i < cardinalidad && valores[i] < arreglo.valores[j])) {
+                    resultado[total++] = valores[i++];
+                } else if (i == cardinalidad || valores[i] > arreglo.valores[j]) {
+                    resultado[total++] = arreglo.valores[j++];
+                } else {
+                    resultado[total++] = valores[i];
+                    i++;
+                    j++;
+                }
+            }
+            ContenedorArreglo union = new ContenedorArreglo(resultado, total);
+            return total > MAXIMO_ARREGLO ? ContenedorBits.de(union) : union;
+        }
+
+        @Override
+        public Contenedor copia() {
+            return new ContenedorArreglo(Arrays.copyOf(valores, cardinalidad), cardinalidad);
+        }
+
+        @Override
+        public int copiar(int base, int saltar, int[] destino, int posicion) {
+            for (int i = saltar; i < cardinalidad && posicion < destino.length; i++) {
+                destino[posicion++] = base | valores[i];
+            }
+            return posicion;
+        }
+
+        @Override
+        public long bytesEstimados() {
+            return 16 + 16 + 2L * valores.length;
+        }
+    }
+
+    /**
+     * Contenedor denso: un bit por cada uno de los 65536 valores posibles
+     */
+    private static final class ContenedorBits implements Contenedor {
+
+        private final long[] bits;
+        private int cardinalidad;
+
+        ContenedorBits(long[] bits, int cardinalidad) {
+            this.bits = bits;
+            this.cardinalidad = cardinalidad;
+        }
+
+        static ContenedorBits de(ContenedorArreglo arreglo) {
+            long[] bits = new long[1024];
+            for (int i = 0; i < arreglo.cardinalidad; i++) {
+                char valor = arreglo.valores[i];
+                bits[valor >>> 6] |= 1L << valor;
+            }
+            return new ContenedorBits(bits, arreglo.cardinalidad);
+        }
+
+        @Override
+        public Contenedor agregar(char valor) {
+            long anterior = bits[valor >>> 6];
+            long nuevo = anterior | (1L << valor);
+            if (nuevo != anterior) {
+                bits[valor >>> 6] = nuevo;
+                cardinalidad++;
+            }
+            return this;
+        }
+
+        @Override
+        public Contenedor quitar(char valor) {
+            long anterior = bits[valor >>> 6];
+            long nuevo = anterior & ~(1L << valor);
+            if (nuevo != anterior) {
+                bits[valor >>> 6] = nuevo;
+                cardinalidad--;
+            }
+            return cardinalidad <= MAXIMO_ARREGLO ? aArreglo() : this;
+        }
+
+        @Override
+        public boolean contiene(char valor) {
+            return (bits[valor >>> 6] & (1L << valor)) != 0;
+        }
+
+        @Override
+        public int cardinalidad() {
+            return cardinalidad;
+        }
+
+        @Override
+        public Contenedor and(Contenedor otro) {
+            if (otro instanceof ContenedorArreglo arreglo) {
+                return arreglo.and(this);
+            }
+            long[] otros = ((ContenedorBits) otro).bits;
+            long[] resultado = new long[1024];
+            int total = 0;
+            for (int i = 0; i < resultado.length; i++) {
+                resultado[i] = bits[i] & otros[i];
+                total += Long.bitCount(resultado[i]);
+            }
+            ContenedorBits interseccion = new ContenedorBits(resultado, total);
+            return total <= MAXIMO_ARREGLO ? interseccion.aArreglo() : interseccion;
+        }
+
+        @Override
+        public Contenedor or(Contenedor otro) {
+            long[] resultado = bits.clone();
+            int total = cardinalidad;
+            if (otro instanceof ContenedorArreglo arreglo) {
+                for (int i = 0; i < arreglo.cardinalidad; i++) {
+                    char valor = arreglo.valores[i];
+                    long anterior = resultado[valor >>> 6];
+                    resultado[valor >>> 6] = anterior | (1L << valor);
+                    total += resultado[valor >>> 6] != anterior ? 1 : 0;
+                }
+            } else {
+                long[] otros = ((ContenedorBits) otro).bits;
+                total = 0;
+                for (int i = 0; i < resultado.length; i++) {
+                    resultado[i] |= otros[i];
+                    total += Long.bitCount(resultado[i]);
+                }
+            }
+            return new ContenedorBits(resultado, total);
+        }
+
+        @Override
+        public Contenedor copia() {
+            return new ContenedorBits(bits.clone(), cardinalidad);
+        }
+
+        @Override
+        public int copiar(int base, int saltar, int[] destino, int posicion) {
+            for (int i = 0; i < bits.length && posicion < destino.length; i++) {
+                long palabra = bits[i];
+                while (palabra != 0 && posicion < destino.length) {
+                    int bit = Long.numberOfTrailingZeros(palabra);
+                    palabra &= palabra - 1;
+                    if (saltar > 0) {
+                        saltar--;
+                    } else {
+                        destino[posicion++] = base | (i << 6) | bit;
+                    }
+                }
+            }
+            return posicion;
+        }
+
+        @Override
+        public long bytesEstimados() {
+            return 16 + 16 + 8L * bits.length;
+        }
+
+        private ContenedorArreglo aArreglo() {
+            char[] valores = new char[cardinalidad];
+            int total = 0;
+            for (int i = 0; i < bits.length; i++) {
+                long palabra = bits[i];
+                while (palabra != 0) {
+                    valores[total++] = (char) ((i << 6) | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+            return new ContenedorArreglo(valores, total);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.rti.prueba.service.bulkhead;
+
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.exception.BulkheadSaturadoException;
+import com.rti.prueba.service.plazo.Plazo;
+import com.rti.prueba.service.tiempos.TiemposSolicitud;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutores acotados e independientes por clase de trabajo (consultas puntuales, escrituras,
+ * búsquedas, operaciones masivas y tareas internas). Cada tarea se ejecuta con su clase de trabajo asignada, de modo que
+ * usa también su propia partición del pool de conexiones. Una cola llena se rechaza de inmediato.
+ */
+@Component
+public class Bulkheads {
+
+    private final Map<ClaseTrabajo, ThreadPoolExecutor> ejecutores = new EnumMap<>(ClaseTrabajo.class);
+
+    public Bulkheads(ClientesProperties clientesProperties, MeterRegistry meterRegistry) {
+        for (ClaseTrabajo clase : ClaseTrabajo.values()) {
+            ClientesProperties.Particion particion = clientesProperties.getBulkhead().particion(clase);
+            String nombre = "bulkhead-" + clase.name().toLowerCase(Locale.ROOT);
+            AtomicInteger hilos = new AtomicInteger();
+            ThreadPoolExecutor ejecutor = new ThreadPoolExecutor(particion.getHilos(), particion.getHilos(),
+                    60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(particion.getCola()),
+                    tarea -> new Thread(tarea, nombre + "-" + hilos.incrementAndGet()));
+            ejecutor.allowCoreThreadTimeOut(true);
+            new ExecutorServiceMetrics(ejecutor, nombre, Tags.empty()).bindTo(meterRegistry);
+            ejecutores.put(clase, ejecutor);
+        }
+    }
+
+    /**
+     * Ejecutar la tarea en el ejecutor de su clase de trabajo, con el plazo de la solicitud que la origina.
+     * Si el plazo vence mientras la tarea espera en cola, se abandona sin ejecutarla. La medición de tiempos
+     * de la solicitud, si la tiene, también acompaña a la tarea.
+     */
+    public <T> CompletableFuture<T> ejecutar(ClaseTrabajo clase, Supplier<T> tarea) {
+        Plazo.verificarActual();
+        Plazo plazo = Plazo.actual();
+        TiemposSolicitud tiempos = TiemposSolicitud.actual();
+        try {
+            return CompletableFuture.supplyAsync(() -> TiemposSolicitud.ejecutar(tiempos, () -> Plazo.ejecutar(plazo, () -> {
+                Plazo.verificarActual();
+                return ContextoTrabajo.ejecutar(clase, tarea);
+            })), ejecutores.get(clase));
+        } catch (RejectedExecutionException e) {
+            throw new BulkheadSaturadoException(clase);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        ejecutores.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+}
@@ -0,0 +1,40 @@
+package com.rti.prueba.service.bulkhead;
+
+import com.rti.prueba.enums.ClaseTrabajo;
+
+import java.util.function.Supplier;
+
+/**
+ * Clase de trabajo del hilo actual; decide la partición del pool de conexiones que usa la base de datos
+ */
+public final class ContextoTrabajo {
+
+    private static final ThreadLocal<ClaseTrabajo> CLASE = new ThreadLocal<>();
+
+    private ContextoTrabajo() {
+    }
+
+    /**
+     * Clase de trabajo del hilo actual o null si no se ha asignado
+     */
+    public static ClaseTrabajo actual() {
+        return CLASE.get();
+    }
+
+    /**
+     * Ejecutar la tarea con la clase de trabajo indicada, restaurando la anterior al terminar
+     */
+    public static <T> T ejecutar(ClaseTrabajo clase, Supplier<T> tarea) {
+        ClaseTrabajo anterior = CLASE.get();
+        CLASE.set(clase);
+        try {
+            return tarea.get();
+        } finally {
+            if (anterior == null) {
+                CLASE.remove();
+            } else {
+                CLASE.set(anterior);
+            }
+        }
+    }
+}
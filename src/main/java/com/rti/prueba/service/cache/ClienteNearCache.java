@@ -0,0 +1,205 @@
+package com.rti.prueba.service.cache;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.mapper.ClienteMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.rti.prueba.service.ClienteReglas.calcularEdad;
+
+/**
+ * Caché cercana (por nodo) de clientes consultados por número de documento.
+ * Las escrituras confirmadas la invalidan localmente y se difunden a los demás nodos por el transporte configurado,
+ * que además desalojan su caché de segundo nivel de Hibernate. Una lectura iniciada antes de una invalidación
+ * no se guarda. Los fallos se cargan sin consultar la caché de segundo nivel (ClienteJPA.buscarSinCacheSegundoNivel),
+ * que tampoco se desaloja si se pierde un mensaje; así la vida máxima de las entradas acota la lectura obsoleta.
+ * Al superar el máximo de entradas se desalojan las más antiguas en orden de inserción; el instante de una marca de
+ * invalidación desalojada se conserva para seguir rechazando las cargas iniciadas antes que ella.
+ */
+@Component
+public class ClienteNearCache {
+
+    private final ClienteMapper clienteMapper;
+    private final TransporteInvalidacion transporte;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ClientesProperties.CacheCercana config;
+    private final long ttlNanos;
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Queue<String> ordenInsercion = new ConcurrentLinkedQueue<>();
+    private final AtomicLong aceptaDesdeDesalojadas = new AtomicLong(System.nanoTime());
+    private final Counter aciertos;
+    private final Counter fallos;
+    private final Counter invalidacionesLocales;
+    private final Counter invalidacionesRemotas;
+
+    public ClienteNearCache(ClienteMapper clienteMapper, TransporteInvalidacion transporte,
+                            EntityManagerFactory entityManagerFactory, ClientesProperties clientesProperties,
+                            MeterRegistry meterRegistry) {
+        this.clienteMapper = clienteMapper;
+        this.transporte = transporte;
+        this.entityManagerFactory = entityManagerFactory;
+        this.config = clientesProperties.getCacheCercana();
+        this.ttlNanos = config.getTtl().toNanos();
+        this.aciertos = Counter.builder("clientes.cache.cercana.solicitudes").tag("resultado", "acierto").register(meterRegistry);
+        this.fallos = Counter.builder("clientes.cache.cercana.solicitudes").tag("resultado", "fallo").register(meterRegistry);
+        this.invalidacionesLocales = Counter.builder("clientes.cache.cercana.invalidaciones").tag("origen", "local").register(meterRegistry);
+        this.invalidacionesRemotas = Counter.builder("clientes.cache.cercana.invalidaciones").tag("origen", "remota").register(meterRegistry);
+        Gauge.builder("clientes.cache.cercana.entradas", entradas, Map::size).register(meterRegistry);
+        transporte.alRecibir(this::invalidarRemotas);
+    }
+
+    /**
+     * Obtener el cliente de la caché o cargarlo y guardarlo. Devuelve siempre una copia con la edad recalculada.
+     */
+    public ClienteResponseDTO obtener(String numeroDocumento, Supplier<ClienteResponseDTO> cargar) {
+        return obtenerCoalescido(numeroDocumento, () -> {
+            long inicio = System.nanoTime();
+            return new SingleFlight.Resultado<>(cargar.get(), inicio);
+        });
+    }
+
+    /**
+     * Como obtener, con una carga que informa de cuándo empezó. Si la carga es compartida (CoalescenciaLecturas),
+     * ese inicio es el de la consulta del primer llamador, no el de este: así una invalidación confirmada mientras
+     * la consulta estaba en curso rechaza su resultado también para quienes se unieron a ella más tarde.
+     */
+    public ClienteResponseDTO obtenerCoalescido(String numeroDocumento,
+                                                Supplier<SingleFlight.Resultado<ClienteResponseDTO>> cargar) {
+        if (!config.isHabilitada()) {
+            return cargar.get().valor();
+        }
+        Entrada entrada = entradas.get(numeroDocumento);
+        if (entrada != null && entrada.valor() != null && entrada.vigente(System.nanoTime())) {
+            aciertos.increment();
+            ClienteResponseDTO copia = clienteMapper.copiar(entrada.valor());
+            copia.setEdad(calcularEdad(copia.getFechaNacimiento()));
+            return copia;
+        }
+
+        fallos.increment();
+        SingleFlight.Resultado<ClienteResponseDTO> cargado = cargar.get();
+        guardar(numeroDocumento, clienteMapper.copiar(cargado.valor()), cargado.inicio());
+        return cargado.valor();
+    }
+
+    /**
+     * Guardar un cliente leído fuera de obtener (calentamiento de arranque) sin contarlo como acierto ni fallo.
+     * Inicio es el instante previo a la lectura: si el cliente se invalidó después, la copia se descarta.
+     */
+    public void precargar(ClienteResponseDTO valor, long inicio) {
+        if (config.isHabilitada()) {
+            guardar(valor.getNumeroDocumento(), clienteMapper.copiar(valor), inicio);
+        }
+    }
+
+    /**
+     * Invalidar localmente tras el commit y difundir la invalidación a los demás nodos
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarClientes(ClientesModificadosEvent evento) {
+        evento.invalidaciones().forEach(this::invalidar);
+        invalidacionesLocales.increment(evento.invalidaciones().size());
+        transporte.publicar(evento.invalidaciones());
+    }
+
+    /**
+     * Vaciar la caché local (escrituras hechas fuera de los servicios, pruebas)
+     */
+    public void limpiar() {
+        entradas.clear();
+        ordenInsercion.clear();
+    }
+
+    /**
+     * Número de entradas (incluidas las marcas de invalidación)
+     */
+    public int tamano() {
+        return entradas.size();
+    }
+
+    private void invalidarRemotas(List<InvalidacionCliente> invalidaciones) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        for (InvalidacionCliente invalidacion : invalidaciones) {
+            invalidar(invalidacion);
+            sessionFactory.getCache().evictEntityData(ClienteORM.class, invalidacion.numeroDocumento());
+        }
+        // Las búsquedas cacheadas en este nodo pueden incluir a los clientes modificados en otro
+        sessionFactory.getCache().evictQueryRegion(ClienteORM.REGION_CACHE_CONSULTAS);
+        invalidacionesRemotas.increment(invalidaciones.size());
+    }
+
+    private void invalidar(InvalidacionCliente invalidacion) {
+        long ahora = System.nanoTime();
+        entradas.compute(invalidacion.numeroDocumento(), (documento, actual) -> {
+            if (actual != null && actual.valor() != null && !invalidacion.invalida(actual.valor().getVersion())) {
+                // La copia en caché ya es igual o posterior a la escritura
+                return actual;
+            }
+            if (actual == null) {
+                ordenInsercion.add(documento);
+            }
+            return new Entrada(null, ahora, ahora + ttlNanos);
+        });
+        acotar();
+    }
+
+    private void guardar(String numeroDocumento, ClienteResponseDTO valor, long inicio) {
+        long ahora = System.nanoTime();
+        entradas.compute(numeroDocumento, (documento, actual) -> {
+            long aceptaDesde = actual != null ? actual.aceptaDesde() : aceptaDesdeDesalojadas.get();
+            if (aceptaDesde - inicio > 0) {
+                // Invalidada (o reemplazada por una carga más reciente) mientras se cargaba
+                return actual;
+            }
+            if (actual == null) {
+                ordenInsercion.add(documento);
+            }
+            return new Entrada(valor, inicio, ahora + ttlNanos);
+        });
+        acotar();
+    }
+
+    /**
+     * Desalojar las entradas más antiguas mientras se supere el máximo, con coste constante por entrada
+     */
+    private void acotar() {
+        while (entradas.size() > config.getMaxEntradas()) {
+            String documento = ordenInsercion.poll();
+            if (documento == null) {
+                return;
+            }
+            entradas.computeIfPresent(documento, (clave, desalojada) -> {
+                if (desalojada.valor() == null) {
+                    aceptaDesdeDesalojadas.accumulateAndGet(desalojada.aceptaDesde(),
+                            (marca, nueva) -> nueva - marca > 0 ? nueva : marca);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Entrada de la caché; sin valor es una marca de invalidación reciente.
+     * Solo se aceptan en su lugar cargas iniciadas a partir de aceptaDesde.
+     */
+    private record Entrada(ClienteResponseDTO valor, long aceptaDesde, long expiraEn) {
+        boolean vigente(long ahora) {
+            return expiraEn - ahora > 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.rti.prueba.service.cache;
+
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+
+import java.util.List;
+
+/**
+ * Evento publicado dentro de la transacción que modifica o elimina clientes.
+ * Se procesa tras el commit para invalidar la caché local y difundir la invalidación.
+ * Si quien publica ya leyó las filas confirmadas las adjunta (un documento sin fila es una eliminación) y los oyentes
+ * no vuelven a consultar la base de datos; con filas null cada oyente relee los clientes.
+ */
+public record ClientesModificadosEvent(List<InvalidacionCliente> invalidaciones, List<ClienteFilaReplica> filas) {
+
+    public ClientesModificadosEvent(List<InvalidacionCliente> invalidaciones) {
+        this(invalidaciones, null);
+    }
+
+    /**
+     * Escritura de un cliente; con la versión anterior conocida el mensaje lleva la versión resultante
+     */
+    public static ClientesModificadosEvent de(String numeroDocumento, Long versionAnterior) {
+        long version = versionAnterior != null ? versionAnterior + 1 : InvalidacionCliente.SIN_VERSION;
+        return new ClientesModificadosEvent(List.of(new InvalidacionCliente(numeroDocumento, version)));
+    }
+
+    /**
+     * Eliminación o escritura masiva, sin versión resultante
+     */
+    public static ClientesModificadosEvent de(List<String> numerosDocumento) {
+        return new ClientesModificadosEvent(numerosDocumento.stream().map(InvalidacionCliente::sinVersion).toList());
+    }
+
+    /**
+     * El mismo evento con las filas confirmadas de los clientes escritos
+     */
+    public ClientesModificadosEvent conFilas(List<ClienteFilaReplica> filas) {
+        return new ClientesModificadosEvent(invalidaciones, filas);
+    }
+}
@@ -0,0 +1,36 @@
+package com.rti.prueba.service.cache;
+
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de las lecturas de clientes: consultas idénticas concurrentes comparten
+ * una sola llamada a la base de datos y un solo resultado mapeado
+ */
+@Component
+public class CoalescenciaLecturas {
+
+    private final SingleFlight<String, ClienteResponseDTO> porDocumento;
+    private final SingleFlight<String, List<ClienteResponseDTO>> busquedas;
+
+    public CoalescenciaLecturas(MeterRegistry meterRegistry) {
+        this.porDocumento = new SingleFlight<>("obtener", meterRegistry);
+        this.busquedas = new SingleFlight<>("buscar", meterRegistry);
+    }
+
+    /**
+     * Cliente leído junto con el inicio de la consulta compartida, para que la caché cercana no acepte una
+     * lectura empezada antes de una invalidación aunque el llamador se haya unido a ella después
+     */
+    public SingleFlight.Resultado<ClienteResponseDTO> obtener(String numeroDocumento, Supplier<ClienteResponseDTO> carga) {
+        return porDocumento.ejecutarConInicio(numeroDocumento, carga);
+    }
+
+    public List<ClienteResponseDTO> buscar(String busqueda, Supplier<List<ClienteResponseDTO>> carga) {
+        return busquedas.ejecutar(busqueda, carga);
+    }
+}
@@ -0,0 +1,21 @@
+package com.rti.prueba.service.cache;
+
+/**
+ * Mensaje de invalidación de un cliente: número de documento y versión resultante de la escritura.
+ * SIN_VERSION indica una eliminación o una escritura cuya versión final no se conoce.
+ */
+public record InvalidacionCliente(String numeroDocumento, long version) {
+
+    public static final long SIN_VERSION = Long.MAX_VALUE;
+
+    public static InvalidacionCliente sinVersion(String numeroDocumento) {
+        return new InvalidacionCliente(numeroDocumento, SIN_VERSION);
+    }
+
+    /**
+     * Indica si una copia con la versión dada queda obsoleta tras esta invalidación
+     */
+    public boolean invalida(Long versionEnCache) {
+        return versionEnCache == null || versionEnCache < version;
+    }
+}
@@ -0,0 +1,81 @@
+package com.rti.prueba.service.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalescencia de llamadas concurrentes con la misma clave: la primera ejecuta la carga
+ * y las que llegan mientras está en curso esperan y comparten su resultado (o su excepción).
+ * No guarda nada una vez terminada la carga.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<Resultado<V>>> enCurso = new ConcurrentHashMap<>();
+    private final Counter ejecutadas;
+    private final Counter compartidas;
+
+    public SingleFlight(String operacion, MeterRegistry meterRegistry) {
+        this.ejecutadas = Counter.builder("clientes.lecturas.coalescencia")
+                .tag("operacion", operacion).tag("resultado", "ejecutada").register(meterRegistry);
+        this.compartidas = Counter.builder("clientes.lecturas.coalescencia")
+                .tag("operacion", operacion).tag("resultado", "compartida").register(meterRegistry);
+        Gauge.builder("clientes.lecturas.en.curso", enCurso, Map::size).tag("operacion", operacion).register(meterRegistry);
+    }
+
+    public V ejecutar(K clave, Supplier<V> carga) {
+        return ejecutarConInicio(clave, carga).valor();
+    }
+
+    /**
+     * Como ejecutar, pero indicando cuándo empezó la carga compartida (System.nanoTime), que puede ser anterior a
+     * la llegada del llamador que se une a ella
+     */
+    public Resultado<V> ejecutarConInicio(K clave, Supplier<V> carga) {
+        CompletableFuture<Resultado<V>> propia = new CompletableFuture<>();
+        CompletableFuture<Resultado<V>> existente = enCurso.putIfAbsent(clave, propia);
+        if (existente != null) {
+            compartidas.increment();
+            return esperar(existente);
+        }
+
+        ejecutadas.increment();
+        try {
+            long inicio = System.nanoTime();
+            Resultado<V> resultado = new Resultado<>(carga.get(), inicio);
+            propia.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    private Resultado<V> esperar(CompletableFuture<Resultado<V>> carga) {
+        try {
+            return carga.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Valor cargado y el instante (System.nanoTime) en que empezó la carga
+     */
+    public record Resultado<V>(V valor, long inicio) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.rti.prueba.service.cache;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transporte de mensajes de invalidación entre nodos
+ */
+public interface TransporteInvalidacion extends AutoCloseable {
+
+    /**
+     * Difundir las invalidaciones a los nodos pares (sin esperar confirmación)
+     */
+    void publicar(List<InvalidacionCliente> invalidaciones);
+
+    /**
+     * Registrar un receptor de las invalidaciones recibidas de otros nodos; cada mensaje se entrega a todos
+     */
+    void alRecibir(Consumer<List<InvalidacionCliente>> receptor);
+
+    @Override
+    default void close() {
+    }
+
+    /**
+     * Transporte para un único nodo: no difunde ni recibe nada
+     */
+    static TransporteInvalidacion ninguno() {
+        return new TransporteInvalidacion() {
+            @Override
+            public void publicar(List<InvalidacionCliente> invalidaciones) {
+            }
+
+            @Override
+            public void alRecibir(Consumer<List<InvalidacionCliente>> receptor) {
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.rti.prueba.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Transporte de invalidaciones por datagramas UDP hacia una lista fija de nodos pares.
+ * Varias invalidaciones se agrupan en cada datagrama: [formato][cantidad] y por cada una [versión][longitud][documento].
+ * UDP no garantiza la entrega; la vida máxima de las entradas de la caché acota la lectura obsoleta si se pierde un mensaje.
+ */
+@Slf4j
+public class TransporteInvalidacionUdp implements TransporteInvalidacion {
+
+    private static final byte FORMATO = 1;
+    static final int TAMANO_MAXIMO_DATAGRAMA = 1400;
+
+    private final DatagramChannel canal;
+    private final List<InetSocketAddress> pares;
+    private final List<Consumer<List<InvalidacionCliente>>> receptores = new CopyOnWriteArrayList<>();
+
+    public TransporteInvalidacionUdp(InetSocketAddress direccionLocal, List<InetSocketAddress> pares) throws IOException {
+        this.canal = DatagramChannel.open().bind(direccionLocal);
+        this.pares = List.copyOf(pares);
+        Thread hilo = new Thread(this::recibir, "invalidacion-udp");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    public InetSocketAddress getDireccionLocal() throws IOException {
+        return (InetSocketAddress) canal.getLocalAddress();
+    }
+
+    @Override
+    public void publicar(List<InvalidacionCliente> invalidaciones) {
+        for (ByteBuffer datagrama : codificar(invalidaciones)) {
+            for (InetSocketAddress par : pares) {
+                try {
+                    canal.send(datagrama.duplicate(), par);
+                } catch (IOException e) {
+                    log.warn("No se pudo enviar la invalidación a {}", par, e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void alRecibir(Consumer<List<InvalidacionCliente>> receptor) {
+        receptores.add(receptor);
+    }
+
+    @Override
+    public void close() {
+        try {
+            canal.close();
+        } catch (IOException e) {
+            log.warn("Error cerrando el canal de invalidaciones", e);
+        }
+    }
+
+    private void recibir() {
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANO_MAXIMO_DATAGRAMA);
+        while (canal.isOpen()) {
+            try {
+                buffer.clear();
+                canal.receive(buffer);
+                buffer.flip();
+                List<InvalidacionCliente> invalidaciones = decodificar(buffer);
+                receptores.forEach(receptor -> receptor.accept(invalidaciones));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Datagrama de invalidación descartado", e);
+            }
+        }
+    }
+
+    /**
+     * Agrupar las invalidaciones en datagramas que no superen TAMANO_MAXIMO_DATAGRAMA
+     */
+    static List<ByteBuffer> codificar(List<InvalidacionCliente> invalidaciones) {
+        List<ByteBuffer> datagramas = new ArrayList<>();
+        ByteBuffer actual = null;
+        short cantidad = 0;
+        for (InvalidacionCliente invalidacion : invalidaciones) {
+            byte[] documento = invalidacion.numeroDocumento().getBytes(StandardCharsets.UTF_8);
+            int tamano = Long.BYTES + Short.BYTES + documento.length;
+            if (actual == null || actual.remaining() < tamano) {
+                if (actual != null) {
+                    datagramas.add(cerrar(actual, cantidad));
+                }
+                actual = ByteBuffer.allocate(TAMANO_MAXIMO_DATAGRAMA);
+                actual.put(FORMATO).putShort((short) 0);
+                cantidad = 0;
+            }
+            actual.putLong(invalidacion.version()).putShort((short) documento.length).put(documento);
+            cantidad++;
+        }
+        if (actual != null) {
+            datagramas.add(cerrar(actual, cantidad));
+        }
+        return datagramas;
+    }
+
+    static List<InvalidacionCliente> decodificar(ByteBuffer datagrama) {
+        if (datagrama.get() != FORMATO) {
+            throw new IllegalArgumentException("Formato de invalidación no soportado");
+        }
+        int cantidad = datagrama.getShort();
+        List<InvalidacionCliente> invalidaciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            long version = datagrama.getLong();
+            byte[] documento = new byte[datagrama.getShort()];
+            datagrama.get(documento);
+            invalidaciones.add(new InvalidacionCliente(new String(documento, StandardCharsets.UTF_8), version));
+        }
+        return invalidaciones;
+    }
+
+    private static ByteBuffer cerrar(ByteBuffer datagrama, short cantidad) {
+        datagrama.putShort(1, cantidad);
+        return datagrama.flip();
+    }
+}
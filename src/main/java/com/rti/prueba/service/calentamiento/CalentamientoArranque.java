@@ -0,0 +1,301 @@
+package com.rti.prueba.service.calentamiento;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.bd.ClaseTrabajoRoutingDataSource;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.ClienteAnaliticaService;
+import com.rti.prueba.service.cache.ClienteNearCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.rti.prueba.service.ClienteReglas.calcularEdad;
+
+/**
+ * Calentamiento de la instancia antes de que la sonda de preparación acepte tráfico: Spring Boot publica
+ * ReadinessState.ACCEPTING_TRAFFIC después de ejecutar los ApplicationRunner. Llena las particiones del pool de
+ * conexiones, carga la instantánea analítica y una muestra de clientes en la caché cercana (la que usan las lecturas
+ * por documento, que no pasan por la caché de segundo nivel), recorre el
+ * camino de escritura (JSON, validación y mapper) sin guardar nada y lanza solicitudes GET sintéticas contra la
+ * propia API para compilar el camino ClienteController → ClienteService → ClienteMapper → Jackson.
+ * El progreso se publica en clientes.calentamiento.progreso y la duración por fase en clientes.calentamiento.duracion.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CalentamientoArranque implements ApplicationRunner {
+
+    private static final String BASE_URL = "/api/clientes";
+    private static final String DOCUMENTO_INEXISTENTE = "00000000";
+    private static final int FASES = 3;
+    private static final String CLIENTE_JSON = """
+            {"numeroDocumento":"00000000","nombre":" Calentamiento ","apellidos":"Sintético","fechaNacimiento":"1990-01-01",
+            "ciudad":"Bogotá","correoElectronico":"Calentamiento@Ejemplo.com","telefono":"3000000000","ocupacion":"Empleado"}""";
+
+    private final ClientesProperties.Calentamiento config;
+    private final DataSource dataSource;
+    private final ClienteJPA clienteJPA;
+    private final ClienteAnaliticaService clienteAnaliticaService;
+    private final ClienteNearCache clienteNearCache;
+    private final ClienteMapper clienteMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationContext applicationContext;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong pasosCompletados = new AtomicLong();
+    private volatile long pasosTotales = 1;
+
+    public CalentamientoArranque(ClientesProperties clientesProperties, DataSource dataSource, ClienteJPA clienteJPA,
+                                 ClienteAnaliticaService clienteAnaliticaService, ClienteNearCache clienteNearCache,
+                                 ClienteMapper clienteMapper, ObjectMapper objectMapper, Validator validator,
+                                 ApplicationContext applicationContext, MeterRegistry meterRegistry) {
+        this.config = clientesProperties.getCalentamiento();
+        this.dataSource = dataSource;
+        this.clienteJPA = clienteJPA;
+        this.clienteAnaliticaService = clienteAnaliticaService;
+        this.clienteNearCache = clienteNearCache;
+        this.clienteMapper = clienteMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.applicationContext = applicationContext;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("clientes.calentamiento.progreso", this, CalentamientoArranque::progreso).register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (config.isHabilitado()) {
+            ejecutar();
+        }
+    }
+
+    /**
+     * Fracción completada del calentamiento (fases más solicitudes sintéticas), de 0 a 1
+     */
+    public double progreso() {
+        return Math.min(1.0, (double) pasosCompletados.get() / pasosTotales);
+    }
+
+    /**
+     * Ejecutar todas las fases; los fallos se registran sin impedir el arranque
+     */
+    public ResultadoCalentamiento ejecutar() {
+        long inicio = System.nanoTime();
+        long limite = inicio + config.getPlazo().toNanos();
+        pasosCompletados.set(0);
+        pasosTotales = FASES + (long) config.getSolicitudes();
+        log.info("Calentamiento iniciado: {} solicitudes sintéticas con {} hilos, plazo {}",
+                config.getSolicitudes(), config.getHilos(), config.getPlazo());
+
+        int conexiones = fase("conexiones", this::llenarPool, 0);
+        List<ClienteORM> muestra = fase("caches", this::calentarCaches, List.of());
+        fase("escritura-sin-guardar", this::recorrerEscritura, null);
+        Map<Integer, Integer> estados = fase("solicitudes", () -> lanzarSolicitudes(muestra, limite), Map.of());
+
+        Duration duracion = Duration.ofNanos(System.nanoTime() - inicio);
+        meterRegistry.timer("clientes.calentamiento.duracion", "fase", "total").record(duracion);
+        pasosCompletados.set(pasosTotales);
+        int solicitudes = estados.values().stream().mapToInt(Integer::intValue).sum();
+        log.info("Calentamiento finalizado en {} ms: {} conexiones abiertas, {} clientes de muestra, {} solicitudes {}",
+                duracion.toMillis(), conexiones, muestra.size(), solicitudes, estados);
+        return new ResultadoCalentamiento(duracion, conexiones, muestra.size(), solicitudes, estados);
+    }
+
+    private <T> T fase(String nombre, FaseCalentamiento<T> fase, T siFalla) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        try {
+            T resultado = fase.ejecutar();
+            log.info("Calentamiento: fase {} completada en {} ms", nombre,
+                    muestra.stop(meterRegistry.timer("clientes.calentamiento.duracion", "fase", nombre)) / 1_000_000);
+            return resultado;
+        } catch (Exception e) {
+            muestra.stop(meterRegistry.timer("clientes.calentamiento.duracion", "fase", nombre));
+            log.warn("Calentamiento: la fase {} falló y se omite", nombre, e);
+            return siFalla;
+        } finally {
+            if (!nombre.equals("solicitudes")) {
+                pasosCompletados.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Abrir a la vez todas las conexiones de cada partición; Hikari las conserva inactivas (minimumIdle = máximo)
+     */
+    private int llenarPool() throws SQLException {
+        if (!(dataSource instanceof ClaseTrabajoRoutingDataSource particionado)) {
+            return 0;
+        }
+        int total = 0;
+        for (DataSource particion : particionado.getResolvedDataSources().values()) {
+            HikariDataSource pool = (HikariDataSource) particion;
+            List<Connection> abiertas = new ArrayList<>();
+            try {
+                for (int i = 0; i < pool.getMaximumPoolSize(); i++) {
+                    Connection conexion = pool.getConnection();
+                    abiertas.add(conexion);
+                    conexion.isValid(1);
+                }
+            } finally {
+                for (Connection conexion : abiertas) {
+                    conexion.close();
+                }
+            }
+            total += pool.getHikariPoolMXBean().getTotalConnections();
+        }
+        return total;
+    }
+
+    /**
+     * Instantánea analítica completa y muestra de clientes en la caché cercana
+     */
+    private List<ClienteORM> calentarCaches() {
+        clienteAnaliticaService.reconstruir();
+        List<String> documentos = clienteJPA.buscarDocumentosOrdenados(PageRequest.of(0, config.getMuestra()));
+        if (documentos.isEmpty()) {
+            return List.of();
+        }
+        long inicio = System.nanoTime();
+        List<ClienteORM> muestra = clienteJPA.findAllById(documentos);
+        for (ClienteORM cliente : muestra) {
+            ClienteResponseDTO respuesta = clienteMapper.ORMToResponseDTO(cliente);
+            respuesta.setEdad(calcularEdad(cliente.getFechaNacimiento()));
+            clienteNearCache.precargar(respuesta, inicio);
+        }
+        return muestra;
+    }
+
+    /**
+     * Deserialización, validación, mapeo y serialización de un alta sintética, sin llegar al servicio
+     */
+    private Void recorrerEscritura() throws IOException {
+        for (int i = 0; i < config.getSolicitudes(); i++) {
+            ClienteCreateDTO alta = objectMapper.readValue(CLIENTE_JSON, ClienteCreateDTO.class);
+            validator.validate(alta);
+            ClienteORM cliente = clienteMapper.createDTOToORM(alta);
+            objectMapper.writeValueAsBytes(clienteMapper.ORMToResponseDTO(cliente));
+        }
+        return null;
+    }
+
+    /**
+     * Solicitudes GET de solo lectura repartidas entre consulta por documento, por correo, búsqueda y analítica;
+     * sin clientes de muestra recorren el camino de no encontrado. Devuelve el número de respuestas por estado HTTP.
+     */
+    private Map<Integer, Integer> lanzarSolicitudes(List<ClienteORM> muestra, long limite) throws Exception {
+        if (!(applicationContext instanceof WebServerApplicationContext web) || web.getWebServer() == null
+                || web.getWebServer().getPort() <= 0) {
+            log.info("Calentamiento: sin servidor web local, se omiten las solicitudes sintéticas");
+            return Map.of();
+        }
+        String base = "http://localhost:" + web.getWebServer().getPort() + BASE_URL;
+        Map<Integer, Integer> estados = new ConcurrentHashMap<>();
+        AtomicInteger siguiente = new AtomicInteger();
+        int hilos = Math.max(1, config.getHilos());
+        AtomicInteger numeroHilo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos,
+                tarea -> new Thread(tarea, "calentamiento-" + numeroHilo.incrementAndGet()));
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            List<Future<?>> trabajadores = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                trabajadores.add(executor.submit(() -> {
+                    for (int i = siguiente.getAndIncrement(); i < config.getSolicitudes(); i = siguiente.getAndIncrement()) {
+                        if (System.nanoTime() > limite) {
+                            return null;
+                        }
+                        HttpRequest solicitud = HttpRequest.newBuilder(URI.create(base + ruta(muestra, i)))
+                                .timeout(Duration.ofSeconds(30))
+                                .header("Accept", "application/json")
+                                .GET().build();
+                        int estado = httpClient.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        estados.merge(estado, 1, Integer::sum);
+                        informarProgreso(pasosCompletados.incrementAndGet() - FASES);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> trabajador : trabajadores) {
+                trabajador.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (System.nanoTime() > limite) {
+            log.warn("Calentamiento: plazo de {} agotado, se omitieron {} solicitudes", config.getPlazo(),
+                    config.getSolicitudes() - estados.values().stream().mapToInt(Integer::intValue).sum());
+        }
+        estados.forEach((estado, total) -> meterRegistry.counter("clientes.calentamiento.solicitudes",
+                "estado", String.valueOf(estado)).increment(total));
+        return Map.copyOf(estados);
+    }
+
+    private static String ruta(List<ClienteORM> muestra, int indice) {
+        ClienteORM cliente = muestra.isEmpty() ? null : muestra.get(indice % muestra.size());
+        String documento = cliente != null ? cliente.getNumeroDocumento() : DOCUMENTO_INEXISTENTE;
+        return switch (indice % 5) {
+            case 0, 1 -> "/" + documento;
+            case 2 -> "/por-correo?correo=" + codificar(cliente != null ? cliente.getCorreoElectronico() : "calentamiento@ejemplo.com");
+            case 3 -> "/buscar?q=" + codificar(cliente != null ? cliente.getNombre() : "Calentamiento");
+            default -> "/analitica/conteo";
+        };
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+    private void informarProgreso(long completadas) {
+        long cuarto = Math.max(1, config.getSolicitudes() / 4);
+        if (completadas % cuarto == 0) {
+            log.info("Calentamiento: {}/{} solicitudes sintéticas", completadas, config.getSolicitudes());
+        }
+    }
+
+    @FunctionalInterface
+    private interface FaseCalentamiento<T> {
+        T ejecutar() throws Exception;
+    }
+
+    /**
+     * Resumen del calentamiento: duración total, conexiones abiertas, clientes de muestra y respuestas por estado HTTP
+     */
+    public record ResultadoCalentamiento(Duration duracion, int conexiones, int clientesMuestra, int solicitudes,
+                                         Map<Integer, Integer> estados) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.rti.prueba.service.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Escritor CSV (RFC 4180) que entrecomilla solo los campos que lo necesitan
+ */
+public class EscritorCsv {
+
+    private final Writer writer;
+    private final char separador;
+
+    public EscritorCsv(Writer writer, char separador) {
+        this.writer = writer;
+        this.separador = separador;
+    }
+
+    public void escribirFila(List<String> campos) throws IOException {
+        for (int i = 0; i < campos.size(); i++) {
+            if (i > 0) {
+                writer.write(separador);
+            }
+            escribirCampo(campos.get(i));
+        }
+        writer.write('\n');
+    }
+
+    private void escribirCampo(String campo) throws IOException {
+        if (campo == null) {
+            return;
+        }
+        boolean requiereComillas = campo.indexOf(separador) >= 0 || campo.indexOf('"') >= 0
+                || campo.indexOf('\n') >= 0 || campo.indexOf('\r') >= 0;
+        if (!requiereComillas) {
+            writer.write(campo);
+            return;
+        }
+        writer.write('"');
+        writer.write(campo.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,98 @@
+package com.rti.prueba.service.csv;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector CSV (RFC 4180) que procesa la entrada fila a fila sin cargarla completa en memoria.
+ * Soporta campos entre comillas con separadores, comillas escapadas ("") y saltos de línea
+ */
+public class LectorCsv implements Closeable {
+
+    private static final char COMILLA = '"';
+
+    private final BufferedReader reader;
+    private final char separador;
+    private long lineaActual;
+    private long lineaFila;
+
+    public LectorCsv(Reader reader, char separador) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 64 * 1024);
+        this.separador = separador;
+    }
+
+    /**
+     * Leer la siguiente fila, o null al final de la entrada
+     */
+    public List<String> leerFila() throws IOException {
+        String linea = reader.readLine();
+        if (linea == null) {
+            return null;
+        }
+        lineaActual++;
+        lineaFila = lineaActual;
+        if (lineaFila == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') {
+            linea = linea.substring(1);
+        }
+
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        int i = 0;
+        while (true) {
+            if (i >= linea.length()) {
+                if (!entreComillas) {
+                    break;
+                }
+                // Campo entre comillas con salto de línea: continuar con la siguiente línea física
+                String siguiente = reader.readLine();
+                if (siguiente == null) {
+                    throw new IOException("Comillas sin cerrar en la fila que inicia en la línea " + lineaFila);
+                }
+                lineaActual++;
+                campo.append('\n');
+                linea = siguiente;
+                i = 0;
+                continue;
+            }
+            char c = linea.charAt(i++);
+            if (entreComillas) {
+                if (c == COMILLA) {
+                    if (i < linea.length() && linea.charAt(i) == COMILLA) {
+                        campo.append(COMILLA);
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == COMILLA && campo.isEmpty()) {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    /**
+     * Número de línea física en la que empieza la última fila leída (base 1)
+     */
+    public long getLinea() {
+        return lineaFila;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
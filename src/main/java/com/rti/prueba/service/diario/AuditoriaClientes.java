@@ -0,0 +1,94 @@
+package com.rti.prueba.service.diario;
+
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.CambioClienteDTO;
+import com.rti.prueba.exception.ClienteServiceException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Anexa al diario los cambios de clientes confirmados y consulta el historial de un cliente.
+ * El anexado se hace en el hilo de la solicitud tras el commit y, si está configurado, espera la sincronización
+ * agrupada en disco; el tiempo total queda en clientes.diario.escritura. Cada nodo tiene su propio diario, así que
+ * el historial que devuelve contiene solo las escrituras que atendió este nodo: con varios nodos, el historial
+ * completo de un cliente es la unión de los diarios de todos ellos.
+ */
+@Slf4j
+@Component
+public class AuditoriaClientes {
+
+    private final DiarioCambios diario;
+    private final ClientesProperties.Diario config;
+    private final Timer tiempoEscritura;
+    private final Counter fallos;
+
+    public AuditoriaClientes(ObjectProvider<DiarioCambios> diario, ClientesProperties clientesProperties,
+                             MeterRegistry meterRegistry) {
+        this.diario = diario.getIfAvailable();
+        this.config = clientesProperties.getDiario();
+        this.tiempoEscritura = Timer.builder("clientes.diario.escritura").register(meterRegistry);
+        this.fallos = Counter.builder("clientes.diario.fallos").register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarClientes(CambiosClientesEvent evento) {
+        if (diario == null || evento.cambios().isEmpty()) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        try {
+            long secuencia = diario.agregar(evento.cambios());
+            if (config.isEsperarSincronizacion()
+                    && !diario.esperarSincronizacion(secuencia, config.getEsperaSincronizacion())) {
+                fallos.increment();
+                log.error("El diario de cambios no se sincronizó en disco a tiempo (secuencia {})", secuencia);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // El cambio ya está confirmado en la base de datos: se registra el fallo sin afectar la respuesta
+            fallos.increment();
+            log.error("No se pudieron anexar {} cambios al diario", evento.cambios().size(), e);
+        } finally {
+            tiempoEscritura.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Historial de cambios de un cliente, del más antiguo al más reciente
+     */
+    public List<CambioClienteDTO> historial(String numeroDocumento) {
+        if (diario == null) {
+            throw new ClienteServiceException("El diario de cambios no está habilitado", null);
+        }
+        try {
+            return diario.historial(numeroDocumento).stream()
+                    .map(r -> new CambioClienteDTO(r.secuencia(), r.instante(), r.operacion(), r.campos()))
+                    .toList();
+        } catch (IOException e) {
+            throw new ClienteServiceException("Error al leer el diario de cambios", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clientes.diario.intervalo-retencion:PT1H}")
+    public void aplicarRetencion() {
+        if (diario == null) {
+            return;
+        }
+        int eliminados = diario.purgar(Instant.now().minus(config.getRetencion()));
+        if (eliminados > 0) {
+            log.info("Segmentos del diario de cambios eliminados por retención: {}", eliminados);
+        }
+    }
+}
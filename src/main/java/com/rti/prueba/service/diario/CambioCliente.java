@@ -0,0 +1,39 @@
+package com.rti.prueba.service.diario;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.enums.OperacionCambio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cambio confirmado de un cliente: operación y valores escritos de los campos modificados
+ */
+public record CambioCliente(String numeroDocumento, OperacionCambio operacion, Map<String, String> campos) {
+
+    public static CambioCliente de(String numeroDocumento, OperacionCambio operacion, Map<String, ?> campos) {
+        Map<String, String> texto = new LinkedHashMap<>();
+        campos.forEach((campo, valor) -> texto.put(campo, valor == null ? null : valor.toString()));
+        return new CambioCliente(numeroDocumento, operacion, texto);
+    }
+
+    /**
+     * Cambio con todos los campos editables del cliente, para altas y actualizaciones completas
+     */
+    public static CambioCliente de(ClienteORM cliente, OperacionCambio operacion) {
+        Map<String, Object> campos = new LinkedHashMap<>();
+        campos.put("nombre", cliente.getNombre());
+        campos.put("apellidos", cliente.getApellidos());
+        campos.put("fechaNacimiento", cliente.getFechaNacimiento());
+        campos.put("ciudad", cliente.getCiudad());
+        campos.put("correoElectronico", cliente.getCorreoElectronico());
+        campos.put("telefono", cliente.getTelefono());
+        campos.put("ocupacion", cliente.getOcupacion());
+        campos.put("esViable", cliente.getEsViable());
+        return de(cliente.getNumeroDocumento(), operacion, campos);
+    }
+
+    public static CambioCliente eliminacion(String numeroDocumento) {
+        return new CambioCliente(numeroDocumento, OperacionCambio.ELIMINACION, Map.of());
+    }
+}
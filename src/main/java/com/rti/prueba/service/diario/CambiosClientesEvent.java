@@ -0,0 +1,13 @@
+package com.rti.prueba.service.diario;
+
+import java.util.List;
+
+/**
+ * Cambios de clientes de una transacción, para el diario de auditoría tras el commit
+ */
+public record CambiosClientesEvent(List<CambioCliente> cambios) {
+
+    public static CambiosClientesEvent de(CambioCliente cambio) {
+        return new CambiosClientesEvent(List.of(cambio));
+    }
+}
@@ -0,0 +1,577 @@
+package com.rti.prueba.service.diario;
+
+import com.rti.prueba.enums.OperacionCambio;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Diario de cambios de clientes de solo anexado en segmentos de tamaño fijo proyectados en memoria.
+ * Cada registro es [longitud][secuencia][instante][operación][documento][campos][CRC32C]; un registro con longitud
+ * cero o CRC inválido marca el final del segmento al recuperarlo. Un hilo sincroniza en disco todo lo anexado desde
+ * la sincronización anterior (sincronización agrupada) y despierta a los escritores que la esperan.
+ * Al llenarse, el segmento se sella y se escribe su índice (hash del documento y posición de cada registro), que es
+ * lo único que se recorre al consultar el historial de un cliente. La retención elimina segmentos sellados completos.
+ */
+@Slf4j
+public class DiarioCambios implements AutoCloseable {
+
+    static final int CABECERA_SEGMENTO = 8;
+    private static final long MAGICO = 0x434C494449415231L;
+    private static final String EXTENSION_SEGMENTO = ".diario";
+    private static final String EXTENSION_INDICE = ".indice";
+    private static final OperacionCambio[] OPERACIONES = OperacionCambio.values();
+
+    private final Path directorio;
+    private final int tamanoSegmento;
+    private final Clock reloj;
+    private final Timer tiempoSincronizacion;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition pendientes = cerrojo.newCondition();
+    private final Condition sincronizados = cerrojo.newCondition();
+    private final List<SegmentoSellado> sellados = new ArrayList<>();
+    private final Thread sincronizador;
+    private SegmentoActivo activo;
+    private long ultimaSecuencia;
+    private long secuenciaSincronizada;
+    private boolean cerrado;
+
+    public DiarioCambios(Path directorio, int tamanoSegmento, Clock reloj, MeterRegistry meterRegistry) throws IOException {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.reloj = reloj;
+        this.tiempoSincronizacion = Timer.builder("clientes.diario.sincronizacion").register(meterRegistry);
+        Files.createDirectories(directorio);
+        recuperar();
+        this.sincronizador = new Thread(this::sincronizar, "diario-sincronizacion");
+        this.sincronizador.setDaemon(true);
+        this.sincronizador.start();
+    }
+
+    /**
+     * Anexar los cambios en orden; devuelve la secuencia del último registro para esperar su sincronización
+     */
+    public long agregar(List<CambioCliente> cambios) {
+        cerrojo.lock();
+        try {
+            if (cerrado) {
+                throw new IllegalStateException("El diario de cambios está cerrado");
+            }
+            long instante = reloj.millis();
+            for (CambioCliente cambio : cambios) {
+                byte[] registro = codificar(ultimaSecuencia + 1, instante, cambio);
+                if (CABECERA_SEGMENTO + registro.length > tamanoSegmento) {
+                    throw new IllegalArgumentException("El cambio del cliente " + cambio.numeroDocumento()
+                            + " no cabe en un segmento del diario");
+                }
+                if (activo.posicion + registro.length > activo.buffer.capacity()) {
+                    rotar();
+                }
+                activo.anexar(registro, cambio.numeroDocumento().hashCode());
+                ultimaSecuencia++;
+            }
+            pendientes.signal();
+            return ultimaSecuencia;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Esperar a que el registro con esa secuencia esté sincronizado en disco; false si vence la espera
+     */
+    public boolean esperarSincronizacion(long secuencia, Duration espera) throws InterruptedException {
+        long restante = espera.toNanos();
+        cerrojo.lock();
+        try {
+            while (secuenciaSincronizada < secuencia) {
+                if (restante <= 0) {
+                    return false;
+                }
+                restante = sincronizados.awaitNanos(restante);
+            }
+            return true;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Historial de un cliente en orden de secuencia, leyendo solo los registros que señala el índice de cada segmento
+     */
+    public List<RegistroDiario> historial(String numeroDocumento) throws IOException {
+        int hash = numeroDocumento.hashCode();
+        List<SegmentoSellado> segmentos;
+        int[] posicionesActivo;
+        ByteBuffer bufferActivo;
+        cerrojo.lock();
+        try {
+            segmentos = List.copyOf(sellados);
+            posicionesActivo = activo.posiciones(hash);
+            bufferActivo = activo.buffer;
+        } finally {
+            cerrojo.unlock();
+        }
+
+        List<RegistroDiario> historial = new ArrayList<>();
+        for (SegmentoSellado segmento : segmentos) {
+            try (FileChannel canal = FileChannel.open(segmento.archivo(), StandardOpenOption.READ)) {
+                for (int posicion : segmento.posiciones(hash)) {
+                    agregarSiCoincide(historial, leer(canal, posicion), numeroDocumento);
+                }
+            } catch (NoSuchFileException e) {
+                // Eliminado por la retención mientras se consultaba
+            }
+        }
+        for (int posicion : posicionesActivo) {
+            agregarSiCoincide(historial, leer(bufferActivo, posicion), numeroDocumento);
+        }
+        return historial;
+    }
+
+    /**
+     * Eliminar los segmentos sellados cuyo último registro es anterior al límite; devuelve cuántos se eliminaron
+     */
+    public int purgar(Instant limite) {
+        List<SegmentoSellado> vencidos = new ArrayList<>();
+        cerrojo.lock();
+        try {
+            sellados.removeIf(segmento -> segmento.ultimoInstante().isBefore(limite) && vencidos.add(segmento));
+        } finally {
+            cerrojo.unlock();
+        }
+        for (SegmentoSellado segmento : vencidos) {
+            try {
+                Files.deleteIfExists(segmento.archivo());
+                Files.deleteIfExists(indiceDe(segmento.archivo()));
+            } catch (IOException e) {
+                log.warn("No se pudo eliminar el segmento del diario {}", segmento.archivo(), e);
+            }
+        }
+        return vencidos.size();
+    }
+
+    /**
+     * Número de segmentos, incluido el activo
+     */
+    public int segmentos() {
+        cerrojo.lock();
+        try {
+            return sellados.size() + 1;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Secuencia del último registro anexado
+     */
+    public long ultimaSecuencia() {
+        cerrojo.lock();
+        try {
+            return ultimaSecuencia;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        cerrojo.lock();
+        try {
+            cerrado = true;
+            pendientes.signalAll();
+        } finally {
+            cerrojo.unlock();
+        }
+        try {
+            sincronizador.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cerrojo.lock();
+        try {
+            activo.buffer.force();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Hilo de sincronización: fuerza a disco lo anexado fuera del cerrojo, mientras se siguen anexando registros
+     */
+    private void sincronizar() {
+        while (true) {
+            SegmentoActivo segmento;
+            int desde;
+            int hasta;
+            long secuencia;
+            cerrojo.lock();
+            try {
+                while (!cerrado && secuenciaSincronizada == ultimaSecuencia) {
+                    pendientes.await();
+                }
+                if (cerrado && secuenciaSincronizada == ultimaSecuencia) {
+                    return;
+                }
+                segmento = activo;
+                desde = segmento.sincronizadoHasta;
+                hasta = segmento.posicion;
+                secuencia = ultimaSecuencia;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                cerrojo.unlock();
+            }
+
+            long inicio = System.nanoTime();
+            try {
+                segmento.buffer.force(desde, hasta - desde);
+            } catch (UncheckedIOException e) {
+                log.error("No se pudo sincronizar el diario de cambios; se reintentará", e);
+                dormir();
+                continue;
+            }
+            tiempoSincronizacion.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+
+            cerrojo.lock();
+            try {
+                segmento.sincronizadoHasta = Math.max(segmento.sincronizadoHasta, hasta);
+                secuenciaSincronizada = Math.max(secuenciaSincronizada, secuencia);
+                sincronizados.signalAll();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Sellar el segmento activo (sincronizado y con su índice escrito) y abrir el siguiente. Se llama con el cerrojo
+     */
+    private void rotar() {
+        try {
+            activo.buffer.force();
+            escribirIndice(activo.archivo, activo.ultimoInstante, activo.hashes, activo.posicionesRegistros, activo.registros);
+            sellados.add(new SegmentoSellado(activo.archivo, Instant.ofEpochMilli(activo.ultimoInstante),
+                    Arrays.copyOf(activo.hashes, activo.registros), Arrays.copyOf(activo.posicionesRegistros, activo.registros)));
+            activo = crearSegmento(ultimaSecuencia + 1);
+            secuenciaSincronizada = ultimaSecuencia;
+            sincronizados.signalAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo rotar el segmento del diario", e);
+        }
+    }
+
+    private void recuperar() throws IOException {
+        List<Path> archivos;
+        try (Stream<Path> listado = Files.list(directorio)) {
+            archivos = listado.filter(archivo -> archivo.getFileName().toString().endsWith(EXTENSION_SEGMENTO))
+                    .sorted()
+                    .toList();
+        }
+        if (archivos.isEmpty()) {
+            activo = crearSegmento(1);
+            ultimaSecuencia = 0;
+        } else {
+            for (Path archivo : archivos.subList(0, archivos.size() - 1)) {
+                sellados.add(abrirSellado(archivo));
+            }
+            activo = abrirActivo(archivos.getLast());
+            ultimaSecuencia = activo.ultimaSecuencia;
+        }
+        secuenciaSincronizada = ultimaSecuencia;
+        log.info("Diario de cambios en {}: {} segmentos, última secuencia {}", directorio, sellados.size() + 1, ultimaSecuencia);
+    }
+
+    private SegmentoActivo crearSegmento(long primeraSecuencia) throws IOException {
+        Path archivo = directorio.resolve(String.format("%020d%s", primeraSecuencia, EXTENSION_SEGMENTO));
+        SegmentoActivo segmento = new SegmentoActivo(archivo, mapear(archivo, tamanoSegmento), primeraSecuencia - 1);
+        segmento.buffer.putLong(0, MAGICO);
+        segmento.buffer.force(0, CABECERA_SEGMENTO);
+        return segmento;
+    }
+
+    /**
+     * Reabrir el último segmento y reconstruir su índice recorriendo los registros válidos
+     */
+    private SegmentoActivo abrirActivo(Path archivo) throws IOException {
+        long primeraSecuencia = Long.parseLong(archivo.getFileName().toString().replace(EXTENSION_SEGMENTO, ""));
+        MappedByteBuffer buffer = mapear(archivo, Math.max(tamanoSegmento, (int) Files.size(archivo)));
+        verificarMagico(buffer, archivo);
+        SegmentoActivo segmento = new SegmentoActivo(archivo, buffer, primeraSecuencia - 1);
+        int posicion = CABECERA_SEGMENTO;
+        RegistroDiario registro;
+        while ((registro = leer(buffer, posicion)) != null) {
+            int siguiente = posicion + 4 + buffer.getInt(posicion);
+            segmento.indexar(posicion, registro.numeroDocumento().hashCode(), siguiente);
+            segmento.ultimaSecuencia = registro.secuencia();
+            segmento.ultimoInstante = registro.instante().toEpochMilli();
+            posicion = siguiente;
+        }
+        segmento.sincronizadoHasta = segmento.posicion;
+        return segmento;
+    }
+
+    /**
+     * Cargar el índice de un segmento sellado o reconstruirlo si falta o está incompleto
+     */
+    private SegmentoSellado abrirSellado(Path archivo) throws IOException {
+        Path indice = indiceDe(archivo);
+        if (Files.exists(indice)) {
+            ByteBuffer contenido = ByteBuffer.wrap(Files.readAllBytes(indice));
+            if (contenido.remaining() >= 12 && contenido.remaining() == 12 + 8 * contenido.getInt(8)) {
+                Instant ultimoInstante = Instant.ofEpochMilli(contenido.getLong(0));
+                int registros = contenido.getInt(8);
+                int[] hashes = new int[registros];
+                int[] posiciones = new int[registros];
+                for (int i = 0; i < registros; i++) {
+                    hashes[i] = contenido.getInt(12 + 8 * i);
+                    posiciones[i] = contenido.getInt(16 + 8 * i);
+                }
+                return new SegmentoSellado(archivo, ultimoInstante, hashes, posiciones);
+            }
+        }
+        SegmentoActivo recorrido = abrirActivo(archivo);
+        escribirIndice(archivo, recorrido.ultimoInstante, recorrido.hashes, recorrido.posicionesRegistros, recorrido.registros);
+        return new SegmentoSellado(archivo, Instant.ofEpochMilli(recorrido.ultimoInstante),
+                Arrays.copyOf(recorrido.hashes, recorrido.registros),
+                Arrays.copyOf(recorrido.posicionesRegistros, recorrido.registros));
+    }
+
+    private static void escribirIndice(Path archivo, long ultimoInstante, int[] hashes, int[] posiciones, int registros)
+            throws IOException {
+        ByteBuffer contenido = ByteBuffer.allocate(12 + 8 * registros);
+        contenido.putLong(ultimoInstante).putInt(registros);
+        for (int i = 0; i < registros; i++) {
+            contenido.putInt(hashes[i]).putInt(posiciones[i]);
+        }
+        contenido.flip();
+        try (FileChannel canal = FileChannel.open(indiceDe(archivo), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (contenido.hasRemaining()) {
+                canal.write(contenido);
+            }
+            canal.force(true);
+        }
+    }
+
+    private static MappedByteBuffer mapear(Path archivo, int tamano) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // La proyección sigue siendo válida después de cerrar el canal
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+        }
+    }
+
+    private static void verificarMagico(ByteBuffer buffer, Path archivo) throws IOException {
+        if (buffer.getLong(0) != MAGICO) {
+            throw new IOException("El archivo no es un segmento del diario de cambios: " + archivo);
+        }
+    }
+
+    private static Path indiceDe(Path archivo) {
+        return archivo.resolveSibling(archivo.getFileName().toString().replace(EXTENSION_SEGMENTO, EXTENSION_INDICE));
+    }
+
+    private static void agregarSiCoincide(List<RegistroDiario> historial, RegistroDiario registro, String numeroDocumento) {
+        if (registro != null && registro.numeroDocumento().equals(numeroDocumento)) {
+            historial.add(registro);
+        }
+    }
+
+    /**
+     * Registro completo sin el prefijo de longitud: secuencia, instante, operación, documento, campos y CRC32C
+     */
+    static byte[] codificar(long secuencia, long instante, CambioCliente cambio) {
+        byte[] documento = cambio.numeroDocumento().getBytes(StandardCharsets.UTF_8);
+        List<byte[]> campos = new ArrayList<>();
+        int longitud = 8 + 8 + 1 + 2 + documento.length + 2 + 4;
+        for (Map.Entry<String, String> campo : cambio.campos().entrySet()) {
+            byte[] nombre = campo.getKey().getBytes(StandardCharsets.UTF_8);
+            byte[] valor = campo.getValue() == null ? null : campo.getValue().getBytes(StandardCharsets.UTF_8);
+            campos.add(nombre);
+            campos.add(valor);
+            longitud += 2 + nombre.length + 4 + (valor == null ? 0 : valor.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(4 + longitud);
+        buffer.putInt(longitud).putLong(secuencia).putLong(instante).put((byte) cambio.operacion().ordinal());
+        buffer.putShort((short) documento.length).put(documento);
+        buffer.putShort((short) cambio.campos().size());
+        for (int i = 0; i < campos.size(); i += 2) {
+            byte[] nombre = campos.get(i);
+            byte[] valor = campos.get(i + 1);
+            buffer.putShort((short) nombre.length).put(nombre);
+            buffer.putInt(valor == null ? -1 : valor.length);
+            if (valor != null) {
+                buffer.put(valor);
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 4, longitud - 4);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Leer el registro en esa posición del segmento proyectado o null si no hay un registro válido
+     */
+    private static RegistroDiario leer(ByteBuffer segmento, int posicion) {
+        if (posicion + 4 > segmento.capacity()) {
+            return null;
+        }
+        int longitud = segmento.getInt(posicion);
+        if (longitud <= 0 || posicion + 4L + longitud > segmento.capacity()) {
+            return null;
+        }
+        return decodificar(segmento.slice(posicion + 4, longitud));
+    }
+
+    private static RegistroDiario leer(FileChannel canal, int posicion) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(4);
+        leerCompleto(canal, cabecera, posicion);
+        ByteBuffer registro = ByteBuffer.allocate(cabecera.getInt(0));
+        leerCompleto(canal, registro, posicion + 4L);
+        return decodificar(registro.flip());
+    }
+
+    private static void leerCompleto(FileChannel canal, ByteBuffer destino, long posicion) throws IOException {
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicion + destino.position()) < 0) {
+                throw new EOFException("Registro del diario truncado en la posición " + posicion);
+            }
+        }
+    }
+
+    private static RegistroDiario decodificar(ByteBuffer registro) {
+        int longitud = registro.remaining();
+        if (longitud < 25) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(registro.slice(0, longitud - 4));
+        if ((int) crc.getValue() != registro.getInt(longitud - 4)) {
+            return null;
+        }
+        long secuencia = registro.getLong();
+        Instant instante = Instant.ofEpochMilli(registro.getLong());
+        OperacionCambio operacion = OPERACIONES[registro.get()];
+        String numeroDocumento = texto(registro, registro.getShort());
+        int totalCampos = registro.getShort();
+        Map<String, String> campos = new LinkedHashMap<>();
+        for (int i = 0; i < totalCampos; i++) {
+            String nombre = texto(registro, registro.getShort());
+            int longitudValor = registro.getInt();
+            campos.put(nombre, longitudValor < 0 ? null : texto(registro, longitudValor));
+        }
+        return new RegistroDiario(secuencia, instante, numeroDocumento, operacion, campos);
+    }
+
+    private static String texto(ByteBuffer registro, int longitud) {
+        byte[] bytes = new byte[longitud];
+        registro.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void dormir() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Segmento en el que se anexa, con su índice en memoria. Sus campos se modifican con el cerrojo del diario
+     */
+    private static final class SegmentoActivo {
+
+        private final Path archivo;
+        private final MappedByteBuffer buffer;
+        private int[] hashes = new int[256];
+        private int[] posicionesRegistros = new int[256];
+        private int registros;
+        private int posicion = CABECERA_SEGMENTO;
+        private int sincronizadoHasta = CABECERA_SEGMENTO;
+        private long ultimaSecuencia;
+        private long ultimoInstante;
+
+        SegmentoActivo(Path archivo, MappedByteBuffer buffer, long ultimaSecuencia) {
+            this.archivo = archivo;
+            this.buffer = buffer;
+            this.ultimaSecuencia = ultimaSecuencia;
+        }
+
+        void anexar(byte[] registro, int hash) {
+            // El prefijo de longitud se escribe al final: un registro a medio escribir no es visible al recuperar
+            buffer.put(posicion + 4, registro, 4, registro.length - 4);
+            buffer.put(posicion, registro, 0, 4);
+            ultimoInstante = ByteBuffer.wrap(registro, 12, 8).getLong();
+            indexar(posicion, hash, posicion + registro.length);
+        }
+
+        void indexar(int inicio, int hash, int siguiente) {
+            if (registros == hashes.length) {
+                hashes = Arrays.copyOf(hashes, registros * 2);
+                posicionesRegistros = Arrays.copyOf(posicionesRegistros, registros * 2);
+            }
+            hashes[registros] = hash;
+            posicionesRegistros[registros] = inicio;
+            registros++;
+            posicion = siguiente;
+        }
+
+        int[] posiciones(int hash) {
+            return filtrar(hashes, posicionesRegistros, registros, hash);
+        }
+    }
+
+    /**
+     * Segmento sellado: solo lectura, con su índice cargado en memoria
+     */
+    private record SegmentoSellado(Path archivo, Instant ultimoInstante, int[] hashes, int[] posicionesRegistros) {
+
+        int[] posiciones(int hash) {
+            return filtrar(hashes, posicionesRegistros, hashes.length, hash);
+        }
+    }
+
+    private static int[] filtrar(int[] hashes, int[] posiciones, int registros, int hash) {
+        int[] resultado = new int[8];
+        int total = 0;
+        for (int i = 0; i < registros; i++) {
+            if (hashes[i] == hash) {
+                if (total == resultado.length) {
+                    resultado = Arrays.copyOf(resultado, total * 2);
+                }
+                resultado[total++] = posiciones[i];
+            }
+        }
+        return Arrays.copyOf(resultado, total);
+    }
+}
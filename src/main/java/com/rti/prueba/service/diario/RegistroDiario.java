@@ -0,0 +1,13 @@
+package com.rti.prueba.service.diario;
+
+import com.rti.prueba.enums.OperacionCambio;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Registro leído del diario de cambios
+ */
+public record RegistroDiario(long secuencia, Instant instante, String numeroDocumento, OperacionCambio operacion,
+                             Map<String, String> campos) {
+}
@@ -0,0 +1,34 @@
+package com.rti.prueba.service.idempotencia;
+
+import java.time.Duration;
+
+/**
+ * Almacén de claves de idempotencia: huella de la solicitud original y su respuesta
+ */
+public interface AlmacenIdempotencia {
+
+    /**
+     * Reservar la clave para ejecutar la solicitud. Devuelve null si la ejecución corresponde al llamador o la
+     * respuesta guardada si la solicitud ya se ejecutó; si está en curso, espera a que termine como máximo
+     * el tiempo indicado.
+     *
+     * @throws com.rti.prueba.exception.IdempotenciaConflictoException si la clave se usó con otra huella
+     * @throws com.rti.prueba.exception.IdempotenciaEnCursoException si la solicitud original no terminó a tiempo
+     */
+    RespuestaIdempotente reservar(String clave, String huella, Duration espera);
+
+    /**
+     * Guardar la respuesta de la solicitud reservada
+     */
+    void completar(String clave, RespuestaIdempotente respuesta);
+
+    /**
+     * Liberar la reserva sin guardar respuesta (error transitorio); un reintento vuelve a ejecutar la solicitud
+     */
+    void liberar(String clave);
+
+    /**
+     * Eliminar las claves vencidas
+     */
+    void purgar();
+}
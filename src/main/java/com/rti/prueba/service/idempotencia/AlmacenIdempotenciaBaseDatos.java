@@ -0,0 +1,120 @@
+package com.rti.prueba.service.idempotencia;
+
+import com.rti.prueba.bd.jpa.IdempotenciaJPA;
+import com.rti.prueba.bd.orm.IdempotenciaORM;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.enums.EstadoIdempotencia;
+import com.rti.prueba.exception.IdempotenciaConflictoException;
+import com.rti.prueba.exception.IdempotenciaEnCursoException;
+import com.rti.prueba.service.bulkhead.ContextoTrabajo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Almacén de idempotencia compartido entre nodos en la tabla idempotencia_solicitudes. La reserva es un INSERT
+ * por clave primaria que vence al cabo del arriendo; solo la respuesta completada se conserva durante el TTL.
+ * Los duplicados concurrentes consultan la fila, con esperas crecientes, hasta que la ejecución original la completa.
+ * Las sentencias de las solicitudes usan la partición de escrituras del pool y la purga programada, la interna.
+ */
+@Slf4j
+public class AlmacenIdempotenciaBaseDatos implements AlmacenIdempotencia {
+
+    private static final long INTERVALO_CONSULTA_MS = 50;
+    private static final long INTERVALO_CONSULTA_MAXIMO_MS = 500;
+
+    private final IdempotenciaJPA idempotenciaJPA;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration arriendo;
+
+    public AlmacenIdempotenciaBaseDatos(IdempotenciaJPA idempotenciaJPA, PlatformTransactionManager transactionManager,
+                                        Duration ttl, Duration arriendo) {
+        this.idempotenciaJPA = idempotenciaJPA;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.arriendo = arriendo;
+    }
+
+    @Override
+    public RespuestaIdempotente reservar(String clave, String huella, Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        long intervalo = INTERVALO_CONSULTA_MS;
+        while (true) {
+            try {
+                ejecutar(() -> idempotenciaJPA.reservar(clave, huella, Instant.now().plus(arriendo)));
+                return null;
+            } catch (DataIntegrityViolationException e) {
+                // La clave ya existe: se revisa su estado
+            }
+
+            IdempotenciaORM registro = ejecutar(() -> idempotenciaJPA.findById(clave).orElse(null));
+            if (registro == null) {
+                continue;
+            }
+            if (registro.getExpiraEn().isBefore(Instant.now())) {
+                // Respuesta fuera del TTL o reserva abandonada al vencer su arriendo
+                ejecutar(() -> idempotenciaJPA.eliminarSiVencida(clave, Instant.now()));
+                continue;
+            }
+            if (!registro.getHuella().equals(huella)) {
+                throw new IdempotenciaConflictoException(clave);
+            }
+            if (registro.getEstado() == EstadoIdempotencia.COMPLETADA) {
+                return new RespuestaIdempotente(registro.getStatus(), registro.getContentType(), registro.getLocation(),
+                        registro.getCuerpo());
+            }
+            if (System.nanoTime() - limite >= 0) {
+                throw new IdempotenciaEnCursoException(clave);
+            }
+            esperar(clave, Math.min(intervalo, TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime()) + 1));
+            intervalo = Math.min(intervalo * 2, INTERVALO_CONSULTA_MAXIMO_MS);
+        }
+    }
+
+    @Override
+    public void completar(String clave, RespuestaIdempotente respuesta) {
+        // La respuesta guardada extiende la vigencia del arriendo al TTL
+        ejecutar(() -> idempotenciaJPA.completar(clave, EstadoIdempotencia.COMPLETADA,
+                respuesta.status(), respuesta.contentType(), respuesta.location(), respuesta.cuerpo(),
+                Instant.now().plus(ttl)));
+    }
+
+    @Override
+    public void liberar(String clave) {
+        ejecutar(() -> {
+            idempotenciaJPA.deleteById(clave);
+            return null;
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${clientes.idempotencia.intervalo-limpieza:PT5M}")
+    public void purgar() {
+        Integer eliminadas = ContextoTrabajo.ejecutar(ClaseTrabajo.INTERNA, () ->
+                transactionTemplate.execute(status -> idempotenciaJPA.eliminarVencidas(Instant.now())));
+        log.debug("Claves de idempotencia vencidas eliminadas: {}", eliminadas);
+    }
+
+    private <T> T ejecutar(Supplier<T> operacion) {
+        return ContextoTrabajo.ejecutar(ClaseTrabajo.ESCRITURA, () -> transactionTemplate.execute(status -> operacion.get()));
+    }
+
+    private static void esperar(String clave, long intervaloMs) {
+        try {
+            Thread.sleep(Math.max(intervaloMs, 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotenciaEnCursoException(clave);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.rti.prueba.service.idempotencia;
+
+import com.rti.prueba.exception.IdempotenciaConflictoException;
+import com.rti.prueba.exception.IdempotenciaEnCursoException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Almacén de idempotencia en memoria del nodo, acotado en entradas. Las reservas en curso vencen al cabo del arriendo
+ * y las respuestas completadas al cabo del TTL. Los duplicados concurrentes esperan la respuesta de la primera ejecución.
+ */
+public class AlmacenIdempotenciaMemoria implements AlmacenIdempotencia {
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final int maxEntradas;
+    private final long ttlNanos;
+    private final long arriendoNanos;
+
+    public AlmacenIdempotenciaMemoria(int maxEntradas, Duration ttl, Duration arriendo) {
+        this.maxEntradas = maxEntradas;
+        this.ttlNanos = ttl.toNanos();
+        this.arriendoNanos = arriendo.toNanos();
+    }
+
+    @Override
+    public RespuestaIdempotente reservar(String clave, String huella, Duration espera) {
+        long limite = System.nanoTime() + espera.toNanos();
+        while (true) {
+            long ahora = System.nanoTime();
+            Entrada nueva = new Entrada(huella, new CompletableFuture<>(), ahora + arriendoNanos);
+            Entrada actual = entradas.compute(clave, (k, entrada) -> {
+                if (entrada != null && entrada.vigente(ahora)) {
+                    return entrada;
+                }
+                if (entrada != null) {
+                    // Reserva abandonada: sus duplicados en espera vuelven a intentar la reserva
+                    entrada.respuesta().cancel(false);
+                }
+                return nueva;
+            });
+            if (actual == nueva) {
+                acotar();
+                return null;
+            }
+            if (!actual.huella().equals(huella)) {
+                throw new IdempotenciaConflictoException(clave);
+            }
+            try {
+                // Se espera como mucho hasta el fin del arriendo: si vence, la reserva se toma de nuevo
+                long hasta = actual.expiraEn() - limite < 0 ? actual.expiraEn() : limite;
+                return actual.respuesta().get(Math.max(0, hasta - ahora), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (limite - System.nanoTime() <= 0) {
+                    throw new IdempotenciaEnCursoException(clave);
+                }
+            } catch (CancellationException | ExecutionException e) {
+                // La ejecución original se liberó sin respuesta: se intenta reservar de nuevo
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotenciaEnCursoException(clave);
+            }
+        }
+    }
+
+    @Override
+    public void completar(String clave, RespuestaIdempotente respuesta) {
+        long expiraEn = System.nanoTime() + ttlNanos;
+        Entrada entrada = entradas.computeIfPresent(clave, (k, actual) -> new Entrada(actual.huella(), actual.respuesta(), expiraEn));
+        if (entrada != null) {
+            entrada.respuesta().complete(respuesta);
+        }
+    }
+
+    @Override
+    public void liberar(String clave) {
+        Entrada entrada = entradas.remove(clave);
+        if (entrada != null) {
+            entrada.respuesta().cancel(false);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${clientes.idempotencia.intervalo-limpieza:PT5M}")
+    public void purgar() {
+        long ahora = System.nanoTime();
+        entradas.values().removeIf(entrada -> {
+            if (entrada.vigente(ahora)) {
+                return false;
+            }
+            entrada.respuesta().cancel(false);
+            return true;
+        });
+    }
+
+    /**
+     * Número de claves guardadas
+     */
+    public int tamano() {
+        return entradas.size();
+    }
+
+    /**
+     * Al superar el máximo se eliminan las vencidas, incluidas las reservas con el arriendo vencido, y, si no basta,
+     * las respuestas completadas más antiguas. Las reservas vigentes no se eliminan para no romper la espera de sus
+     * duplicados.
+     */
+    private void acotar() {
+        if (entradas.size() <= maxEntradas) {
+            return;
+        }
+        purgar();
+        int exceso = entradas.size() - maxEntradas;
+        if (exceso > 0) {
+            entradas.entrySet().stream()
+                    .filter(entrada -> entrada.getValue().respuesta().isDone())
+                    .sorted(Comparator.comparingLong(entrada -> entrada.getValue().expiraEn()))
+                    .limit(exceso)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entradas::remove);
+        }
+    }
+
+    private record Entrada(String huella, CompletableFuture<RespuestaIdempotente> respuesta, long expiraEn) {
+        boolean vigente(long ahora) {
+            return expiraEn - ahora > 0;
+        }
+    }
+}
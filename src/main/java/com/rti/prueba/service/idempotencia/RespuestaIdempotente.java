@@ -0,0 +1,7 @@
+package com.rti.prueba.service.idempotencia;
+
+/**
+ * Respuesta guardada de una solicitud con clave de idempotencia
+ */
+public record RespuestaIdempotente(int status, String contentType, String location, byte[] cuerpo) {
+}
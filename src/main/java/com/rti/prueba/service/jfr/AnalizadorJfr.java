@@ -0,0 +1,84 @@
+package com.rti.prueba.service.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resumen fuera de línea de una grabación JFR: distribución de latencias por operación de ClienteService y
+ * las consultas más lentas de ClienteJPA. Uso desde el jar de la aplicación:
+ * java -cp prueba.jar -Dloader.main=com.rti.prueba.service.jfr.AnalizadorJfr
+ * org.springframework.boot.loader.launch.PropertiesLauncher clientes.jfr [consultas]
+ */
+public final class AnalizadorJfr {
+
+    private static final int CONSULTAS_PREDETERMINADAS = 10;
+
+    private AnalizadorJfr() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: AnalizadorJfr <grabacion.jfr> [consultas]");
+            System.exit(1);
+        }
+        int consultas = args.length > 1 ? Integer.parseInt(args[1]) : CONSULTAS_PREDETERMINADAS;
+        System.out.print(resumir(Path.of(args[0]), consultas));
+    }
+
+    /**
+     * Texto del resumen con las latencias en milisegundos
+     */
+    public static String resumir(Path grabacion, int consultas) throws IOException {
+        Map<String, List<Long>> duraciones = new TreeMap<>();
+        Map<String, Integer> errores = new TreeMap<>();
+        List<RecordedEvent> lentas = new ArrayList<>();
+        for (RecordedEvent evento : RecordingFile.readAllEvents(grabacion)) {
+            String tipo = evento.getEventType().getName();
+            if (tipo.equals(OperacionClienteEvent.NOMBRE)) {
+                String operacion = evento.getString("operacion");
+                duraciones.computeIfAbsent(operacion, clave -> new ArrayList<>()).add(evento.getDuration().toNanos());
+                if (!"OK".equals(evento.getString("resultado"))) {
+                    errores.merge(operacion, 1, Integer::sum);
+                }
+            } else if (tipo.equals(ConsultaLentaEvent.NOMBRE)) {
+                lentas.add(evento);
+            }
+        }
+
+        StringBuilder resumen = new StringBuilder();
+        resumen.append(String.format(Locale.ROOT, "%-36s %8s %7s %9s %9s %9s %9s%n",
+                "Operación", "Total", "Errores", "p50 ms", "p90 ms", "p99 ms", "Máx ms"));
+        duraciones.forEach((operacion, tiempos) -> {
+            tiempos.sort(null);
+            resumen.append(String.format(Locale.ROOT, "%-36s %8d %7d %9.2f %9.2f %9.2f %9.2f%n",
+                    operacion, tiempos.size(), errores.getOrDefault(operacion, 0), percentil(tiempos, 0.50),
+                    percentil(tiempos, 0.90), percentil(tiempos, 0.99), tiempos.getLast() / 1e6));
+        });
+
+        lentas.sort(Comparator.comparing(RecordedEvent::getDuration, Comparator.reverseOrder()));
+        resumen.append(String.format(Locale.ROOT, "%nConsultas más lentas (%d de %d)%n", Math.min(consultas, lentas.size()), lentas.size()));
+        for (RecordedEvent evento : lentas.subList(0, Math.min(consultas, lentas.size()))) {
+            resumen.append(String.format(Locale.ROOT, "%9.2f ms  %-48s filas=%-6d %-10s %s%n",
+                    evento.getDuration().toNanos() / 1e6, evento.getString("consulta"), evento.getInt("filas"),
+                    evento.getString("resultado"), evento.getStartTime()));
+        }
+        return resumen.toString();
+    }
+
+    /**
+     * Percentil por el método del rango más cercano sobre las duraciones ordenadas, en milisegundos
+     */
+    private static double percentil(List<Long> ordenadas, double fraccion) {
+        int indice = (int) Math.ceil(fraccion * ordenadas.size()) - 1;
+        return ordenadas.get(Math.max(0, indice)) / 1e6;
+    }
+}
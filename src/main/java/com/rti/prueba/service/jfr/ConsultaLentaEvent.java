@@ -0,0 +1,34 @@
+package com.rti.prueba.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Evento JFR de las consultas de ClienteJPA que superan el umbral configurado en la grabación
+ * (20 ms si la configuración no lo indica)
+ */
+@Name(ConsultaLentaEvent.NOMBRE)
+@Label("Consulta lenta de clientes")
+@Category({"Clientes", "Base de datos"})
+@Description("Método de ClienteJPA cuya duración supera el umbral")
+@Threshold("20 ms")
+@StackTrace(false)
+public class ConsultaLentaEvent extends Event {
+
+    public static final String NOMBRE = "com.rti.prueba.ConsultaLenta";
+
+    @Label("Consulta")
+    String consulta;
+
+    @Label("Filas")
+    @Description("Elementos devueltos; -1 si el resultado no es una colección ni un Optional")
+    int filas;
+
+    @Label("Resultado")
+    String resultado;
+}
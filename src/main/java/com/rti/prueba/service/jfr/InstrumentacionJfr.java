@@ -0,0 +1,137 @@
+package com.rti.prueba.service.jfr;
+
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.reflect.Parameter;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Interceptores que emiten los eventos JFR de ClienteService y ClienteJPA. Sin una grabación activa que los
+ * habilite solo comprueban {@link jdk.jfr.Event#isEnabled()}; el hash del documento y el resto de campos se
+ * calculan únicamente para los eventos que se van a registrar.
+ */
+public class InstrumentacionJfr {
+
+    private static final String ALGORITMO_HASH = "HmacSHA256";
+    private static final int BYTES_HASH = 8;
+
+    private final SecretKeySpec clave;
+
+    public InstrumentacionJfr(byte[] clave) {
+        this.clave = new SecretKeySpec(clave, ALGORITMO_HASH);
+    }
+
+    /**
+     * Evento por operación de ClienteService con el documento, si la operación lo recibe, y su resultado
+     */
+    public MethodInterceptor operaciones() {
+        return invocacion -> {
+            OperacionClienteEvent evento = new OperacionClienteEvent();
+            if (!evento.isEnabled() || esMetodoDeObject(invocacion)) {
+                return invocacion.proceed();
+            }
+            evento.begin();
+            String resultado = "OK";
+            try {
+                return invocacion.proceed();
+            } catch (Throwable e) {
+                resultado = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.operacion = invocacion.getMethod().getName();
+                    evento.documentoHash = hash(documento(invocacion));
+                    evento.resultado = resultado;
+                    evento.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * Evento por consulta de ClienteJPA; el umbral de la grabación descarta las rápidas antes de rellenarlo
+     */
+    public MethodInterceptor consultas() {
+        return invocacion -> {
+            ConsultaLentaEvent evento = new ConsultaLentaEvent();
+            if (!evento.isEnabled() || esMetodoDeObject(invocacion)) {
+                return invocacion.proceed();
+            }
+            evento.begin();
+            Object devuelto = null;
+            String resultado = "OK";
+            try {
+                devuelto = invocacion.proceed();
+                return devuelto;
+            } catch (Throwable e) {
+                resultado = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                evento.end();
+                if (evento.shouldCommit()) {
+                    evento.consulta = invocacion.getMethod().getName();
+                    evento.filas = filas(devuelto);
+                    evento.resultado = resultado;
+                    evento.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * HMAC-SHA256 truncado a 8 bytes en hexadecimal; null si la operación no recibe documento
+     */
+    String hash(String documento) {
+        if (documento == null) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO_HASH);
+            mac.init(clave);
+            byte[] hash = mac.doFinal(documento.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash, 0, BYTES_HASH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo calcular el hash del documento", e);
+        }
+    }
+
+    /**
+     * Documento del cliente: el parámetro numeroDocumento o el del DTO de alta
+     */
+    private static String documento(MethodInvocation invocacion) {
+        Parameter[] parametros = invocacion.getMethod().getParameters();
+        Object[] argumentos = invocacion.getArguments();
+        for (int i = 0; i < parametros.length; i++) {
+            if (argumentos[i] instanceof ClienteCreateDTO alta) {
+                return alta.getNumeroDocumento();
+            }
+            if (parametros[i].getName().equals("numeroDocumento") && argumentos[i] instanceof String numeroDocumento) {
+                return numeroDocumento;
+            }
+        }
+        return null;
+    }
+
+    private static int filas(Object devuelto) {
+        if (devuelto instanceof Collection<?> coleccion) {
+            return coleccion.size();
+        }
+        if (devuelto instanceof Optional<?> opcional) {
+            return opcional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+
+    private static boolean esMetodoDeObject(MethodInvocation invocacion) {
+        return invocacion.getMethod().getDeclaringClass() == Object.class;
+    }
+}
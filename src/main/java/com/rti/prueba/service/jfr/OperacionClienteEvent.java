@@ -0,0 +1,32 @@
+package com.rti.prueba.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento JFR de cada operación de ClienteService. El número de documento se registra como HMAC truncado para
+ * correlacionar operaciones sobre el mismo cliente sin exponerlo en la grabación.
+ */
+@Name(OperacionClienteEvent.NOMBRE)
+@Label("Operación de cliente")
+@Category({"Clientes", "Servicio"})
+@Description("Operación de ClienteService con su resultado y duración")
+@StackTrace(false)
+public class OperacionClienteEvent extends Event {
+
+    public static final String NOMBRE = "com.rti.prueba.OperacionCliente";
+
+    @Label("Operación")
+    String operacion;
+
+    @Label("Documento (hash)")
+    String documentoHash;
+
+    @Label("Resultado")
+    @Description("OK o la clase de la excepción")
+    String resultado;
+}
@@ -0,0 +1,15 @@
+package com.rti.prueba.service.outbox;
+
+import com.rti.prueba.enums.OperacionCambio;
+
+import java.time.Instant;
+
+/**
+ * Evento de cambio de un cliente publicado desde el outbox. El id es único y sirve para descartar duplicados, ya que
+ * la entrega es al menos una vez, pero no ordena los eventos: cada nodo lo asigna desde su propio bloque de la
+ * secuencia. Dos eventos del mismo cliente pueden llegar en otro orden que el de sus escrituras, así que el
+ * consumidor no aplica la carga según el orden de llegada: ante un evento consulta el cliente y conserva el estado
+ * de mayor versión (la del ETag de GET /api/clientes/{numeroDocumento}).
+ */
+public record EventoCliente(long id, String numeroDocumento, OperacionCambio operacion, Instant creadoEn, String carga) {
+}
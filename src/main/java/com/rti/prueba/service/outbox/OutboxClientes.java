@@ -0,0 +1,57 @@
+package com.rti.prueba.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rti.prueba.bd.jpa.EventoOutboxJPA;
+import com.rti.prueba.bd.orm.EventoOutboxORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.exception.ClienteServiceException;
+import com.rti.prueba.service.diario.CambioCliente;
+import com.rti.prueba.service.diario.CambiosClientesEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escribe los cambios de clientes en la tabla clientes_outbox dentro de la misma transacción que los produce:
+ * el evento se publica si y solo si la escritura del cliente se confirma.
+ * En el modo reactivo ClienteServiceReactivo escribe las filas en su propia transacción R2DBC.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class OutboxClientes {
+
+    private final EventoOutboxJPA eventoOutboxJPA;
+    private final ObjectMapper objectMapper;
+    private final ClientesProperties clientesProperties;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void alCambiarClientes(CambiosClientesEvent evento) {
+        if (!clientesProperties.getOutbox().isHabilitado() || evento.cambios().isEmpty()) {
+            return;
+        }
+        Instant ahora = Instant.now();
+        List<EventoOutboxORM> eventos = new ArrayList<>(evento.cambios().size());
+        for (CambioCliente cambio : evento.cambios()) {
+            eventos.add(new EventoOutboxORM(null, cambio.numeroDocumento(), cambio.operacion(), carga(cambio), ahora));
+        }
+        eventoOutboxJPA.saveAll(eventos);
+    }
+
+    private String carga(CambioCliente cambio) {
+        try {
+            return objectMapper.writeValueAsString(cambio);
+        } catch (JsonProcessingException e) {
+            throw new ClienteServiceException("No se pudo serializar el evento del cliente " + cambio.numeroDocumento(), e);
+        }
+    }
+}
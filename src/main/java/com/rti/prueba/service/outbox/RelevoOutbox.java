@@ -0,0 +1,140 @@
+package com.rti.prueba.service.outbox;
+
+import com.rti.prueba.bd.jpa.EventoOutboxJPA;
+import com.rti.prueba.bd.orm.EventoOutboxORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.service.bulkhead.ContextoTrabajo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relevo del outbox: bloquea lotes de eventos con SKIP LOCKED, los publica en el sumidero y los elimina en la
+ * misma transacción. Varios hilos o nodos pueden relevar a la vez sin publicar dos veces el mismo lote; si el
+ * sumidero falla el lote vuelve a quedar disponible (entrega al menos una vez). El caudal se ajusta con el tamaño
+ * del lote, los lotes por ciclo, los hilos y el intervalo entre ciclos.
+ * Los lotes se toman por id, pero los ids se asignan por bloques en cada nodo y varios lotes se publican en
+ * paralelo: el orden de publicación no es el de confirmación (ver {@link EventoCliente}).
+ */
+@Slf4j
+@Component
+public class RelevoOutbox {
+
+    private final EventoOutboxJPA eventoOutboxJPA;
+    private final SumideroEventos sumidero;
+    private final TransactionTemplate transactionTemplate;
+    private final ClientesProperties.Outbox config;
+    private final ExecutorService relevos;
+    private final Counter publicados;
+    private final Counter fallos;
+    private final Timer tiempoLote;
+    private volatile double retrasoSegundos;
+
+    public RelevoOutbox(EventoOutboxJPA eventoOutboxJPA, SumideroEventos sumidero,
+                        PlatformTransactionManager transactionManager, ClientesProperties clientesProperties,
+                        MeterRegistry meterRegistry) {
+        this.eventoOutboxJPA = eventoOutboxJPA;
+        this.sumidero = sumidero;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.config = clientesProperties.getOutbox();
+        AtomicInteger hilos = new AtomicInteger();
+        this.relevos = Executors.newFixedThreadPool(config.getHilos(), tarea -> {
+            Thread hilo = new Thread(tarea, "outbox-relevo-" + hilos.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.publicados = Counter.builder("clientes.outbox.publicados").register(meterRegistry);
+        this.fallos = Counter.builder("clientes.outbox.fallos").register(meterRegistry);
+        this.tiempoLote = Timer.builder("clientes.outbox.lote").register(meterRegistry);
+        Gauge.builder("clientes.outbox.retraso", this, relevo -> relevo.retrasoSegundos)
+                .baseUnit("seconds")
+                .description("Antigüedad del evento más antiguo pendiente de publicar")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${clientes.outbox.intervalo:PT1S}")
+    public void relevar() {
+        if (!config.isHabilitado()) {
+            return;
+        }
+        AtomicInteger lotesRestantes = new AtomicInteger(config.getLotesPorCiclo());
+        List<CompletableFuture<Void>> hilos = new ArrayList<>();
+        for (int i = 0; i < config.getHilos(); i++) {
+            hilos.add(CompletableFuture.runAsync(() -> {
+                while (lotesRestantes.getAndDecrement() > 0) {
+                    if (publicarLote() < config.getTamanoLote()) {
+                        // Lote incompleto: no quedan eventos libres de bloqueo
+                        break;
+                    }
+                }
+            }, relevos));
+        }
+        try {
+            CompletableFuture.allOf(hilos.toArray(CompletableFuture[]::new)).join();
+        } catch (RuntimeException e) {
+            fallos.increment();
+            log.warn("El relevo del outbox no pudo publicar un lote; se reintentará en el próximo ciclo", e);
+        } finally {
+            actualizarRetraso();
+        }
+    }
+
+    /**
+     * Publicar y eliminar un lote en una transacción; devuelve cuántos eventos publicó
+     */
+    public int publicarLote() {
+        Timer.Sample muestra = Timer.start();
+        Integer publicadosLote = ContextoTrabajo.ejecutar(ClaseTrabajo.MASIVA, () -> transactionTemplate.execute(status -> {
+            List<EventoOutboxORM> lote = eventoOutboxJPA.bloquearLote(config.getTamanoLote());
+            if (lote.isEmpty()) {
+                return 0;
+            }
+            sumidero.publicar(lote.stream()
+                    .map(e -> new EventoCliente(e.getId(), e.getNumeroDocumento(), e.getOperacion(), e.getCreadoEn(), e.getCarga()))
+                    .toList());
+            eventoOutboxJPA.eliminarPorIds(lote.stream().map(EventoOutboxORM::getId).toList());
+            return lote.size();
+        }));
+        int total = publicadosLote != null ? publicadosLote : 0;
+        if (total > 0) {
+            muestra.stop(tiempoLote);
+            publicados.increment(total);
+        }
+        return total;
+    }
+
+    /**
+     * Segundos que lleva esperando el evento pendiente más antiguo; 0 si el outbox está vacío
+     */
+    public double retrasoSegundos() {
+        return retrasoSegundos;
+    }
+
+    private void actualizarRetraso() {
+        Instant masAntiguo = ContextoTrabajo.ejecutar(ClaseTrabajo.MASIVA, () -> transactionTemplate.execute(status ->
+                eventoOutboxJPA.creadoEnMasAntiguo()));
+        retrasoSegundos = masAntiguo == null ? 0 : Math.max(0, Duration.between(masAntiguo, Instant.now()).toMillis() / 1000.0);
+    }
+
+    @PreDestroy
+    public void detener() {
+        relevos.shutdownNow();
+    }
+}
@@ -0,0 +1,14 @@
+package com.rti.prueba.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destino de los eventos de clientes publicados por el relevo del outbox
+ */
+public interface SumideroEventos {
+
+    /**
+     * Publicar los eventos en orden. Si lanza una excepción el lote permanece en el outbox y se reintenta
+     */
+    void publicar(List<EventoCliente> eventos);
+}
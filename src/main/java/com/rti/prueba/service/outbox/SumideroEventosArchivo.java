@@ -0,0 +1,49 @@
+package com.rti.prueba.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sumidero que anexa cada lote como líneas JSON a un archivo y lo sincroniza en disco antes de confirmar el lote
+ */
+public class SumideroEventosArchivo implements SumideroEventos {
+
+    private final Path archivo;
+    private final ObjectMapper objectMapper;
+
+    public SumideroEventosArchivo(Path archivo, ObjectMapper objectMapper) throws IOException {
+        this.archivo = archivo;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(archivo.toAbsolutePath().getParent());
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoCliente> eventos) {
+        try {
+            ByteArrayOutputStream lineas = new ByteArrayOutputStream();
+            for (EventoCliente evento : eventos) {
+                objectMapper.writeValue(lineas, evento);
+                lineas.write('\n');
+            }
+            try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND)) {
+                ByteBuffer contenido = ByteBuffer.wrap(lineas.toByteArray());
+                while (contenido.hasRemaining()) {
+                    canal.write(contenido);
+                }
+                canal.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron escribir los eventos en " + archivo, e);
+        }
+    }
+}
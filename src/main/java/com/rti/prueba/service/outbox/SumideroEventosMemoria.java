@@ -0,0 +1,37 @@
+package com.rti.prueba.service.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Sumidero en memoria que conserva los últimos eventos publicados, para pruebas y entornos sin consumidores
+ */
+public class SumideroEventosMemoria implements SumideroEventos {
+
+    private final int maxEventos;
+    private final Deque<EventoCliente> eventos = new ArrayDeque<>();
+
+    public SumideroEventosMemoria(int maxEventos) {
+        this.maxEventos = maxEventos;
+    }
+
+    @Override
+    public synchronized void publicar(List<EventoCliente> lote) {
+        for (EventoCliente evento : lote) {
+            if (eventos.size() == maxEventos) {
+                eventos.removeFirst();
+            }
+            eventos.addLast(evento);
+        }
+    }
+
+    public synchronized List<EventoCliente> eventos() {
+        return new ArrayList<>(eventos);
+    }
+
+    public synchronized void limpiar() {
+        eventos.clear();
+    }
+}
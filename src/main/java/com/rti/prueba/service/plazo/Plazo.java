@@ -0,0 +1,83 @@
+package com.rti.prueba.service.plazo;
+
+import com.rti.prueba.exception.PlazoExcedidoException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Plazo de la solicitud en curso, medido con el reloj monotónico. Viaja con el hilo (y con el salto a los
+ * ejecutores de los bulkheads) hasta el gestor de transacciones, que lo aplica como timeout de la
+ * transacción, y hasta el DataSource, que lo aplica como query timeout de cada sentencia JDBC.
+ */
+public record Plazo(long limiteNanos) {
+
+    private static final ThreadLocal<Plazo> ACTUAL = new ThreadLocal<>();
+
+    /**
+     * Plazo que vence dentro de la duración indicada
+     */
+    public static Plazo en(Duration duracion) {
+        return new Plazo(System.nanoTime() + duracion.toNanos());
+    }
+
+    /**
+     * Plazo del hilo actual o null si la solicitud no tiene plazo
+     */
+    public static Plazo actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Asignar el plazo del hilo actual; null lo elimina
+     */
+    public static void establecer(Plazo plazo) {
+        if (plazo == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(plazo);
+        }
+    }
+
+    /**
+     * Ejecutar la tarea con el plazo indicado (null = sin plazo), restaurando el anterior al terminar
+     */
+    public static <T> T ejecutar(Plazo plazo, Supplier<T> tarea) {
+        Plazo anterior = ACTUAL.get();
+        establecer(plazo);
+        try {
+            return tarea.get();
+        } finally {
+            establecer(anterior);
+        }
+    }
+
+    /**
+     * Abandonar el trabajo si el plazo del hilo actual ya venció
+     */
+    public static void verificarActual() {
+        Plazo plazo = ACTUAL.get();
+        if (plazo != null && plazo.vencido()) {
+            throw new PlazoExcedidoException();
+        }
+    }
+
+    public Duration restante() {
+        return Duration.ofNanos(limiteNanos - System.nanoTime());
+    }
+
+    public boolean vencido() {
+        return limiteNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Segundos restantes redondeados hacia arriba (la resolución del timeout de JDBC y de las transacciones)
+     */
+    public int segundosRestantes() {
+        long nanos = limiteNanos - System.nanoTime();
+        if (nanos <= 0) {
+            throw new PlazoExcedidoException();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (nanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
@@ -0,0 +1,302 @@
+package com.rti.prueba.service.replica;
+
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.exception.ClienteServiceException;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.analitica.ClientesCreadosEvent;
+import com.rti.prueba.service.bulkhead.ContextoTrabajo;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import com.rti.prueba.service.cache.InvalidacionCliente;
+import com.rti.prueba.service.cache.TransporteInvalidacion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static com.rti.prueba.service.ClienteReglas.calcularEdad;
+
+/**
+ * Réplica completa de la tabla de clientes en memoria, indexada por número de documento y por correo electrónico.
+ * Se carga al arrancar con un recorrido en paralelo por tramos de documentos y se reconcilia periódicamente con una
+ * recarga completa que reemplaza ambos índices a la vez. Las escrituras se aplican después del commit releyendo de la
+ * base de datos los clientes afectados, tanto las de este nodo como las recibidas de otros nodos, salvo que el evento
+ * ya traiga las filas confirmadas.
+ * Las lecturas no toman bloqueos; un documento que no está en la réplica se consulta en la base de datos, que sigue
+ * siendo la fuente de verdad.
+ */
+@Slf4j
+@Component
+public class ReplicaClientes {
+
+    private final ClienteJPA clienteJPA;
+    private final ClienteMapper clienteMapper;
+    private final ClientesProperties.Replica config;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService remotas = Executors.newSingleThreadExecutor(tarea -> {
+        Thread hilo = new Thread(tarea, "replica-remota");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+    private final Set<String> escritasDuranteCarga = ConcurrentHashMap.newKeySet();
+    private final Counter aciertos;
+    private final Counter fallos;
+    private volatile Indices indices = new Indices();
+    private volatile boolean cargada;
+    private volatile boolean cargando;
+
+    public ReplicaClientes(ClienteJPA clienteJPA, ClienteMapper clienteMapper, PlatformTransactionManager transactionManager,
+                           TransporteInvalidacion transporte, ClientesProperties clientesProperties,
+                           MeterRegistry meterRegistry) {
+        this.clienteJPA = clienteJPA;
+        this.clienteMapper = clienteMapper;
+        this.config = clientesProperties.getReplica();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Las escrituras se aplican tras el commit, fuera de la transacción que las produjo
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.aciertos = Counter.builder("clientes.replica.solicitudes").tag("resultado", "acierto").register(meterRegistry);
+        this.fallos = Counter.builder("clientes.replica.solicitudes").tag("resultado", "fallo").register(meterRegistry);
+        Gauge.builder("clientes.replica.clientes", this, replica -> replica.indices.porDocumento().size()).register(meterRegistry);
+        transporte.alRecibir(invalidaciones -> {
+            if (config.isHabilitada()) {
+                remotas.execute(() -> aplicar(documentos(invalidaciones), null));
+            }
+        });
+    }
+
+    /**
+     * Si la réplica está habilitada y terminó su primera carga
+     */
+    public boolean activa() {
+        return config.isHabilitada() && cargada;
+    }
+
+    /**
+     * Copia del cliente con la edad recalculada o null si no está en la réplica
+     */
+    public ClienteResponseDTO obtener(String numeroDocumento) {
+        ClienteResponseDTO cliente = indices.porDocumento().get(numeroDocumento);
+        return copia(cliente);
+    }
+
+    /**
+     * Copia del cliente con ese correo electrónico o null si no está en la réplica
+     */
+    public ClienteResponseDTO obtenerPorCorreo(String correoElectronico) {
+        Indices actuales = indices;
+        String numeroDocumento = actuales.documentoPorCorreo().get(correoElectronico);
+        return copia(numeroDocumento == null ? null : actuales.porDocumento().get(numeroDocumento));
+    }
+
+    /**
+     * Número de clientes en la réplica
+     */
+    public int tamano() {
+        return indices.porDocumento().size();
+    }
+
+    /**
+     * Recargar la réplica completa: cada tramo de documentos se lee en paralelo con su propio cursor y el resultado
+     * reemplaza a la vez ambos índices. Las escrituras aplicadas mientras tanto se vuelven a aplicar al terminar.
+     */
+    public synchronized void cargar() {
+        long inicio = System.nanoTime();
+        cargando = true;
+        try {
+            Indices nuevos = new Indices();
+            List<String> limites = limitesTramos(Math.max(1, config.getParalelismo()));
+            AtomicInteger numeroHilo = new AtomicInteger();
+            ExecutorService lectores = Executors.newFixedThreadPool(limites.size(), tarea -> {
+                Thread hilo = new Thread(tarea, "replica-carga-" + numeroHilo.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            try {
+                List<CompletableFuture<Void>> tramos = new ArrayList<>();
+                for (int i = 0; i < limites.size(); i++) {
+                    String desde = limites.get(i);
+                    String hasta = i + 1 < limites.size() ? limites.get(i + 1) : null;
+                    tramos.add(CompletableFuture.runAsync(() -> ContextoTrabajo.ejecutar(ClaseTrabajo.MASIVA, () ->
+                            transactionTemplate.execute(status -> {
+                                try (Stream<ClienteFilaReplica> filas = clienteJPA.streamFilasReplica(desde, hasta)) {
+                                    filas.forEach(fila -> guardar(nuevos, fila));
+                                }
+                                return null;
+                            })), lectores));
+                }
+                CompletableFuture.allOf(tramos.toArray(CompletableFuture[]::new)).join();
+            } catch (RuntimeException e) {
+                throw new ClienteServiceException("Error cargando la réplica de clientes", e.getCause() != null ? e.getCause() : e);
+            } finally {
+                lectores.shutdownNow();
+            }
+
+            indices = nuevos;
+            cargada = true;
+        } finally {
+            cargando = false;
+        }
+        List<String> pendientes = List.copyOf(escritasDuranteCarga);
+        escritasDuranteCarga.removeAll(pendientes);
+        aplicar(pendientes, null);
+        log.info("Réplica de clientes cargada: {} clientes en {} ms", tamano(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (config.isHabilitada()) {
+            cargar();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${clientes.replica.intervalo-reconciliacion:PT30M}",
+            initialDelayString = "${clientes.replica.intervalo-reconciliacion:PT30M}")
+    public void reconciliar() {
+        if (config.isHabilitada()) {
+            cargar();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCrearClientes(ClientesCreadosEvent evento) {
+        if (config.isHabilitada()) {
+            aplicar(evento.numerosDocumento(), evento.filas());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarClientes(ClientesModificadosEvent evento) {
+        if (config.isHabilitada()) {
+            aplicar(documentos(evento.invalidaciones()), evento.filas());
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        remotas.shutdownNow();
+    }
+
+    /**
+     * Reemplazar en la réplica los clientes escritos con sus filas confirmadas (releídas si son null);
+     * los que ya no existen se eliminan
+     */
+    private void aplicar(List<String> numerosDocumento, List<ClienteFilaReplica> confirmadas) {
+        if (numerosDocumento.isEmpty()) {
+            return;
+        }
+        if (cargando) {
+            escritasDuranteCarga.addAll(numerosDocumento);
+        }
+        Indices actuales = indices;
+        try {
+            List<ClienteFilaReplica> filas = confirmadas != null ? confirmadas
+                    : transactionTemplate.execute(status -> clienteJPA.buscarFilasReplica(numerosDocumento));
+            Set<String> encontrados = new HashSet<>();
+            for (ClienteFilaReplica fila : filas) {
+                guardar(actuales, fila);
+                encontrados.add(fila.numeroDocumento());
+            }
+            for (String numeroDocumento : numerosDocumento) {
+                if (!encontrados.contains(numeroDocumento)) {
+                    eliminar(actuales, numeroDocumento);
+                }
+            }
+        } catch (RuntimeException e) {
+            // No se puede servir una copia que quizá ya no es la vigente: se retira hasta la reconciliación
+            numerosDocumento.forEach(numeroDocumento -> eliminar(actuales, numeroDocumento));
+            log.warn("No se pudieron aplicar {} escrituras a la réplica de clientes", numerosDocumento.size(), e);
+        }
+    }
+
+    /**
+     * Primer documento de cada tramo; el primero es la cadena vacía para incluir cualquier documento
+     */
+    private List<String> limitesTramos(int tramos) {
+        long total = transactionTemplate.execute(status -> clienteJPA.count());
+        List<String> limites = new ArrayList<>();
+        limites.add("");
+        long tamanoTramo = total / tramos;
+        for (int i = 1; i < tramos && tamanoTramo > 0; i++) {
+            int posicion = (int) (i * tamanoTramo);
+            List<String> documento = transactionTemplate.execute(status ->
+                    clienteJPA.buscarDocumentosOrdenados(PageRequest.of(posicion, 1)));
+            if (!documento.isEmpty() && documento.get(0).compareTo(limites.get(limites.size() - 1)) > 0) {
+                limites.add(documento.get(0));
+            }
+        }
+        return limites;
+    }
+
+    private void guardar(Indices destino, ClienteFilaReplica fila) {
+        ClienteResponseDTO nuevo = clienteMapper.filaReplicaToResponseDTO(fila);
+        destino.porDocumento().compute(fila.numeroDocumento(), (numeroDocumento, actual) -> {
+            if (actual != null && actual.getVersion() != null && nuevo.getVersion() != null
+                    && actual.getVersion() > nuevo.getVersion()) {
+                // Una relectura anterior llegó después de otra más reciente
+                return actual;
+            }
+            if (actual != null && !actual.getCorreoElectronico().equals(nuevo.getCorreoElectronico())) {
+                destino.documentoPorCorreo().remove(actual.getCorreoElectronico(), numeroDocumento);
+            }
+            destino.documentoPorCorreo().put(nuevo.getCorreoElectronico(), numeroDocumento);
+            return nuevo;
+        });
+    }
+
+    private static void eliminar(Indices destino, String numeroDocumento) {
+        destino.porDocumento().computeIfPresent(numeroDocumento, (documento, actual) -> {
+            destino.documentoPorCorreo().remove(actual.getCorreoElectronico(), documento);
+            return null;
+        });
+    }
+
+    private ClienteResponseDTO copia(ClienteResponseDTO cliente) {
+        if (cliente == null) {
+            fallos.increment();
+            return null;
+        }
+        aciertos.increment();
+        ClienteResponseDTO copia = clienteMapper.copiar(cliente);
+        copia.setEdad(calcularEdad(copia.getFechaNacimiento()));
+        return copia;
+    }
+
+    private static List<String> documentos(List<InvalidacionCliente> invalidaciones) {
+        return invalidaciones.stream().map(InvalidacionCliente::numeroDocumento).distinct().toList();
+    }
+
+    /**
+     * Índices de la réplica; una recarga completa los reemplaza juntos
+     */
+    private record Indices(Map<String, ClienteResponseDTO> porDocumento, Map<String, String> documentoPorCorreo) {
+        Indices() {
+            this(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.rti.prueba.service.tiempos;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Tiempos por fase de una solicitud muestreada (validación, servicio, cada consulta de ClienteJPA, mapper y
+ * serialización) y sentencias SQL ejecutadas. Viaja con el hilo, como el plazo, hasta los ejecutores de los
+ * bulkheads; sin medición en curso los puntos de instrumentación solo consultan el ThreadLocal.
+ */
+public final class TiemposSolicitud {
+
+    private static final ThreadLocal<TiemposSolicitud> ACTUAL = new ThreadLocal<>();
+
+    private final long inicio = System.nanoTime();
+    private final Map<String, Fase> fases = new LinkedHashMap<>();
+    private int sentencias;
+    private long inicioSerializacion;
+
+    /**
+     * Medición del hilo actual o null si la solicitud no se mide
+     */
+    public static TiemposSolicitud actual() {
+        return ACTUAL.get();
+    }
+
+    /**
+     * Asignar la medición del hilo actual; null la elimina
+     */
+    public static void establecer(TiemposSolicitud tiempos) {
+        if (tiempos == null) {
+            ACTUAL.remove();
+        } else {
+            ACTUAL.set(tiempos);
+        }
+    }
+
+    /**
+     * Ejecutar la tarea con la medición indicada (null = sin medición), restaurando la anterior al terminar
+     */
+    public static <T> T ejecutar(TiemposSolicitud tiempos, Supplier<T> tarea) {
+        TiemposSolicitud anterior = ACTUAL.get();
+        establecer(tiempos);
+        try {
+            return tarea.get();
+        } finally {
+            establecer(anterior);
+        }
+    }
+
+    /**
+     * Sumar la duración de una ejecución de la fase
+     */
+    public synchronized void registrar(String fase, long nanos) {
+        Fase acumulada = fases.computeIfAbsent(fase, nombre -> new Fase());
+        acumulada.nanos += nanos;
+        acumulada.llamadas++;
+    }
+
+    public synchronized void contarSentencia() {
+        sentencias++;
+    }
+
+    /**
+     * Marcar el comienzo de la escritura del cuerpo de la respuesta; termina al completar la solicitud
+     */
+    public synchronized void iniciarSerializacion() {
+        inicioSerializacion = System.nanoTime();
+    }
+
+    /**
+     * Valor de la cabecera Server-Timing, en milisegundos. Las fases anidadas se incluyen en su contenedora:
+     * servicio contiene jpa-* y mapper; total cubre la solicitud completa.
+     */
+    public synchronized String cabecera() {
+        long fin = System.nanoTime();
+        StringJoiner cabecera = new StringJoiner(", ");
+        fases.forEach((nombre, fase) -> cabecera.add(metrica(nombre, fase.nanos)
+                + (fase.llamadas > 1 ? ";desc=\"" + fase.llamadas + " llamadas\"" : "")));
+        if (inicioSerializacion > 0) {
+            cabecera.add(metrica("serializacion", fin - inicioSerializacion));
+        }
+        cabecera.add("sql;desc=\"" + sentencias + " sentencias\"");
+        cabecera.add(metrica("total", fin - inicio));
+        return cabecera.toString();
+    }
+
+    public synchronized int getSentencias() {
+        return sentencias;
+    }
+
+    private static String metrica(String nombre, long nanos) {
+        return nombre + ";dur=" + String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    private static final class Fase {
+        private long nanos;
+        private int llamadas;
+    }
+}
@@ -0,0 +1,117 @@
+-- ========================================
+-- Datos de ejemplo de la Plataforma de Gestión de Clientes
+-- Se ejecuta después del primer arranque, cuando las migraciones ya crearon las tablas
+-- ========================================
+
+USE plataforma_clientes;
+
+-- Insertar datos de ejemplo para pruebas
+INSERT INTO clientes (
+    numero_documento, 
+    nombre, 
+    apellidos, 
+    fecha_nacimiento, 
+    ciudad, 
+    correo_electronico, 
+    telefono, 
+    ocupacion,
+    es_viable
+) VALUES 
+(
+    '12345678', 
+    'Juan Carlos', 
+    'García Pérez', 
+    '1985-03-15', 
+    'Bogotá', 
+    'juan.garcia@email.com', 
+    '+57 300 123 4567', 
+    'Empleado',
+    TRUE
+),
+(
+    '87654321', 
+    'María Elena', 
+    'Rodríguez López', 
+    '1978-08-22', 
+    'Medellín', 
+    'maria.rodriguez@email.com', 
+    '+57 310 987 6543', 
+    'Independiente',
+    TRUE
+),
+(
+    '11223344', 
+    'Carlos Alberto', 
+    'Martínez Silva', 
+    '1993-12-10', 
+    'Cali', 
+    'carlos.martinez@email.com', 
+    '+57 320 456 7890', 
+    'Pensionado',
+    TRUE
+),
+(
+    '55667788', 
+    'Ana Sofía', 
+    'Hernández Castro', 
+    '1992-06-05', 
+    'Barranquilla', 
+    'ana.hernandez@email.com', 
+    '+57 315 234 5678', 
+    'Empleado',
+    TRUE
+),
+(
+    '99887766', 
+    'Luis Fernando', 
+    'Gómez Vargas', 
+    '1983-09-18', 
+    'Cartagena', 
+    'luis.gomez@email.com', 
+    '+57 312 567 8901', 
+    'Independiente',
+    TRUE
+),
+(
+    '13579024', 
+    'Pedro', 
+    'González Ruiz', 
+    '1950-05-20', 
+    'Bucaramanga', 
+    'pedro.gonzalez@email.com', 
+    '+57 318 111 2222', 
+    'Pensionado',
+    FALSE
+),
+(
+    '24681357', 
+    'Sofía', 
+    'Morales Vega', 
+    '2010-11-15', 
+    'Pereira', 
+    'sofia.morales@email.com', 
+    '+57 319 333 4444', 
+    'Empleado',
+    FALSE
+);
+
+-- Mostrar estructura de la tabla
+DESCRIBE clientes;
+
+-- Mostrar los datos insertados
+SELECT 
+    numero_documento,
+    nombre,
+    apellidos,
+    fecha_nacimiento,
+    ciudad,
+    correo_electronico,
+    telefono,
+    ocupacion,
+    es_viable,
+    YEAR(CURDATE()) - YEAR(fecha_nacimiento) - (DATE_FORMAT(CURDATE(), '%m%d') < DATE_FORMAT(fecha_nacimiento, '%m%d')) AS edad
+FROM clientes
+ORDER BY nombre;
+
+-- Mensaje de confirmación
+SELECT 'Datos de ejemplo cargados exitosamente' AS status;
@@ -0,0 +1,28 @@
+-- ========================================
+-- Esquema inicial de la Plataforma de Gestión de Clientes
+-- Exactamente la tabla que creaba database/init_database.sql antes de las migraciones: las bases existentes se
+-- registran como línea base en esta versión (spring.flyway.baseline-on-migrate) sin volver a ejecutarla, y las
+-- versiones siguientes les añaden lo que falte
+-- ========================================
+
+CREATE TABLE clientes (
+    numero_documento VARCHAR(20) NOT NULL PRIMARY KEY COMMENT 'Número de documento del cliente',
+    nombre VARCHAR(100) NOT NULL COMMENT 'Nombre del cliente',
+    apellidos VARCHAR(150) NOT NULL COMMENT 'Apellidos del cliente',
+    fecha_nacimiento DATE NOT NULL COMMENT 'Fecha de nacimiento del cliente',
+    ciudad VARCHAR(100) NOT NULL COMMENT 'Ciudad de residencia',
+    correo_electronico VARCHAR(255) NOT NULL UNIQUE COMMENT 'Correo electrónico del cliente',
+    telefono VARCHAR(20) NOT NULL COMMENT 'Número de teléfono',
+    ocupacion ENUM('Empleado', 'Independiente', 'Pensionado') NOT NULL COMMENT 'Tipo de ocupación',
+    es_viable BOOLEAN NOT NULL DEFAULT FALSE COMMENT 'Indica si el cliente está en edad productiva (18-65 años)',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT 'Fecha de creación del registro',
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'Fecha de última actualización',
+
+    INDEX idx_nombre (nombre),
+    INDEX idx_apellidos (apellidos),
+    INDEX idx_ciudad (ciudad),
+    INDEX idx_correo (correo_electronico)
+) ENGINE=InnoDB
+  DEFAULT CHARSET=utf8mb4
+  COLLATE=utf8mb4_unicode_ci
+  COMMENT='Tabla de clientes del sistema';
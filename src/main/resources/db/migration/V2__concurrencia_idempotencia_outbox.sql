@@ -0,0 +1,38 @@
+-- ========================================
+-- Concurrencia optimista, idempotencia y outbox transaccional
+-- IF NOT EXISTS para aplicarla también sobre bases en las que ddl-auto=update ya creó alguna de estas estructuras
+-- ========================================
+
+-- Versión para las actualizaciones condicionales; las filas existentes empiezan en 0
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0 COMMENT 'Versión para control de concurrencia optimista';
+
+-- Claves de idempotencia de las solicitudes POST (clientes.idempotencia.almacen=base-datos)
+CREATE TABLE IF NOT EXISTS idempotencia_solicitudes (
+    clave VARCHAR(255) NOT NULL PRIMARY KEY COMMENT 'Valor de la cabecera Idempotency-Key',
+    huella VARCHAR(64) NOT NULL COMMENT 'SHA-256 del método, la ruta y el cuerpo de la solicitud original',
+    estado VARCHAR(20) NOT NULL COMMENT 'EN_CURSO o COMPLETADA',
+    status INT NULL COMMENT 'Código HTTP de la respuesta guardada',
+    content_type VARCHAR(255) NULL COMMENT 'Content-Type de la respuesta guardada',
+    location VARCHAR(500) NULL COMMENT 'Cabecera Location de la respuesta guardada',
+    cuerpo LONGBLOB NULL COMMENT 'Cuerpo de la respuesta guardada',
+    expira_en TIMESTAMP(6) NOT NULL COMMENT 'Vencimiento de la clave',
+
+    INDEX idx_idempotencia_expira (expira_en)
+) ENGINE=InnoDB
+  DEFAULT CHARSET=utf8mb4
+  COLLATE=utf8mb4_unicode_ci
+  COMMENT='Claves de idempotencia y respuestas guardadas';
+
+-- Outbox transaccional de eventos de clientes; el relevo lo consume con SELECT ... FOR UPDATE SKIP LOCKED
+CREATE SEQUENCE IF NOT EXISTS clientes_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS clientes_outbox (
+    id BIGINT NOT NULL PRIMARY KEY COMMENT 'Identificador creciente asignado desde clientes_outbox_seq',
+    numero_documento VARCHAR(20) NOT NULL COMMENT 'Documento del cliente modificado',
+    operacion VARCHAR(20) NOT NULL COMMENT 'CREACION, ACTUALIZACION o ELIMINACION',
+    carga LONGTEXT NOT NULL COMMENT 'Cambio serializado en JSON',
+    creado_en TIMESTAMP(6) NOT NULL COMMENT 'Instante de la transacción que produjo el evento'
+) ENGINE=InnoDB
+  DEFAULT CHARSET=utf8mb4
+  COLLATE=utf8mb4_unicode_ci
+  COMMENT='Eventos de clientes pendientes de publicar';
@@ -0,0 +1,19 @@
+-- ========================================
+-- Índices de rendimiento de clientes
+-- IF NOT EXISTS para aplicarla también sobre bases existentes en las que se haya creado alguno a mano
+-- ========================================
+
+-- Consultas de cambios recientes por fecha de modificación (sincronizaciones y reportes externos)
+CREATE INDEX IF NOT EXISTS idx_clientes_updated_at ON clientes (updated_at);
+
+-- Consultas por rango de edad sobre la fecha de nacimiento
+CREATE INDEX IF NOT EXISTS idx_clientes_fecha_nacimiento ON clientes (fecha_nacimiento);
+
+-- Filtros de exportación y operaciones masivas (ClienteFiltroDTO): igualdad en ciudad, ocupación y viabilidad.
+-- InnoDB añade la clave primaria a cada índice secundario, así que el orden por numero_documento de los
+-- recorridos filtrados sale del propio índice sin ordenar
+CREATE INDEX IF NOT EXISTS idx_clientes_ciudad_ocupacion_viable ON clientes (ciudad, ocupacion, es_viable);
+CREATE INDEX IF NOT EXISTS idx_clientes_ocupacion_viable ON clientes (ocupacion, es_viable);
+
+-- idx_ciudad queda cubierto por el prefijo del índice compuesto
+DROP INDEX IF EXISTS idx_ciudad ON clientes;
@@ -0,0 +1,20 @@
+-- ========================================
+-- Historial de auditoría de clientes compartido por todos los nodos
+-- Se escribe en la misma transacción que el cambio, a diferencia del diario local de cada nodo
+-- ========================================
+
+CREATE SEQUENCE IF NOT EXISTS clientes_historial_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS clientes_historial (
+    id BIGINT NOT NULL PRIMARY KEY COMMENT 'Identificador asignado desde clientes_historial_seq',
+    numero_documento VARCHAR(20) NOT NULL COMMENT 'Documento del cliente modificado',
+    operacion VARCHAR(20) NOT NULL COMMENT 'CREACION, ACTUALIZACION o ELIMINACION',
+    campos LONGTEXT NOT NULL COMMENT 'Valores escritos de los campos modificados, en JSON',
+    creado_en TIMESTAMP(6) NOT NULL COMMENT 'Instante de la transacción que produjo el cambio',
+
+    INDEX idx_historial_documento (numero_documento, creado_en, id),
+    INDEX idx_historial_creado_en (creado_en)
+) ENGINE=InnoDB
+  DEFAULT CHARSET=utf8mb4
+  COLLATE=utf8mb4_unicode_ci
+  COMMENT='Historial de cambios de clientes para auditoría';
@@ -0,0 +1,23 @@
+-- ========================================
+-- Estado de las exportaciones asíncronas compartido por todos los nodos
+-- Los archivos se escriben en clientes.exportacion.directorio, un volumen común a los nodos
+-- ========================================
+
+CREATE TABLE IF NOT EXISTS clientes_exportaciones (
+    id VARCHAR(36) NOT NULL PRIMARY KEY COMMENT 'Identificador público de la exportación',
+    formato VARCHAR(10) NOT NULL COMMENT 'CSV o NDJSON',
+    estado VARCHAR(20) NOT NULL COMMENT 'EN_COLA, EN_PROCESO, COMPLETADA o FALLIDA',
+    total_filas BIGINT NOT NULL COMMENT 'Filas que cumplen el filtro al empezar',
+    filas_procesadas BIGINT NOT NULL COMMENT 'Filas escritas en el último avance registrado',
+    bytes BIGINT NOT NULL COMMENT 'Tamaño del archivo comprimido',
+    archivo VARCHAR(255) NULL COMMENT 'Nombre del archivo dentro del directorio de exportaciones',
+    error VARCHAR(1000) NULL COMMENT 'Causa del fallo',
+    creada_en TIMESTAMP(6) NOT NULL COMMENT 'Instante de la solicitud',
+    actualizada_en TIMESTAMP(6) NOT NULL COMMENT 'Último avance registrado; la retención se cuenta desde aquí',
+    finalizada_en TIMESTAMP(6) NULL COMMENT 'Instante en que terminó, con éxito o con fallo',
+
+    INDEX idx_exportaciones_actualizada_en (actualizada_en)
+) ENGINE=InnoDB
+  DEFAULT CHARSET=utf8mb4
+  COLLATE=utf8mb4_unicode_ci
+  COMMENT='Exportaciones asíncronas de clientes';
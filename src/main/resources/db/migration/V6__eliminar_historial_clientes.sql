@@ -0,0 +1,8 @@
+-- ========================================
+-- El historial de auditoría vuelve a ser solo el diario de cambios de cada nodo: una fila de auditoría por
+-- cambio en la base de datos duplicaba la carga de escritura
+-- ========================================
+
+DROP TABLE IF EXISTS clientes_historial;
+
+DROP SEQUENCE IF EXISTS clientes_historial_seq;
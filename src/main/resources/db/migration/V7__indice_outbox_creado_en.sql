@@ -0,0 +1,7 @@
+-- ========================================
+-- Retraso del relevo del outbox
+-- ========================================
+
+-- El retraso es la antigüedad del evento pendiente más antiguo: MIN(creado_en) se resuelve desde el índice.
+-- Los ids se asignan por bloques en cada nodo y el menor id no es necesariamente el evento más antiguo
+CREATE INDEX IF NOT EXISTS idx_clientes_outbox_creado_en ON clientes_outbox (creado_en);
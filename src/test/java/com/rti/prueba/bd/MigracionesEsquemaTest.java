@@ -0,0 +1,139 @@
+package com.rti.prueba.bd;
+
+import com.rti.prueba.PruebaApplication;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.enums.Ocupacion;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las migraciones de db/migration se aplican sobre una base H2 en modo MariaDB y el esquema resultante pasa la
+ * validación de Hibernate (ddl-auto=validate), como en el arranque de producción, tanto sobre una base vacía como
+ * sobre una base existente con el esquema anterior a las migraciones
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migraciones;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+@DisplayName("Migraciones de Esquema Tests")
+class MigracionesEsquemaTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Test
+    @DisplayName("Given_baseVacia_When_arrancar_Then_migracionesAplicadasYEsquemaValidado")
+    void given_baseVacia_when_arrancar_then_migracionesAplicadasYEsquemaValidado() {
+        // When
+        MigrationInfo[] aplicadas = flyway.info().applied();
+
+        // Then
+        assertThat(Arrays.stream(aplicadas).map(info -> info.getVersion().getVersion()))
+                .containsExactly("1", "2", "3", "4", "5", "6", "7");
+        assertThat(aplicadas).extracting(MigrationInfo::getState).containsOnly(MigrationState.SUCCESS);
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given_migraciones_When_consultarIndices_Then_indicesDeRendimientoSinIndiceRedundante")
+    void given_migraciones_when_consultarIndices_then_indicesDeRendimientoSinIndiceRedundante() {
+        // When
+        var indices = jdbcTemplate.queryForList("SELECT LOWER(index_name) FROM information_schema.indexes "
+                + "WHERE LOWER(table_name) = 'clientes'", String.class);
+
+        // Then
+        assertThat(indices)
+                .contains("idx_clientes_updated_at", "idx_clientes_fecha_nacimiento",
+                        "idx_clientes_ciudad_ocupacion_viable", "idx_clientes_ocupacion_viable")
+                .doesNotContain("idx_ciudad");
+        assertThat(jdbcTemplate.queryForList("SELECT LOWER(index_name) FROM information_schema.indexes "
+                + "WHERE LOWER(table_name) = 'clientes_outbox'", String.class))
+                .contains("idx_clientes_outbox_creado_en");
+    }
+
+    @Test
+    @DisplayName("Given_esquemaMigrado_When_guardarCliente_Then_seLeeConOcupacionYVersion")
+    void given_esquemaMigrado_when_guardarCliente_then_seLeeConOcupacionYVersion() {
+        // Given
+        ClienteORM cliente = new ClienteORM();
+        cliente.setNumeroDocumento("12345678");
+        cliente.setNombre("Juan");
+        cliente.setApellidos("Pérez");
+        cliente.setFechaNacimiento(LocalDate.of(1990, 5, 15));
+        cliente.setCiudad("Bogotá");
+        cliente.setCorreoElectronico("juan@email.com");
+        cliente.setTelefono("3001234567");
+        cliente.setOcupacion(Ocupacion.PENSIONADO);
+        cliente.setEsViable(true);
+
+        // When
+        clienteJPA.saveAndFlush(cliente);
+
+        // Then
+        assertThat(jdbcTemplate.queryForObject("SELECT ocupacion FROM clientes WHERE numero_documento = '12345678'",
+                String.class)).isEqualTo("Pensionado");
+        assertThat(clienteJPA.findById("12345678")).hasValueSatisfying(leido -> {
+            assertThat(leido.getOcupacion()).isEqualTo(Ocupacion.PENSIONADO);
+            assertThat(leido.getVersion()).isZero();
+        });
+    }
+
+    @Test
+    @DisplayName("Given_baseConEsquemaAnterior_When_arrancar_Then_lineaBaseEnV1MigradaYEsquemaValidado")
+    void given_baseConEsquemaAnterior_when_arrancar_then_lineaBaseEnV1MigradaYEsquemaValidado() throws SQLException {
+        // Given
+        String url = "jdbc:h2:mem:esquema-anterior;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        try (Connection conexion = DriverManager.getConnection(url, "sa", "");
+             Statement sentencia = conexion.createStatement()) {
+            sentencia.execute("RUNSCRIPT FROM 'classpath:db/esquema_anterior.sql'");
+
+            // When
+            try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(PruebaApplication.class)
+                    .profiles("test")
+                    .run("--spring.datasource.url=" + url,
+                            "--spring.flyway.enabled=true",
+                            "--spring.jpa.hibernate.ddl-auto=validate",
+                            "--server.port=0")) {
+
+                // Then
+                MigrationInfo[] aplicadas = contexto.getBean(Flyway.class).info().applied();
+                assertThat(aplicadas).extracting(info -> info.getVersion().getVersion())
+                        .containsExactly("1", "2", "3", "4", "5", "6", "7");
+                assertThat(aplicadas[0].getState()).isEqualTo(MigrationState.BASELINE);
+                assertThat(contexto.getBean(ClienteJPA.class).findById("12345678")).hasValueSatisfying(leido -> {
+                    assertThat(leido.getOcupacion()).isEqualTo(Ocupacion.EMPLEADO);
+                    assertThat(leido.getVersion()).isZero();
+                });
+                assertThat(contexto.getBean(JdbcTemplate.class).queryForObject(
+                        "SELECT COUNT(*) FROM clientes_outbox", Integer.class)).isZero();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.rti.prueba.bd;
+
+import com.rti.prueba.exception.PlazoExcedidoException;
+import com.rti.prueba.service.plazo.Plazo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("PlazoJpaTransactionManager Tests")
+class PlazoJpaTransactionManagerTest {
+
+    private final PlazoJpaTransactionManager transactionManager = new PlazoJpaTransactionManager();
+
+    @Nested
+    @DisplayName("Timeout de la transacción")
+    class TimeoutTests {
+
+        @Test
+        @DisplayName("Given_sinPlazo_When_determineTimeout_Then_timeoutPorDefecto")
+        void given_sinPlazo_when_determineTimeout_then_timeoutPorDefecto() {
+            assertThat(transactionManager.determineTimeout(new DefaultTransactionDefinition()))
+                    .isEqualTo(TransactionDefinition.TIMEOUT_DEFAULT);
+        }
+
+        @Test
+        @DisplayName("Given_plazo_When_determineTimeout_Then_segundosRestantesRedondeadosHaciaArriba")
+        void given_plazo_when_determineTimeout_then_segundosRestantesRedondeadosHaciaArriba() {
+            // Given
+            Plazo plazo = Plazo.en(Duration.ofMillis(2500));
+
+            // When
+            int timeout = Plazo.ejecutar(plazo, () -> transactionManager.determineTimeout(new DefaultTransactionDefinition()));
+
+            // Then
+            assertThat(timeout).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Given_timeoutDeclaradoMenor_When_determineTimeout_Then_prevaleceElDeclarado")
+        void given_timeoutDeclaradoMenor_when_determineTimeout_then_prevaleceElDeclarado() {
+            // Given
+            DefaultTransactionDefinition definicion = new DefaultTransactionDefinition();
+            definicion.setTimeout(1);
+
+            // When
+            int timeout = Plazo.ejecutar(Plazo.en(Duration.ofSeconds(20)), () -> transactionManager.determineTimeout(definicion));
+
+            // Then
+            assertThat(timeout).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given_plazoVencido_When_doBegin_Then_abandonaSinAbrirTransaccion")
+        void given_plazoVencido_when_doBegin_then_abandonaSinAbrirTransaccion() {
+            // Given
+            Plazo vencido = Plazo.en(Duration.ofMillis(-1));
+
+            // When / Then
+            assertThatThrownBy(() -> Plazo.ejecutar(vencido, () -> {
+                transactionManager.doBegin(null, new DefaultTransactionDefinition());
+                return null;
+            })).isInstanceOf(PlazoExcedidoException.class);
+            assertThat(Plazo.actual()).isNull();
+        }
+    }
+}
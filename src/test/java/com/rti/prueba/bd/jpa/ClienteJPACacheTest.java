@@ -0,0 +1,153 @@
+package com.rti.prueba.bd.jpa;
+
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.enums.Ocupacion;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la caché de segundo nivel y de consultas de Hibernate sobre ClienteORM.
+ * Usa regiones propias (prefijo) para no compartir bloqueos de caché con los otros contextos de prueba de la JVM.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.region_prefix=cache-test",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create"
+})
+@ActiveProfiles("test")
+@DisplayName("ClienteJPA Cache Tests")
+class ClienteJPACacheTest {
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        clienteJPA.deleteAll();
+        clienteJPA.save(new ClienteORM("12345678", "Juan Carlos", "Pérez González", LocalDate.of(1990, 5, 15),
+                "Bogotá", "juan.perez@email.com", "3001234567", Ocupacion.EMPLEADO, true,
+                Instant.now(), Instant.now(), null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Given_clienteGuardado_When_findByIdRepetido_Then_noConsultaBaseDeDatos")
+    void given_clienteGuardado_when_findByIdRepetido_then_noConsultaBaseDeDatos() {
+        // When
+        clienteJPA.findById("12345678");
+        clienteJPA.findById("12345678");
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given_busquedaRepetida_When_findByCorreoElectronico_Then_resultadoDesdeCacheDeConsultas")
+    void given_busquedaRepetida_when_findByCorreoElectronico_then_resultadoDesdeCacheDeConsultas() {
+        // When
+        clienteJPA.findByCorreoElectronico("juan.perez@email.com");
+        clienteJPA.findByCorreoElectronico("juan.perez@email.com");
+        clienteJPA.findByNombreContainingIgnoreCaseOrApellidosContainingIgnoreCase("juan", "juan");
+        clienteJPA.findByNombreContainingIgnoreCaseOrApellidosContainingIgnoreCase("juan", "juan");
+
+        // Then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Given_consultaEnCache_When_actualizarCliente_Then_consultaSeInvalida")
+    void given_consultaEnCache_when_actualizarCliente_then_consultaSeInvalida() {
+        // Given
+        clienteJPA.findByCorreoElectronico("juan.perez@email.com");
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            ClienteORM cambios = clienteJPA.findById("12345678").orElseThrow();
+            cambios.setCorreoElectronico("juan.nuevo@email.com");
+            clienteJPA.actualizarSiVersionCoincide(cambios, null);
+        });
+
+        // Then
+        assertThat(clienteJPA.findByCorreoElectronico("juan.perez@email.com")).isEmpty();
+        assertThat(clienteJPA.findByCorreoElectronico("juan.nuevo@email.com")).isPresent();
+        assertThat(clienteJPA.findById("12345678").orElseThrow().getCorreoElectronico()).isEqualTo("juan.nuevo@email.com");
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given_mezclaLecturasYEscrituras_When_actualizarYEliminarClientes_Then_soloSeDesalojanLosEscritos")
+    void given_mezclaLecturasYEscrituras_when_actualizarYEliminarClientes_then_soloSeDesalojanLosEscritos() {
+        // Given - diez clientes en la caché de segundo nivel
+        List<String> documentos = IntStream.range(0, 10).mapToObj(i -> "2000000" + i).toList();
+        documentos.forEach(documento -> clienteJPA.save(new ClienteORM(documento, "Cliente", "Prueba",
+                LocalDate.of(1990, 5, 15), "Bogotá", documento + "@email.com", "3001234567", Ocupacion.EMPLEADO, true,
+                Instant.now(), Instant.now(), null)));
+        documentos.forEach(clienteJPA::findById);
+        statistics.clear();
+
+        // When - cada ronda escribe un cliente y lee todos
+        for (int ronda = 0; ronda < documentos.size(); ronda++) {
+            String escrito = documentos.get(ronda);
+            transactionTemplate.executeWithoutResult(status ->
+                    clienteJPA.actualizarCampos(escrito, Map.of("ciudad", "Cali"), null));
+            documentos.forEach(clienteJPA::findById);
+        }
+        transactionTemplate.executeWithoutResult(status -> clienteJPA.eliminarPorDocumento(documentos.get(0)));
+        documentos.subList(1, documentos.size()).forEach(clienteJPA::findById);
+
+        // Then - por ronda falla solo el cliente escrito (9 de cada 10 lecturas aciertan)
+        long aciertos = statistics.getSecondLevelCacheHitCount();
+        long fallos = statistics.getSecondLevelCacheMissCount();
+        assertThat((double) aciertos / (aciertos + fallos)).isGreaterThanOrEqualTo(0.9);
+        assertThat(clienteJPA.findById(documentos.get(0))).isEmpty();
+        assertThat(clienteJPA.findById(documentos.get(9)).orElseThrow().getCiudad()).isEqualTo("Cali");
+    }
+
+    @Test
+    @DisplayName("Given_entidadObsoletaEnCache_When_buscarSinCacheSegundoNivel_Then_leeLaBaseDeDatosYRefrescaLaCache")
+    void given_entidadObsoletaEnCache_when_buscarSinCacheSegundoNivel_then_leeLaBaseDeDatosYRefrescaLaCache() {
+        // Given - escritura de otro nodo cuya invalidación no llegó: la caché de este nodo conserva el valor anterior
+        clienteJPA.findById("12345678");
+        jdbcTemplate.update("UPDATE clientes SET ciudad = 'Cali' WHERE numero_documento = '12345678'");
+        statistics.clear();
+
+        // When
+        ClienteORM leido = clienteJPA.buscarSinCacheSegundoNivel("12345678").orElseThrow();
+
+        // Then
+        assertThat(leido.getCiudad()).isEqualTo("Cali");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(clienteJPA.findById("12345678").orElseThrow().getCiudad()).isEqualTo("Cali");
+    }
+}
@@ -0,0 +1,132 @@
+package com.rti.prueba.benchmark;
+
+import com.rti.prueba.PruebaApplication;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tiempo de arranque con ddl-auto=update (Hibernate inspecciona y compara el esquema) frente a Flyway con
+ * ddl-auto=validate sobre un esquema grande: las tablas de las migraciones más tablas adicionales en la misma base.
+ * Mide el arranque completo y la creación de los beans entityManagerFactory y flywayInitializer; cada modo se
+ * inicia una vez sin medir para calentar la JVM.
+ * Se ejecuta solo con -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=ArranqueEsquemaBenchmarkTest -Dbenchmark.tablas=2000 -Dbenchmark.columnas=30
+ * -Dbenchmark.arranques=5)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Arranque Esquema Benchmark")
+class ArranqueEsquemaBenchmarkTest {
+
+    private static final String URL = "jdbc:h2:mem:arranque-esquema;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    @DisplayName("Arranque con ddl-auto=update frente a migraciones con ddl-auto=validate sobre un esquema grande")
+    void updateFrenteAValidate() throws Exception {
+        int tablas = Integer.getInteger("benchmark.tablas", 500);
+        int columnas = Integer.getInteger("benchmark.columnas", 20);
+        int arranques = Integer.getInteger("benchmark.arranques", 3);
+
+        try (Connection conexion = DriverManager.getConnection(URL, "sa", "")) {
+            Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+            crearTablasAdicionales(conexion, tablas, columnas);
+
+            Map<String, String[]> modos = new LinkedHashMap<>();
+            modos.put("update", new String[]{"--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update"});
+            modos.put("validate", new String[]{"--spring.flyway.enabled=true", "--spring.jpa.hibernate.ddl-auto=validate"});
+
+            Map<String, Tiempos[]> resultados = new LinkedHashMap<>();
+            modos.forEach((modo, argumentos) -> iniciar(argumentos));
+            modos.keySet().forEach(modo -> resultados.put(modo, new Tiempos[arranques]));
+            for (int i = 0; i < arranques; i++) {
+                for (Map.Entry<String, String[]> modo : modos.entrySet()) {
+                    resultados.get(modo.getKey())[i] = iniciar(modo.getValue());
+                }
+            }
+
+            resultados.forEach((modo, tiempos) -> System.out.printf(
+                    "%-8s %d tablas adicionales de %d columnas, mediana de %d arranques: total %d ms,"
+                            + " entityManagerFactory %d ms, flywayInitializer %d ms%n",
+                    modo, tablas, columnas, arranques, mediana(tiempos, Tiempos::totalMs),
+                    mediana(tiempos, Tiempos::entityManagerFactoryMs), mediana(tiempos, Tiempos::flywayMs)));
+            assertThat(resultados.get("validate")).allSatisfy(tiempos -> assertThat(tiempos.totalMs()).isPositive());
+        }
+    }
+
+    private static void crearTablasAdicionales(Connection conexion, int tablas, int columnas) throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            for (int t = 0; t < tablas; t++) {
+                StringBuilder ddl = new StringBuilder("CREATE TABLE adicional_" + t + " (id BIGINT NOT NULL PRIMARY KEY");
+                for (int c = 0; c < columnas; c++) {
+                    ddl.append(", columna_").append(c).append(" VARCHAR(100)");
+                }
+                sentencia.execute(ddl.append(")").toString());
+                sentencia.execute("CREATE INDEX idx_adicional_" + t + " ON adicional_" + t + " (columna_0)");
+            }
+        }
+    }
+
+    private static Tiempos iniciar(String[] modo) {
+        BufferingApplicationStartup arranque = new BufferingApplicationStartup(20_000);
+        long inicio = System.nanoTime();
+        String[] argumentos = concatenar(modo,
+                "--server.port=0",
+                "--spring.datasource.url=" + URL,
+                "--clientes.diario.habilitado=false",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate.SQL=INFO",
+                "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+                "--logging.level.org.springframework.web=INFO");
+        try (ConfigurableApplicationContext ignorado = new SpringApplicationBuilder(PruebaApplication.class)
+                .profiles("test")
+                .applicationStartup(arranque)
+                .run(argumentos)) {
+            long totalMs = (System.nanoTime() - inicio) / 1_000_000;
+            return new Tiempos(totalMs, duracionBean(arranque, "entityManagerFactory"),
+                    duracionBean(arranque, "flywayInitializer"));
+        }
+    }
+
+    /**
+     * Duración de la creación del bean en milisegundos; 0 si no se creó en este modo
+     */
+    private static long duracionBean(BufferingApplicationStartup arranque, String bean) {
+        return arranque.getBufferedTimeline().getEvents().stream()
+                .filter(evento -> evento.getStartupStep().getName().equals("spring.beans.instantiate"))
+                .filter(evento -> StreamSupport.stream(evento.getStartupStep().getTags().spliterator(), false)
+                        .map(StartupStep.Tag::getValue).anyMatch(bean::equals))
+                .mapToLong(evento -> evento.getDuration().toMillis())
+                .max().orElse(0);
+    }
+
+    private static String[] concatenar(String[] primeros, String... resto) {
+        String[] todos = Arrays.copyOf(primeros, primeros.length + resto.length);
+        System.arraycopy(resto, 0, todos, primeros.length, resto.length);
+        return todos;
+    }
+
+    private static long mediana(Tiempos[] tiempos, ToLongFunction<Tiempos> medida) {
+        long[] valores = Arrays.stream(tiempos).mapToLong(medida).sorted().toArray();
+        return valores[valores.length / 2];
+    }
+
+    private record Tiempos(long totalMs, long entityManagerFactoryMs, long flywayMs) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.rti.prueba.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+/**
+ * Tiempo hasta la primera solicitud exitosa (GET /api/clientes con 200) desde que se lanza el proceso: jar actual
+ * frente al modo de arranque rápido (AOT, CDS, inicialización diferida y autoconfiguración recortada).
+ * Usa los artefactos de mvn -Parranque-rapido package -Dexec.skip=true (el jar y su versión extraída) y repite el
+ * entrenamiento CDS aquí contra una base H2 en modo MariaDB, que se añade al classpath de ambos procesos, para no
+ * depender de una base externa. Los modos se alternan en cada repetición.
+ * Se ejecuta solo con -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=ArranqueRapidoBenchmarkTest -Dbenchmark.arranques=10)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Arranque Rapido Benchmark")
+class ArranqueRapidoBenchmarkTest {
+
+    private static final Path JAR = Path.of("target", "prueba-0.0.1-SNAPSHOT.jar");
+    private static final Path JAR_EXTRAIDO = Path.of("target", "arranque-rapido", "prueba-0.0.1-SNAPSHOT.jar");
+    private static final Duration LIMITE = Duration.ofMinutes(2);
+
+    @TempDir
+    Path directorio;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+    @Test
+    @DisplayName("Tiempo hasta la primera solicitud exitosa con el jar actual y con el modo de arranque rápido")
+    void jarActualFrenteAArranqueRapido() throws Exception {
+        assumeThat(Files.exists(JAR) && Files.exists(JAR_EXTRAIDO))
+                .as("Requiere mvn -Parranque-rapido package -DskipTests -Dexec.skip=true")
+                .isTrue();
+        int arranques = Integer.getInteger("benchmark.arranques", 5);
+        String h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        Path archivoCds = directorio.resolve("prueba.jsa");
+
+        List<String> arranqueRapido = List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=arranque-rapido",
+                "-cp", JAR_EXTRAIDO + File.pathSeparator + h2, "com.rti.prueba.PruebaApplication");
+        Map<String, List<String>> modos = new LinkedHashMap<>();
+        modos.put("jar-actual", List.of("-cp", JAR.toString(), "-Dloader.path=" + h2,
+                "org.springframework.boot.loader.launch.PropertiesLauncher"));
+        modos.put("arranque-rapido", concatenar(List.of("-XX:SharedArchiveFile=" + archivoCds), arranqueRapido));
+
+        List<String> entrenamiento = concatenar(
+                List.of("-XX:ArchiveClassesAtExit=" + archivoCds, "-Dspring.context.exit=onRefresh"), arranqueRapido);
+        Process proceso = lanzar(entrenamiento, "entrenamiento");
+        assertThat(proceso.waitFor(LIMITE.toSeconds(), TimeUnit.SECONDS)).isTrue();
+        assertThat(archivoCds).exists();
+
+        Map<String, long[]> resultados = new LinkedHashMap<>();
+        modos.keySet().forEach(modo -> resultados.put(modo, new long[arranques]));
+        for (int i = 0; i < arranques; i++) {
+            for (Map.Entry<String, List<String>> modo : modos.entrySet()) {
+                resultados.get(modo.getKey())[i] = primeraSolicitudMs(modo.getValue(), modo.getKey() + "-" + i);
+            }
+        }
+
+        resultados.forEach((modo, tiempos) -> {
+            Arrays.sort(tiempos);
+            System.out.printf("%-16s %d arranques hasta la primera solicitud exitosa: mediana %d ms, mín %d ms, máx %d ms%n",
+                    modo, arranques, tiempos[tiempos.length / 2], tiempos[0], tiempos[tiempos.length - 1]);
+        });
+    }
+
+    /**
+     * Lanza el proceso y mide hasta el primer 200 de GET /api/clientes; después lo detiene
+     */
+    private long primeraSolicitudMs(List<String> modo, String nombre) throws Exception {
+        int puerto;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            puerto = socket.getLocalPort();
+        }
+        List<String> argumentos = new ArrayList<>(modo);
+        argumentos.add("--server.port=" + puerto);
+        HttpRequest solicitud = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + "/api/clientes"))
+                .timeout(Duration.ofSeconds(10)).GET().build();
+
+        long inicio = System.nanoTime();
+        Process proceso = lanzar(argumentos, nombre);
+        try {
+            while (System.nanoTime() - inicio < LIMITE.toNanos()) {
+                assertThat(proceso.isAlive()).as("El proceso %s terminó antes de responder", nombre).isTrue();
+                try {
+                    if (httpClient.send(solicitud, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - inicio) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // Todavía sin servidor escuchando
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("Sin respuesta exitosa de " + nombre + " en " + LIMITE);
+        } finally {
+            proceso.destroy();
+            proceso.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static List<String> concatenar(List<String> primeros, List<String> resto) {
+        List<String> todos = new ArrayList<>(primeros);
+        todos.addAll(resto);
+        return todos;
+    }
+
+    private Process lanzar(List<String> argumentosJvm, String nombre) throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(argumentosJvm);
+        comando.addAll(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:arranque;MODE=MariaDB;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--clientes.diario.directorio=" + directorio.resolve("diario-" + nombre),
+                "--clientes.outbox.archivo=" + directorio.resolve("eventos-" + nombre + ".jsonl")));
+        return new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(directorio.resolve(nombre + ".log").toFile())
+                .start();
+    }
+}
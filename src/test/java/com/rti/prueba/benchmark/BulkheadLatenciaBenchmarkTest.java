@@ -0,0 +1,172 @@
+package com.rti.prueba.benchmark;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.enums.Ocupacion;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latencia de las consultas puntuales mientras corren exportaciones y listados completos en paralelo.
+ * La latencia restante con carga es contención de CPU; el bulkhead garantiza que no haya espera por hilos
+ * ni por conexiones. Una versión reducida corre siempre con el resto de las pruebas; la completa, solo con
+ * -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=BulkheadLatenciaBenchmarkTest -Dbenchmark.filas=50000 -Dbenchmark.p99Ms=100)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "clientes.cache-cercana.habilitada=false",
+        "clientes.admision.habilitada=false"
+})
+@ActiveProfiles("test")
+@DisplayName("Bulkhead Latencia Benchmark")
+class BulkheadLatenciaBenchmarkTest {
+
+    private static final String BASE_URL = "/api/clientes";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    @DisplayName("p99 de GET /api/clientes/{id} con exportaciones y listados completos en curso")
+    void latenciaConsultasPuntualesConCargaMasiva() throws Exception {
+        medirConCargaMasiva(Integer.getInteger("benchmark.filas", 20_000), Integer.getInteger("benchmark.consultas", 2_000),
+                Long.getLong("benchmark.p99Ms", 500));
+    }
+
+    @Test
+    @DisplayName("p99 de GET /api/clientes/{id} con carga masiva, a escala reducida")
+    void latenciaConsultasPuntualesConCargaMasivaReducida() throws Exception {
+        medirConCargaMasiva(2_000, 300, 300);
+    }
+
+    private void medirConCargaMasiva(int filas, int consultas, long p99Maximo) throws Exception {
+        poblar(filas);
+
+        long[] sinCarga = medirConsultas(consultas, filas);
+
+        AtomicBoolean activa = new AtomicBoolean(true);
+        AtomicInteger operacionesMasivas = new AtomicInteger();
+        ExecutorService carga = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 2; i++) {
+            carga.submit(() -> {
+                while (activa.get()) {
+                    exportar();
+                    operacionesMasivas.incrementAndGet();
+                }
+            });
+            carga.submit(() -> {
+                while (activa.get()) {
+                    restTemplate.getForEntity(BASE_URL, Map.class);
+                    operacionesMasivas.incrementAndGet();
+                }
+            });
+        }
+
+        long[] conCarga;
+        try {
+            conCarga = medirConsultas(consultas, filas);
+        } finally {
+            activa.set(false);
+            carga.shutdown();
+            carga.awaitTermination(2, TimeUnit.MINUTES);
+        }
+
+        double esperaConexionMs = meterRegistry.get("hikaricp.connections.acquire").tag("pool", "clientes-puntual")
+                .timer().max(TimeUnit.MILLISECONDS);
+        System.out.printf("Consultas puntuales: p50 %d ms / p99 %d ms sin carga, p50 %d ms / p99 %d ms con carga"
+                        + " (%d operaciones masivas, espera máxima de conexión %.1f ms)%n",
+                percentil(sinCarga, 50), percentil(sinCarga, 99), percentil(conCarga, 50), percentil(conCarga, 99),
+                operacionesMasivas.get(), esperaConexionMs);
+        assertThat(operacionesMasivas.get()).isPositive();
+        assertThat(percentil(conCarga, 99)).isLessThanOrEqualTo(p99Maximo);
+        // Las consultas puntuales nunca esperan por conexiones ocupadas por el trabajo masivo
+        assertThat(esperaConexionMs).isLessThan(50);
+    }
+
+    private long[] medirConsultas(int consultas, int filas) {
+        long[] latencias = new long[consultas];
+        for (int i = 0; i < consultas; i++) {
+            String documento = "D" + (i * 7919 % filas);
+            long inicio = System.nanoTime();
+            ResponseEntity<Map> response = restTemplate.getForEntity(BASE_URL + "/" + documento, Map.class);
+            latencias[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        return latencias;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportar() {
+        ResponseEntity<Map> inicio = restTemplate.postForEntity(BASE_URL + "/exports", Map.of("formato", "CSV"), Map.class);
+        if (inicio.getStatusCode() != HttpStatus.ACCEPTED) {
+            return;
+        }
+        String id = (String) ((Map<String, Object>) inicio.getBody().get("data")).get("id");
+        String estado;
+        do {
+            Map<String, Object> data = (Map<String, Object>) restTemplate
+                    .getForEntity(BASE_URL + "/exports/" + id, Map.class).getBody().get("data");
+            estado = (String) data.get("estado");
+        } while ("EN_COLA".equals(estado) || "EN_PROCESO".equals(estado));
+    }
+
+    private void poblar(int filas) {
+        clienteJPA.deleteAll();
+        List<ClienteORM> lote = new ArrayList<>();
+        for (int i = 0; i < filas; i++) {
+            ClienteORM cliente = new ClienteORM();
+            cliente.setNumeroDocumento("D" + i);
+            cliente.setNombre("Nombre");
+            cliente.setApellidos("Apellido Prueba");
+            cliente.setFechaNacimiento(LocalDate.of(1950 + i % 60, 1 + i % 12, 15));
+            cliente.setCiudad("Ciudad" + (i % 50));
+            cliente.setCorreoElectronico("cliente" + i + "@email.com");
+            cliente.setTelefono("300" + (1_000_000 + i % 9_000_000));
+            cliente.setOcupacion(Ocupacion.EMPLEADO);
+            cliente.setEsViable(true);
+            lote.add(cliente);
+            if (lote.size() == 1000) {
+                clienteJPA.saveAll(lote);
+                lote.clear();
+            }
+        }
+        clienteJPA.saveAll(lote);
+    }
+
+    private static long percentil(long[] latencias, int percentil) {
+        long[] ordenadas = Arrays.copyOf(latencias, latencias.length);
+        Arrays.sort(ordenadas);
+        return ordenadas[Math.min(ordenadas.length - 1, (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1)];
+    }
+}
@@ -0,0 +1,108 @@
+package com.rti.prueba.benchmark;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.service.ClienteService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sobrecosto del diario de cambios en el camino de escritura: tiempo de anexado y espera de la sincronización
+ * agrupada frente al tiempo total de cada alta y actualización con varios escritores concurrentes.
+ * Se ejecuta solo con -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=DiarioEscrituraBenchmarkTest -Dbenchmark.escrituras=20000 -Dbenchmark.hilos=16
+ * -Dbenchmark.proporcionMaxima=0.3)
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "clientes.cache-cercana.habilitada=false",
+        "clientes.diario.tamano-segmento=16MB"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Diario Escritura Benchmark")
+class DiarioEscrituraBenchmarkTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Tiempo del diario por escritura y sincronizaciones agrupadas con escritores concurrentes")
+    void sobrecostoDelDiarioEnEscrituras() throws Exception {
+        int escrituras = Integer.getInteger("benchmark.escrituras", 5_000);
+        int hilos = Integer.getInteger("benchmark.hilos", 8);
+        clienteJPA.deleteAll();
+        Timer diario = meterRegistry.get("clientes.diario.escritura").timer();
+        Timer sincronizacion = meterRegistry.get("clientes.diario.sincronizacion").timer();
+        long anexadosAntes = diario.count();
+        long sincronizacionesAntes = sincronizacion.count();
+        double diarioAntes = diario.totalTime(TimeUnit.NANOSECONDS);
+
+        ExecutorService escritores = Executors.newFixedThreadPool(hilos);
+        List<Future<Long>> tiempos = new ArrayList<>();
+        for (int hilo = 0; hilo < hilos; hilo++) {
+            int desde = hilo;
+            tiempos.add(escritores.submit(() -> {
+                long total = 0;
+                for (int i = desde; i < escrituras / 2; i += hilos) {
+                    String documento = "D" + i;
+                    long inicio = System.nanoTime();
+                    clienteService.crearCliente(new ClienteCreateDTO(documento, "Nombre", "Apellido",
+                            LocalDate.of(1980, 1, 1), "Bogotá", documento + "@email.com", "3001234567", Ocupacion.EMPLEADO));
+                    clienteService.actualizarCliente(documento, new ClienteUpdateDTO("Nombre", "Apellido",
+                            LocalDate.of(1980, 1, 1), "Cali", documento + "@email.com", "3001234567", Ocupacion.EMPLEADO));
+                    total += System.nanoTime() - inicio;
+                }
+                return total;
+            }));
+        }
+        long totalEscrituras = 0;
+        for (Future<Long> tiempo : tiempos) {
+            totalEscrituras += tiempo.get();
+        }
+        escritores.shutdown();
+
+        long anexados = diario.count() - anexadosAntes;
+        long sincronizaciones = sincronizacion.count() - sincronizacionesAntes;
+        double totalDiario = diario.totalTime(TimeUnit.NANOSECONDS) - diarioAntes;
+        double proporcion = totalDiario / totalEscrituras;
+        System.out.printf("Diario: %d anexados, %d sincronizaciones en disco (%.1f cambios por sincronización),"
+                        + " %.1f µs medios por escritura, %.1f%% del tiempo total de escritura%n",
+                anexados, sincronizaciones, (double) anexados / Math.max(1, sincronizaciones),
+                totalDiario / anexados / 1_000, proporcion * 100);
+        assertThat(anexados).isEqualTo(escrituras);
+        // Con varios escritores cada sincronización en disco cubre más de un cambio
+        assertThat(sincronizaciones).isLessThan(anexados);
+        // Con H2 en memoria la espera de la sincronización domina; el límite depende del disco y es opcional
+        String proporcionMaxima = System.getProperty("benchmark.proporcionMaxima");
+        if (proporcionMaxima != null) {
+            assertThat(proporcion).isLessThan(Double.parseDouble(proporcionMaxima));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.rti.prueba.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rti.prueba.config.FormatosBinariosConfig;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.enums.Ocupacion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tamaño y coste de codificación y decodificación de la respuesta de GET /api/clientes en JSON, CBOR y Smile
+ * para listas de 1.000 a 100.000 clientes. Se ejecuta solo con -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=FormatosBinariosBenchmarkTest -Dbenchmark.iteraciones=20)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Formatos Binarios Benchmark")
+class FormatosBinariosBenchmarkTest {
+
+    private static final String[] CIUDADES = {"Bogotá", "Medellín", "Cali", "Barranquilla", "Cartagena", "Bucaramanga"};
+    private static final String[] NOMBRES = {"Juan Carlos", "María", "Andrés", "Laura", "Santiago", "Valentina"};
+    private static final String[] APELLIDOS = {"Pérez González", "Rodríguez", "Martínez Silva", "Gómez", "López Díaz"};
+
+    @Test
+    @DisplayName("Bytes y tiempos medianos por formato para listas de clientes")
+    void tamanoYCosteDeLosFormatos() throws Exception {
+        int iteraciones = Integer.getInteger("benchmark.iteraciones", 10);
+        Map<String, ObjectMapper> formatos = new LinkedHashMap<>();
+        formatos.put("JSON", builder().build());
+        formatos.put("CBOR", FormatosBinariosConfig.cbor(builder()));
+        formatos.put("Smile", FormatosBinariosConfig.smile(builder()));
+
+        for (int tamano : new int[]{1_000, 10_000, 100_000}) {
+            Map<String, Object> respuesta = respuesta(tamano);
+            int bytesJson = 0;
+            for (Map.Entry<String, ObjectMapper> formato : formatos.entrySet()) {
+                ObjectMapper mapper = formato.getValue();
+                JavaType tipo = mapper.getTypeFactory().constructType(RespuestaLista.class);
+                long[] codificacion = new long[iteraciones];
+                long[] decodificacion = new long[iteraciones];
+                byte[] bytes = mapper.writeValueAsBytes(respuesta);
+                // Calentamiento
+                for (int i = 0; i < 3; i++) {
+                    mapper.readValue(mapper.writeValueAsBytes(respuesta), tipo);
+                }
+                for (int i = 0; i < iteraciones; i++) {
+                    long inicio = System.nanoTime();
+                    bytes = mapper.writeValueAsBytes(respuesta);
+                    codificacion[i] = System.nanoTime() - inicio;
+                    inicio = System.nanoTime();
+                    RespuestaLista leida = mapper.readValue(bytes, tipo);
+                    decodificacion[i] = System.nanoTime() - inicio;
+                    assertThat(leida.data()).hasSize(tamano);
+                }
+                if (formato.getKey().equals("JSON")) {
+                    bytesJson = bytes.length;
+                } else {
+                    assertThat(bytes.length).isLessThan(bytesJson);
+                }
+                System.out.printf("%7d clientes %-5s: %,11d bytes (%5.1f%% de JSON), codificar %7.2f ms, decodificar %7.2f ms%n",
+                        tamano, formato.getKey(), bytes.length, bytes.length * 100.0 / bytesJson,
+                        mediana(codificacion) / 1e6, mediana(decodificacion) / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Misma configuración de fechas que el Jackson2ObjectMapperBuilder de Spring Boot
+     */
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static Map<String, Object> respuesta(int tamano) {
+        List<ClienteResponseDTO> clientes = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            clientes.add(new ClienteResponseDTO(String.valueOf(10_000_000 + i), NOMBRES[i % NOMBRES.length],
+                    APELLIDOS[i % APELLIDOS.length], LocalDate.of(1950 + i % 50, 1 + i % 12, 1 + i % 28),
+                    CIUDADES[i % CIUDADES.length], "cliente" + i + "@email.com", "300" + (1_000_000 + i),
+                    Ocupacion.values()[i % 3], i % 5 != 0, 20 + i % 50, (long) i % 4));
+        }
+        return Map.of(
+                "success", true,
+                "message", "Clientes obtenidos exitosamente",
+                "data", clientes,
+                "total", clientes.size()
+        );
+    }
+
+    private static long mediana(long[] tiempos) {
+        long[] ordenados = tiempos.clone();
+        Arrays.sort(ordenados);
+        return ordenados[ordenados.length / 2];
+    }
+
+    private record RespuestaLista(boolean success, String message, List<ClienteResponseDTO> data, int total) {
+    }
+}
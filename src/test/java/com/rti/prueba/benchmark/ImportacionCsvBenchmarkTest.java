@@ -0,0 +1,86 @@
+package com.rti.prueba.benchmark;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.controller.dto.ClienteImportResultadoDTO;
+import com.rti.prueba.service.ClienteImportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark de importación CSV sobre H2. Se ejecuta solo con -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=ImportacionCsvBenchmarkTest -Dbenchmark.filas=500000)
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "clientes.importacion.tamano-lote=5000"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Importación CSV Benchmark")
+class ImportacionCsvBenchmarkTest {
+
+    @Autowired
+    private ClienteImportService clienteImportService;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Test
+    @DisplayName("Importar N filas generadas en streaming y reportar filas por segundo")
+    void importarFilasGeneradas() {
+        int filas = Integer.getInteger("benchmark.filas", 200_000);
+        clienteJPA.deleteAll();
+
+        ClienteImportResultadoDTO resultado = clienteImportService.importarCsv(generarCsv(filas));
+
+        System.out.printf("Importación: %d filas en %d ms -> %d filas/s%n",
+                resultado.getFilasLeidas(), resultado.getDuracionMs(), resultado.getFilasPorSegundo());
+        assertThat(resultado.getFilasImportadas()).isEqualTo(filas);
+    }
+
+    /**
+     * Generar el CSV de forma perezosa para no materializar el archivo en memoria
+     */
+    private InputStream generarCsv(int filas) {
+        String encabezado = "numeroDocumento,nombre,apellidos,fechaNacimiento,ciudad,correoElectronico,telefono,ocupacion\n";
+        String[] ocupaciones = {"Empleado", "Independiente", "Pensionado"};
+        Enumeration<InputStream> partes = new Enumeration<>() {
+            private int siguiente = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return siguiente < filas;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                String texto;
+                if (siguiente < 0) {
+                    texto = encabezado;
+                } else {
+                    int i = siguiente;
+                    texto = "D" + i + ",Nombre,Apellido Prueba," + (1950 + i % 60) + "-0" + (1 + i % 9) + "-15,Ciudad"
+                            + (i % 50) + ",cliente" + i + "@email.com,300" + (1_000_000 + i % 9_000_000) + ","
+                            + ocupaciones[i % 3] + "\n";
+                }
+                siguiente++;
+                return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        return new SequenceInputStream(partes);
+    }
+}
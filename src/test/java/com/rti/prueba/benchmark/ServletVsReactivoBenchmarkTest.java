@@ -0,0 +1,315 @@
+package com.rti.prueba.benchmark;
+
+import com.rti.prueba.PruebaApplication;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.lang.NonNull;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Modo servlet (JPA con hilos por solicitud) frente al modo reactivo (WebFlux con R2DBC) con muchas solicitudes
+ * concurrentes y una base de datos lenta: cada sentencia espera la latencia simulada antes de ejecutarse.
+ * Ambos contextos se inician en el mismo proceso con bases H2 separadas y el mismo número de conexiones.
+ * Se ejecuta solo con -Dbenchmark=true
+ * (mvn test -Dbenchmark=true -Dtest=ServletVsReactivoBenchmarkTest -Dbenchmark.concurrencia=1000
+ * -Dbenchmark.latenciaMs=50 -Dbenchmark.solicitudes=20000 -Dbenchmark.conexiones=20)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Servlet vs Reactivo Benchmark")
+class ServletVsReactivoBenchmarkTest {
+
+    private static final String BASE_URL = "/api/clientes";
+    private static final String CLIENTE_JSON = """
+            {"numeroDocumento":"%s","nombre":"Nombre","apellidos":"Apellido","fechaNacimiento":"1980-01-01",
+            "ciudad":"Bogotá","correoElectronico":"%s@email.com","telefono":"3001234567","ocupacion":"Empleado"}""";
+
+    private static volatile long latenciaMs;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Test
+    @DisplayName("Rendimiento y latencias de GET /api/clientes/{id} en ambos modos con la base de datos lenta")
+    void servletFrenteAReactivo() throws Exception {
+        int concurrencia = Integer.getInteger("benchmark.concurrencia", 500);
+        int solicitudes = Integer.getInteger("benchmark.solicitudes", 5_000);
+        int clientes = Integer.getInteger("benchmark.clientes", 200);
+        int conexiones = Integer.getInteger("benchmark.conexiones", 20);
+        latenciaMs = Long.getLong("benchmark.latenciaMs", 20);
+
+        try (ConfigurableApplicationContext servlet = iniciar("servlet", conexiones, concurrencia, "test");
+             ConfigurableApplicationContext reactivo = iniciar("reactivo", conexiones, concurrencia, "reactivo", "test")) {
+            Resultado resultadoServlet = medir("servlet", servlet, concurrencia, solicitudes, clientes);
+            Resultado resultadoReactivo = medir("reactivo", reactivo, concurrencia, solicitudes, clientes);
+
+            for (Resultado resultado : List.of(resultadoServlet, resultadoReactivo)) {
+                System.out.printf("%-8s %6d solicitudes (%d fallidas) con %d concurrentes y %d ms por sentencia:"
+                                + " %.0f sol/s, p50 %d ms, p99 %d ms, máx %d ms%n",
+                        resultado.modo, solicitudes, resultado.fallidas, concurrencia, latenciaMs,
+                        resultado.porSegundo(solicitudes), resultado.percentil(50), resultado.percentil(99),
+                        resultado.percentil(100));
+            }
+            assertThat(resultadoServlet.exitosas()).isPositive();
+            assertThat(resultadoReactivo.exitosas()).isPositive();
+        }
+    }
+
+    private ConfigurableApplicationContext iniciar(String nombre, int conexiones, int concurrencia, String... perfiles) {
+        String base = "benchmark-" + nombre;
+        return new SpringApplicationBuilder(PruebaApplication.class)
+                .profiles(perfiles)
+                .initializers(contexto -> contexto.getBeanFactory().addBeanPostProcessor(new R2dbcLento()))
+                // Argumentos de línea de comandos para que prevalezcan sobre application-test.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + DriverLento.PREFIJO + "h2:mem:" + base + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=" + DriverLento.class.getName(),
+                        "--spring.r2dbc.url=r2dbc:h2:mem:///" + base + "?options=DB_CLOSE_DELAY=-1",
+                        "--spring.r2dbc.pool.initial-size=" + conexiones,
+                        "--spring.r2dbc.pool.max-size=" + conexiones,
+                        "--clientes.bulkhead.puntual.conexiones=" + conexiones,
+                        "--clientes.bulkhead.escritura.conexiones=" + conexiones,
+                        "--clientes.bulkhead.puntual.hilos=" + conexiones * 2,
+                        "--clientes.bulkhead.escritura.hilos=" + conexiones * 2,
+                        // Cola para toda la concurrencia: en el modo servlet las solicitudes esperan en lugar de rechazarse
+                        "--clientes.bulkhead.puntual.cola=" + concurrencia,
+                        "--clientes.bulkhead.escritura.cola=" + concurrencia,
+                        "--clientes.cache-cercana.habilitada=false",
+                        "--clientes.admision.habilitada=false",
+                        "--clientes.diario.habilitado=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate.SQL=INFO",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+                        "--logging.level.org.springframework.web=INFO");
+    }
+
+    private Resultado medir(String modo, ConfigurableApplicationContext contexto, int concurrencia,
+                            int solicitudes, int clientes) throws Exception {
+        int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+        String url = "http://localhost:" + puerto + BASE_URL;
+
+        Semaphore permisos = new Semaphore(concurrencia);
+        List<CompletableFuture<Integer>> altas = new ArrayList<>();
+        for (int i = 0; i < clientes; i++) {
+            String documento = String.valueOf(10_000_000 + i);
+            permisos.acquire();
+            altas.add(enviar(HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(CLIENTE_JSON.formatted(documento, documento)))
+                    .build()).whenComplete((estado, error) -> permisos.release()));
+        }
+        CompletableFuture.allOf(altas.toArray(CompletableFuture[]::new)).join();
+        assertThat(altas).allSatisfy(alta -> assertThat(alta.join()).isEqualTo(201));
+
+        long[] latencias = new long[solicitudes];
+        AtomicInteger fallidas = new AtomicInteger();
+        List<CompletableFuture<Integer>> lecturas = new ArrayList<>(solicitudes);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < solicitudes; i++) {
+            int indice = i;
+            String documento = String.valueOf(10_000_000 + ThreadLocalRandom.current().nextInt(clientes));
+            permisos.acquire();
+            long envio = System.nanoTime();
+            lecturas.add(enviar(HttpRequest.newBuilder(URI.create(url + "/" + documento))
+                    .timeout(Duration.ofSeconds(60)).GET().build())
+                    .whenComplete((estado, error) -> {
+                        latencias[indice] = (System.nanoTime() - envio) / 1_000_000;
+                        if (error != null || estado != 200) {
+                            fallidas.incrementAndGet();
+                        }
+                        permisos.release();
+                    }));
+        }
+        CompletableFuture.allOf(lecturas.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        long duracionNanos = System.nanoTime() - inicio;
+        Arrays.sort(latencias);
+        return new Resultado(modo, latencias, fallidas.get(), duracionNanos);
+    }
+
+    private CompletableFuture<Integer> enviar(HttpRequest solicitud) {
+        return httpClient.sendAsync(solicitud, HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+    }
+
+    private static void dormir() {
+        try {
+            Thread.sleep(latenciaMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Resultado(String modo, long[] latencias, int fallidas, long duracionNanos) {
+
+        int exitosas() {
+            return latencias.length - fallidas;
+        }
+
+        double porSegundo(int solicitudes) {
+            return solicitudes / (duracionNanos / 1_000_000_000.0);
+        }
+
+        long percentil(int percentil) {
+            return latencias[Math.min(latencias.length - 1, (int) Math.ceil(latencias.length * percentil / 100.0) - 1)];
+        }
+    }
+
+    /**
+     * Driver JDBC que delega en H2 y espera la latencia simulada antes de ejecutar cada sentencia preparada
+     */
+    public static class DriverLento implements java.sql.Driver {
+
+        static final String PREFIJO = "jdbc:lento:";
+
+        @Override
+        public java.sql.Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            java.sql.Connection conexion = DriverManager.getConnection("jdbc:" + url.substring(PREFIJO.length()), info);
+            return (java.sql.Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{java.sql.Connection.class}, (proxy, metodo, argumentos) -> {
+                        Object resultado = invocar(conexion, metodo, argumentos);
+                        if (resultado instanceof PreparedStatement sentencia) {
+                            return sentenciaLenta(sentencia);
+                        }
+                        return resultado;
+                    });
+        }
+
+        private static PreparedStatement sentenciaLenta(PreparedStatement sentencia) {
+            return (PreparedStatement) Proxy.newProxyInstance(DriverLento.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, metodo, argumentos) -> {
+                        if (metodo.getName().startsWith("execute")) {
+                            dormir();
+                        }
+                        return invocar(sentencia, metodo, argumentos);
+                    });
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith(PREFIJO);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+
+    /**
+     * Envuelve la ConnectionFactory de R2DBC para retrasar sin bloquear la ejecución de cada sentencia
+     */
+    private static class R2dbcLento implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String nombre) {
+            if (bean instanceof ConnectionFactory connectionFactory) {
+                return new ConnectionFactoryLenta(connectionFactory);
+            }
+            return bean;
+        }
+    }
+
+    private record ConnectionFactoryLenta(ConnectionFactory delegada) implements ConnectionFactory, Closeable {
+
+        @Override
+        @NonNull
+        public Publisher<? extends Connection> create() {
+            return Mono.from(delegada.create()).map(conexion -> (Connection) Proxy.newProxyInstance(
+                    getClass().getClassLoader(), new Class<?>[]{Connection.class}, (proxy, metodo, argumentos) -> {
+                        Object resultado = invocar(conexion, metodo, argumentos);
+                        return resultado instanceof Statement sentencia ? sentenciaLenta(sentencia) : resultado;
+                    }));
+        }
+
+        private static Statement sentenciaLenta(Statement sentencia) {
+            return (Statement) Proxy.newProxyInstance(ConnectionFactoryLenta.class.getClassLoader(),
+                    new Class<?>[]{Statement.class}, (proxy, metodo, argumentos) -> {
+                        Object resultado = invocar(sentencia, metodo, argumentos);
+                        if (metodo.getName().equals("execute")) {
+                            return Flux.from((Publisher<?>) resultado).delaySubscription(Duration.ofMillis(latenciaMs));
+                        }
+                        // Los métodos encadenables (bind, add...) devuelven la sentencia envuelta
+                        return resultado == sentencia ? proxy : resultado;
+                    });
+        }
+
+        @Override
+        @NonNull
+        public ConnectionFactoryMetadata getMetadata() {
+            return delegada.getMetadata();
+        }
+
+        @Override
+        public void close() {
+            if (delegada instanceof reactor.core.Disposable disponible) {
+                disponible.dispose();
+            }
+        }
+    }
+
+    private static Object invocar(Object destino, java.lang.reflect.Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
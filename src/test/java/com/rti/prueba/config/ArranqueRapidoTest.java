@@ -0,0 +1,61 @@
+package com.rti.prueba.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "arranque-rapido"})
+@DisplayName("Arranque Rapido Tests")
+class ArranqueRapidoTest {
+
+    @Autowired
+    private ConfigurableApplicationContext contexto;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private boolean creado(String nombre) {
+        return contexto.getBeanFactory().containsSingleton(nombre);
+    }
+
+    @Test
+    @DisplayName("Given_perfilArranqueRapido_When_arrancar_Then_criticosCreadosYNoCriticosDiferidos")
+    void given_perfilArranqueRapido_when_arrancar_then_criticosCreadosYNoCriticosDiferidos() {
+        // Then
+        assertThat(creado("entityManagerFactory")).isTrue();
+        assertThat(creado("clienteController")).isTrue();
+        assertThat(creado("relevoOutbox")).isTrue();
+        assertThat(creado("clienteImportService")).isFalse();
+        assertThat(contexto.getBeanNamesForType(RestTemplateBuilder.class)).isEmpty();
+        assertThat(contexto.getBeanNamesForType(JdbcTemplate.class)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given_servicioDiferido_When_primeraSolicitud_Then_seCreaYResponde")
+    void given_servicioDiferido_when_primeraSolicitud_then_seCreaYResponde() {
+        // Given
+        Map<String, Object> solicitud = Map.of("numerosDocumento", List.of("99999999"));
+
+        // When
+        ResponseEntity<Map> respuesta = restTemplate.postForEntity("/api/clientes/masivo/eliminar", solicitud, Map.class);
+
+        // Then
+        assertThat(respuesta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(respuesta.getBody()).containsEntry("success", true);
+        assertThat(creado("clienteBulkService")).isTrue();
+    }
+}
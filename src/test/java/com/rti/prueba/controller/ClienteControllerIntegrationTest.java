@@ -1,18 +1,47 @@
 package com.rti.prueba.controller;
 
 import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.jpa.ExportacionJPA;
+import com.rti.prueba.bd.orm.ExportacionORM;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.config.FormatosBinariosConfig;
 import com.rti.prueba.controller.dto.ClienteCreateDTO;
 import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.controller.filter.IdempotenciaFilter;
+import com.rti.prueba.controller.filter.PlazoFilter;
+import com.rti.prueba.controller.filter.TiemposServidorFilter;
+import com.rti.prueba.enums.EstadoExportacion;
+import com.rti.prueba.enums.FormatoExportacion;
 import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.service.ClienteAnaliticaService;
+import com.rti.prueba.service.ClienteExportService;
+import com.rti.prueba.service.cache.ClienteNearCache;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -37,6 +66,18 @@ class ClienteControllerIntegrationTest {
     @Autowired
     private ClienteJPA clienteJPA;
 
+    @Autowired
+    private ClienteNearCache clienteNearCache;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ExportacionJPA exportacionJPA;
+
+    @Autowired
+    private ClientesProperties clientesProperties;
+
     private String baseUrl;
     private ClienteCreateDTO clienteCreateDTO;
     private ClienteUpdateDTO clienteUpdateDTO;
@@ -48,6 +89,7 @@ class ClienteControllerIntegrationTest {
         
         // Limpiar base de datos antes de cada test
         clienteJPA.deleteAll();
+        clienteNearCache.limpiar();
         
         // Configurar headers
         headers = new HttpHeaders();
@@ -218,6 +260,58 @@ class ClienteControllerIntegrationTest {
             assertThat(response.getBody()).contains("Ya existe un cliente con correo electrónico");
         }
 
+        @Test
+        @Order(23)
+        @DisplayName("Given_ifMatchVigente_When_PUT_Then_200OkAndVersionIncrementada")
+        void given_ifMatchVigente_when_put_then_200OkAndVersionIncrementada() {
+            // Given
+            postCliente(clienteCreateDTO);
+            ResponseEntity<String> getResponse = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.GET, null, String.class
+            );
+            String etag = getResponse.getHeaders().getETag();
+            assertThat(etag).isEqualTo("\"0\"");
+
+            HttpHeaders condicionales = new HttpHeaders();
+            condicionales.setContentType(MediaType.APPLICATION_JSON);
+            condicionales.setIfMatch(etag);
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, condicionales), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"1\"");
+            clienteJPA.findById("12345678").ifPresentOrElse(
+                cliente -> assertThat(cliente.getVersion()).isEqualTo(1L),
+                () -> fail("Cliente debería existir en BD")
+            );
+        }
+
+        @Test
+        @Order(24)
+        @DisplayName("Given_ifMatchObsoleto_When_PUT_Then_409ConflictVersion")
+        void given_ifMatchObsoleto_when_put_then_409ConflictVersion() {
+            // Given - otra petición ya actualizó el cliente
+            postCliente(clienteCreateDTO);
+            restTemplate.exchange(baseUrl + "/12345678", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, headers), String.class);
+
+            HttpHeaders condicionales = new HttpHeaders();
+            condicionales.setContentType(MediaType.APPLICATION_JSON);
+            condicionales.setIfMatch("\"0\"");
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, condicionales), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).contains("\"error\":\"Conflicto de versión\"");
+        }
+
         @Test
         @Order(6)
         @DisplayName("Given_fechaFutura_When_POST_Then_400BadRequestValidationError")
@@ -449,6 +543,160 @@ class ClienteControllerIntegrationTest {
             assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
             assertThat(response.getBody()).contains("Ya existe un cliente con correo electrónico");
         }
+
+        @Test
+        @Order(23)
+        @DisplayName("Given_ifMatchVigente_When_PUT_Then_200OkAndVersionIncrementada")
+        void given_ifMatchVigente_when_put_then_200OkAndVersionIncrementada() {
+            // Given
+            postCliente(clienteCreateDTO);
+            ResponseEntity<String> getResponse = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.GET, null, String.class
+            );
+            String etag = getResponse.getHeaders().getETag();
+            assertThat(etag).isEqualTo("\"0\"");
+
+            HttpHeaders condicionales = new HttpHeaders();
+            condicionales.setContentType(MediaType.APPLICATION_JSON);
+            condicionales.setIfMatch(etag);
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, condicionales), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            clienteJPA.findById("12345678").ifPresentOrElse(
+                cliente -> assertThat(cliente.getVersion()).isEqualTo(1L),
+                () -> fail("Cliente debería existir en BD")
+            );
+        }
+
+        @Test
+        @Order(24)
+        @DisplayName("Given_ifMatchObsoleto_When_PUT_Then_409ConflictVersion")
+        void given_ifMatchObsoleto_when_put_then_409ConflictVersion() {
+            // Given - otra petición ya actualizó el cliente
+            postCliente(clienteCreateDTO);
+            restTemplate.exchange(baseUrl + "/12345678", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, headers), String.class);
+
+            HttpHeaders condicionales = new HttpHeaders();
+            condicionales.setContentType(MediaType.APPLICATION_JSON);
+            condicionales.setIfMatch("\"0\"");
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, condicionales), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).contains("\"error\":\"Conflicto de versión\"");
+        }
+    }
+
+    @Nested
+    @DisplayName("PATCH /api/clientes/{id} - Actualizar Cliente Parcialmente")
+    class ParchearClienteIntegrationTests {
+
+        private ResponseEntity<String> patchCliente(String numeroDocumento, String parche) {
+            HttpHeaders mergePatch = new HttpHeaders();
+            mergePatch.setContentType(MediaType.valueOf("application/merge-patch+json"));
+            return restTemplate.exchange(
+                    baseUrl + "/" + numeroDocumento, HttpMethod.PATCH, new HttpEntity<>(parche, mergePatch), String.class
+            );
+        }
+
+        @Test
+        @Order(25)
+        @DisplayName("Given_parcheTelefono_When_PATCH_Then_200OkYSoloCambiaTelefono")
+        void given_parcheTelefono_when_patch_then_200OkYSoloCambiaTelefono() {
+            // Given
+            postCliente(clienteCreateDTO);
+
+            // When
+            ResponseEntity<String> response = patchCliente("12345678", "{\"telefono\":\" 3109998877 \"}");
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("Cliente actualizado exitosamente");
+            clienteJPA.findById("12345678").ifPresentOrElse(cliente -> {
+                assertThat(cliente.getTelefono()).isEqualTo("3109998877");
+                assertThat(cliente.getNombre()).isEqualTo("Juan Carlos");
+                assertThat(cliente.getCorreoElectronico()).isEqualTo("juan.perez@email.com");
+                assertThat(cliente.getVersion()).isEqualTo(1L);
+            }, () -> fail("Cliente debería existir en BD"));
+        }
+
+        @Test
+        @Order(26)
+        @DisplayName("Given_parcheFechaNoViable_When_PATCH_Then_viabilidadRecalculada")
+        void given_parcheFechaNoViable_when_patch_then_viabilidadRecalculada() {
+            // Given
+            postCliente(clienteCreateDTO);
+            String fecha = LocalDate.now().minusYears(70).toString();
+
+            // When
+            ResponseEntity<String> response = patchCliente("12345678",
+                    "{\"fechaNacimiento\":\"" + fecha + "\",\"ocupacion\":\"Pensionado\"}");
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("Es viable: No");
+            clienteJPA.findById("12345678").ifPresentOrElse(cliente -> {
+                assertThat(cliente.getEsViable()).isFalse();
+                assertThat(cliente.getOcupacion()).isEqualTo(Ocupacion.PENSIONADO);
+            }, () -> fail("Cliente debería existir en BD"));
+        }
+
+        @Test
+        @Order(27)
+        @DisplayName("Given_campoInvalidoONulo_When_PATCH_Then_400BadRequestSoloCamposEnviados")
+        void given_campoInvalidoONulo_when_patch_then_400BadRequestSoloCamposEnviados() {
+            // Given
+            postCliente(clienteCreateDTO);
+
+            // When
+            ResponseEntity<String> response = patchCliente("12345678",
+                    "{\"correoElectronico\":\"no-es-correo\",\"nombre\":null}");
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("correoElectronico");
+            assertThat(response.getBody()).contains("El nombre es obligatorio");
+            assertThat(response.getBody()).doesNotContain("apellidos");
+        }
+
+        @Test
+        @Order(28)
+        @DisplayName("Given_correoDeOtroCliente_When_PATCH_Then_409Conflict")
+        void given_correoDeOtroCliente_when_patch_then_409Conflict() {
+            // Given
+            postCliente(clienteCreateDTO);
+            postCliente(new ClienteCreateDTO(
+                    "87654321", "María", "García", LocalDate.of(1992, 1, 1),
+                    "Cali", "maria@email.com", "3009876543", Ocupacion.INDEPENDIENTE
+            ));
+
+            // When
+            ResponseEntity<String> response = patchCliente("87654321", "{\"correoElectronico\":\"juan.perez@email.com\"}");
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            assertThat(response.getBody()).contains("Ya existe un cliente con correo electrónico");
+        }
+
+        @Test
+        @Order(29)
+        @DisplayName("Given_clienteNoExistente_When_PATCH_Then_404NotFound")
+        void given_clienteNoExistente_when_patch_then_404NotFound() {
+            // When
+            ResponseEntity<String> response = patchCliente("99999999", "{\"ciudad\":\"Cali\"}");
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        }
     }
 
     @Nested
@@ -497,6 +745,817 @@ class ClienteControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/clientes/masivo - Operaciones Masivas")
+    class OperacionesMasivasIntegrationTests {
+
+        private void crearClientesMasivos() {
+            postCliente(new ClienteCreateDTO("10000001", "Ana", "Uno", LocalDate.of(1990, 1, 1),
+                    "Cali", "ana1@email.com", "3000000001", Ocupacion.EMPLEADO));
+            postCliente(new ClienteCreateDTO("10000002", "Luis", "Dos", LocalDate.of(1985, 1, 1),
+                    "Cali", "luis2@email.com", "3000000002", Ocupacion.EMPLEADO));
+            postCliente(new ClienteCreateDTO("10000003", "Eva", "Tres", LocalDate.of(1980, 1, 1),
+                    "Cali", "eva3@email.com", "3000000003", Ocupacion.INDEPENDIENTE));
+            postCliente(new ClienteCreateDTO("10000004", "Raúl", "Cuatro", LocalDate.of(1975, 1, 1),
+                    "Bogotá", "raul4@email.com", "3000000004", Ocupacion.EMPLEADO));
+            postCliente(new ClienteCreateDTO("10000005", "Sara", "Cinco", LocalDate.of(1970, 1, 1),
+                    "Cali", "sara5@email.com", "3000000005", Ocupacion.EMPLEADO));
+        }
+
+        @Test
+        @Order(32)
+        @DisplayName("Given_filtroCiudadOcupacion_When_eliminarMasivo_Then_200OkConFilasAfectadasPorLotes")
+        void given_filtroCiudadOcupacion_when_eliminarMasivo_then_200OkConFilasAfectadasPorLotes() {
+            // Given
+            crearClientesMasivos();
+            String body = "{\"filtro\":{\"ciudad\":\"Cali\",\"ocupacion\":\"Empleado\"}}";
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/masivo/eliminar", HttpMethod.POST, new HttpEntity<>(body, headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"filasAfectadas\":3");
+            assertThat(response.getBody()).contains("\"lotes\":2");
+            assertThat(clienteJPA.count()).isEqualTo(2);
+            assertThat(clienteJPA.existsById("10000003")).isTrue();
+            assertThat(clienteJPA.existsById("10000004")).isTrue();
+        }
+
+        @Test
+        @Order(33)
+        @DisplayName("Given_listaDocumentos_When_actualizarMasivo_Then_200OkYFilasActualizadas")
+        void given_listaDocumentos_when_actualizarMasivo_then_200OkYFilasActualizadas() {
+            // Given
+            crearClientesMasivos();
+            String body = "{\"numerosDocumento\":[\"10000001\",\"10000004\",\"10000005\",\"99999999\"],"
+                    + "\"ciudad\":\" Medellín \",\"ocupacion\":\"Pensionado\"}";
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/masivo/actualizar", HttpMethod.POST, new HttpEntity<>(body, headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"filasAfectadas\":3");
+            assertThat(response.getBody()).contains("\"lotes\":2");
+            clienteJPA.findById("10000004").ifPresentOrElse(cliente -> {
+                assertThat(cliente.getCiudad()).isEqualTo("Medellín");
+                assertThat(cliente.getOcupacion()).isEqualTo(Ocupacion.PENSIONADO);
+                assertThat(cliente.getVersion()).isEqualTo(1L);
+            }, () -> fail("Cliente debería existir en BD"));
+            clienteJPA.findById("10000002").ifPresentOrElse(
+                cliente -> assertThat(cliente.getCiudad()).isEqualTo("Cali"),
+                () -> fail("Cliente debería existir en BD")
+            );
+        }
+
+        @Test
+        @Order(34)
+        @DisplayName("Given_filtroQueCambiaConLaActualizacion_When_actualizarMasivo_Then_cadaFilaUnaVez")
+        void given_filtroQueCambiaConLaActualizacion_when_actualizarMasivo_then_cadaFilaUnaVez() {
+            // Given
+            crearClientesMasivos();
+            String body = "{\"filtro\":{\"ciudad\":\"Cali\"},\"ciudad\":\"Cartagena\"}";
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/masivo/actualizar", HttpMethod.POST, new HttpEntity<>(body, headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"filasAfectadas\":4");
+            assertThat(clienteJPA.findAll()).filteredOn(c -> c.getCiudad().equals("Cartagena")).hasSize(4);
+        }
+
+        @Test
+        @Order(35)
+        @DisplayName("Given_sinSeleccion_When_eliminarMasivo_Then_400BadRequest")
+        void given_sinSeleccion_when_eliminarMasivo_then_400BadRequest() {
+            // Given
+            crearClientesMasivos();
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/masivo/eliminar", HttpMethod.POST, new HttpEntity<>("{\"filtro\":{}}", headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(clienteJPA.count()).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/clientes/importaciones - Importar CSV")
+    class ImportarClientesIntegrationTests {
+
+        @Test
+        @Order(36)
+        @DisplayName("Given_csvConFilasValidasEInvalidas_When_POST_Then_importaValidasYReportaRechazos")
+        void given_csvConFilasValidasEInvalidas_when_post_then_importaValidasYReportaRechazos() {
+            // Given - un cliente ya existe en BD
+            postCliente(clienteCreateDTO);
+            String csv = String.join("\n",
+                    "numeroDocumento,nombre,apellidos,fechaNacimiento,ciudad,correoElectronico,telefono,ocupacion",
+                    "20000001,Ana,Ruiz,1990-01-01,Cali,ana@email.com,3001112233,Empleado",
+                    "20000002,Luis,\"Gómez Pérez\",1950-01-01,Cali,LUIS@email.com,3001112234,Pensionado",
+                    "20000003,Eva,Mora,1990-01-01,Cali,no-es-correo,3001112235,Empleado",
+                    "20000001,Otra,Vez,1990-01-01,Cali,otra@email.com,3001112236,Empleado",
+                    "12345678,Dup,Licado,1990-01-01,Cali,dup@email.com,3001112237,Empleado",
+                    "20000004,Fut,Uro," + LocalDate.now().plusDays(1) + ",Cali,fut@email.com,3001112238,Empleado",
+                    "20000005,Mal,Oficio,1990-01-01,Cali,mal@email.com,3001112239,Astronauta");
+            HttpHeaders csvHeaders = new HttpHeaders();
+            csvHeaders.setContentType(MediaType.valueOf("text/csv"));
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/importaciones", HttpMethod.POST, new HttpEntity<>(csv, csvHeaders), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"filasLeidas\":7");
+            assertThat(response.getBody()).contains("\"filasImportadas\":2");
+            assertThat(response.getBody()).contains("\"filasRechazadas\":5");
+            assertThat(response.getBody()).contains("Número de documento duplicado en el archivo");
+            assertThat(response.getBody()).contains("Ya existe un cliente con el número de documento '12345678'");
+            assertThat(response.getBody()).contains("La fecha de nacimiento debe ser anterior a la fecha actual");
+            assertThat(response.getBody()).contains("Valor no válido para Ocupacion");
+            assertThat(response.getBody()).doesNotContain("La ocupación es obligatoria");
+            clienteJPA.findById("20000002").ifPresentOrElse(cliente -> {
+                assertThat(cliente.getApellidos()).isEqualTo("Gómez Pérez");
+                assertThat(cliente.getCorreoElectronico()).isEqualTo("luis@email.com");
+                assertThat(cliente.getEsViable()).isFalse();
+            }, () -> fail("Cliente debería existir en BD"));
+            assertThat(clienteJPA.count()).isEqualTo(3);
+        }
+
+        @Test
+        @Order(36)
+        @DisplayName("Given_duplicadosEnLotesDistintos_When_POST_Then_rechazadosComoExistentes")
+        void given_duplicadosEnLotesDistintos_when_post_then_rechazadosComoExistentes() {
+            // Given - lotes de 2 filas: cada repetición llega en un lote posterior al de su primera aparición
+            String csv = String.join("\n",
+                    "numeroDocumento,nombre,apellidos,fechaNacimiento,ciudad,correoElectronico,telefono,ocupacion",
+                    "20000001,Ana,Ruiz,1990-01-01,Cali,ana@email.com,3001112233,Empleado",
+                    "20000002,Luis,Gómez,1990-01-01,Cali,luis@email.com,3001112234,Empleado",
+                    "20000001,Otra,Vez,1990-01-01,Cali,otra@email.com,3001112236,Empleado",
+                    "20000003,Eva,Mora,1990-01-01,Cali,LUIS@email.com,3001112235,Empleado");
+            HttpHeaders csvHeaders = new HttpHeaders();
+            csvHeaders.setContentType(MediaType.valueOf("text/csv"));
+            ClientesProperties.Importacion importacion = clientesProperties.getImportacion();
+            int tamanoLote = importacion.getTamanoLote();
+            importacion.setTamanoLote(2);
+
+            try {
+                // When
+                ResponseEntity<String> response = restTemplate.exchange(
+                        baseUrl + "/importaciones", HttpMethod.POST, new HttpEntity<>(csv, csvHeaders), String.class
+                );
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+                assertThat(response.getBody()).contains("\"filasImportadas\":2", "\"filasRechazadas\":2");
+                assertThat(response.getBody()).contains("Ya existe un cliente con el número de documento '20000001'");
+                assertThat(response.getBody()).contains("Ya existe un cliente con correo electrónico 'luis@email.com'");
+                assertThat(clienteJPA.findById("20000001")).hasValueSatisfying(cliente ->
+                        assertThat(cliente.getNombre()).isEqualTo("Ana"));
+                assertThat(clienteJPA.count()).isEqualTo(2);
+            } finally {
+                importacion.setTamanoLote(tamanoLote);
+            }
+        }
+
+        @Test
+        @Order(37)
+        @DisplayName("Given_csvSinColumnas_When_POST_Then_400BadRequest")
+        void given_csvSinColumnas_when_post_then_400BadRequest() {
+            // Given
+            HttpHeaders csvHeaders = new HttpHeaders();
+            csvHeaders.setContentType(MediaType.valueOf("text/csv"));
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/importaciones", HttpMethod.POST, new HttpEntity<>("numeroDocumento,nombre\n1,a", csvHeaders), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Faltan columnas en el encabezado del CSV");
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /api/clientes/exports - Exportaciones asíncronas")
+    class ExportarClientesIntegrationTests {
+
+        @Autowired
+        private ClienteExportService clienteExportService;
+
+        @Test
+        @Order(38)
+        @DisplayName("Given_clientes_When_exportarCsv_Then_archivoGzipConTodasLasFilas")
+        void given_clientes_when_exportarCsv_then_archivoGzipConTodasLasFilas() throws Exception {
+            // Given
+            postCliente(clienteCreateDTO);
+            postCliente(new ClienteCreateDTO("87654321", "Ana", "Ruiz", LocalDate.of(1990, 1, 1),
+                    "Cali", "ana@email.com", "3001112233", Ocupacion.EMPLEADO));
+
+            // When
+            String id = iniciarExportacion("{\"formato\":\"CSV\"}");
+            esperarCompletada(id);
+            ResponseEntity<byte[]> archivo = restTemplate.getForEntity(baseUrl + "/exports/" + id + "/archivo", byte[].class);
+
+            // Then
+            assertThat(archivo.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(archivo.getHeaders().getContentDisposition().getFilename()).isEqualTo("clientes-" + id + ".csv.gz");
+            String contenido = descomprimir(archivo.getBody());
+            assertThat(contenido.lines()).hasSize(3);
+            assertThat(contenido).startsWith("numeroDocumento,nombre,apellidos,fechaNacimiento,ciudad,correoElectronico,telefono,ocupacion,esViable");
+            assertThat(contenido).contains("87654321,Ana,Ruiz,1990-01-01,Cali,ana@email.com,3001112233,Empleado,true");
+        }
+
+        @Test
+        @Order(39)
+        @DisplayName("Given_filtro_When_exportarNdjson_Then_soloFilasFiltradas")
+        void given_filtro_when_exportarNdjson_then_soloFilasFiltradas() throws Exception {
+            // Given
+            postCliente(clienteCreateDTO);
+            postCliente(new ClienteCreateDTO("87654321", "Ana", "Ruiz", LocalDate.of(1990, 1, 1),
+                    "Cali", "ana@email.com", "3001112233", Ocupacion.EMPLEADO));
+
+            // When
+            String id = iniciarExportacion("{\"formato\":\"NDJSON\",\"filtro\":{\"ciudad\":\"Cali\"}}");
+            String estado = esperarCompletada(id);
+            ResponseEntity<byte[]> archivo = restTemplate.getForEntity(baseUrl + "/exports/" + id + "/archivo", byte[].class);
+
+            // Then
+            assertThat(estado).contains("\"totalFilas\":1", "\"filasProcesadas\":1", "\"porcentaje\":100");
+            String contenido = descomprimir(archivo.getBody());
+            assertThat(contenido.lines()).hasSize(1);
+            assertThat(contenido).contains("\"numeroDocumento\":\"87654321\"", "\"ciudad\":\"Cali\"");
+        }
+
+        @Test
+        @Order(40)
+        @DisplayName("Given_exportacionInexistente_When_GET_Then_404NotFound")
+        void given_exportacionInexistente_when_get_then_404NotFound() {
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/exports/no-existe", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(response.getBody()).contains("Exportación 'no-existe' no encontrada");
+        }
+
+        @Test
+        @Order(40)
+        @DisplayName("Given_exportacionCompletadaEnOtroNodo_When_GET_Then_estadoYArchivoDesdeElAlmacenCompartido")
+        void given_exportacionCompletadaEnOtroNodo_when_get_then_estadoYArchivoDesdeElAlmacenCompartido() throws Exception {
+            // Given
+            String id = UUID.randomUUID().toString();
+            Path directorio = clientesProperties.getExportacion().getDirectorio();
+            Files.createDirectories(directorio);
+            ByteArrayOutputStream comprimido = new ByteArrayOutputStream();
+            try (GZIPOutputStream salida = new GZIPOutputStream(comprimido)) {
+                salida.write("numeroDocumento\n12345678\n".getBytes(StandardCharsets.UTF_8));
+            }
+            Files.write(directorio.resolve(id + ".csv.gz"), comprimido.toByteArray());
+            Instant finalizada = Instant.now();
+            exportacionJPA.save(new ExportacionORM(id, FormatoExportacion.CSV, EstadoExportacion.COMPLETADA, 1, 1,
+                    comprimido.size(), id + ".csv.gz", null, finalizada.minusSeconds(1), finalizada, finalizada));
+
+            // When
+            String estado = restTemplate.getForObject(baseUrl + "/exports/" + id, String.class);
+            ResponseEntity<byte[]> archivo = restTemplate.getForEntity(baseUrl + "/exports/" + id + "/archivo", byte[].class);
+
+            // Then
+            assertThat(estado).contains("\"estado\":\"COMPLETADA\"", "\"porcentaje\":100");
+            assertThat(archivo.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(descomprimir(archivo.getBody())).isEqualTo("numeroDocumento\n12345678\n");
+        }
+
+        @Test
+        @Order(40)
+        @DisplayName("Given_exportacionSinAvanceDeUnNodoDetenido_When_marcarAbandonadas_Then_fallidaYLasActivasSiguen")
+        void given_exportacionSinAvanceDeUnNodoDetenido_when_marcarAbandonadas_then_fallidaYLasActivasSiguen() {
+            // Given
+            Instant ahora = Instant.now();
+            String abandonada = UUID.randomUUID().toString();
+            String activa = UUID.randomUUID().toString();
+            exportacionJPA.save(new ExportacionORM(abandonada, FormatoExportacion.CSV, EstadoExportacion.EN_PROCESO, 10, 5,
+                    0, null, null, ahora.minus(Duration.ofMinutes(20)), ahora.minus(Duration.ofMinutes(10)), null));
+            exportacionJPA.save(new ExportacionORM(activa, FormatoExportacion.CSV, EstadoExportacion.EN_PROCESO, 10, 5,
+                    0, null, null, ahora.minus(Duration.ofMinutes(20)), ahora, null));
+
+            // When
+            clienteExportService.marcarAbandonadas();
+
+            // Then
+            assertThat(restTemplate.getForObject(baseUrl + "/exports/" + abandonada, String.class))
+                    .contains("\"estado\":\"FALLIDA\"", "no avanzó");
+            assertThat(restTemplate.getForObject(baseUrl + "/exports/" + activa, String.class))
+                    .contains("\"estado\":\"EN_PROCESO\"");
+        }
+
+        private String iniciarExportacion(String solicitud) {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/exports", HttpMethod.POST, new HttpEntity<>(solicitud, headers), String.class
+            );
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+            String location = response.getHeaders().getLocation().toString();
+            return location.substring(location.lastIndexOf('/') + 1);
+        }
+
+        private String esperarCompletada(String id) throws InterruptedException {
+            for (int intento = 0; intento < 200; intento++) {
+                String estado = restTemplate.getForObject(baseUrl + "/exports/" + id, String.class);
+                if (estado.contains("\"estado\":\"COMPLETADA\"")) {
+                    return estado;
+                }
+                assertThat(estado).doesNotContain("\"estado\":\"FALLIDA\"");
+                Thread.sleep(50);
+            }
+            return fail("La exportación no terminó a tiempo");
+        }
+
+        private String descomprimir(byte[] contenido) throws IOException {
+            try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(contenido))) {
+                return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Plazo de la solicitud - X-Request-Timeout / X-Request-Deadline")
+    class PlazoSolicitudIntegrationTests {
+
+        @Test
+        @Order(43)
+        @DisplayName("Given_timeoutHolgado_When_GET_Then_200OkDentroDelPlazo")
+        void given_timeoutHolgado_when_get_then_200OkDentroDelPlazo() {
+            // Given
+            restTemplate.exchange(baseUrl, HttpMethod.POST, new HttpEntity<>(clienteCreateDTO, headers), String.class);
+            headers.set(PlazoFilter.CABECERA_TIMEOUT, "2000");
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.GET, new HttpEntity<>(headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"numeroDocumento\":\"12345678\"");
+        }
+
+        @Test
+        @Order(44)
+        @DisplayName("Given_deadlineVencido_When_GET_Then_504GatewayTimeoutSinConsultar")
+        void given_deadlineVencido_when_get_then_504GatewayTimeoutSinConsultar() {
+            // Given
+            headers.set(PlazoFilter.CABECERA_DEADLINE, String.valueOf(System.currentTimeMillis() - 1000));
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl, HttpMethod.GET, new HttpEntity<>(headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+            assertThat(response.getBody()).contains("Plazo excedido");
+        }
+
+        @Test
+        @Order(44)
+        @DisplayName("Given_busquedaLenta_When_GET_buscar_Then_504GatewayTimeoutConConsultaCancelada")
+        void given_busquedaLenta_when_getBuscar_then_504GatewayTimeoutConConsultaCancelada() {
+            // Given
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("INSERT INTO clientes (numero_documento, nombre, apellidos, fecha_nacimiento, ciudad, "
+                    + "correo_electronico, telefono, ocupacion, es_viable, version) "
+                    + "SELECT 'L' || X, 'Nombre' || X, 'Apellido' || X, DATE '1990-05-15', 'Bogotá', "
+                    + "'lento' || X || '@email.com', '3001234567', 'Empleado', TRUE, 0 FROM SYSTEM_RANGE(1, 400)");
+            jdbcTemplate.execute("ALTER TABLE clientes RENAME TO clientes_lentos");
+            jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS DORMIR FOR 'java.lang.Thread.sleep(long)'");
+            jdbcTemplate.execute("CREATE VIEW clientes AS SELECT * FROM clientes_lentos WHERE DORMIR(10) IS NULL");
+            headers.set(PlazoFilter.CABECERA_TIMEOUT, "1000");
+            long inicio = System.nanoTime();
+
+            try {
+                // When
+                ResponseEntity<String> response = restTemplate.exchange(
+                        baseUrl + "/buscar?q=SinCoincidencias", HttpMethod.GET, new HttpEntity<>(headers), String.class
+                );
+
+                // Then
+                assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT);
+                assertThat(response.getBody()).contains("superó el plazo de la solicitud");
+                assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(3));
+            } finally {
+                jdbcTemplate.execute("DROP VIEW clientes");
+                jdbcTemplate.execute("ALTER TABLE clientes_lentos RENAME TO clientes");
+                jdbcTemplate.update("DELETE FROM clientes WHERE numero_documento LIKE 'L%'");
+            }
+        }
+
+        @Test
+        @Order(45)
+        @DisplayName("Given_timeoutInvalido_When_GET_Then_400BadRequest")
+        void given_timeoutInvalido_when_get_then_400BadRequest() {
+            // Given
+            headers.set(PlazoFilter.CABECERA_TIMEOUT, "2s");
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl + "/12345678", HttpMethod.GET, new HttpEntity<>(headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(response.getBody()).contains("Plazo inválido");
+        }
+    }
+
+    @Nested
+    @DisplayName("POST con Idempotency-Key - Reintentos idempotentes")
+    class IdempotenciaIntegrationTests {
+
+        @Test
+        @Order(46)
+        @DisplayName("Given_mismaClave_When_POSTrepetido_Then_201ConLaRespuestaOriginalSinDuplicar")
+        void given_mismaClave_when_postRepetido_then_201ConLaRespuestaOriginalSinDuplicar() {
+            // Given
+            headers.set(IdempotenciaFilter.CABECERA_CLAVE, "alta-12345678");
+            HttpEntity<ClienteCreateDTO> request = new HttpEntity<>(clienteCreateDTO, headers);
+
+            // When
+            ResponseEntity<String> primera = restTemplate.exchange(baseUrl, HttpMethod.POST, request, String.class);
+            ResponseEntity<String> reintento = restTemplate.exchange(baseUrl, HttpMethod.POST, request, String.class);
+
+            // Then
+            assertThat(primera.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(reintento.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(reintento.getBody()).isEqualTo(primera.getBody());
+            assertThat(reintento.getHeaders().getFirst(IdempotenciaFilter.CABECERA_REPETIDA)).isEqualTo("true");
+            assertThat(clienteJPA.count()).isEqualTo(1);
+        }
+
+        @Test
+        @Order(47)
+        @DisplayName("Given_mismaClaveOtroCuerpo_When_POST_Then_422UnprocessableEntity")
+        void given_mismaClaveOtroCuerpo_when_post_then_422UnprocessableEntity() {
+            // Given
+            headers.set(IdempotenciaFilter.CABECERA_CLAVE, "alta-reutilizada");
+            restTemplate.exchange(baseUrl, HttpMethod.POST, new HttpEntity<>(clienteCreateDTO, headers), String.class);
+            ClienteCreateDTO otroCliente = new ClienteCreateDTO(
+                    "87654321", "María José", "García López",
+                    LocalDate.of(1995, 6, 10), "Cali", "maria@email.com",
+                    "3009876543", Ocupacion.INDEPENDIENTE
+            );
+
+            // When
+            ResponseEntity<String> response = restTemplate.exchange(
+                    baseUrl, HttpMethod.POST, new HttpEntity<>(otroCliente, headers), String.class
+            );
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+            assertThat(response.getBody()).contains("Clave de idempotencia reutilizada");
+            assertThat(clienteJPA.existsById("87654321")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/clientes/analitica/* - Consultas Analíticas")
+    class AnaliticaIntegrationTests {
+
+        @Autowired
+        private ClienteAnaliticaService clienteAnaliticaService;
+
+        private void crearClientesAnaliticos() {
+            clienteAnaliticaService.reconstruir();
+            postCliente(new ClienteCreateDTO("20000001", "Ana", "Uno", LocalDate.now().minusYears(25).minusDays(1),
+                    "Bogotá", "ana.analitica@email.com", "3001000001", Ocupacion.EMPLEADO));
+            postCliente(new ClienteCreateDTO("20000002", "Luis", "Dos", LocalDate.now().minusYears(41).minusDays(1),
+                    "Bogotá", "luis.analitica@email.com", "3001000002", Ocupacion.INDEPENDIENTE));
+            postCliente(new ClienteCreateDTO("20000003", "Eva", "Tres", LocalDate.now().minusYears(33).minusDays(1),
+                    "Cali", "eva.analitica@email.com", "3001000003", Ocupacion.EMPLEADO));
+        }
+
+        /**
+         * Las altas llegan a la instantánea en segundo plano tras confirmar la transacción
+         */
+        private ResponseEntity<String> esperarConteo(String consulta, String total) throws InterruptedException {
+            ResponseEntity<String> response = null;
+            for (int intento = 0; intento < 50; intento++) {
+                response = restTemplate.getForEntity(baseUrl + "/analitica/conteo" + consulta, String.class);
+                if (response.getBody() != null && response.getBody().contains("\"data\":" + total)) {
+                    break;
+                }
+                Thread.sleep(100);
+            }
+            return response;
+        }
+
+        @Test
+        @Order(48)
+        @DisplayName("Given_clientesCreados_When_GETconteoConFiltro_Then_200CuentaLosQueCumplen")
+        void given_clientesCreados_when_getConteoConFiltro_then_200CuentaLosQueCumplen() throws Exception {
+            // Given
+            crearClientesAnaliticos();
+            esperarConteo("", "3");
+
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    baseUrl + "/analitica/conteo?ciudad=Bogotá&edadMinima=30", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"data\":1");
+        }
+
+        @Test
+        @Order(49)
+        @DisplayName("Given_clientesCreados_When_GETgruposYedades_Then_200ConConteosPorGrupo")
+        void given_clientesCreados_when_getGruposYEdades_then_200ConConteosPorGrupo() throws Exception {
+            // Given
+            crearClientesAnaliticos();
+            esperarConteo("", "3");
+
+            // When
+            ResponseEntity<String> grupos = restTemplate.getForEntity(baseUrl + "/analitica/grupos?por=ciudad", String.class);
+            ResponseEntity<String> edades = restTemplate.getForEntity(
+                    baseUrl + "/analitica/edades?ancho=10&ocupacion=EMPLEADO", String.class);
+
+            // Then
+            assertThat(grupos.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(grupos.getBody()).contains("{\"grupo\":\"Bogotá\",\"total\":2},{\"grupo\":\"Cali\",\"total\":1}");
+            assertThat(edades.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(edades.getBody()).contains("{\"grupo\":\"20-29\",\"total\":1},{\"grupo\":\"30-39\",\"total\":1}");
+        }
+
+        @Test
+        @Order(50)
+        @DisplayName("Given_clienteEliminado_When_GETconteo_Then_200SinElCliente")
+        void given_clienteEliminado_when_getConteo_then_200SinElCliente() throws Exception {
+            // Given
+            crearClientesAnaliticos();
+            esperarConteo("", "3");
+
+            // When
+            restTemplate.delete(baseUrl + "/20000003");
+            ResponseEntity<String> response = esperarConteo("?ciudad=Cali", "0");
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"data\":0");
+        }
+
+        @Test
+        @Order(51)
+        @DisplayName("Given_clientesCreados_When_GETsegmentos_Then_200ConTotalYDocumentosDelSegmento")
+        void given_clientesCreados_when_getSegmentos_then_200ConTotalYDocumentosDelSegmento() throws Exception {
+            // Given
+            crearClientesAnaliticos();
+            esperarConteo("", "3");
+
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    baseUrl + "/analitica/segmentos?ciudades=Bogotá,Cali&ocupaciones=EMPLEADO&esViable=true", String.class);
+            ResponseEntity<String> indices = restTemplate.getForEntity(baseUrl + "/analitica/indices", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"total\":2").contains("\"numerosDocumento\":[\"20000001\",\"20000003\"]");
+            assertThat(indices.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(indices.getBody()).contains("{\"indice\":\"ciudad\",\"valor\":\"Cali\",\"cardinalidad\":1");
+        }
+
+        @Test
+        @Order(52)
+        @DisplayName("Given_dimensionDesconocida_When_GETgrupos_Then_400BadRequest")
+        void given_dimensionDesconocida_when_getGrupos_then_400BadRequest() {
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/analitica/grupos?por=color", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/clientes/por-correo?correo={correo} - Obtener Cliente por Correo")
+    class ObtenerClientePorCorreoIntegrationTests {
+
+        @Test
+        @Order(53)
+        @DisplayName("Given_clienteExistente_When_GETporCorreo_Then_200ConElCliente")
+        void given_clienteExistente_when_getPorCorreo_then_200ConElCliente() {
+            // Given
+            postCliente(clienteCreateDTO);
+
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    baseUrl + "/por-correo?correo=Juan.Perez@email.com", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"numeroDocumento\":\"12345678\"");
+            assertThat(response.getHeaders().getETag()).isEqualTo("\"0\"");
+        }
+
+        @Test
+        @Order(54)
+        @DisplayName("Given_correoInexistente_When_GETporCorreo_Then_404NotFound")
+        void given_correoInexistente_when_getPorCorreo_then_404NotFound() {
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(
+                    baseUrl + "/por-correo?correo=nadie@email.com", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+            assertThat(response.getBody()).contains("nadie@email.com");
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/clientes/{numeroDocumento}/historial - Historial de Cambios")
+    class HistorialClienteIntegrationTests {
+
+        @Test
+        @Order(55)
+        @DisplayName("Given_clienteCreadoActualizadoYEliminado_When_GEThistorial_Then_200ConLosCambiosEnOrden")
+        void given_clienteCreadoActualizadoYEliminado_when_getHistorial_then_200ConLosCambiosEnOrden() {
+            // Given: documento exclusivo de este test porque el diario persiste entre tests del mismo contexto
+            clienteCreateDTO.setNumeroDocumento("55500055");
+            clienteCreateDTO.setCorreoElectronico("historial@email.com");
+            postCliente(clienteCreateDTO);
+            restTemplate.exchange(baseUrl + "/55500055", HttpMethod.PUT, new HttpEntity<>(clienteUpdateDTO, headers), String.class);
+            restTemplate.delete(baseUrl + "/55500055");
+
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/55500055/historial", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getBody()).contains("\"total\":3");
+            assertThat(response.getBody()).containsSubsequence(
+                    "\"operacion\":\"CREACION\"", "\"correoElectronico\":\"historial@email.com\"",
+                    "\"operacion\":\"ACTUALIZACION\"", "\"ciudad\":\"Medellín\"",
+                    "\"operacion\":\"ELIMINACION\"");
+        }
+    }
+
+    @Nested
+    @DisplayName("CBOR y Smile - Negociación de contenido binaria")
+    class FormatosBinariosIntegrationTests {
+
+        private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+        @Autowired
+        private Jackson2ObjectMapperBuilder builder;
+
+        @Test
+        @Order(56)
+        @DisplayName("Given_clientesExistentes_When_GETconAcceptCbor_Then_200CborMasCompactoConOcupacionComoCodigo")
+        void given_clientesExistentes_when_getConAcceptCbor_then_200CborMasCompactoConOcupacionComoCodigo() throws IOException {
+            // Given
+            postCliente(clienteCreateDTO);
+            clienteCreateDTO.setNumeroDocumento("87654321");
+            clienteCreateDTO.setCorreoElectronico("otro.cbor@email.com");
+            postCliente(clienteCreateDTO);
+            HttpHeaders cabeceras = new HttpHeaders();
+            cabeceras.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+            // When
+            ResponseEntity<byte[]> response = restTemplate.exchange(baseUrl, HttpMethod.GET, new HttpEntity<>(cabeceras), byte[].class);
+            ResponseEntity<String> json = restTemplate.getForEntity(baseUrl, String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+            Map<?, ?> cuerpo = FormatosBinariosConfig.cbor(builder).readValue(response.getBody(), Map.class);
+            assertThat(cuerpo.get("total")).isEqualTo(2);
+            List<?> clientes = (List<?>) cuerpo.get("data");
+            assertThat(clientes).allSatisfy(cliente -> {
+                assertThat(((Map<?, ?>) cliente).get("ocupacion")).isEqualTo(Ocupacion.EMPLEADO.getCodigo());
+                assertThat(((Map<?, ?>) cliente).get("fechaNacimiento")).isEqualTo("1990-05-15");
+            });
+            assertThat(response.getBody().length).isLessThan(json.getBody().getBytes(StandardCharsets.UTF_8).length);
+            assertThat(json.getBody()).contains("\"ocupacion\":\"Empleado\"");
+        }
+
+        @Test
+        @Order(57)
+        @DisplayName("Given_cuerposSmileYCbor_When_POSTyPATCH_Then_seAceptanComoJSON")
+        void given_cuerposSmileYCbor_when_postYPatch_then_seAceptanComoJSON() throws IOException {
+            // Given
+            HttpHeaders smile = new HttpHeaders();
+            smile.setContentType(SMILE);
+            smile.setAccept(List.of(SMILE));
+            byte[] alta = FormatosBinariosConfig.smile(builder).writeValueAsBytes(clienteCreateDTO);
+            HttpHeaders cbor = new HttpHeaders();
+            cbor.setContentType(MediaType.APPLICATION_CBOR);
+            byte[] parche = FormatosBinariosConfig.cbor(builder).writeValueAsBytes(
+                    Map.of("ocupacion", Ocupacion.PENSIONADO.getCodigo(), "ciudad", "Cali"));
+
+            // When
+            ResponseEntity<byte[]> creado = restTemplate.exchange(baseUrl, HttpMethod.POST, new HttpEntity<>(alta, smile), byte[].class);
+            ResponseEntity<String> parcheado = restTemplate.exchange(baseUrl + "/12345678", HttpMethod.PATCH,
+                    new HttpEntity<>(parche, cbor), String.class);
+
+            // Then
+            assertThat(creado.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(creado.getHeaders().getContentType()).isEqualTo(SMILE);
+            assertThat(FormatosBinariosConfig.smile(builder).readValue(creado.getBody(), Map.class).get("data"))
+                    .isEqualTo("12345678");
+            assertThat(parcheado.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(clienteJPA.findById("12345678")).hasValueSatisfying(cliente -> {
+                assertThat(cliente.getOcupacion()).isEqualTo(Ocupacion.PENSIONADO);
+                assertThat(cliente.getCiudad()).isEqualTo("Cali");
+                assertThat(cliente.getFechaNacimiento()).isEqualTo(LocalDate.of(1990, 5, 15));
+            });
+        }
+
+        @Test
+        @Order(60)
+        @DisplayName("Given_ocupacionComoCodigoEnJSONoDecimalEnCbor_When_PATCH_Then_400SinCambios")
+        void given_ocupacionComoCodigoEnJSONoDecimalEnCbor_when_patch_then_400SinCambios() throws IOException {
+            // Given
+            postCliente(clienteCreateDTO);
+            HttpHeaders json = new HttpHeaders();
+            json.setContentType(MediaType.valueOf("application/merge-patch+json"));
+            HttpHeaders cbor = new HttpHeaders();
+            cbor.setContentType(MediaType.APPLICATION_CBOR);
+            byte[] decimal = FormatosBinariosConfig.cbor(builder).writeValueAsBytes(Map.of("ocupacion", 2.0));
+
+            // When
+            ResponseEntity<String> codigoEnJson = restTemplate.exchange(baseUrl + "/12345678", HttpMethod.PATCH,
+                    new HttpEntity<>("{\"ocupacion\":" + Ocupacion.PENSIONADO.getCodigo() + "}", json), String.class);
+            ResponseEntity<String> decimalEnCbor = restTemplate.exchange(baseUrl + "/12345678", HttpMethod.PATCH,
+                    new HttpEntity<>(decimal, cbor), String.class);
+
+            // Then
+            assertThat(codigoEnJson.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(decimalEnCbor.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+            assertThat(clienteJPA.findById("12345678"))
+                    .hasValueSatisfying(cliente -> assertThat(cliente.getOcupacion()).isEqualTo(Ocupacion.EMPLEADO));
+        }
+    }
+
+    @Nested
+    @DisplayName("Server-Timing - Desglose de tiempos por fase")
+    class TiemposServidorIntegrationTests {
+
+        @Test
+        @Order(58)
+        @DisplayName("Given_cabeceraXServerTiming_When_POSTyGET_Then_ServerTimingConFasesYSentencias")
+        void given_cabeceraXServerTiming_when_postYGet_then_serverTimingConFasesYSentencias() {
+            // Given
+            HttpHeaders medidas = new HttpHeaders();
+            medidas.setContentType(MediaType.APPLICATION_JSON);
+            medidas.set(TiemposServidorFilter.CABECERA_SOLICITUD, "1");
+
+            // When
+            ResponseEntity<String> creado = restTemplate.exchange(baseUrl, HttpMethod.POST,
+                    new HttpEntity<>(clienteCreateDTO, medidas), String.class);
+            ResponseEntity<String> consultado = restTemplate.exchange(baseUrl, HttpMethod.GET,
+                    new HttpEntity<>(medidas), String.class);
+
+            // Then
+            assertThat(creado.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            assertThat(creado.getBody()).contains("Cliente creado exitosamente");
+            assertThat(creado.getHeaders().getFirst(TiemposServidorFilter.CABECERA_RESPUESTA))
+                    .contains("validacion;dur=", "servicio;dur=", "jpa-", "serializacion;dur=", "total;dur=")
+                    .containsPattern("sql;desc=\"[1-9]\\d* sentencias\"");
+            assertThat(consultado.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(consultado.getBody()).contains("\"numeroDocumento\":\"12345678\"");
+            assertThat(consultado.getHeaders().getFirst(TiemposServidorFilter.CABECERA_RESPUESTA))
+                    .contains("servicio;dur=", "jpa-findAll;dur=", "mapper;dur=", "sql;desc=\"1 sentencias\"")
+                    .doesNotContain("validacion");
+        }
+
+        @Test
+        @Order(59)
+        @DisplayName("Given_sinCabeceraNiMuestreo_When_GET_Then_sinServerTiming")
+        void given_sinCabeceraNiMuestreo_when_get_then_sinServerTiming() {
+            // Given
+            postCliente(clienteCreateDTO);
+
+            // When
+            ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/12345678", String.class);
+
+            // Then
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().containsKey(TiemposServidorFilter.CABECERA_RESPUESTA)).isFalse();
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/clientes/buscar?q={term} - Buscar Clientes")
     class BuscarClientesIntegrationTests {
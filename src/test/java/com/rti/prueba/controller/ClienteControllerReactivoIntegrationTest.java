@@ -0,0 +1,298 @@
+package com.rti.prueba.controller;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.jpa.EventoOutboxJPA;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.controller.filter.IdempotenciaFilter;
+import com.rti.prueba.controller.filter.PlazoFilter;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.enums.OperacionCambio;
+import com.rti.prueba.service.diario.AuditoriaClientes;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de integración del modo reactivo: WebFlux → ClienteServiceReactivo → R2DBC → H2
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"reactivo", "test"})
+@DisplayName("Cliente Controller Reactivo Integration Tests")
+class ClienteControllerReactivoIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private EventoOutboxJPA eventoOutboxJPA;
+
+    @Autowired
+    private AuditoriaClientes auditoriaClientes;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    private ClienteCreateDTO clienteCreateDTO;
+
+    @BeforeEach
+    void setUp() {
+        clienteJPA.deleteAll();
+        eventoOutboxJPA.deleteAll();
+        clienteCreateDTO = new ClienteCreateDTO("12345678", "Juan Carlos", "Pérez González", LocalDate.of(1990, 5, 15),
+                "Bogotá", "Juan.Perez@email.com", "3001234567", Ocupacion.EMPLEADO);
+    }
+
+    @Nested
+    @DisplayName("POST /api/clientes - Crear Cliente")
+    class CrearClienteTests {
+
+        @Test
+        @DisplayName("Given_modoReactivo_When_iniciar_Then_soloSeRegistraElControladorReactivo")
+        void given_modoReactivo_when_iniciar_then_soloSeRegistraElControladorReactivo() {
+            // Then
+            assertThat(applicationContext.getBeansOfType(ClienteControllerReactivo.class)).hasSize(1);
+            assertThat(applicationContext.getBeansOfType(ClienteController.class)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Given_clienteValido_When_crear_Then_201YSeGuardaConOutboxEHistorial")
+        void given_clienteValido_when_crear_then_201YSeGuardaConOutboxEHistorial() {
+            // When
+            webTestClient.post().uri("/api/clientes").bodyValue(clienteCreateDTO)
+                    .exchange()
+                    // Then
+                    .expectStatus().isCreated()
+                    .expectBody()
+                    .jsonPath("$.success").isEqualTo(true)
+                    .jsonPath("$.message").isEqualTo("Cliente creado exitosamente. Es viable: Sí")
+                    .jsonPath("$.data").isEqualTo("12345678");
+
+            assertThat(clienteJPA.findById("12345678")).hasValueSatisfying(cliente -> {
+                assertThat(cliente.getCorreoElectronico()).isEqualTo("juan.perez@email.com");
+                assertThat(cliente.getEsViable()).isTrue();
+                assertThat(cliente.getVersion()).isZero();
+            });
+            assertThat(eventoOutboxJPA.findAll()).singleElement()
+                    .satisfies(evento -> assertThat(evento.getOperacion()).isEqualTo(OperacionCambio.CREACION));
+            assertThat(auditoriaClientes.historial("12345678")).isNotEmpty();
+        }
+
+        @Test
+        @DisplayName("Given_correoDuplicado_When_crear_Then_409ConElMismoFormatoDeError")
+        void given_correoDuplicado_when_crear_then_409ConElMismoFormatoDeError() {
+            // Given
+            webTestClient.post().uri("/api/clientes").bodyValue(clienteCreateDTO).exchange().expectStatus().isCreated();
+            clienteCreateDTO.setNumeroDocumento("87654321");
+
+            // When
+            webTestClient.post().uri("/api/clientes").bodyValue(clienteCreateDTO)
+                    .exchange()
+                    // Then
+                    .expectStatus().isEqualTo(409)
+                    .expectBody()
+                    .jsonPath("$.status").isEqualTo(409)
+                    .jsonPath("$.path").isEqualTo("uri=/api/clientes");
+            assertThat(clienteJPA.count()).isEqualTo(1);
+            assertThat(eventoOutboxJPA.count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given_datosInvalidos_When_crear_Then_400ConErroresPorCampo")
+        void given_datosInvalidos_when_crear_then_400ConErroresPorCampo() {
+            // Given
+            clienteCreateDTO.setCorreoElectronico("no-es-correo");
+            clienteCreateDTO.setNombre("");
+
+            // When
+            webTestClient.post().uri("/api/clientes").bodyValue(clienteCreateDTO)
+                    .exchange()
+                    // Then
+                    .expectStatus().isBadRequest()
+                    .expectBody()
+                    .jsonPath("$.fieldErrors.correoElectronico").exists()
+                    .jsonPath("$.fieldErrors.nombre").exists();
+            assertThat(clienteJPA.count()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("GET, PUT y DELETE /api/clientes/{numeroDocumento}")
+    class LecturaYEscrituraTests {
+
+        @BeforeEach
+        void crearCliente() {
+            webTestClient.post().uri("/api/clientes").bodyValue(clienteCreateDTO).exchange().expectStatus().isCreated();
+        }
+
+        @Test
+        @DisplayName("Given_clienteExistente_When_obtenerYBuscar_Then_devuelveElClienteConEdadYETag")
+        void given_clienteExistente_when_obtenerYBuscar_then_devuelveElClienteConEdadYETag() {
+            // When / Then
+            webTestClient.get().uri("/api/clientes/12345678")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+                    .expectBody()
+                    .jsonPath("$.data.ocupacion").isEqualTo("Empleado")
+                    .jsonPath("$.data.edad").isNumber();
+            webTestClient.get().uri("/api/clientes/por-correo?correo=JUAN.PEREZ@email.com")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.data.numeroDocumento").isEqualTo("12345678");
+            webTestClient.get().uri("/api/clientes/buscar?q=gonz")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.total").isEqualTo(1);
+            webTestClient.get().uri("/api/clientes/99999999")
+                    .exchange()
+                    .expectStatus().isNotFound()
+                    .expectBody().jsonPath("$.path").isEqualTo("uri=/api/clientes/99999999");
+        }
+
+        @Test
+        @DisplayName("Given_versionObsoleta_When_actualizar_Then_409YConVersionActualSeActualiza")
+        void given_versionObsoleta_when_actualizar_then_409YConVersionActualSeActualiza() {
+            // Given
+            ClienteUpdateDTO clienteUpdateDTO = new ClienteUpdateDTO("Juan", "Pérez", LocalDate.of(1990, 5, 15),
+                    "Cali", "juan.perez@email.com", "3001234567", Ocupacion.INDEPENDIENTE);
+
+            // When / Then
+            webTestClient.put().uri("/api/clientes/12345678").header(HttpHeaders.IF_MATCH, "\"5\"")
+                    .bodyValue(clienteUpdateDTO)
+                    .exchange()
+                    .expectStatus().isEqualTo(409);
+            webTestClient.put().uri("/api/clientes/12345678").header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .bodyValue(clienteUpdateDTO)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.message").isEqualTo("Cliente actualizado exitosamente. Es viable: Sí");
+            webTestClient.put().uri("/api/clientes/00000000").bodyValue(clienteUpdateDTO)
+                    .exchange()
+                    .expectStatus().isNotFound();
+
+            assertThat(clienteJPA.findById("12345678")).hasValueSatisfying(cliente -> {
+                assertThat(cliente.getCiudad()).isEqualTo("Cali");
+                assertThat(cliente.getOcupacion()).isEqualTo(Ocupacion.INDEPENDIENTE);
+                assertThat(cliente.getVersion()).isEqualTo(1L);
+            });
+        }
+
+        @Test
+        @DisplayName("Given_parcheConVersion_When_parchear_Then_soloCambianLosCamposDelParcheYSeRegistraEnElHistorial")
+        void given_parcheConVersion_when_parchear_then_soloCambianLosCamposDelParcheYSeRegistraEnElHistorial() {
+            // When / Then
+            webTestClient.patch().uri("/api/clientes/12345678").header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.valueOf("application/merge-patch+json"))
+                    .bodyValue(Map.of("ciudad", "Medellín"))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.message").isEqualTo("Cliente actualizado exitosamente");
+            webTestClient.patch().uri("/api/clientes/12345678").header(HttpHeaders.IF_MATCH, "\"0\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("telefono", "3109876543"))
+                    .exchange()
+                    .expectStatus().isEqualTo(409);
+            webTestClient.patch().uri("/api/clientes/12345678")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(Map.of("numeroDocumento", "1"))
+                    .exchange()
+                    .expectStatus().isBadRequest();
+
+            assertThat(clienteJPA.findById("12345678")).hasValueSatisfying(cliente -> {
+                assertThat(cliente.getCiudad()).isEqualTo("Medellín");
+                assertThat(cliente.getNombre()).isEqualTo("Juan Carlos");
+                assertThat(cliente.getVersion()).isEqualTo(1L);
+            });
+            webTestClient.get().uri("/api/clientes/12345678/historial")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody()
+                    .jsonPath("$.data[-1:].operacion").isEqualTo(List.of("ACTUALIZACION"))
+                    .jsonPath("$.data[-1:].campos.ciudad").isEqualTo(List.of("Medellín"));
+        }
+
+        @Test
+        @DisplayName("Given_clienteExistente_When_eliminarDosVeces_Then_200Y404")
+        void given_clienteExistente_when_eliminarDosVeces_then_200Y404() {
+            // When / Then
+            webTestClient.delete().uri("/api/clientes/12345678").exchange().expectStatus().isOk();
+            webTestClient.delete().uri("/api/clientes/12345678").exchange().expectStatus().isNotFound();
+            assertThat(clienteJPA.existsById("12345678")).isFalse();
+            assertThat(eventoOutboxJPA.findAll()).extracting(evento -> evento.getOperacion())
+                    .containsExactlyInAnyOrder(OperacionCambio.CREACION, OperacionCambio.ELIMINACION);
+        }
+    }
+
+    @Nested
+    @DisplayName("Plazo e idempotencia de las solicitudes")
+    class FiltrosTests {
+
+        @Test
+        @DisplayName("Given_mismaClaveDeIdempotencia_When_crearDosVeces_Then_seRepiteLaRespuestaSinEjecutarDeNuevo")
+        void given_mismaClaveDeIdempotencia_when_crearDosVeces_then_seRepiteLaRespuestaSinEjecutarDeNuevo() {
+            // Given
+            String clave = UUID.randomUUID().toString();
+            webTestClient.post().uri("/api/clientes").header(IdempotenciaFilter.CABECERA_CLAVE, clave)
+                    .bodyValue(clienteCreateDTO)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectHeader().doesNotExist(IdempotenciaFilter.CABECERA_REPETIDA);
+
+            // When / Then
+            webTestClient.post().uri("/api/clientes").header(IdempotenciaFilter.CABECERA_CLAVE, clave)
+                    .bodyValue(clienteCreateDTO)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectHeader().valueEquals(IdempotenciaFilter.CABECERA_REPETIDA, "true")
+                    .expectBody().jsonPath("$.data").isEqualTo("12345678");
+            clienteCreateDTO.setNumeroDocumento("87654321");
+            webTestClient.post().uri("/api/clientes").header(IdempotenciaFilter.CABECERA_CLAVE, clave)
+                    .bodyValue(clienteCreateDTO)
+                    .exchange()
+                    .expectStatus().isEqualTo(422);
+
+            assertThat(clienteJPA.count()).isEqualTo(1);
+            assertThat(eventoOutboxJPA.count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Given_cabecerasDePlazo_When_solicitar_Then_400SiSonInvalidasY504SiYaVencio")
+        void given_cabecerasDePlazo_when_solicitar_then_400SiSonInvalidasY504SiYaVencio() {
+            // When / Then
+            webTestClient.get().uri("/api/clientes").header(PlazoFilter.CABECERA_TIMEOUT, "pronto")
+                    .exchange()
+                    .expectStatus().isBadRequest()
+                    .expectBody().jsonPath("$.error").isEqualTo("Plazo inválido");
+            webTestClient.post().uri("/api/clientes")
+                    .header(PlazoFilter.CABECERA_DEADLINE, String.valueOf(System.currentTimeMillis() - 1_000))
+                    .bodyValue(clienteCreateDTO)
+                    .exchange()
+                    .expectStatus().isEqualTo(504)
+                    .expectBody().jsonPath("$.error").isEqualTo("Plazo excedido");
+            webTestClient.get().uri("/api/clientes").header(PlazoFilter.CABECERA_TIMEOUT, "5000")
+                    .exchange()
+                    .expectStatus().isOk();
+
+            assertThat(clienteJPA.count()).isZero();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.rti.prueba.controller;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource de prueba que cuenta las sentencias JDBC y las idas y vueltas a la base de datos de los hilos
+ * que atienden solicitudes HTTP: Tomcat, bulkheads y exportaciones. Un lote cuenta sus sentencias pero
+ * una sola ida y vuelta; commit y rollback cuentan como ida y vuelta. Los hilos de fondo (analítica,
+ * relevo del outbox, réplica, tareas programadas) no se cuentan.
+ */
+class ContadorSentencias extends DelegatingDataSource {
+
+    private static final List<String> HILOS_SOLICITUD = List.of("http-nio-", "bulkhead-", "exportacion-");
+
+    private final AtomicInteger sentencias = new AtomicInteger();
+    private final AtomicInteger idasYVueltas = new AtomicInteger();
+
+    ContadorSentencias(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    void reiniciar() {
+        sentencias.set(0);
+        idasYVueltas.set(0);
+    }
+
+    Consumo consumo() {
+        return new Consumo(sentencias.get(), idasYVueltas.get());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection() throws SQLException {
+        return contar(super.getConnection());
+    }
+
+    @Override
+    @NonNull
+    public Connection getConnection(@NonNull String usuario, @NonNull String clave) throws SQLException {
+        return contar(super.getConnection(usuario, clave));
+    }
+
+    private Connection contar(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, metodo, argumentos) -> {
+                    Object resultado = invocar(conexion, metodo, argumentos);
+                    switch (metodo.getName()) {
+                        case "commit", "rollback" -> registrar(0, 1);
+                        default -> {
+                            if (resultado instanceof Statement sentencia) {
+                                return contar(sentencia);
+                            }
+                        }
+                    }
+                    return resultado;
+                });
+    }
+
+    private Statement contar(Statement sentencia) {
+        Class<?> tipo = sentencia instanceof CallableStatement ? CallableStatement.class
+                : sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        AtomicInteger enLote = new AtomicInteger();
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, argumentos) -> {
+                    String nombre = metodo.getName();
+                    if (nombre.equals("addBatch")) {
+                        enLote.incrementAndGet();
+                    } else if (nombre.equals("clearBatch")) {
+                        enLote.set(0);
+                    } else if (nombre.equals("executeBatch") || nombre.equals("executeLargeBatch")) {
+                        registrar(enLote.getAndSet(0), 1);
+                    } else if (nombre.startsWith("execute")) {
+                        registrar(1, 1);
+                    }
+                    return invocar(sentencia, metodo, argumentos);
+                });
+    }
+
+    private void registrar(int sentenciasEjecutadas, int idasYVueltasHechas) {
+        String hilo = Thread.currentThread().getName();
+        if (HILOS_SOLICITUD.stream().anyMatch(hilo::startsWith)) {
+            sentencias.addAndGet(sentenciasEjecutadas);
+            idasYVueltas.addAndGet(idasYVueltasHechas);
+        }
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Sentencias e idas y vueltas de una solicitud
+     */
+    record Consumo(int sentencias, int idasYVueltas) {
+    }
+}
@@ -0,0 +1,396 @@
+package com.rti.prueba.controller;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.enums.EstadoExportacion;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.service.ClienteAnaliticaService;
+import com.rti.prueba.service.ClienteExportService;
+import com.rti.prueba.service.ClienteService;
+import com.rti.prueba.service.cache.ClienteNearCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.NonNull;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Presupuesto de sentencias SQL e idas y vueltas a la base de datos por endpoint de ClienteController.
+ * Cada solicitud se mide con tres clientes en BD y la caché cercana vacía; superar el presupuesto declarado
+ * hace fallar la build. Si un cambio reduce el consumo, el presupuesto se ajusta a la baja en el mismo cambio.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@ActiveProfiles("test")
+@DisplayName("Presupuesto de Sentencias SQL por Endpoint")
+class PresupuestoSentenciasIntegrationTest {
+
+    /**
+     * Presupuesto por endpoint: sentencias ejecutadas e idas y vueltas (ejecuciones, lotes, commits y rollbacks)
+     */
+    private static final Map<String, ContadorSentencias.Consumo> PRESUPUESTOS = Map.ofEntries(
+            entry("POST /api/clientes", presupuesto(4, 5)),
+            entry("GET /api/clientes", presupuesto(1, 2)),
+            entry("GET /api/clientes/{numeroDocumento}", presupuesto(1, 2)),
+            entry("GET /api/clientes/{numeroDocumento}/historial", presupuesto(0, 0)),
+            entry("PUT /api/clientes/{numeroDocumento}", presupuesto(2, 3)),
+            entry("PATCH /api/clientes/{numeroDocumento}", presupuesto(2, 3)),
+            // DELETE condicional sin consulta previa + evento del outbox
+            entry("DELETE /api/clientes/{numeroDocumento}", presupuesto(2, 3)),
+            entry("POST /api/clientes/masivo/eliminar", presupuesto(7, 8)),
+            entry("POST /api/clientes/masivo/actualizar", presupuesto(5, 6)),
+            entry("POST /api/clientes/importaciones", presupuesto(8, 5)),
+            entry("POST /api/clientes/exports", presupuesto(5, 9)),
+            entry("GET /api/clientes/exports/{id}", presupuesto(1, 2)),
+            entry("GET /api/clientes/exports/{id}/archivo", presupuesto(1, 2)),
+            entry("GET /api/clientes/por-correo", presupuesto(1, 1)),
+            entry("GET /api/clientes/buscar", presupuesto(1, 1)),
+            entry("GET /api/clientes/analitica/conteo", presupuesto(0, 0)),
+            entry("GET /api/clientes/analitica/edades", presupuesto(0, 0)),
+            entry("GET /api/clientes/analitica/grupos", presupuesto(0, 0)),
+            entry("GET /api/clientes/analitica/segmentos", presupuesto(0, 0)),
+            entry("GET /api/clientes/analitica/indices", presupuesto(0, 0))
+    );
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ContadorSentencias contadorSentencias;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteNearCache clienteNearCache;
+
+    @Autowired
+    private ClienteAnaliticaService clienteAnaliticaService;
+
+    @Autowired
+    private ClienteExportService clienteExportService;
+
+    private String baseUrl;
+    private HttpHeaders headers;
+
+    @TestConfiguration
+    static class ContadorConfig {
+
+        /**
+         * Envuelve el DataSource de la aplicación (ya particionado por clase de trabajo) con el contador
+         */
+        @Bean
+        static BeanPostProcessor contadorSentenciasPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String nombre) {
+                    if (bean instanceof DataSource dataSource && nombre.equals("dataSource")) {
+                        return new ContadorSentencias(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = "http://localhost:" + port + "/api/clientes";
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        clienteJPA.deleteAll();
+        clienteService.crearCliente(cliente("10000001", "Ana", "Cali", Ocupacion.EMPLEADO));
+        clienteService.crearCliente(cliente("10000002", "Luis", "Cali", Ocupacion.INDEPENDIENTE));
+        clienteService.crearCliente(cliente("10000003", "Eva", "Bogotá", Ocupacion.EMPLEADO));
+        clienteAnaliticaService.reconstruir();
+        clienteNearCache.limpiar();
+    }
+
+    private static ContadorSentencias.Consumo presupuesto(int sentencias, int idasYVueltas) {
+        return new ContadorSentencias.Consumo(sentencias, idasYVueltas);
+    }
+
+    private static ClienteCreateDTO cliente(String numeroDocumento, String nombre, String ciudad, Ocupacion ocupacion) {
+        return new ClienteCreateDTO(numeroDocumento, nombre, "Pérez", LocalDate.of(1990, 5, 15), ciudad,
+                nombre.toLowerCase() + numeroDocumento + "@email.com", "3001234567", ocupacion);
+    }
+
+    /**
+     * Ejecutar la solicitud y verificar que su consumo no supera el presupuesto del endpoint
+     */
+    private <T> ResponseEntity<T> dentroDelPresupuesto(String endpoint, Supplier<ResponseEntity<T>> solicitud) {
+        ContadorSentencias.Consumo presupuesto = PRESUPUESTOS.get(endpoint);
+        assertThat(presupuesto).as("Presupuesto declarado para %s", endpoint).isNotNull();
+        contadorSentencias.reiniciar();
+        ResponseEntity<T> response = solicitud.get();
+        assertThat(response.getStatusCode().is2xxSuccessful()).as("%s respondió %s", endpoint, response.getStatusCode()).isTrue();
+        ContadorSentencias.Consumo consumo = contadorSentencias.consumo();
+        assertThat(consumo.sentencias())
+                .as("Sentencias SQL de %s (consumo %s, presupuesto %s)", endpoint, consumo, presupuesto)
+                .isLessThanOrEqualTo(presupuesto.sentencias());
+        assertThat(consumo.idasYVueltas())
+                .as("Idas y vueltas de %s (consumo %s, presupuesto %s)", endpoint, consumo, presupuesto)
+                .isLessThanOrEqualTo(presupuesto.idasYVueltas());
+        return response;
+    }
+
+    private ResponseEntity<String> enviar(String ruta, HttpMethod metodo, Object cuerpo, HttpHeaders cabeceras) {
+        return restTemplate.exchange(baseUrl + ruta, metodo, new HttpEntity<>(cuerpo, cabeceras), String.class);
+    }
+
+    @Test
+    @DisplayName("Given_endpointsDeClienteController_When_revisarPresupuestos_Then_todosTienenPresupuestoDeclarado")
+    void given_endpointsDeClienteController_when_revisarPresupuestos_then_todosTienenPresupuestoDeclarado(
+            @Autowired @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
+        // When
+        Set<String> endpoints = handlerMapping.getHandlerMethods().entrySet().stream()
+                .filter(handler -> handler.getValue().getBeanType().equals(ClienteController.class))
+                .flatMap(handler -> handler.getKey().getMethodsCondition().getMethods().stream()
+                        .flatMap(metodo -> handler.getKey().getPatternValues().stream().map(patron -> metodo + " " + patron)))
+                .collect(Collectors.toSet());
+
+        // Then
+        assertThat(PRESUPUESTOS.keySet()).containsExactlyInAnyOrderElementsOf(endpoints);
+    }
+
+    @Nested
+    @DisplayName("Consultas")
+    class ConsultasTests {
+
+        @Test
+        @DisplayName("Given_tresClientes_When_GETlista_Then_unaSentenciaSinNMasUno")
+        void given_tresClientes_when_getLista_then_unaSentenciaSinNMasUno() {
+            // When
+            ResponseEntity<String> response = dentroDelPresupuesto("GET /api/clientes",
+                    () -> restTemplate.getForEntity(baseUrl, String.class));
+
+            // Then
+            assertThat(response.getBody()).contains("\"total\":3");
+        }
+
+        @Test
+        @DisplayName("Given_cacheVacia_When_GETporDocumento_Then_dentroDelPresupuesto")
+        void given_cacheVacia_when_getPorDocumento_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("GET /api/clientes/{numeroDocumento}",
+                    () -> restTemplate.getForEntity(baseUrl + "/10000001", String.class));
+        }
+
+        @Test
+        @DisplayName("Given_clienteConCambios_When_GEThistorial_Then_dentroDelPresupuesto")
+        void given_clienteConCambios_when_getHistorial_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("GET /api/clientes/{numeroDocumento}/historial",
+                    () -> restTemplate.getForEntity(baseUrl + "/10000001/historial", String.class));
+        }
+
+        @Test
+        @DisplayName("Given_correo_When_GETporCorreo_Then_dentroDelPresupuesto")
+        void given_correo_when_getPorCorreo_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("GET /api/clientes/por-correo",
+                    () -> restTemplate.getForEntity(baseUrl + "/por-correo?correo=ana10000001@email.com", String.class));
+        }
+
+        @Test
+        @DisplayName("Given_termino_When_GETbuscar_Then_dentroDelPresupuesto")
+        void given_termino_when_getBuscar_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("GET /api/clientes/buscar",
+                    () -> restTemplate.getForEntity(baseUrl + "/buscar?q=Pérez", String.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Escrituras")
+    class EscriturasTests {
+
+        @Test
+        @DisplayName("Given_clienteNuevo_When_POST_Then_dentroDelPresupuesto")
+        void given_clienteNuevo_when_post_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("POST /api/clientes",
+                    () -> enviar("", HttpMethod.POST, cliente("10000004", "Raúl", "Cali", Ocupacion.EMPLEADO), headers));
+        }
+
+        @Test
+        @DisplayName("Given_clienteExistente_When_PUT_Then_dentroDelPresupuesto")
+        void given_clienteExistente_when_put_then_dentroDelPresupuesto() {
+            // Given
+            String cuerpo = "{\"nombre\":\"Ana\",\"apellidos\":\"Pérez\",\"fechaNacimiento\":\"1990-05-15\",\"ciudad\":\"Medellín\","
+                    + "\"correoElectronico\":\"ana10000001@email.com\",\"telefono\":\"3001234567\",\"ocupacion\":\"Empleado\"}";
+
+            // When
+            dentroDelPresupuesto("PUT /api/clientes/{numeroDocumento}",
+                    () -> enviar("/10000001", HttpMethod.PUT, cuerpo, headers));
+        }
+
+        @Test
+        @DisplayName("Given_parche_When_PATCH_Then_dentroDelPresupuesto")
+        void given_parche_when_patch_then_dentroDelPresupuesto() {
+            // Given
+            HttpHeaders mergePatch = new HttpHeaders();
+            mergePatch.setContentType(MediaType.valueOf("application/merge-patch+json"));
+
+            // When
+            dentroDelPresupuesto("PATCH /api/clientes/{numeroDocumento}",
+                    () -> enviar("/10000001", HttpMethod.PATCH, "{\"ciudad\":\"Medellín\"}", mergePatch));
+        }
+
+        @Test
+        @DisplayName("Given_clienteExistente_When_DELETE_Then_sinConsultaPrevia")
+        void given_clienteExistente_when_delete_then_sinConsultaPrevia() {
+            // When
+            dentroDelPresupuesto("DELETE /api/clientes/{numeroDocumento}",
+                    () -> enviar("/10000001", HttpMethod.DELETE, null, headers));
+
+            // Then
+            assertThat(clienteJPA.existsById("10000001")).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Operaciones masivas e importación")
+    class MasivasTests {
+
+        @Test
+        @DisplayName("Given_tresDocumentos_When_eliminarMasivo_Then_dentroDelPresupuesto")
+        void given_tresDocumentos_when_eliminarMasivo_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("POST /api/clientes/masivo/eliminar", () -> enviar("/masivo/eliminar", HttpMethod.POST,
+                    "{\"numerosDocumento\":[\"10000001\",\"10000002\",\"10000003\"]}", headers));
+
+            // Then
+            assertThat(clienteJPA.count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Given_filtro_When_actualizarMasivo_Then_dentroDelPresupuesto")
+        void given_filtro_when_actualizarMasivo_then_dentroDelPresupuesto() {
+            // When
+            dentroDelPresupuesto("POST /api/clientes/masivo/actualizar", () -> enviar("/masivo/actualizar", HttpMethod.POST,
+                    "{\"filtro\":{\"ciudad\":\"Cali\"},\"ciudad\":\"Cartagena\"}", headers));
+        }
+
+        @Test
+        @DisplayName("Given_csvDeTresFilas_When_importar_Then_dentroDelPresupuesto")
+        void given_csvDeTresFilas_when_importar_then_dentroDelPresupuesto() {
+            // Given
+            String csv = String.join("\n",
+                    "numeroDocumento,nombre,apellidos,fechaNacimiento,ciudad,correoElectronico,telefono,ocupacion",
+                    "20000001,Ana,Ruiz,1990-01-01,Cali,ana@email.com,3001112233,Empleado",
+                    "20000002,Luis,Gómez,1950-01-01,Cali,luis@email.com,3001112234,Pensionado",
+                    "20000003,Eva,Mora,1990-01-01,Cali,eva@email.com,3001112235,Empleado");
+            HttpHeaders csvHeaders = new HttpHeaders();
+            csvHeaders.setContentType(MediaType.valueOf("text/csv"));
+
+            // When
+            dentroDelPresupuesto("POST /api/clientes/importaciones",
+                    () -> enviar("/importaciones", HttpMethod.POST, csv, csvHeaders));
+
+            // Then
+            assertThat(clienteJPA.count()).isEqualTo(6);
+        }
+    }
+
+    @Nested
+    @DisplayName("Exportaciones")
+    class ExportacionesTests {
+
+        @Test
+        @DisplayName("Given_exportacion_When_iniciarConsultarYDescargar_Then_cadaPasoDentroDelPresupuesto")
+        void given_exportacion_when_iniciarConsultarYDescargar_then_cadaPasoDentroDelPresupuesto() throws InterruptedException {
+            // When: el presupuesto de POST incluye la exportación completa en su hilo de fondo
+            ResponseEntity<String> response = dentroDelPresupuesto("POST /api/clientes/exports", () -> {
+                ResponseEntity<String> iniciada = enviar("/exports", HttpMethod.POST, "{\"formato\":\"CSV\"}", headers);
+                String location = iniciada.getHeaders().getLocation().toString();
+                esperarCompletada(location.substring(location.lastIndexOf('/') + 1));
+                return iniciada;
+            });
+            String id = response.getHeaders().getLocation().toString().substring(
+                    response.getHeaders().getLocation().toString().lastIndexOf('/') + 1);
+
+            // Then
+            dentroDelPresupuesto("GET /api/clientes/exports/{id}",
+                    () -> restTemplate.getForEntity(baseUrl + "/exports/" + id, String.class));
+            dentroDelPresupuesto("GET /api/clientes/exports/{id}/archivo",
+                    () -> restTemplate.getForEntity(baseUrl + "/exports/" + id + "/archivo", byte[].class));
+        }
+
+        private void esperarCompletada(String id) {
+            for (int intento = 0; intento < 200; intento++) {
+                if (clienteExportService.obtenerEstado(id).getEstado() == EstadoExportacion.COMPLETADA) {
+                    return;
+                }
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fail("Espera interrumpida");
+                }
+            }
+            fail("La exportación no terminó a tiempo");
+        }
+    }
+
+    @Nested
+    @DisplayName("Analítica")
+    class AnaliticaTests {
+
+        @Test
+        @DisplayName("Given_instantaneaCargada_When_consultasAnaliticas_Then_sinSentenciasSql")
+        void given_instantaneaCargada_when_consultasAnaliticas_then_sinSentenciasSql() {
+            // When
+            ResponseEntity<String> conteo = dentroDelPresupuesto("GET /api/clientes/analitica/conteo",
+                    () -> restTemplate.getForEntity(baseUrl + "/analitica/conteo?ciudad=Cali", String.class));
+            dentroDelPresupuesto("GET /api/clientes/analitica/edades",
+                    () -> restTemplate.getForEntity(baseUrl + "/analitica/edades?ancho=10", String.class));
+            dentroDelPresupuesto("GET /api/clientes/analitica/grupos",
+                    () -> restTemplate.getForEntity(baseUrl + "/analitica/grupos?por=ciudad", String.class));
+            dentroDelPresupuesto("GET /api/clientes/analitica/segmentos",
+                    () -> restTemplate.getForEntity(baseUrl + "/analitica/segmentos?ciudades=Cali", String.class));
+            dentroDelPresupuesto("GET /api/clientes/analitica/indices",
+                    () -> restTemplate.getForEntity(baseUrl + "/analitica/indices", String.class));
+
+            // Then
+            assertThat(conteo.getBody()).contains("\"data\":2");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.rti.prueba.controller.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.enums.AlgoritmoLimite;
+import com.rti.prueba.enums.GrupoAdmision;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AdmisionFilter Tests")
+class AdmisionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AdmisionFilter admisionFilter;
+
+    @BeforeEach
+    void setUp() {
+        ClientesProperties clientesProperties = new ClientesProperties();
+        clientesProperties.getAdmision().setRetryAfter(Duration.ofSeconds(2));
+        clientesProperties.getAdmision().setEscrituras(
+                new ClientesProperties.Limite(AlgoritmoLimite.AIMD, 1, 1, 1, Duration.ofSeconds(1)));
+        admisionFilter = new AdmisionFilter(clientesProperties, new ObjectMapper().registerModule(new JavaTimeModule()),
+                meterRegistry);
+    }
+
+    @Nested
+    @DisplayName("Filtro de admisión")
+    class FiltroTests {
+
+        @Test
+        @DisplayName("Given_limiteAlcanzado_When_nuevaSolicitud_Then_503ConRetryAfter")
+        void given_limiteAlcanzado_when_nuevaSolicitud_then_503ConRetryAfter() throws Exception {
+            // Given
+            MockHttpServletResponse segunda = new MockHttpServletResponse();
+
+            // When - la segunda escritura llega mientras la primera está en curso
+            MockHttpServletResponse primera = new MockHttpServletResponse();
+            admisionFilter.doFilter(solicitud("PUT", "/api/clientes/12345678"), primera,
+                    (request, response) -> admisionFilter.doFilter(solicitud("DELETE", "/api/clientes/87654321"), segunda,
+                            (r, s) -> { }));
+
+            // Then
+            assertThat(primera.getStatus()).isEqualTo(200);
+            assertThat(segunda.getStatus()).isEqualTo(503);
+            assertThat(segunda.getHeader("Retry-After")).isEqualTo("2");
+            assertThat(segunda.getContentAsString()).contains("Servicio sobrecargado", "escrituras");
+            assertThat(meterRegistry.counter("clientes.admision.rechazos", "grupo", "escrituras").count()).isEqualTo(1);
+            assertThat(admisionFilter.getLimitador(GrupoAdmision.ESCRITURAS).getEnCurso()).isZero();
+        }
+
+        @Test
+        @DisplayName("Given_escriturasSaturadas_When_lectura_Then_admitidaConLimitePropio")
+        void given_escriturasSaturadas_when_lectura_then_admitidaConLimitePropio() throws Exception {
+            // Given
+            MockHttpServletResponse lectura = new MockHttpServletResponse();
+
+            // When
+            admisionFilter.doFilter(solicitud("POST", "/api/clientes"), new MockHttpServletResponse(),
+                    (request, response) -> admisionFilter.doFilter(solicitud("GET", "/api/clientes/12345678"), lectura,
+                            (r, s) -> { }));
+
+            // Then
+            assertThat(lectura.getStatus()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("Given_rutas_When_clasificar_Then_grupoCorrespondiente")
+        void given_rutas_when_clasificar_then_grupoCorrespondiente() {
+            assertThat(AdmisionFilter.clasificar(solicitud("GET", "/api/clientes/12345678"))).isEqualTo(GrupoAdmision.LECTURAS);
+            assertThat(AdmisionFilter.clasificar(solicitud("PATCH", "/api/clientes/12345678"))).isEqualTo(GrupoAdmision.ESCRITURAS);
+            assertThat(AdmisionFilter.clasificar(solicitud("GET", "/api/clientes/buscar"))).isEqualTo(GrupoAdmision.MASIVAS);
+            assertThat(AdmisionFilter.clasificar(solicitud("POST", "/api/clientes/masivo/eliminar"))).isEqualTo(GrupoAdmision.MASIVAS);
+            assertThat(AdmisionFilter.clasificar(solicitud("GET", "/api/clientes/exports/abc"))).isEqualTo(GrupoAdmision.MASIVAS);
+        }
+    }
+
+    @Nested
+    @DisplayName("Límites adaptativos")
+    class LimitesTests {
+
+        @Test
+        @DisplayName("Given_aimdUsadoConLatenciaBaja_When_registrar_Then_creceYReduceAnteLentitud")
+        void given_aimdUsadoConLatenciaBaja_when_registrar_then_creceYReduceAnteLentitud() {
+            // Given
+            LimiteAimd limite = new LimiteAimd(10, 1, 20, TimeUnit.MILLISECONDS.toNanos(100));
+
+            // When
+            for (int i = 0; i < 5; i++) {
+                limite.registrar(TimeUnit.MILLISECONDS.toNanos(10), limite.getLimite(), false);
+            }
+            int trasExitos = limite.getLimite();
+            limite.registrar(TimeUnit.MILLISECONDS.toNanos(500), trasExitos, false);
+
+            // Then
+            assertThat(trasExitos).isEqualTo(15);
+            assertThat(limite.getLimite()).isEqualTo(13);
+        }
+
+        @Test
+        @DisplayName("Given_aimdPocoUsado_When_registrar_Then_noCrece")
+        void given_aimdPocoUsado_when_registrar_then_noCrece() {
+            // Given
+            LimiteAimd limite = new LimiteAimd(10, 1, 20, TimeUnit.MILLISECONDS.toNanos(100));
+
+            // When
+            limite.registrar(TimeUnit.MILLISECONDS.toNanos(10), 1, false);
+
+            // Then
+            assertThat(limite.getLimite()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Given_gradienteConLatenciaCreciente_When_registrar_Then_reduceLimite")
+        void given_gradienteConLatenciaCreciente_when_registrar_then_reduceLimite() {
+            // Given - latencia estable de 10 ms con el límite en uso
+            LimiteGradiente limite = new LimiteGradiente(50, 5, 200);
+            for (int i = 0; i < 50; i++) {
+                limite.registrar(TimeUnit.MILLISECONDS.toNanos(10), limite.getLimite(), false);
+            }
+            int estable = limite.getLimite();
+
+            // When - la latencia se multiplica por diez
+            for (int i = 0; i < 50; i++) {
+                limite.registrar(TimeUnit.MILLISECONDS.toNanos(100), limite.getLimite(), false);
+            }
+
+            // Then
+            assertThat(estable).isGreaterThan(50);
+            assertThat(limite.getLimite()).isLessThan(estable / 2);
+        }
+    }
+
+    private static MockHttpServletRequest solicitud(String metodo, String ruta) {
+        return new MockHttpServletRequest(metodo, ruta);
+    }
+}
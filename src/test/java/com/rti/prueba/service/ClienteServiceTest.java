@@ -3,13 +3,23 @@ package com.rti.prueba.service;
 import com.rti.prueba.bd.jpa.ClienteJPA;
 import com.rti.prueba.bd.orm.ClienteORM;
 import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClientePatchDTO;
 import com.rti.prueba.controller.dto.ClienteResponseDTO;
 import com.rti.prueba.controller.dto.ClienteUpdateDTO;
 import com.rti.prueba.enums.Ocupacion;
 import com.rti.prueba.exception.ClienteAlreadyExistsException;
 import com.rti.prueba.exception.ClienteNotFoundException;
+import com.rti.prueba.exception.ClienteServiceException;
 import com.rti.prueba.exception.ClienteValidationException;
+import com.rti.prueba.exception.ClienteVersionConflictException;
 import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.service.cache.ClienteNearCache;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import com.rti.prueba.service.cache.CoalescenciaLecturas;
+import com.rti.prueba.service.cache.SingleFlight;
+import com.rti.prueba.service.replica.ReplicaClientes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -17,18 +27,30 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +62,18 @@ class ClienteServiceTest {
     
     @Mock
     private ClienteMapper clienteMapper;
+
+    @Mock
+    private ClienteNearCache clienteNearCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CoalescenciaLecturas coalescenciaLecturas = new CoalescenciaLecturas(new SimpleMeterRegistry());
+
+    @Mock
+    private ReplicaClientes replicaClientes;
     
     @InjectMocks
     private ClienteService clienteService;
@@ -94,7 +128,8 @@ class ClienteServiceTest {
                 "3001234567",
                 Ocupacion.EMPLEADO,
                 true,
-                34
+                34,
+                0L
         );
     }
 
@@ -315,7 +350,9 @@ class ClienteServiceTest {
         void given_clienteExistente_when_obtenerClientePorDocumento_then_returnCliente() {
             // Given
             String numeroDocumento = "12345678";
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.of(clienteORM));
+            when(clienteJPA.buscarSinCacheSegundoNivel(numeroDocumento)).thenReturn(Optional.of(clienteORM));
+            when(clienteNearCache.obtenerCoalescido(eq(numeroDocumento), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<SingleFlight.Resultado<ClienteResponseDTO>>>getArgument(1).get().valor());
             when(clienteMapper.ORMToResponseDTO(clienteORM)).thenReturn(clienteResponseDTO);
 
             // When
@@ -325,7 +362,7 @@ class ClienteServiceTest {
             assertThat(resultado).isNotNull();
             assertThat(resultado.getNumeroDocumento()).isEqualTo(numeroDocumento);
             assertThat(resultado.getEdad()).isPositive();
-            verify(clienteJPA).findById(numeroDocumento);
+            verify(clienteJPA).buscarSinCacheSegundoNivel(numeroDocumento);
             verify(clienteMapper).ORMToResponseDTO(clienteORM);
         }
 
@@ -334,14 +371,16 @@ class ClienteServiceTest {
         void given_clienteNoExistente_when_obtenerClientePorDocumento_then_throwClienteNotFoundException() {
             // Given
             String numeroDocumento = "99999999";
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.empty());
+            when(clienteJPA.buscarSinCacheSegundoNivel(numeroDocumento)).thenReturn(Optional.empty());
+            when(clienteNearCache.obtenerCoalescido(eq(numeroDocumento), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<SingleFlight.Resultado<ClienteResponseDTO>>>getArgument(1).get().valor());
 
             // When & Then
             assertThatThrownBy(() -> clienteService.obtenerClientePorDocumento(numeroDocumento))
                     .isInstanceOf(ClienteNotFoundException.class)
                     .hasMessageContaining("Cliente con número de documento '99999999' no encontrado");
 
-            verify(clienteJPA).findById(numeroDocumento);
+            verify(clienteJPA).buscarSinCacheSegundoNivel(numeroDocumento);
             verify(clienteMapper, never()).ORMToResponseDTO(any());
         }
     }
@@ -355,9 +394,7 @@ class ClienteServiceTest {
         void given_clienteValidoExistente_when_actualizarCliente_then_clienteActualizadoExitosamente() {
             // Given
             String numeroDocumento = "12345678";
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.of(clienteORM));
-            when(clienteJPA.findByCorreoElectronico(clienteUpdateDTO.getCorreoElectronico())).thenReturn(Optional.empty());
-            when(clienteJPA.save(any(ClienteORM.class))).thenReturn(clienteORM);
+            when(clienteJPA.actualizarSiVersionCoincide(any(ClienteORM.class), isNull())).thenReturn(1);
 
             // When
             String resultado = clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO);
@@ -365,10 +402,29 @@ class ClienteServiceTest {
             // Then
             assertThat(resultado).contains("Cliente actualizado exitosamente");
             assertThat(resultado).contains("Es viable: Sí");
-            verify(clienteJPA).findById(numeroDocumento);
-            verify(clienteJPA).findByCorreoElectronico(clienteUpdateDTO.getCorreoElectronico());
-            verify(clienteMapper).updateDTOToORM(clienteUpdateDTO, clienteORM);
-            verify(clienteJPA).save(clienteORM);
+            verify(clienteMapper).updateDTOToORM(eq(clienteUpdateDTO), any(ClienteORM.class));
+            verify(clienteJPA).actualizarSiVersionCoincide(any(ClienteORM.class), isNull());
+            verify(clienteJPA, never()).findById(anyString());
+            verify(clienteJPA, never()).findByCorreoElectronico(anyString());
+            verify(clienteJPA, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Given_versionCoincidente_When_actualizarCliente_Then_unaSolaSentenciaCondicionada")
+        void given_versionCoincidente_when_actualizarCliente_then_unaSolaSentenciaCondicionada() {
+            // Given
+            String numeroDocumento = "12345678";
+            when(clienteJPA.actualizarSiVersionCoincide(any(ClienteORM.class), eq(3L))).thenReturn(1);
+
+            // When
+            String resultado = clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO, 3L);
+
+            // Then
+            assertThat(resultado).contains("Cliente actualizado exitosamente");
+            verify(clienteJPA).actualizarSiVersionCoincide(argThat(c -> numeroDocumento.equals(c.getNumeroDocumento())
+                    && Boolean.TRUE.equals(c.getEsViable())), eq(3L));
+            verify(clienteJPA, never()).existsById(anyString());
+            verify(eventPublisher).publishEvent(ClientesModificadosEvent.de(numeroDocumento, 3L));
         }
 
         @Test
@@ -376,36 +432,29 @@ class ClienteServiceTest {
         void given_clienteNoExistente_when_actualizarCliente_then_throwClienteNotFoundException() {
             // Given
             String numeroDocumento = "99999999";
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.empty());
+            when(clienteJPA.actualizarSiVersionCoincide(any(ClienteORM.class), isNull())).thenReturn(0);
+            when(clienteJPA.existsById(numeroDocumento)).thenReturn(false);
 
             // When & Then
             assertThatThrownBy(() -> clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO))
                     .isInstanceOf(ClienteNotFoundException.class)
                     .hasMessageContaining("Cliente con número de documento '99999999' no encontrado");
 
-            verify(clienteJPA).findById(numeroDocumento);
-            verify(clienteJPA, never()).save(any());
+            verify(clienteJPA).existsById(numeroDocumento);
         }
 
         @Test
-        @DisplayName("Given_correoEnUsoOtroCliente_When_actualizarCliente_Then_throwClienteAlreadyExistsException")
-        void given_correoEnUsoOtroCliente_when_actualizarCliente_then_throwClienteAlreadyExistsException() {
+        @DisplayName("Given_versionObsoleta_When_actualizarCliente_Then_throwClienteVersionConflictException")
+        void given_versionObsoleta_when_actualizarCliente_then_throwClienteVersionConflictException() {
             // Given
             String numeroDocumento = "12345678";
-            ClienteORM otroCliente = new ClienteORM();
-            otroCliente.setNumeroDocumento("87654321"); // Diferente documento
-            
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.of(clienteORM));
-            when(clienteJPA.findByCorreoElectronico(clienteUpdateDTO.getCorreoElectronico())).thenReturn(Optional.of(otroCliente));
+            when(clienteJPA.actualizarSiVersionCoincide(any(ClienteORM.class), eq(1L))).thenReturn(0);
+            when(clienteJPA.existsById(numeroDocumento)).thenReturn(true);
 
             // When & Then
-            assertThatThrownBy(() -> clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO))
-                    .isInstanceOf(ClienteAlreadyExistsException.class)
-                    .hasMessageContaining("Ya existe un cliente con correo electrónico");
-
-            verify(clienteJPA).findById(numeroDocumento);
-            verify(clienteJPA).findByCorreoElectronico(clienteUpdateDTO.getCorreoElectronico());
-            verify(clienteJPA, never()).save(any());
+            assertThatThrownBy(() -> clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO, 1L))
+                    .isInstanceOf(ClienteVersionConflictException.class)
+                    .hasMessageContaining("fue modificado por otra petición");
         }
 
         @Test
@@ -422,33 +471,128 @@ class ClienteServiceTest {
                     "3001111111",
                     Ocupacion.EMPLEADO
             );
-            
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.of(clienteORM));
-            when(clienteJPA.findByCorreoElectronico(updateConFechaFutura.getCorreoElectronico())).thenReturn(Optional.empty());
 
             // When & Then
             assertThatThrownBy(() -> clienteService.actualizarCliente(numeroDocumento, updateConFechaFutura))
                     .isInstanceOf(ClienteValidationException.class)
                     .hasMessageContaining("La fecha de nacimiento no puede ser futura");
 
-            verify(clienteJPA, never()).save(any());
+            verify(clienteJPA, never()).actualizarSiVersionCoincide(any(), any());
         }
 
         @Test
-        @DisplayName("Given_dataIntegrityViolation_When_actualizarCliente_Then_throwClienteAlreadyExistsException")
-        void given_dataIntegrityViolation_when_actualizarCliente_then_throwClienteAlreadyExistsException() {
-            // Given
+        @DisplayName("Given_correoEnUsoOtroCliente_When_actualizarCliente_Then_throwClienteAlreadyExistsException")
+        void given_correoEnUsoOtroCliente_when_actualizarCliente_then_throwClienteAlreadyExistsException() {
+            // Given - la violación del índice único de correo la detecta la base de datos
             String numeroDocumento = "12345678";
-            when(clienteJPA.findById(numeroDocumento)).thenReturn(Optional.of(clienteORM));
-            when(clienteJPA.findByCorreoElectronico(clienteUpdateDTO.getCorreoElectronico())).thenReturn(Optional.empty());
-            when(clienteJPA.save(any(ClienteORM.class))).thenThrow(new DataIntegrityViolationException("DB Constraint violation"));
+            when(clienteJPA.actualizarSiVersionCoincide(any(ClienteORM.class), isNull()))
+                    .thenThrow(violacion(ConstraintViolationException.ConstraintKind.UNIQUE));
 
             // When & Then
             assertThatThrownBy(() -> clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO))
                     .isInstanceOf(ClienteAlreadyExistsException.class)
-                    .hasMessageContaining("Conflicto con datos existentes");
+                    .hasMessageContaining("Ya existe un cliente con correo electrónico");
 
-            verify(clienteJPA).save(any(ClienteORM.class));
+            verify(clienteJPA, never()).existsById(anyString());
+        }
+
+        @Test
+        @DisplayName("Given_violacionNoNula_When_actualizarCliente_Then_throwClienteServiceExceptionSinConflictoDeCorreo")
+        void given_violacionNoNula_when_actualizarCliente_then_throwClienteServiceExceptionSinConflictoDeCorreo() {
+            // Given - una restricción distinta del índice único no es un correo duplicado
+            String numeroDocumento = "12345678";
+            when(clienteJPA.actualizarSiVersionCoincide(any(ClienteORM.class), isNull()))
+                    .thenThrow(violacion(ConstraintViolationException.ConstraintKind.OTHER));
+
+            // When & Then
+            assertThatThrownBy(() -> clienteService.actualizarCliente(numeroDocumento, clienteUpdateDTO))
+                    .isInstanceOf(ClienteServiceException.class)
+                    .hasMessageContaining("Error al actualizar el cliente 12345678");
+        }
+    }
+
+    @Nested
+    @DisplayName("Parchear Cliente Tests")
+    class ParchearClienteTests {
+
+        @Test
+        @DisplayName("Given_parcheSoloTelefono_When_parchearCliente_Then_actualizaSoloTelefonoSinRecalcularViabilidad")
+        void given_parcheSoloTelefono_when_parchearCliente_then_actualizaSoloTelefonoSinRecalcularViabilidad() {
+            // Given
+            String numeroDocumento = "12345678";
+            ClienteUpdateDTO valores = new ClienteUpdateDTO();
+            valores.setTelefono("3009999999");
+            ClientePatchDTO patch = new ClientePatchDTO(valores, Set.of("telefono"));
+            when(clienteMapper.patchDTOToCambios(patch)).thenReturn(new HashMap<>(Map.of("telefono", "3009999999")));
+            when(clienteJPA.actualizarCampos(eq(numeroDocumento), anyMap(), isNull())).thenReturn(1);
+
+            // When
+            String resultado = clienteService.parchearCliente(numeroDocumento, patch, null);
+
+            // Then
+            assertThat(resultado).isEqualTo("Cliente actualizado exitosamente");
+            verify(clienteJPA).actualizarCampos(eq(numeroDocumento),
+                    argThat(cambios -> cambios.containsKey("telefono") && !cambios.containsKey("esViable")
+                            && cambios.containsKey("updatedAt") && cambios.size() == 2),
+                    isNull());
+            verify(clienteJPA, never()).existsById(anyString());
+        }
+
+        @Test
+        @DisplayName("Given_parcheFechaNacimiento_When_parchearCliente_Then_recalculaViabilidad")
+        void given_parcheFechaNacimiento_when_parchearCliente_then_recalculaViabilidad() {
+            // Given - 70 años, no viable
+            String numeroDocumento = "12345678";
+            ClienteUpdateDTO valores = new ClienteUpdateDTO();
+            valores.setFechaNacimiento(LocalDate.now().minusYears(70));
+            ClientePatchDTO patch = new ClientePatchDTO(valores, Set.of("fechaNacimiento"));
+            when(clienteMapper.patchDTOToCambios(patch))
+                    .thenReturn(new HashMap<>(Map.of("fechaNacimiento", valores.getFechaNacimiento())));
+            when(clienteJPA.actualizarCampos(eq(numeroDocumento), anyMap(), eq(2L))).thenReturn(1);
+
+            // When
+            String resultado = clienteService.parchearCliente(numeroDocumento, patch, 2L);
+
+            // Then
+            assertThat(resultado).contains("Es viable: No");
+            verify(clienteJPA).actualizarCampos(eq(numeroDocumento),
+                    argThat(cambios -> Boolean.FALSE.equals(cambios.get("esViable"))), eq(2L));
+        }
+
+        @Test
+        @DisplayName("Given_correoDuplicado_When_parchearCliente_Then_throwClienteAlreadyExistsException")
+        void given_correoDuplicado_when_parchearCliente_then_throwClienteAlreadyExistsException() {
+            // Given
+            String numeroDocumento = "12345678";
+            ClienteUpdateDTO valores = new ClienteUpdateDTO();
+            valores.setCorreoElectronico("otro@email.com");
+            ClientePatchDTO patch = new ClientePatchDTO(valores, Set.of("correoElectronico"));
+            when(clienteMapper.patchDTOToCambios(patch))
+                    .thenReturn(new HashMap<>(Map.of("correoElectronico", "otro@email.com")));
+            when(clienteJPA.actualizarCampos(eq(numeroDocumento), anyMap(), isNull()))
+                    .thenThrow(new DuplicateKeyException("DB Constraint violation"));
+
+            // When & Then
+            assertThatThrownBy(() -> clienteService.parchearCliente(numeroDocumento, patch, null))
+                    .isInstanceOf(ClienteAlreadyExistsException.class)
+                    .hasMessageContaining("Ya existe un cliente con correo electrónico 'otro@email.com'");
+        }
+
+        @Test
+        @DisplayName("Given_clienteNoExistente_When_parchearCliente_Then_throwClienteNotFoundException")
+        void given_clienteNoExistente_when_parchearCliente_then_throwClienteNotFoundException() {
+            // Given
+            String numeroDocumento = "99999999";
+            ClienteUpdateDTO valores = new ClienteUpdateDTO();
+            valores.setCiudad("Cali");
+            ClientePatchDTO patch = new ClientePatchDTO(valores, Set.of("ciudad"));
+            when(clienteMapper.patchDTOToCambios(patch)).thenReturn(new HashMap<>(Map.of("ciudad", "Cali")));
+            when(clienteJPA.actualizarCampos(eq(numeroDocumento), anyMap(), isNull())).thenReturn(0);
+            when(clienteJPA.existsById(numeroDocumento)).thenReturn(false);
+
+            // When & Then
+            assertThatThrownBy(() -> clienteService.parchearCliente(numeroDocumento, patch, null))
+                    .isInstanceOf(ClienteNotFoundException.class);
         }
     }
 
@@ -461,15 +605,17 @@ class ClienteServiceTest {
         void given_clienteExistente_when_eliminarCliente_then_clienteEliminadoExitosamente() {
             // Given
             String numeroDocumento = "12345678";
-            when(clienteJPA.existsById(numeroDocumento)).thenReturn(true);
+            when(clienteJPA.eliminarPorDocumento(numeroDocumento)).thenReturn(1);
 
             // When
             String resultado = clienteService.eliminarCliente(numeroDocumento);
 
             // Then
             assertThat(resultado).isEqualTo("Cliente eliminado exitosamente");
-            verify(clienteJPA).existsById(numeroDocumento);
-            verify(clienteJPA).deleteById(numeroDocumento);
+            verify(clienteJPA).eliminarPorDocumento(numeroDocumento);
+            verify(clienteJPA, never()).existsById(anyString());
+            verify(clienteJPA, never()).deleteById(anyString());
+            verify(eventPublisher).publishEvent(ClientesModificadosEvent.de(List.of(numeroDocumento)));
         }
 
         @Test
@@ -477,15 +623,15 @@ class ClienteServiceTest {
         void given_clienteNoExistente_when_eliminarCliente_then_throwClienteNotFoundException() {
             // Given
             String numeroDocumento = "99999999";
-            when(clienteJPA.existsById(numeroDocumento)).thenReturn(false);
+            when(clienteJPA.eliminarPorDocumento(numeroDocumento)).thenReturn(0);
 
             // When & Then
             assertThatThrownBy(() -> clienteService.eliminarCliente(numeroDocumento))
                     .isInstanceOf(ClienteNotFoundException.class)
                     .hasMessageContaining("Cliente con número de documento '99999999' no encontrado");
 
-            verify(clienteJPA).existsById(numeroDocumento);
-            verify(clienteJPA, never()).deleteById(anyString());
+            verify(clienteJPA).eliminarPorDocumento(numeroDocumento);
+            verify(eventPublisher, never()).publishEvent(any(Object.class));
         }
     }
 
@@ -528,4 +674,12 @@ class ClienteServiceTest {
             verify(clienteMapper, never()).ORMToResponseDTO(any());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Violación de integridad como la traduce Spring desde la excepción de Hibernate
+     */
+    private static DataIntegrityViolationException violacion(ConstraintViolationException.ConstraintKind tipo) {
+        return new DataIntegrityViolationException("DB Constraint violation", new ConstraintViolationException(
+                "DB Constraint violation", new SQLException("DB Constraint violation"), null, tipo, null));
+    }
+}
@@ -0,0 +1,156 @@
+package com.rti.prueba.service.analitica;
+
+import com.rti.prueba.enums.Ocupacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("InstantaneaColumnar Tests")
+class InstantaneaColumnarTest {
+
+    private final InstantaneaColumnar instantanea = new InstantaneaColumnar();
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Nested
+    @DisplayName("Escrituras incrementales")
+    class EscriturasTests {
+
+        @Test
+        @DisplayName("Given_clienteGuardado_When_guardarDeNuevo_Then_reemplazaSusAtributos")
+        void given_clienteGuardado_when_guardarDeNuevo_then_reemplazaSusAtributos() {
+            // Given
+            instantanea.guardar("1", LocalDate.of(1990, 1, 1), Ocupacion.EMPLEADO, true, "Bogotá");
+
+            // When
+            instantanea.guardar("1", LocalDate.of(1990, 1, 1), Ocupacion.PENSIONADO, false, "Cali");
+
+            // Then
+            long[] porOcupacion = instantanea.contar(InstantaneaColumnar::codigoOcupacion, Ocupacion.values().length, pool);
+            assertThat(instantanea.tamano()).isEqualTo(1);
+            assertThat(porOcupacion[Ocupacion.PENSIONADO.ordinal()]).isEqualTo(1);
+            assertThat(porOcupacion[Ocupacion.EMPLEADO.ordinal()]).isZero();
+            assertThat(instantanea.contar((c, fila) -> c.esViable(fila) ? 0 : -1, 1, pool)[0]).isZero();
+        }
+
+        @Test
+        @DisplayName("Given_clienteEliminado_When_contar_Then_noSeCuentaYSuFilaSeReutiliza")
+        void given_clienteEliminado_when_contar_then_noSeCuentaYSuFilaSeReutiliza() {
+            // Given
+            instantanea.guardar("1", LocalDate.of(1990, 1, 1), Ocupacion.EMPLEADO, true, "Bogotá");
+            instantanea.guardar("2", LocalDate.of(1980, 1, 1), Ocupacion.EMPLEADO, true, "Bogotá");
+
+            // When
+            instantanea.eliminar("1");
+            instantanea.guardar("3", LocalDate.of(1970, 1, 1), null, false, "Medellín");
+
+            // Then
+            assertThat(instantanea.tamano()).isEqualTo(2);
+            assertThat(instantanea.contar((c, fila) -> 0, 1, pool)[0]).isEqualTo(2);
+            assertThat(instantanea.contar((c, fila) -> c.ocupacion(fila) == null ? 0 : -1, 1, pool)[0]).isEqualTo(1);
+            assertThat(instantanea.codigoDeCiudad("Medellín")).isEqualTo(1);
+            assertThat(instantanea.codigoDeCiudad("Pasto")).isEqualTo(-1);
+            assertThat(instantanea.segmentar(null, null, null, 0, 10).numerosDocumento()).containsExactly("3", "2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Índices de mapas de bits")
+    class IndicesTests {
+
+        @Test
+        @DisplayName("Given_clientesEnVariasCiudades_When_segmentar_Then_combinaCiudadesOcupacionesYViabilidad")
+        void given_clientesEnVariasCiudades_when_segmentar_then_combinaCiudadesOcupacionesYViabilidad() {
+            // Given
+            instantanea.guardar("1", LocalDate.of(1990, 1, 1), Ocupacion.INDEPENDIENTE, true, "Medellín");
+            instantanea.guardar("2", LocalDate.of(1990, 1, 1), Ocupacion.INDEPENDIENTE, true, "Cali");
+            instantanea.guardar("3", LocalDate.of(1990, 1, 1), Ocupacion.INDEPENDIENTE, false, "Cali");
+            instantanea.guardar("4", LocalDate.of(1990, 1, 1), Ocupacion.EMPLEADO, true, "Medellín");
+            instantanea.guardar("5", LocalDate.of(1990, 1, 1), Ocupacion.INDEPENDIENTE, true, "Bogotá");
+
+            // When
+            InstantaneaColumnar.Segmento segmento = instantanea.segmentar(List.of("Medellín", "Cali", "Pasto"),
+                    List.of(Ocupacion.INDEPENDIENTE), true, 0, 10);
+
+            // Then
+            assertThat(segmento.total()).isEqualTo(2);
+            assertThat(segmento.numerosDocumento()).containsExactly("1", "2");
+            assertThat(instantanea.segmentar(null, null, null, 3, 10).numerosDocumento()).containsExactly("4", "5");
+        }
+
+        @Test
+        @DisplayName("Given_clienteModificado_When_segmentar_Then_losIndicesReflejanSusNuevosValores")
+        void given_clienteModificado_when_segmentar_then_losIndicesReflejanSusNuevosValores() {
+            // Given
+            instantanea.guardar("1", LocalDate.of(1990, 1, 1), Ocupacion.INDEPENDIENTE, true, "Medellín");
+            instantanea.guardar("2", LocalDate.of(1990, 1, 1), Ocupacion.EMPLEADO, true, "Medellín");
+
+            // When
+            instantanea.guardar("1", LocalDate.of(1990, 1, 1), Ocupacion.PENSIONADO, false, "Cali");
+            instantanea.eliminar("2");
+
+            // Then
+            assertThat(instantanea.segmentar(List.of("Medellín"), null, null, 0, 10).total()).isZero();
+            assertThat(instantanea.segmentar(List.of("Cali"), List.of(Ocupacion.PENSIONADO), false, 0, 10)
+                    .numerosDocumento()).containsExactly("1");
+            assertThat(instantanea.memoriaIndices())
+                    .filteredOn(m -> m.indice().equals("ciudad"))
+                    .extracting(InstantaneaColumnar.MemoriaIndice::valor, InstantaneaColumnar.MemoriaIndice::cardinalidad)
+                    .containsExactly(tuple("Medellín", 0L), tuple("Cali", 1L));
+        }
+    }
+
+    @Nested
+    @DisplayName("Escaneo paralelo")
+    class EscaneoTests {
+
+        @Test
+        @DisplayName("Given_variasTareasDeEscaneo_When_contarPorCiudad_Then_sumaLosConteosParciales")
+        void given_variasTareasDeEscaneo_when_contarPorCiudad_then_sumaLosConteosParciales() {
+            // Given
+            int filas = InstantaneaColumnar.UMBRAL_ESCANEO * 5 + 17;
+            for (int i = 0; i < filas; i++) {
+                instantanea.guardar("D" + i, LocalDate.of(1950 + i % 60, 1, 1), Ocupacion.EMPLEADO, i % 2 == 0,
+                        "Ciudad" + (i % 3));
+            }
+
+            // When
+            long[] porCiudad = instantanea.contar(InstantaneaColumnar::codigoCiudad, 3, pool);
+            long viables = instantanea.contar((c, fila) -> c.esViable(fila) ? 0 : -1, 1, pool)[0];
+
+            // Then
+            assertThat(porCiudad[0] + porCiudad[1] + porCiudad[2]).isEqualTo(filas);
+            assertThat(porCiudad[instantanea.codigoDeCiudad("Ciudad1")]).isEqualTo(filas / 3);
+            assertThat(viables).isEqualTo((filas + 1) / 2);
+        }
+
+        @Test
+        @DisplayName("Given_cienMilClientes_When_bytesEstimados_Then_ocupaMenosDe128BytesPorCliente")
+        void given_cienMilClientes_when_bytesEstimados_then_ocupaMenosDe128BytesPorCliente() {
+            // Given
+            int filas = 100_000;
+            for (int i = 0; i < filas; i++) {
+                instantanea.guardar(String.valueOf(1_000_000 + i), LocalDate.of(1980, 1, 1), Ocupacion.INDEPENDIENTE,
+                        true, "Ciudad" + (i % 50));
+            }
+
+            // When
+            long bytes = instantanea.bytesEstimados();
+
+            // Then: una entidad ClienteORM gestionada ocupa varios cientos de bytes solo en sus cadenas
+            assertThat(bytes / filas).isLessThan(128);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.rti.prueba.service.analitica;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("MapaBits Tests")
+class MapaBitsTest {
+
+    @Nested
+    @DisplayName("Contenedores")
+    class ContenedoresTests {
+
+        @Test
+        @DisplayName("Given_grupoDenso_When_quitarHastaDispersar_Then_mantieneLosValoresYReduceLaMemoria")
+        void given_grupoDenso_when_quitarHastaDispersar_then_mantieneLosValoresYReduceLaMemoria() {
+            // Given
+            MapaBits mapa = new MapaBits();
+            for (int fila = 0; fila < 10_000; fila++) {
+                mapa.agregar(fila);
+            }
+            long bytesDenso = mapa.bytesEstimados();
+
+            // When
+            for (int fila = 0; fila < 10_000; fila += 2) {
+                mapa.quitar(fila);
+            }
+            for (int fila = 1; fila < 9_000; fila += 2) {
+                mapa.quitar(fila);
+            }
+
+            // Then
+            assertThat(mapa.cardinalidad()).isEqualTo(500);
+            assertThat(mapa.contiene(9_001)).isTrue();
+            assertThat(mapa.contiene(8_999)).isFalse();
+            assertThat(mapa.bytesEstimados()).isLessThan(bytesDenso / 2);
+        }
+
+        @Test
+        @DisplayName("Given_filasEnVariosGrupos_When_seleccionarPagina_Then_devuelveFilasEnOrdenAscendente")
+        void given_filasEnVariosGrupos_when_seleccionarPagina_then_devuelveFilasEnOrdenAscendente() {
+            // Given
+            MapaBits mapa = new MapaBits();
+            for (int fila : new int[]{200_000, 5, 70_000, 65_535, 65_536}) {
+                mapa.agregar(fila);
+            }
+
+            // When
+            int[] pagina = mapa.seleccionar(1, 3);
+
+            // Then
+            assertThat(pagina).containsExactly(65_535, 65_536, 70_000);
+            assertThat(mapa.seleccionar(4, 10)).containsExactly(200_000);
+            assertThat(mapa.seleccionar(5, 10)).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Operaciones AND/OR")
+    class OperacionesTests {
+
+        @Test
+        @DisplayName("Given_mapasAleatoriosDispersosYDensos_When_andOr_Then_coincidenConBitSet")
+        void given_mapasAleatoriosDispersosYDensos_when_andOr_then_coincidenConBitSet() {
+            // Given
+            Random random = new Random(42);
+            BitSet esperadoA = new BitSet();
+            BitSet esperadoB = new BitSet();
+            MapaBits a = new MapaBits();
+            MapaBits b = new MapaBits();
+            for (int i = 0; i < 60_000; i++) {
+                // Primer grupo denso en A, disperso en B; el resto disperso en ambos
+                int filaA = i < 40_000 ? random.nextInt(65_536) : random.nextInt(1_000_000);
+                int filaB = random.nextInt(1_000_000);
+                a.agregar(filaA);
+                esperadoA.set(filaA);
+                b.agregar(filaB);
+                esperadoB.set(filaB);
+            }
+
+            // When
+            MapaBits interseccion = a.and(b);
+            MapaBits union = MapaBits.or(List.of(a, b));
+
+            // Then
+            BitSet esperadaInterseccion = (BitSet) esperadoA.clone();
+            esperadaInterseccion.and(esperadoB);
+            BitSet esperadaUnion = (BitSet) esperadoA.clone();
+            esperadaUnion.or(esperadoB);
+            assertThat(interseccion.cardinalidad()).isEqualTo(esperadaInterseccion.cardinality());
+            assertThat(interseccion.seleccionar(0, Integer.MAX_VALUE)).containsExactly(esperadaInterseccion.stream().toArray());
+            assertThat(union.cardinalidad()).isEqualTo(esperadaUnion.cardinality());
+            assertThat(union.seleccionar(0, Integer.MAX_VALUE)).containsExactly(esperadaUnion.stream().toArray());
+            assertThat(a.cardinalidad()).isEqualTo(esperadoA.cardinality());
+        }
+    }
+}
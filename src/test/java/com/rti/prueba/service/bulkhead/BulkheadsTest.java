@@ -0,0 +1,162 @@
+package com.rti.prueba.service.bulkhead;
+
+import com.rti.prueba.bd.ClaseTrabajoRoutingDataSource;
+import com.rti.prueba.config.BulkheadConfig;
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.enums.ClaseTrabajo;
+import com.rti.prueba.exception.BulkheadSaturadoException;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.sql.Connection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Bulkheads Tests")
+class BulkheadsTest {
+
+    private Bulkheads bulkheads;
+
+    @BeforeEach
+    void setUp() {
+        ClientesProperties clientesProperties = new ClientesProperties();
+        clientesProperties.getBulkhead().setMasiva(new ClientesProperties.Particion(1, 1, 1));
+        bulkheads = new Bulkheads(clientesProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkheads.detener();
+    }
+
+    @Nested
+    @DisplayName("Ejecutores por clase de trabajo")
+    class EjecutoresTests {
+
+        @Test
+        @DisplayName("Given_tarea_When_ejecutar_Then_correEnSuHiloConSuClaseDeTrabajo")
+        void given_tarea_when_ejecutar_then_correEnSuHiloConSuClaseDeTrabajo() throws Exception {
+            // When
+            String resultado = bulkheads.ejecutar(ClaseTrabajo.BUSQUEDA,
+                    () -> Thread.currentThread().getName() + ":" + ContextoTrabajo.actual()).get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(resultado).startsWith("bulkhead-busqueda-").endsWith(":BUSQUEDA");
+            assertThat(ContextoTrabajo.actual()).isNull();
+        }
+
+        @Test
+        @DisplayName("Given_masivaSaturada_When_ejecutar_Then_rechazaMasivaYAtiendePuntual")
+        void given_masivaSaturada_when_ejecutar_then_rechazaMasivaYAtiendePuntual() throws Exception {
+            // Given - un hilo ocupado y la cola de una posición llena
+            CountDownLatch liberar = new CountDownLatch(1);
+            CompletableFuture<Boolean> ocupada = bulkheads.ejecutar(ClaseTrabajo.MASIVA, () -> esperar(liberar));
+            CompletableFuture<Boolean> encolada = bulkheads.ejecutar(ClaseTrabajo.MASIVA, () -> true);
+
+            // When / Then
+            assertThatThrownBy(() -> bulkheads.ejecutar(ClaseTrabajo.MASIVA, () -> true))
+                    .isInstanceOf(BulkheadSaturadoException.class)
+                    .hasMessageContaining("masiva");
+            assertThat(bulkheads.ejecutar(ClaseTrabajo.PUNTUAL, () -> "ok").get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+
+            liberar.countDown();
+            assertThat(ocupada.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(encolada.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("Particiones del pool de conexiones")
+    class ParticionesTests {
+
+        @Test
+        @DisplayName("Given_claseDeTrabajo_When_getConnection_Then_usaSuParticion")
+        void given_claseDeTrabajo_when_getConnection_then_usaSuParticion() throws Exception {
+            // Given
+            Map<ClaseTrabajo, HikariDataSource> particiones = new EnumMap<>(ClaseTrabajo.class);
+            for (ClaseTrabajo clase : ClaseTrabajo.values()) {
+                HikariDataSource particion = new HikariDataSource();
+                particion.setJdbcUrl("jdbc:h2:mem:bulkheads;DB_CLOSE_DELAY=-1");
+                particion.setPoolName("prueba-" + clase.name().toLowerCase(Locale.ROOT));
+                particion.setMaximumPoolSize(1);
+                particiones.put(clase, particion);
+            }
+
+            try (ClaseTrabajoRoutingDataSource dataSource = new ClaseTrabajoRoutingDataSource(particiones)) {
+                // When - la conexión de búsqueda sigue abierta mientras se piden una puntual y otra sin clase
+                try (Connection busqueda = ContextoTrabajo.ejecutar(ClaseTrabajo.BUSQUEDA, () -> conexion(dataSource));
+                     Connection puntual = ContextoTrabajo.ejecutar(ClaseTrabajo.PUNTUAL, () -> conexion(dataSource));
+                     Connection sinClase = conexion(dataSource)) {
+
+                    // Then - el hilo sin clase usa la partición interna, no la de consultas puntuales
+                    assertThat(busqueda.isValid(1)).isTrue();
+                    assertThat(puntual.isValid(1)).isTrue();
+                    assertThat(sinClase.isValid(1)).isTrue();
+                    assertThat(particiones.get(ClaseTrabajo.BUSQUEDA).getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+                    assertThat(particiones.get(ClaseTrabajo.PUNTUAL).getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+                    assertThat(particiones.get(ClaseTrabajo.INTERNA).getHikariPoolMXBean().getActiveConnections()).isEqualTo(1);
+                    assertThat(particiones.get(ClaseTrabajo.MASIVA).isRunning()).isFalse();
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Given_ajustesHikari_When_crearParticiones_Then_todasLosAplicanConSuTamano")
+        void given_ajustesHikari_when_crearParticiones_then_todasLosAplicanConSuTamano() {
+            // Given
+            DataSourceProperties dataSourceProperties = new DataSourceProperties();
+            dataSourceProperties.setUrl("jdbc:h2:mem:bulkheads-hikari;DB_CLOSE_DELAY=-1");
+            MockEnvironment environment = new MockEnvironment()
+                    .withProperty("spring.datasource.hikari.connection-timeout", "1500")
+                    .withProperty("spring.datasource.hikari.leak-detection-threshold", "20000")
+                    .withProperty("spring.datasource.hikari.maximum-pool-size", "50");
+            ClientesProperties clientesProperties = new ClientesProperties();
+
+            // When
+            try (ClaseTrabajoRoutingDataSource dataSource = new BulkheadConfig()
+                    .dataSource(dataSourceProperties, clientesProperties, new SimpleMeterRegistry(), environment)) {
+
+                // Then
+                for (ClaseTrabajo clase : ClaseTrabajo.values()) {
+                    HikariDataSource particion = (HikariDataSource) dataSource.getResolvedDataSources().get(clase);
+                    assertThat(particion.getConnectionTimeout()).isEqualTo(1500);
+                    assertThat(particion.getLeakDetectionThreshold()).isEqualTo(20000);
+                    assertThat(particion.getMaximumPoolSize())
+                            .isEqualTo(clientesProperties.getBulkhead().particion(clase).getConexiones());
+                    assertThat(particion.getPoolName()).isEqualTo("clientes-" + clase.name().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+
+        private Connection conexion(ClaseTrabajoRoutingDataSource dataSource) {
+            try {
+                return dataSource.getConnection();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static boolean esperar(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.rti.prueba.service.cache;
+
+import com.rti.prueba.config.ClientesProperties;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.mapper.ClienteMapper;
+import com.rti.prueba.mapper.ClienteMapperImpl;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ClienteNearCache Tests")
+class ClienteNearCacheTest {
+
+    private final ClienteMapper clienteMapper = new ClienteMapperImpl();
+    private final Cache cacheHibernate = mock(Cache.class);
+    private final AtomicInteger cargas = new AtomicInteger();
+    private TransporteInvalidacionUdp transporteA;
+    private TransporteInvalidacionUdp transporteB;
+    private ClienteNearCache nodoA;
+    private ClienteNearCache nodoB;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Dos nodos que se difunden invalidaciones por UDP sobre la interfaz de loopback
+        transporteB = new TransporteInvalidacionUdp(new InetSocketAddress("127.0.0.1", 0), List.of());
+        transporteA = new TransporteInvalidacionUdp(new InetSocketAddress("127.0.0.1", 0), List.of(transporteB.getDireccionLocal()));
+        nodoA = nuevoNodo(transporteA);
+        nodoB = nuevoNodo(transporteB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transporteA.close();
+        transporteB.close();
+    }
+
+    @Test
+    @DisplayName("Given_clienteEnCache_When_obtenerRepetido_Then_cargaUnaSolaVezYDevuelveCopias")
+    void given_clienteEnCache_when_obtenerRepetido_then_cargaUnaSolaVezYDevuelveCopias() {
+        // When
+        ClienteResponseDTO primero = nodoA.obtener("12345678", () -> cliente(1L));
+        primero.setNombre("Modificado por el llamador");
+        ClienteResponseDTO segundo = nodoA.obtener("12345678", () -> cliente(1L));
+
+        // Then
+        assertThat(cargas).hasValue(1);
+        assertThat(segundo.getNombre()).isEqualTo("Juan Carlos");
+        assertThat(segundo.getEdad()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Given_clienteEnCacheDeOtroNodo_When_escrituraConfirmada_Then_otroNodoRecargaYDesalojaHibernate")
+    void given_clienteEnCacheDeOtroNodo_when_escrituraConfirmada_then_otroNodoRecargaYDesalojaHibernate() throws Exception {
+        // Given
+        nodoB.obtener("12345678", () -> cliente(1L));
+
+        // When
+        nodoA.alModificarClientes(ClientesModificadosEvent.de("12345678", 1L));
+
+        // Then
+        verify(cacheHibernate, timeout(2000)).evictEntityData(com.rti.prueba.bd.orm.ClienteORM.class, "12345678");
+        ClienteResponseDTO leido = nodoB.obtener("12345678", () -> cliente(2L));
+        assertThat(leido.getVersion()).isEqualTo(2L);
+        assertThat(cargas).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Given_invalidacionDuranteCarga_When_obtener_Then_noGuardaLecturaAnterior")
+    void given_invalidacionDuranteCarga_when_obtener_then_noGuardaLecturaAnterior() {
+        // When - la escritura se confirma mientras la lectura está en curso
+        nodoA.obtener("12345678", () -> {
+            nodoA.alModificarClientes(ClientesModificadosEvent.de(List.of("12345678")));
+            return cliente(1L);
+        });
+        nodoA.obtener("12345678", () -> cliente(2L));
+
+        // Then
+        assertThat(cargas).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("Given_cargaCompartidaEnCursoAntesDeUnaEscritura_When_otroLlamadorSeUneTrasLaInvalidacion_Then_noGuardaLecturaAnterior")
+    void given_cargaCompartidaEnCursoAntesDeUnaEscritura_when_otroLlamadorSeUneTrasLaInvalidacion_then_noGuardaLecturaAnterior()
+            throws Exception {
+        // Given - una lectura por documento en curso, iniciada antes de la escritura
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CoalescenciaLecturas coalescencia = new CoalescenciaLecturas(meterRegistry);
+        CountDownLatch cargaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ClienteResponseDTO> primera = executor.submit(() -> nodoA.obtenerCoalescido("12345678",
+                    () -> coalescencia.obtener("12345678", () -> {
+                        cargaIniciada.countDown();
+                        esperar(liberarCarga);
+                        return cliente(1L);
+                    })));
+            assertThat(cargaIniciada.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // When - la escritura se confirma y un llamador posterior se une a la lectura en curso
+            nodoA.alModificarClientes(ClientesModificadosEvent.de("12345678", 1L));
+            Future<ClienteResponseDTO> unida = executor.submit(() -> nodoA.obtenerCoalescido("12345678",
+                    () -> coalescencia.obtener("12345678", () -> cliente(2L))));
+            Counter compartidas = meterRegistry.get("clientes.lecturas.coalescencia").tag("resultado", "compartida").counter();
+            while (compartidas.count() < 1) {
+                Thread.sleep(5);
+            }
+            liberarCarga.countDown();
+
+            // Then - ambos reciben la lectura compartida, pero no queda en caché
+            assertThat(primera.get(5, TimeUnit.SECONDS).getVersion()).isEqualTo(1L);
+            assertThat(unida.get(5, TimeUnit.SECONDS).getVersion()).isEqualTo(1L);
+            ClienteResponseDTO siguiente = nodoA.obtenerCoalescido("12345678",
+                    () -> coalescencia.obtener("12345678", () -> cliente(2L)));
+            assertThat(siguiente.getVersion()).isEqualTo(2L);
+            assertThat(cargas).hasValue(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Given_copiaPosteriorALaEscritura_When_invalidar_Then_conservaEntrada")
+    void given_copiaPosteriorALaEscritura_when_invalidar_then_conservaEntrada() {
+        // Given
+        nodoA.obtener("12345678", () -> cliente(3L));
+
+        // When - invalidación retrasada de la escritura que produjo la versión 3
+        nodoA.alModificarClientes(ClientesModificadosEvent.de("12345678", 2L));
+        nodoA.obtener("12345678", () -> cliente(3L));
+
+        // Then
+        assertThat(cargas).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Given_muchasInvalidaciones_When_codificar_Then_datagramasAcotadosYReversibles")
+    void given_muchasInvalidaciones_when_codificar_then_datagramasAcotadosYReversibles() {
+        // Given
+        List<InvalidacionCliente> invalidaciones = IntStream.range(0, 500)
+                .mapToObj(i -> new InvalidacionCliente(String.valueOf(10_000_000 + i), i))
+                .toList();
+
+        // When
+        List<ByteBuffer> datagramas = TransporteInvalidacionUdp.codificar(invalidaciones);
+
+        // Then
+        assertThat(datagramas).hasSizeGreaterThan(1)
+                .allMatch(datagrama -> datagrama.remaining() <= TransporteInvalidacionUdp.TAMANO_MAXIMO_DATAGRAMA);
+        assertThat(datagramas.stream().flatMap(d -> TransporteInvalidacionUdp.decodificar(d.duplicate()).stream()).toList())
+                .isEqualTo(invalidaciones);
+    }
+
+    @Test
+    @DisplayName("Given_cacheLlena_When_guardarEInvalidar_Then_desalojaLaMasAntiguaYLaMarcaDesalojadaSigueRechazandoLecturasAnteriores")
+    void given_cacheLlena_when_guardarEInvalidar_then_desalojaLaMasAntiguaYLaMarcaDesalojadaSigueRechazandoLecturasAnteriores() {
+        // Given
+        ClientesProperties propiedades = new ClientesProperties();
+        propiedades.getCacheCercana().setMaxEntradas(2);
+        ClienteNearCache cache = nuevoNodo(transporteA, propiedades);
+        cache.obtener("1", () -> cliente(1L));
+        cache.obtener("2", () -> cliente(1L));
+
+        // When - con la caché llena, la invalidación deja su marca y desaloja la entrada más antigua
+        cache.obtener("3", () -> {
+            cache.alModificarClientes(ClientesModificadosEvent.de(List.of("3")));
+            cache.obtener("4", () -> cliente(1L));
+            cache.obtener("5", () -> cliente(1L));
+            return cliente(1L);
+        });
+        cargas.set(0);
+        cache.obtener("3", () -> cliente(2L));
+        cache.obtener("5", () -> cliente(2L));
+        cache.obtener("1", () -> cliente(2L));
+
+        // Then - la lectura de "3" iniciada antes de su invalidación no se guardó aunque la marca ya se desalojó
+        assertThat(cache.tamano()).isEqualTo(2);
+        assertThat(cargas).hasValue(2);
+    }
+
+    private ClienteNearCache nuevoNodo(TransporteInvalidacion transporte) {
+        return nuevoNodo(transporte, new ClientesProperties());
+    }
+
+    private ClienteNearCache nuevoNodo(TransporteInvalidacion transporte, ClientesProperties propiedades) {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cacheHibernate);
+        return new ClienteNearCache(clienteMapper, transporte, entityManagerFactory, propiedades,
+                new SimpleMeterRegistry());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private ClienteResponseDTO cliente(Long version) {
+        cargas.incrementAndGet();
+        return new ClienteResponseDTO("12345678", "Juan Carlos", "Pérez González", LocalDate.of(1990, 5, 15),
+                "Bogotá", "juan.perez@email.com", "3001234567", Ocupacion.EMPLEADO, true, 35, version);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rti.prueba.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SingleFlight Tests")
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, Object> singleFlight = new SingleFlight<>("obtener", meterRegistry);
+
+    @Test
+    @DisplayName("Given_llamadasConcurrentesMismaClave_When_ejecutar_Then_unaSolaCargaYResultadoCompartido")
+    void given_llamadasConcurrentesMismaClave_when_ejecutar_then_unaSolaCargaYResultadoCompartido() throws Exception {
+        // Given
+        int llamadas = 16;
+        AtomicInteger cargas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(llamadas);
+
+        // When
+        List<Future<Object>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < llamadas; i++) {
+                resultados.add(executor.submit(() -> singleFlight.ejecutar("12345678", () -> {
+                    cargas.incrementAndGet();
+                    await(liberar);
+                    return new Object();
+                })));
+            }
+            // Esperar a que todas las llamadas estén en curso o esperando a la primera
+            while (meterRegistry.counter("clientes.lecturas.coalescencia", "operacion", "obtener", "resultado", "compartida").count()
+                    + cargas.get() < llamadas) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            // Then
+            Object primero = resultados.getFirst().get(5, TimeUnit.SECONDS);
+            for (Future<Object> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isSameAs(primero);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(cargas).hasValue(1);
+        assertThat(meterRegistry.counter("clientes.lecturas.coalescencia", "operacion", "obtener", "resultado", "compartida").count())
+                .isEqualTo(llamadas - 1);
+    }
+
+    @Test
+    @DisplayName("Given_cargaFallida_When_ejecutar_Then_excepcionPropagadaYClaveLiberada")
+    void given_cargaFallida_when_ejecutar_then_excepcionPropagadaYClaveLiberada() {
+        // When & Then
+        assertThatThrownBy(() -> singleFlight.ejecutar("12345678", () -> {
+            throw new IllegalStateException("falla");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.ejecutar("12345678", () -> "recuperado")).isEqualTo("recuperado");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.rti.prueba.service.calentamiento;
+
+import com.rti.prueba.bd.ClaseTrabajoRoutingDataSource;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.jpa.EventoOutboxJPA;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.service.ClienteService;
+import com.rti.prueba.service.cache.ClienteNearCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "clientes.calentamiento.solicitudes=40",
+        "clientes.calentamiento.hilos=2",
+        "clientes.calentamiento.muestra=5"
+})
+@ActiveProfiles("test")
+@DisplayName("CalentamientoArranque Tests")
+class CalentamientoArranqueTest {
+
+    @Autowired
+    private CalentamientoArranque calentamientoArranque;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private EventoOutboxJPA eventoOutboxJPA;
+
+    @Autowired
+    private ClaseTrabajoRoutingDataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ClienteNearCache clienteNearCache;
+
+    @BeforeEach
+    void setUp() {
+        clienteJPA.deleteAll();
+        eventoOutboxJPA.deleteAll();
+    }
+
+    private double fallosCacheCercana() {
+        return meterRegistry.get("clientes.cache.cercana.solicitudes").tag("resultado", "fallo").counter().count();
+    }
+
+    private int conexionesMaximas() {
+        return dataSource.getResolvedDataSources().values().stream()
+                .mapToInt(particion -> ((HikariDataSource) particion).getMaximumPoolSize())
+                .sum();
+    }
+
+    @Test
+    @DisplayName("Given_clientesExistentes_When_ejecutar_Then_poolLlenoCacheCercanaCalienteYSinEscrituras")
+    void given_clientesExistentes_when_ejecutar_then_poolLlenoCacheCercanaCalienteYSinEscrituras() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            clienteService.crearCliente(new ClienteCreateDTO("1000000" + i, "Juan", "Pérez", LocalDate.of(1990, 5, 15),
+                    "Bogotá", "juan" + i + "@email.com", "3001234567", Ocupacion.EMPLEADO));
+        }
+        eventoOutboxJPA.deleteAll();
+        clienteNearCache.limpiar();
+        double fallosPrevios = fallosCacheCercana();
+
+        // When
+        CalentamientoArranque.ResultadoCalentamiento resultado = calentamientoArranque.ejecutar();
+
+        // Then - las lecturas por documento de las solicitudes sintéticas ya encuentran la muestra en la caché cercana
+        assertThat(clienteNearCache.tamano()).isEqualTo(3);
+        assertThat(fallosCacheCercana()).isEqualTo(fallosPrevios);
+        assertThat(resultado.conexiones()).isEqualTo(conexionesMaximas());
+        assertThat(resultado.clientesMuestra()).isEqualTo(3);
+        assertThat(resultado.solicitudes()).isEqualTo(40);
+        assertThat(resultado.estados()).containsOnlyKeys(200);
+        assertThat(clienteJPA.count()).isEqualTo(3);
+        assertThat(eventoOutboxJPA.count()).isZero();
+        assertThat(calentamientoArranque.progreso()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Given_sinClientes_When_ejecutar_Then_recorreElCaminoDeNoEncontradoYPublicaMetricas")
+    void given_sinClientes_when_ejecutar_then_recorreElCaminoDeNoEncontradoYPublicaMetricas() {
+        // Given
+        long ejecucionesPrevias = meterRegistry.timer("clientes.calentamiento.duracion", "fase", "total").count();
+
+        // When
+        CalentamientoArranque.ResultadoCalentamiento resultado = calentamientoArranque.ejecutar();
+
+        // Then
+        assertThat(resultado.clientesMuestra()).isZero();
+        assertThat(resultado.solicitudes()).isEqualTo(40);
+        assertThat(resultado.estados()).containsKeys(200, 404);
+        assertThat(clienteJPA.count()).isZero();
+        assertThat(meterRegistry.timer("clientes.calentamiento.duracion", "fase", "total").count())
+                .isEqualTo(ejecucionesPrevias + 1);
+        assertThat(meterRegistry.get("clientes.calentamiento.duracion").tag("fase", "solicitudes").timer().count())
+                .isPositive();
+        assertThat(meterRegistry.get("clientes.calentamiento.progreso").gauge().value()).isEqualTo(1.0);
+    }
+}
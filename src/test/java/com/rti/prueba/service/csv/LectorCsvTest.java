@@ -0,0 +1,57 @@
+package com.rti.prueba.service.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LectorCsv Tests")
+class LectorCsvTest {
+
+    @Test
+    @DisplayName("Given_camposSimples_When_leerFila_Then_separaPorComa")
+    void given_camposSimples_when_leerFila_then_separaPorComa() throws IOException {
+        // Given
+        LectorCsv lector = new LectorCsv(new StringReader("a,b,,d\ne,f,g,h\n"), ',');
+
+        // When & Then
+        assertThat(lector.leerFila()).containsExactly("a", "b", "", "d");
+        assertThat(lector.getLinea()).isEqualTo(1);
+        assertThat(lector.leerFila()).containsExactly("e", "f", "g", "h");
+        assertThat(lector.leerFila()).isNull();
+    }
+
+    @Test
+    @DisplayName("Given_camposEntreComillas_When_leerFila_Then_respetaSeparadoresComillasYSaltos")
+    void given_camposEntreComillas_when_leerFila_then_respetaSeparadoresComillasYSaltos() throws IOException {
+        // Given
+        String csv = "\uFEFF\"Pérez, Juan\",\"dice \"\"hola\"\"\",\"línea1\nlínea2\"\nx,y,z\n";
+        LectorCsv lector = new LectorCsv(new StringReader(csv), ',');
+
+        // When
+        List<String> primera = lector.leerFila();
+        List<String> segunda = lector.leerFila();
+
+        // Then
+        assertThat(primera).containsExactly("Pérez, Juan", "dice \"hola\"", "línea1\nlínea2");
+        assertThat(segunda).containsExactly("x", "y", "z");
+        assertThat(lector.getLinea()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Given_comillasSinCerrar_When_leerFila_Then_throwIOException")
+    void given_comillasSinCerrar_when_leerFila_then_throwIOException() {
+        // Given
+        LectorCsv lector = new LectorCsv(new StringReader("\"abierto,b\n"), ',');
+
+        // When & Then
+        assertThatThrownBy(lector::leerFila)
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Comillas sin cerrar");
+    }
+}
@@ -0,0 +1,213 @@
+package com.rti.prueba.service.diario;
+
+import com.rti.prueba.enums.OperacionCambio;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DisplayName("DiarioCambios Tests")
+class DiarioCambiosTest {
+
+    private static final int SEGMENTO_PEQUENO = 2048;
+    private static final Instant INICIO = Instant.parse("2025-01-01T00:00:00Z");
+
+    @TempDir
+    Path directorio;
+
+    private DiarioCambios abrir(Clock reloj) throws IOException {
+        return new DiarioCambios(directorio, SEGMENTO_PEQUENO, reloj, new SimpleMeterRegistry());
+    }
+
+    private static CambioCliente actualizacion(String numeroDocumento, String ciudad) {
+        Map<String, Object> campos = new HashMap<>();
+        campos.put("ciudad", ciudad);
+        campos.put("ocupacion", null);
+        return CambioCliente.de(numeroDocumento, OperacionCambio.ACTUALIZACION, campos);
+    }
+
+    @Nested
+    @DisplayName("Anexado e historial")
+    class HistorialTests {
+
+        @Test
+        @DisplayName("Given_cambiosDeVariosClientes_When_historial_Then_devuelveSoloLosDelClienteEnOrden")
+        void given_cambiosDeVariosClientes_when_historial_then_devuelveSoloLosDelClienteEnOrden() throws Exception {
+            // Given
+            try (DiarioCambios diario = abrir(Clock.fixed(INICIO, ZoneOffset.UTC))) {
+                diario.agregar(List.of(CambioCliente.de("1", OperacionCambio.CREACION, Map.of("nombre", "Juan"))));
+                diario.agregar(List.of(actualizacion("2", "Cali"), actualizacion("1", "Medellín")));
+                long secuencia = diario.agregar(List.of(CambioCliente.eliminacion("1")));
+
+                // When
+                List<RegistroDiario> historial = diario.historial("1");
+
+                // Then
+                assertThat(diario.esperarSincronizacion(secuencia, Duration.ofSeconds(5))).isTrue();
+                assertThat(historial)
+                        .extracting(RegistroDiario::secuencia, RegistroDiario::operacion, RegistroDiario::instante)
+                        .containsExactly(
+                                tuple(1L, OperacionCambio.CREACION, INICIO),
+                                tuple(3L, OperacionCambio.ACTUALIZACION, INICIO),
+                                tuple(4L, OperacionCambio.ELIMINACION, INICIO));
+                assertThat(historial.get(1).campos()).containsEntry("ciudad", "Medellín").containsEntry("ocupacion", null);
+                assertThat(diario.historial("3")).isEmpty();
+            }
+        }
+
+        @Test
+        @DisplayName("Given_escritoresConcurrentes_When_agregar_Then_cadaCambioTieneUnaSecuenciaUnica")
+        void given_escritoresConcurrentes_when_agregar_then_cadaCambioTieneUnaSecuenciaUnica() throws Exception {
+            // Given
+            try (DiarioCambios diario = abrir(Clock.systemUTC())) {
+                List<Long> secuencias = Collections.synchronizedList(new ArrayList<>());
+
+                // When
+                List<Thread> escritores = new ArrayList<>();
+                for (int hilo = 0; hilo < 4; hilo++) {
+                    String numeroDocumento = String.valueOf(hilo);
+                    escritores.add(Thread.ofPlatform().start(() -> {
+                        for (int i = 0; i < 50; i++) {
+                            long secuencia = diario.agregar(List.of(actualizacion(numeroDocumento, "Ciudad" + i)));
+                            secuencias.add(secuencia);
+                        }
+                    }));
+                }
+                for (Thread escritor : escritores) {
+                    escritor.join();
+                }
+
+                // Then
+                assertThat(secuencias).doesNotHaveDuplicates().hasSize(200);
+                assertThat(diario.esperarSincronizacion(200, Duration.ofSeconds(5))).isTrue();
+                assertThat(diario.historial("2")).hasSize(50)
+                        .extracting(r -> r.campos().get("ciudad")).startsWith("Ciudad0", "Ciudad1");
+                assertThat(diario.segmentos()).isGreaterThan(1);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Rotación y recuperación")
+    class RecuperacionTests {
+
+        @Test
+        @DisplayName("Given_variosSegmentosSinIndiceYRegistroIncompleto_When_reabrir_Then_recuperaLosRegistrosValidos")
+        void given_variosSegmentosSinIndiceYRegistroIncompleto_when_reabrir_then_recuperaLosRegistrosValidos() throws Exception {
+            // Given
+            try (DiarioCambios diario = abrir(Clock.systemUTC())) {
+                for (int i = 0; i < 120; i++) {
+                    diario.agregar(List.of(actualizacion(String.valueOf(i % 3), "Ciudad" + i)));
+                }
+                assertThat(diario.segmentos()).isGreaterThan(2);
+            }
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                Path indice = archivos.filter(archivo -> archivo.toString().endsWith(".indice")).sorted().findFirst().orElseThrow();
+                Files.delete(indice);
+            }
+            Path ultimo;
+            try (Stream<Path> archivos = Files.list(directorio)) {
+                ultimo = archivos.filter(archivo -> archivo.toString().endsWith(".diario")).sorted().toList().getLast();
+            }
+            simularEscrituraIncompleta(ultimo);
+
+            // When
+            try (DiarioCambios diario = abrir(Clock.systemUTC())) {
+                long secuencia = diario.agregar(List.of(CambioCliente.eliminacion("0")));
+
+                // Then
+                assertThat(secuencia).isEqualTo(121);
+                List<RegistroDiario> historial = diario.historial("0");
+                assertThat(historial).hasSize(41);
+                assertThat(historial.getFirst().campos()).containsEntry("ciudad", "Ciudad0");
+                assertThat(historial.getLast().operacion()).isEqualTo(OperacionCambio.ELIMINACION);
+                assertThat(diario.historial("1")).extracting(RegistroDiario::secuencia).isSorted().hasSize(40);
+            }
+        }
+
+        /**
+         * Registro con prefijo de longitud escrito pero cuerpo incompleto tras el último registro válido
+         */
+        private void simularEscrituraIncompleta(Path segmento) throws IOException {
+            try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0, canal.size());
+                int posicion = DiarioCambios.CABECERA_SEGMENTO;
+                while (buffer.getInt(posicion) > 0) {
+                    posicion += 4 + buffer.getInt(posicion);
+                }
+                buffer.putInt(posicion, 60);
+                buffer.putLong(posicion + 4, 999);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Retención")
+    class RetencionTests {
+
+        @Test
+        @DisplayName("Given_segmentosAntiguosYRecientes_When_purgar_Then_eliminaSoloLosSelladosVencidos")
+        void given_segmentosAntiguosYRecientes_when_purgar_then_eliminaSoloLosSelladosVencidos() throws Exception {
+            // Given
+            Instant[] ahora = {INICIO};
+            Clock reloj = new Clock() {
+                @Override
+                public java.time.ZoneId getZone() {
+                    return ZoneOffset.UTC;
+                }
+
+                @Override
+                public Clock withZone(java.time.ZoneId zona) {
+                    return this;
+                }
+
+                @Override
+                public Instant instant() {
+                    return ahora[0];
+                }
+            };
+            try (DiarioCambios diario = abrir(reloj)) {
+                for (int i = 0; i < 60; i++) {
+                    diario.agregar(List.of(actualizacion("1", "Antigua" + i)));
+                }
+                ahora[0] = INICIO.plus(Duration.ofDays(400));
+                for (int i = 0; i < 60; i++) {
+                    diario.agregar(List.of(actualizacion("1", "Reciente" + i)));
+                }
+                int segmentosAntes = diario.segmentos();
+
+                // When
+                int eliminados = diario.purgar(INICIO.plus(Duration.ofDays(30)));
+
+                // Then
+                assertThat(eliminados).isPositive();
+                assertThat(diario.segmentos()).isEqualTo(segmentosAntes - eliminados);
+                List<RegistroDiario> historial = diario.historial("1");
+                assertThat(historial).extracting(r -> r.campos().get("ciudad")).contains("Reciente0", "Reciente59");
+                assertThat(historial).allSatisfy(r -> assertThat(r.instante()).isAfterOrEqualTo(INICIO));
+                assertThat(historial.size()).isLessThan(120);
+            }
+        }
+    }
+}
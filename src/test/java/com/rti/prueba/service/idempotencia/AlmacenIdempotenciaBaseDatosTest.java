@@ -0,0 +1,89 @@
+package com.rti.prueba.service.idempotencia;
+
+import com.rti.prueba.bd.jpa.IdempotenciaJPA;
+import com.rti.prueba.exception.IdempotenciaConflictoException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "clientes.idempotencia.almacen=base-datos")
+@ActiveProfiles("test")
+@DisplayName("AlmacenIdempotenciaBaseDatos Tests")
+class AlmacenIdempotenciaBaseDatosTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    @Autowired
+    private AlmacenIdempotencia almacen;
+
+    @Autowired
+    private IdempotenciaJPA idempotenciaJPA;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaJPA.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Given_duplicadoConcurrente_When_originalCompleta_Then_duplicadoRecibeRespuestaDeLaTabla")
+    void given_duplicadoConcurrente_when_originalCompleta_then_duplicadoRecibeRespuestaDeLaTabla() throws Exception {
+        // Given
+        assertThat(almacen).isInstanceOf(AlmacenIdempotenciaBaseDatos.class);
+        assertThat(almacen.reservar("clave-1", "huella", ESPERA)).isNull();
+        CompletableFuture<RespuestaIdempotente> duplicado =
+                CompletableFuture.supplyAsync(() -> almacen.reservar("clave-1", "huella", ESPERA));
+
+        // When
+        almacen.completar("clave-1", new RespuestaIdempotente(201, "application/json", "/api/clientes/1",
+                "creado".getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        RespuestaIdempotente respuesta = duplicado.get(5, TimeUnit.SECONDS);
+        assertThat(respuesta.status()).isEqualTo(201);
+        assertThat(respuesta.location()).isEqualTo("/api/clientes/1");
+        assertThat(new String(respuesta.cuerpo(), StandardCharsets.UTF_8)).isEqualTo("creado");
+        assertThatThrownBy(() -> almacen.reservar("clave-1", "otra-huella", ESPERA))
+                .isInstanceOf(IdempotenciaConflictoException.class);
+    }
+
+    @Test
+    @DisplayName("Given_reservaLiberada_When_reservar_Then_nuevaEjecucion")
+    void given_reservaLiberada_when_reservar_then_nuevaEjecucion() {
+        // Given
+        almacen.reservar("clave-2", "huella", ESPERA);
+
+        // When
+        almacen.liberar("clave-2");
+
+        // Then
+        assertThat(almacen.reservar("clave-2", "huella", ESPERA)).isNull();
+    }
+
+    @Test
+    @DisplayName("Given_reservaEnCurso_When_completar_Then_arriendoCortoSeExtiendeAlTtl")
+    void given_reservaEnCurso_when_completar_then_arriendoCortoSeExtiendeAlTtl() {
+        // Given
+        almacen.reservar("clave-3", "huella", ESPERA);
+        Instant finArriendo = idempotenciaJPA.findById("clave-3").orElseThrow().getExpiraEn();
+
+        // When
+        almacen.completar("clave-3", new RespuestaIdempotente(200, "application/json", null, new byte[0]));
+
+        // Then - la reserva en curso vence en minutos; la respuesta guardada, al cabo del TTL
+        assertThat(finArriendo).isBefore(Instant.now().plus(Duration.ofMinutes(5)));
+        assertThat(idempotenciaJPA.findById("clave-3").orElseThrow().getExpiraEn())
+                .isAfter(Instant.now().plus(Duration.ofHours(1)));
+    }
+}
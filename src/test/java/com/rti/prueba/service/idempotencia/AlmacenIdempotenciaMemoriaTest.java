@@ -0,0 +1,171 @@
+package com.rti.prueba.service.idempotencia;
+
+import com.rti.prueba.exception.IdempotenciaConflictoException;
+import com.rti.prueba.exception.IdempotenciaEnCursoException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("AlmacenIdempotenciaMemoria Tests")
+class AlmacenIdempotenciaMemoriaTest {
+
+    private static final Duration ESPERA = Duration.ofSeconds(5);
+
+    private final AlmacenIdempotenciaMemoria almacen = new AlmacenIdempotenciaMemoria(2, Duration.ofMinutes(5), Duration.ofMinutes(1));
+
+    @Nested
+    @DisplayName("Reserva y repetición")
+    class ReservaTests {
+
+        @Test
+        @DisplayName("Given_solicitudCompletada_When_reservarMismaClave_Then_devuelveRespuestaGuardada")
+        void given_solicitudCompletada_when_reservarMismaClave_then_devuelveRespuestaGuardada() {
+            // Given
+            assertThat(almacen.reservar("clave-1", "huella", ESPERA)).isNull();
+            almacen.completar("clave-1", respuesta(201, "creado"));
+
+            // When
+            RespuestaIdempotente repetida = almacen.reservar("clave-1", "huella", ESPERA);
+
+            // Then
+            assertThat(repetida.status()).isEqualTo(201);
+            assertThat(new String(repetida.cuerpo(), StandardCharsets.UTF_8)).isEqualTo("creado");
+        }
+
+        @Test
+        @DisplayName("Given_claveUsada_When_reservarConOtraHuella_Then_throwIdempotenciaConflictoException")
+        void given_claveUsada_when_reservarConOtraHuella_then_throwIdempotenciaConflictoException() {
+            // Given
+            almacen.reservar("clave-1", "huella", ESPERA);
+
+            // When / Then
+            assertThatThrownBy(() -> almacen.reservar("clave-1", "otra-huella", ESPERA))
+                    .isInstanceOf(IdempotenciaConflictoException.class);
+        }
+
+        @Test
+        @DisplayName("Given_duplicadoConcurrente_When_originalCompleta_Then_duplicadoRecibeSuRespuesta")
+        void given_duplicadoConcurrente_when_originalCompleta_then_duplicadoRecibeSuRespuesta() throws Exception {
+            // Given
+            almacen.reservar("clave-1", "huella", ESPERA);
+            CompletableFuture<RespuestaIdempotente> duplicado =
+                    CompletableFuture.supplyAsync(() -> almacen.reservar("clave-1", "huella", ESPERA));
+            Thread.sleep(50);
+            assertThat(duplicado).isNotDone();
+
+            // When
+            almacen.completar("clave-1", respuesta(201, "creado"));
+
+            // Then
+            assertThat(duplicado.get(5, TimeUnit.SECONDS).status()).isEqualTo(201);
+        }
+
+        @Test
+        @DisplayName("Given_originalLiberada_When_duplicadoEsperando_Then_duplicadoEjecuta")
+        void given_originalLiberada_when_duplicadoEsperando_then_duplicadoEjecuta() throws Exception {
+            // Given
+            almacen.reservar("clave-1", "huella", ESPERA);
+            CompletableFuture<RespuestaIdempotente> duplicado =
+                    CompletableFuture.supplyAsync(() -> almacen.reservar("clave-1", "huella", ESPERA));
+            Thread.sleep(50);
+
+            // When
+            almacen.liberar("clave-1");
+
+            // Then - el duplicado obtiene la reserva (null = le corresponde ejecutar)
+            assertThat(duplicado.get(5, TimeUnit.SECONDS)).isNull();
+        }
+
+        @Test
+        @DisplayName("Given_reservaAbandonada_When_venceArriendo_Then_duplicadoEjecuta")
+        void given_reservaAbandonada_when_venceArriendo_then_duplicadoEjecuta() throws Exception {
+            // Given
+            AlmacenIdempotenciaMemoria conArriendoCorto =
+                    new AlmacenIdempotenciaMemoria(2, Duration.ofMinutes(5), Duration.ofMillis(100));
+            conArriendoCorto.reservar("clave-1", "huella", ESPERA);
+
+            // When - la ejecución original nunca completa ni libera
+            CompletableFuture<RespuestaIdempotente> duplicado =
+                    CompletableFuture.supplyAsync(() -> conArriendoCorto.reservar("clave-1", "huella", ESPERA));
+
+            // Then
+            assertThat(duplicado.get(5, TimeUnit.SECONDS)).isNull();
+        }
+
+        @Test
+        @DisplayName("Given_respuestaCompletada_When_venceArriendo_Then_seConservaHastaElTtl")
+        void given_respuestaCompletada_when_venceArriendo_then_seConservaHastaElTtl() throws Exception {
+            // Given
+            AlmacenIdempotenciaMemoria conArriendoCorto =
+                    new AlmacenIdempotenciaMemoria(2, Duration.ofMinutes(5), Duration.ofMillis(50));
+            conArriendoCorto.reservar("clave-1", "huella", ESPERA);
+            conArriendoCorto.completar("clave-1", respuesta(201, "creado"));
+
+            // When
+            Thread.sleep(100);
+
+            // Then
+            assertThat(conArriendoCorto.reservar("clave-1", "huella", ESPERA).status()).isEqualTo(201);
+        }
+
+        @Test
+        @DisplayName("Given_originalEnCurso_When_esperaAgotada_Then_throwIdempotenciaEnCursoException")
+        void given_originalEnCurso_when_esperaAgotada_then_throwIdempotenciaEnCursoException() {
+            // Given
+            almacen.reservar("clave-1", "huella", ESPERA);
+
+            // When / Then
+            assertThatThrownBy(() -> almacen.reservar("clave-1", "huella", Duration.ofMillis(20)))
+                    .isInstanceOf(IdempotenciaEnCursoException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Límite de entradas")
+    class LimiteTests {
+
+        @Test
+        @DisplayName("Given_maximoAlcanzado_When_nuevaClave_Then_eliminaLaRespuestaCompletadaMasAntigua")
+        void given_maximoAlcanzado_when_nuevaClave_then_eliminaLaRespuestaCompletadaMasAntigua() {
+            // Given
+            almacen.reservar("clave-1", "huella", ESPERA);
+            almacen.completar("clave-1", respuesta(201, "uno"));
+            almacen.reservar("clave-2", "huella", ESPERA);
+
+            // When
+            almacen.reservar("clave-3", "huella", ESPERA);
+
+            // Then - la reserva en curso se conserva y la completada se desaloja
+            assertThat(almacen.tamano()).isEqualTo(2);
+            assertThat(almacen.reservar("clave-1", "huella", ESPERA)).isNull();
+        }
+
+        @Test
+        @DisplayName("Given_maximoAlcanzadoConReservaAbandonada_When_nuevaClave_Then_eliminaLaReservaVencida")
+        void given_maximoAlcanzadoConReservaAbandonada_when_nuevaClave_then_eliminaLaReservaVencida() throws Exception {
+            // Given
+            AlmacenIdempotenciaMemoria conArriendoCorto =
+                    new AlmacenIdempotenciaMemoria(1, Duration.ofMinutes(5), Duration.ofMillis(50));
+            conArriendoCorto.reservar("clave-1", "huella", ESPERA);
+            Thread.sleep(100);
+
+            // When
+            conArriendoCorto.reservar("clave-2", "huella", ESPERA);
+
+            // Then
+            assertThat(conArriendoCorto.tamano()).isEqualTo(1);
+        }
+    }
+
+    private static RespuestaIdempotente respuesta(int status, String cuerpo) {
+        return new RespuestaIdempotente(status, "application/json", null, cuerpo.getBytes(StandardCharsets.UTF_8));
+    }
+}
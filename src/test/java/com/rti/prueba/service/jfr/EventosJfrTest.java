@@ -0,0 +1,111 @@
+package com.rti.prueba.service.jfr;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.exception.ClienteNotFoundException;
+import com.rti.prueba.service.ClienteService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "clientes.jfr.clave-hash=clave-de-prueba")
+@ActiveProfiles("test")
+@DisplayName("Eventos JFR Tests")
+class EventosJfrTest {
+
+    @TempDir
+    Path directorio;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @BeforeEach
+    void setUp() {
+        clienteJPA.deleteAll();
+    }
+
+    /**
+     * Grabar las operaciones con ambos eventos sin umbral
+     */
+    private Path grabar(Runnable operaciones) throws IOException {
+        Path archivo = directorio.resolve("clientes.jfr");
+        try (Recording grabacion = new Recording()) {
+            grabacion.enable(OperacionClienteEvent.NOMBRE).withThreshold(Duration.ZERO);
+            grabacion.enable(ConsultaLentaEvent.NOMBRE).withThreshold(Duration.ZERO);
+            grabacion.start();
+            operaciones.run();
+            grabacion.stop();
+            grabacion.dump(archivo);
+        }
+        return archivo;
+    }
+
+    private void crearYConsultar() {
+        clienteService.crearCliente(new ClienteCreateDTO("12345678", "Juan", "Pérez", LocalDate.of(1990, 5, 15),
+                "Bogotá", "juan@email.com", "3001234567", Ocupacion.EMPLEADO));
+        clienteService.obtenerClientePorDocumento("12345678");
+        assertThatThrownBy(() -> clienteService.obtenerClientePorDocumento("99999999"))
+                .isInstanceOf(ClienteNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Given_grabacionActiva_When_operaciones_Then_eventosConDocumentoHasheadoYResultado")
+    void given_grabacionActiva_when_operaciones_then_eventosConDocumentoHasheadoYResultado() throws IOException {
+        // When
+        List<RecordedEvent> eventos = RecordingFile.readAllEvents(grabar(this::crearYConsultar));
+
+        // Then
+        List<RecordedEvent> operaciones = eventos.stream()
+                .filter(evento -> evento.getEventType().getName().equals(OperacionClienteEvent.NOMBRE)).toList();
+        assertThat(operaciones)
+                .extracting(evento -> evento.getString("operacion"), evento -> evento.getString("resultado"))
+                .containsExactly(
+                        tuple("crearCliente", "OK"),
+                        tuple("obtenerClientePorDocumento", "OK"),
+                        tuple("obtenerClientePorDocumento", "ClienteNotFoundException"));
+        String hash = operaciones.get(0).getString("documentoHash");
+        assertThat(hash).hasSize(16).doesNotContain("12345678");
+        assertThat(operaciones.get(1).getString("documentoHash")).isEqualTo(hash);
+        assertThat(operaciones.get(2).getString("documentoHash")).isNotEqualTo(hash);
+        assertThat(eventos)
+                .filteredOn(evento -> evento.getEventType().getName().equals(ConsultaLentaEvent.NOMBRE))
+                .isNotEmpty()
+                .allSatisfy(evento -> assertThat(evento.getString("consulta")).isNotBlank());
+    }
+
+    @Test
+    @DisplayName("Given_grabacion_When_resumir_Then_latenciasPorOperacionYConsultasMasLentas")
+    void given_grabacion_when_resumir_then_latenciasPorOperacionYConsultasMasLentas() throws IOException {
+        // Given
+        Path archivo = grabar(this::crearYConsultar);
+
+        // When
+        String resumen = AnalizadorJfr.resumir(archivo, 2);
+
+        // Then
+        assertThat(resumen.lines().filter(linea -> linea.startsWith("obtenerClientePorDocumento")).findFirst())
+                .hasValueSatisfying(linea -> assertThat(linea.split("\\s+")).startsWith("obtenerClientePorDocumento", "2", "1"));
+        assertThat(resumen).contains("crearCliente").containsPattern("Consultas más lentas \\(2 de \\d+\\)");
+    }
+}
@@ -0,0 +1,170 @@
+package com.rti.prueba.service.outbox;
+
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.jpa.EventoOutboxJPA;
+import com.rti.prueba.bd.orm.EventoOutboxORM;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.enums.OperacionCambio;
+import com.rti.prueba.exception.ClienteAlreadyExistsException;
+import com.rti.prueba.service.ClienteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "clientes.outbox.tamano-lote=10",
+        "clientes.outbox.lotes-por-ciclo=1"
+})
+@ActiveProfiles("test")
+@DisplayName("RelevoOutbox Tests")
+class RelevoOutboxTest {
+
+    @Autowired
+    private RelevoOutbox relevoOutbox;
+
+    @Autowired
+    private SumideroEventos sumideroEventos;
+
+    @Autowired
+    private EventoOutboxJPA eventoOutboxJPA;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    private SumideroEventosMemoria sumidero;
+
+    @BeforeEach
+    void setUp() {
+        clienteJPA.deleteAll();
+        eventoOutboxJPA.deleteAll();
+        sumidero = (SumideroEventosMemoria) sumideroEventos;
+        sumidero.limpiar();
+    }
+
+    @Test
+    @DisplayName("Given_escriturasConfirmadas_When_publicarLote_Then_elSumideroRecibeLosEventosEnOrdenYElOutboxQuedaVacio")
+    void given_escriturasConfirmadas_when_publicarLote_then_elSumideroRecibeLosEventosEnOrdenYElOutboxQuedaVacio() {
+        // Given
+        clienteService.crearCliente(clienteCreateDTO("12345678", "juan@email.com"));
+        clienteService.actualizarCliente("12345678", new ClienteUpdateDTO("Juan", "Pérez", LocalDate.of(1990, 5, 15),
+                "Cali", "juan@email.com", "3001234567", Ocupacion.INDEPENDIENTE));
+        clienteService.eliminarCliente("12345678");
+
+        // When
+        int publicados = relevoOutbox.publicarLote();
+
+        // Then
+        assertThat(publicados).isEqualTo(3);
+        assertThat(sumidero.eventos())
+                .extracting(EventoCliente::operacion)
+                .containsExactly(OperacionCambio.CREACION, OperacionCambio.ACTUALIZACION, OperacionCambio.ELIMINACION);
+        assertThat(sumidero.eventos()).extracting(EventoCliente::id).isSorted();
+        assertThat(sumidero.eventos().get(1).carga()).contains("\"ciudad\":\"Cali\"");
+        assertThat(eventoOutboxJPA.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given_escrituraRevertida_When_publicarLote_Then_noSePublicaNingunEvento")
+    void given_escrituraRevertida_when_publicarLote_then_noSePublicaNingunEvento() {
+        // Given
+        clienteService.crearCliente(clienteCreateDTO("12345678", "juan@email.com"));
+        relevoOutbox.publicarLote();
+        sumidero.limpiar();
+
+        // When
+        assertThatThrownBy(() -> clienteService.crearCliente(clienteCreateDTO("87654321", "juan@email.com")))
+                .isInstanceOf(ClienteAlreadyExistsException.class);
+        int publicados = relevoOutbox.publicarLote();
+
+        // Then
+        assertThat(publicados).isZero();
+        assertThat(sumidero.eventos()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Given_variosRelevosConcurrentes_When_publicarLotes_Then_cadaEventoSePublicaUnaSolaVez")
+    void given_variosRelevosConcurrentes_when_publicarLotes_then_cadaEventoSePublicaUnaSolaVez() {
+        // Given
+        guardarEventos(95, Instant.now());
+
+        // When
+        List<CompletableFuture<Void>> relevos = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            relevos.add(CompletableFuture.runAsync(() -> {
+                while (relevoOutbox.publicarLote() > 0) {
+                    // Continúa hasta vaciar el outbox
+                }
+            }));
+        }
+        CompletableFuture.allOf(relevos.toArray(CompletableFuture[]::new)).join();
+
+        // Then
+        assertThat(sumidero.eventos()).hasSize(95).extracting(EventoCliente::id).doesNotHaveDuplicates();
+        assertThat(eventoOutboxJPA.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given_eventosAntiguosPendientes_When_relevarUnCiclo_Then_elRetrasoReflejaElMasAntiguoSinPublicar")
+    void given_eventosAntiguosPendientes_when_relevarUnCiclo_then_elRetrasoReflejaElMasAntiguoSinPublicar() {
+        // Given
+        guardarEventos(25, Instant.now().minus(Duration.ofMinutes(5)));
+
+        // When: un ciclo publica como máximo un lote de 10
+        relevoOutbox.relevar();
+
+        // Then
+        assertThat(sumidero.eventos()).hasSize(10);
+        assertThat(eventoOutboxJPA.count()).isEqualTo(15);
+        assertThat(relevoOutbox.retrasoSegundos()).isGreaterThanOrEqualTo(300);
+
+        relevoOutbox.relevar();
+        relevoOutbox.relevar();
+        assertThat(relevoOutbox.retrasoSegundos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Given_eventoAntiguoConIdMayor_When_relevarUnCiclo_Then_elRetrasoSeMidePorLaFechaYNoPorElId")
+    void given_eventoAntiguoConIdMayor_when_relevarUnCiclo_then_elRetrasoSeMidePorLaFechaYNoPorElId() {
+        // Given: otro nodo confirmó eventos antiguos con ids de un bloque posterior de la secuencia
+        guardarEventos(11, Instant.now());
+        guardarEventos(4, Instant.now().minus(Duration.ofMinutes(5)));
+
+        // When: el ciclo publica los 10 de menor id
+        relevoOutbox.relevar();
+
+        // Then
+        assertThat(eventoOutboxJPA.count()).isEqualTo(5);
+        assertThat(relevoOutbox.retrasoSegundos()).isGreaterThanOrEqualTo(300);
+    }
+
+    private void guardarEventos(int total, Instant creadoEn) {
+        List<EventoOutboxORM> eventos = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            eventos.add(new EventoOutboxORM(null, "D" + i, OperacionCambio.CREACION, "{}", creadoEn));
+        }
+        eventoOutboxJPA.saveAll(eventos);
+    }
+
+    private static ClienteCreateDTO clienteCreateDTO(String numeroDocumento, String correo) {
+        return new ClienteCreateDTO(numeroDocumento, "Juan", "Pérez", LocalDate.of(1990, 5, 15), "Bogotá", correo,
+                "3001234567", Ocupacion.EMPLEADO);
+    }
+}
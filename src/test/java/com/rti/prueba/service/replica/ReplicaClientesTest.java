@@ -0,0 +1,147 @@
+package com.rti.prueba.service.replica;
+
+import com.rti.prueba.bd.jpa.ClienteFilaReplica;
+import com.rti.prueba.bd.jpa.ClienteJPA;
+import com.rti.prueba.bd.orm.ClienteORM;
+import com.rti.prueba.controller.dto.ClienteCreateDTO;
+import com.rti.prueba.controller.dto.ClienteResponseDTO;
+import com.rti.prueba.controller.dto.ClienteUpdateDTO;
+import com.rti.prueba.enums.Ocupacion;
+import com.rti.prueba.service.ClienteService;
+import com.rti.prueba.service.analitica.ClientesCreadosEvent;
+import com.rti.prueba.service.cache.ClientesModificadosEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "clientes.replica.habilitada=true",
+        "clientes.replica.paralelismo=3",
+        "clientes.cache-cercana.habilitada=false"
+})
+@ActiveProfiles("test")
+@DisplayName("ReplicaClientes Tests")
+class ReplicaClientesTest {
+
+    @Autowired
+    private ReplicaClientes replicaClientes;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteJPA clienteJPA;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        clienteJPA.deleteAll();
+        replicaClientes.cargar();
+    }
+
+    @Test
+    @DisplayName("Given_clientesEnVariosTramos_When_cargar_Then_laReplicaContieneTodos")
+    void given_clientesEnVariosTramos_when_cargar_then_laReplicaContieneTodos() {
+        // Given
+        List<ClienteORM> clientes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            clientes.add(cliente(String.valueOf(1000 + i), "cliente" + i + "@email.com"));
+        }
+        clienteJPA.saveAll(clientes);
+
+        // When
+        replicaClientes.cargar();
+
+        // Then
+        assertThat(replicaClientes.activa()).isTrue();
+        assertThat(replicaClientes.tamano()).isEqualTo(100);
+        assertThat(replicaClientes.obtener("1099").getCorreoElectronico()).isEqualTo("cliente99@email.com");
+        assertThat(replicaClientes.obtenerPorCorreo("cliente0@email.com").getNumeroDocumento()).isEqualTo("1000");
+    }
+
+    @Test
+    @DisplayName("Given_escriturasConfirmadas_When_leer_Then_laReplicaLasReflejaSinConsultarLaBaseDeDatos")
+    void given_escriturasConfirmadas_when_leer_then_laReplicaLasReflejaSinConsultarLaBaseDeDatos() {
+        // Given
+        clienteService.crearCliente(new ClienteCreateDTO("12345678", "Juan", "Pérez", LocalDate.of(1990, 5, 15),
+                "Bogotá", "juan@email.com", "3001234567", Ocupacion.EMPLEADO));
+        clienteService.actualizarCliente("12345678", new ClienteUpdateDTO("Juan Carlos", "Pérez", LocalDate.of(1990, 5, 15),
+                "Cali", "juan.carlos@email.com", "3001234567", Ocupacion.INDEPENDIENTE));
+        double aciertosAntes = meterRegistry.get("clientes.replica.solicitudes").tag("resultado", "acierto").counter().count();
+
+        // When
+        ClienteResponseDTO porDocumento = clienteService.obtenerClientePorDocumento("12345678");
+        ClienteResponseDTO porCorreo = clienteService.obtenerClientePorCorreo("Juan.Carlos@email.com");
+
+        // Then
+        assertThat(porDocumento.getCiudad()).isEqualTo("Cali");
+        assertThat(porDocumento.getVersion()).isEqualTo(1L);
+        assertThat(porDocumento.getEdad()).isPositive();
+        assertThat(porCorreo.getNumeroDocumento()).isEqualTo("12345678");
+        assertThat(replicaClientes.obtenerPorCorreo("juan@email.com")).isNull();
+        assertThat(meterRegistry.get("clientes.replica.solicitudes").tag("resultado", "acierto").counter().count())
+                .isEqualTo(aciertosAntes + 2);
+    }
+
+    @Test
+    @DisplayName("Given_clienteEliminado_When_leerDeLaReplica_Then_yaNoEsta")
+    void given_clienteEliminado_when_leerDeLaReplica_then_yaNoEsta() {
+        // Given
+        clienteService.crearCliente(new ClienteCreateDTO("12345678", "Juan", "Pérez", LocalDate.of(1990, 5, 15),
+                "Bogotá", "juan@email.com", "3001234567", Ocupacion.EMPLEADO));
+        assertThat(replicaClientes.obtener("12345678")).isNotNull();
+
+        // When
+        clienteService.eliminarCliente("12345678");
+
+        // Then
+        assertThat(replicaClientes.obtener("12345678")).isNull();
+        assertThat(replicaClientes.obtenerPorCorreo("juan@email.com")).isNull();
+    }
+
+    @Test
+    @DisplayName("Given_eventosConFilasConfirmadas_When_publicar_Then_laReplicaLasAplicaSinReleerLaBaseDeDatos")
+    void given_eventosConFilasConfirmadas_when_publicar_then_laReplicaLasAplicaSinReleerLaBaseDeDatos() {
+        // Given: la fila no está en la base de datos, así que una relectura la descartaría
+        ClienteFilaReplica fila = new ClienteFilaReplica("55555555", "Ana", "Gómez", LocalDate.of(1985, 3, 2),
+                "Cali", "ana@email.com", "3001234567", Ocupacion.EMPLEADO, true, 0L);
+
+        // When
+        replicaClientes.alCrearClientes(new ClientesCreadosEvent(List.of("55555555")).conFilas(List.of(fila)));
+
+        // Then
+        assertThat(replicaClientes.obtenerPorCorreo("ana@email.com").getNumeroDocumento()).isEqualTo("55555555");
+
+        // When: sin filas, el documento del evento se trata como eliminado
+        replicaClientes.alModificarClientes(ClientesModificadosEvent.de(List.of("55555555")).conFilas(List.of()));
+
+        // Then
+        assertThat(replicaClientes.obtener("55555555")).isNull();
+    }
+
+    private static ClienteORM cliente(String numeroDocumento, String correo) {
+        ClienteORM cliente = new ClienteORM();
+        cliente.setNumeroDocumento(numeroDocumento);
+        cliente.setNombre("Nombre");
+        cliente.setApellidos("Apellido");
+        cliente.setFechaNacimiento(LocalDate.of(1980, 1, 1));
+        cliente.setCiudad("Bogotá");
+        cliente.setCorreoElectronico(correo);
+        cliente.setTelefono("3001234567");
+        cliente.setOcupacion(Ocupacion.EMPLEADO);
+        cliente.setEsViable(true);
+        return cliente;
+    }
+}